@@ -0,0 +1,369 @@
+package space.sunqian.fs.build.processing
+
+import javax.annotation.processing.ProcessingEnvironment
+import javax.annotation.processing.RoundEnvironment
+import javax.lang.model.element.Element
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.Modifier
+import javax.lang.model.element.NestingKind
+import javax.lang.model.element.TypeElement
+import javax.lang.model.element.VariableElement
+import javax.lang.model.type.ArrayType
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.ExecutableType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.ElementFilter
+import javax.tools.Diagnostic
+import javax.tools.StandardLocation
+
+/**
+ * Generator of the static DI wiring (`space.sunqian.fs.di.DIWiring`) for the component classes.
+ *
+ * For each class which has fields annotated by the component annotations, or methods annotated by the post-construct
+ * or pre-destroy annotations, a class named the binary name of the component class plus [CLASS_NAME_SUFFIX] is
+ * generated in the same package. The generated class provides the component factory, the field injectors and the
+ * post-construct/pre-destroy invokers, so the DI container does not need to scan the component class by reflection.
+ *
+ * The classes which can not be wired statically (such as private classes, abstract classes, classes without public
+ * no-argument constructor, classes with ambiguous post-construct/pre-destroy methods, or classes of which the injected
+ * field types or post-construct/pre-destroy parameter types are not accessible from the generated class) are skipped,
+ * the DI container falls back to reflection for them.
+ */
+internal class DIWiringGenerator(private val env: ProcessingEnvironment) {
+
+    companion object {
+
+        const val CLASS_NAME_SUFFIX = "\$FsWiring"
+        const val COMPONENT_ANNOTATIONS_OPTION = "fs.di.componentAnnotations"
+        const val POST_CONSTRUCT_ANNOTATIONS_OPTION = "fs.di.postConstructAnnotations"
+        const val PRE_DESTROY_ANNOTATIONS_OPTION = "fs.di.preDestroyAnnotations"
+        const val NATIVE_IMAGE_CONFIG = "META-INF/native-image/space.sunqian.fs/di-wiring/reflect-config.json"
+
+        val OPTIONS: Set<String> = setOf(
+            COMPONENT_ANNOTATIONS_OPTION,
+            POST_CONSTRUCT_ANNOTATIONS_OPTION,
+            PRE_DESTROY_ANNOTATIONS_OPTION,
+        )
+
+        // same as the defaults of DIContainer.Builder
+        private val DEFAULT_COMPONENT_ANNOTATIONS = listOf("javax.annotation.Resource", "jakarta.annotation.Resource")
+        private val DEFAULT_POST_CONSTRUCT_ANNOTATIONS =
+            listOf("javax.annotation.PostConstruct", "jakarta.annotation.PostConstruct")
+        private val DEFAULT_PRE_DESTROY_ANNOTATIONS =
+            listOf("javax.annotation.PreDestroy", "jakarta.annotation.PreDestroy")
+    }
+
+    private val componentAnnotations = option(COMPONENT_ANNOTATIONS_OPTION, DEFAULT_COMPONENT_ANNOTATIONS)
+    private val postConstructAnnotations = option(POST_CONSTRUCT_ANNOTATIONS_OPTION, DEFAULT_POST_CONSTRUCT_ANNOTATIONS)
+    private val preDestroyAnnotations = option(PRE_DESTROY_ANNOTATIONS_OPTION, DEFAULT_PRE_DESTROY_ANNOTATIONS)
+
+    // binary names of the generated wiring classes
+    private val generated: MutableSet<String> = LinkedHashSet()
+
+    val supportedAnnotationTypes: Set<String> =
+        LinkedHashSet(componentAnnotations + postConstructAnnotations + preDestroyAnnotations)
+
+    private fun option(name: String, defaultValue: List<String>): List<String> {
+        val value = env.options[name] ?: return defaultValue
+        val names = value.split(',').map { it.trim() }.filter { it.isNotEmpty() }
+        return names.ifEmpty { defaultValue }
+    }
+
+    fun process(roundEnv: RoundEnvironment) {
+        if (roundEnv.processingOver()) {
+            writeNativeImageConfig()
+            return
+        }
+        val types: MutableSet<TypeElement> = LinkedHashSet()
+        for (annotationName in supportedAnnotationTypes) {
+            val annotation = env.elementUtils.getTypeElement(annotationName) ?: continue
+            for (element in roundEnv.getElementsAnnotatedWith(annotation)) {
+                val enclosing = element.enclosingElement
+                if (enclosing is TypeElement) {
+                    types.add(enclosing)
+                }
+            }
+        }
+        for (type in types) {
+            generate(type)
+        }
+    }
+
+    private fun generate(type: TypeElement) {
+        if (type.kind != ElementKind.CLASS || Modifier.ABSTRACT in type.modifiers || !isReachable(type)) {
+            return
+        }
+        ElementFilter.constructorsIn(type.enclosedElements)
+            .find { it.parameters.isEmpty() && Modifier.PUBLIC in it.modifiers }
+            ?: return
+        val fields = ElementFilter.fieldsIn(type.enclosedElements)
+            .filter { Modifier.FINAL !in it.modifiers && isAnnotated(it, componentAnnotations) }
+        val methods = ElementFilter.methodsIn(env.elementUtils.getAllMembers(type))
+            .filter { Modifier.PUBLIC in it.modifiers }
+        val postConstructs = methods.filter { isAnnotated(it, postConstructAnnotations) }
+        val preDestroys = methods.filter { isAnnotated(it, preDestroyAnnotations) }
+        if (postConstructs.size > 1 || preDestroys.size > 1) {
+            // the reflective resolver picks one of them in undefined order
+            return
+        }
+        val postConstruct = postConstructs.firstOrNull()
+        val preDestroy = preDestroys.firstOrNull()
+        if ((postConstruct != null && Modifier.STATIC in postConstruct.modifiers)
+            || (preDestroy != null && Modifier.STATIC in preDestroy.modifiers)
+        ) {
+            return
+        }
+        val binaryName = env.elementUtils.getBinaryName(type).toString()
+        val packageName = env.elementUtils.getPackageOf(type).qualifiedName.toString()
+        if (!referencedTypes(type, fields, postConstruct, preDestroy).all { isAccessible(it, packageName) }) {
+            // the generated source can not be compiled
+            return
+        }
+        val simpleName = (if (packageName.isEmpty()) binaryName else binaryName.substring(packageName.length + 1)) +
+            CLASS_NAME_SUFFIX
+        val wiringName = if (packageName.isEmpty()) simpleName else "$packageName.$simpleName"
+        if (!generated.add(wiringName)) {
+            return
+        }
+        val source = WiringSource(type, packageName, simpleName, fields, postConstruct, preDestroy).build()
+        try {
+            env.filer.createSourceFile(wiringName, type).openWriter().use { it.write(source) }
+        } catch (e: Exception) {
+            env.messager.printMessage(
+                Diagnostic.Kind.WARNING, "Failed to generate DI wiring $wiringName: $e", type
+            )
+        }
+    }
+
+    // whether the type can be referenced by a class in the same package
+    private fun isReachable(type: TypeElement): Boolean {
+        if (Modifier.PRIVATE in type.modifiers) {
+            return false
+        }
+        return when (type.nestingKind) {
+            NestingKind.TOP_LEVEL -> true
+            NestingKind.MEMBER -> {
+                val enclosing = type.enclosingElement
+                Modifier.STATIC in type.modifiers && enclosing is TypeElement && isReachable(enclosing)
+            }
+
+            else -> false
+        }
+    }
+
+    // the types referenced by casts and class literals in the generated source, except the component type itself
+    private fun referencedTypes(
+        type: TypeElement,
+        fields: List<VariableElement>,
+        postConstruct: ExecutableElement?,
+        preDestroy: ExecutableElement?,
+    ): List<TypeMirror> {
+        val types: MutableList<TypeMirror> = ArrayList()
+        fields.filter { Modifier.PRIVATE !in it.modifiers }.forEach { types.add(it.asType()) }
+        for (method in listOfNotNull(postConstruct, preDestroy)) {
+            method.parameters.forEach { types.add(it.asType()) }
+            val memberType = env.typeUtils.asMemberOf(type.asType() as DeclaredType, method)
+            types.addAll((memberType as ExecutableType).parameterTypes)
+        }
+        return types
+    }
+
+    // whether the erased type can be referenced by a class in the given package
+    private fun isAccessible(type: TypeMirror, packageName: String): Boolean {
+        val erased = env.typeUtils.erasure(type)
+        return when (erased.kind) {
+            TypeKind.DECLARED -> isAccessible((erased as DeclaredType).asElement() as TypeElement, packageName)
+            TypeKind.ARRAY -> isAccessible((erased as ArrayType).componentType, packageName)
+            else -> true
+        }
+    }
+
+    private fun isAccessible(type: TypeElement, packageName: String): Boolean {
+        if (Modifier.PRIVATE in type.modifiers) {
+            return false
+        }
+        if (Modifier.PUBLIC !in type.modifiers
+            && env.elementUtils.getPackageOf(type).qualifiedName.toString() != packageName
+        ) {
+            return false
+        }
+        return when (type.nestingKind) {
+            NestingKind.TOP_LEVEL -> true
+            NestingKind.MEMBER -> {
+                val enclosing = type.enclosingElement
+                enclosing is TypeElement && isAccessible(enclosing, packageName)
+            }
+
+            else -> false
+        }
+    }
+
+    private fun isAnnotated(element: Element, annotationNames: List<String>): Boolean {
+        return element.annotationMirrors.any {
+            val annotationType = it.annotationType.asElement() as TypeElement
+            annotationType.qualifiedName.toString() in annotationNames
+        }
+    }
+
+    private fun writeNativeImageConfig() {
+        if (generated.isEmpty()) {
+            return
+        }
+        // the wiring classes are loaded and instantiated by reflection
+        val config = generated.joinToString(",\n", "[\n", "\n]\n") {
+            "  {\"name\": \"$it\", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]}"
+        }
+        try {
+            env.filer.createResource(StandardLocation.CLASS_OUTPUT, "", NATIVE_IMAGE_CONFIG)
+                .openWriter().use { it.write(config) }
+        } catch (e: Exception) {
+            env.messager.printMessage(Diagnostic.Kind.WARNING, "Failed to write $NATIVE_IMAGE_CONFIG: $e")
+        }
+    }
+
+    private inner class WiringSource(
+        private val type: TypeElement,
+        private val packageName: String,
+        private val simpleName: String,
+        private val fields: List<VariableElement>,
+        private val postConstruct: ExecutableElement?,
+        private val preDestroy: ExecutableElement?,
+    ) {
+
+        private val className = typeName(type.asType())
+        private val sb = StringBuilder()
+
+        fun build(): String {
+            if (packageName.isNotEmpty()) {
+                line("package $packageName;")
+                line()
+            }
+            line("/**")
+            line(" * DI wiring of {@link $className}, generated by {@code ${FsProcessor::class.java.name}}.")
+            line(" */")
+            line("@SuppressWarnings(\"all\")")
+            line("public final class $simpleName implements space.sunqian.fs.di.DIWiring {")
+            line()
+            annotationsConstant("COMPONENT_ANNOTATIONS", componentAnnotations)
+            annotationsConstant("POST_CONSTRUCT_ANNOTATIONS", postConstructAnnotations)
+            annotationsConstant("PRE_DESTROY_ANNOTATIONS", preDestroyAnnotations)
+            line()
+            method("java.lang.Class<?> componentClass()") {
+                line("        return $className.class;")
+            }
+            method("java.util.List<java.lang.String> componentAnnotations()") {
+                line("        return COMPONENT_ANNOTATIONS;")
+            }
+            method("java.util.List<java.lang.String> postConstructAnnotations()") {
+                line("        return POST_CONSTRUCT_ANNOTATIONS;")
+            }
+            method("java.util.List<java.lang.String> preDestroyAnnotations()") {
+                line("        return PRE_DESTROY_ANNOTATIONS;")
+            }
+            method("java.util.List<java.lang.reflect.Field> dependencyFields() throws java.lang.Exception") {
+                if (fields.isEmpty()) {
+                    line("        return java.util.Collections.emptyList();")
+                } else {
+                    line("        return java.util.Collections.unmodifiableList(java.util.Arrays.asList(")
+                    line(fields.joinToString(",\n") {
+                        "            $className.class.getDeclaredField(\"${it.simpleName}\")"
+                    })
+                    line("        ));")
+                }
+            }
+            lookupMethod("postConstructMethod", postConstruct)
+            lookupMethod("preDestroyMethod", preDestroy)
+            method("java.lang.Object newInstance() throws java.lang.Throwable") {
+                line("        return new $className();")
+            }
+            method(
+                "boolean setField(java.lang.reflect.Field field, java.lang.Object owner, java.lang.Object value)"
+            ) {
+                val settable = fields.filter { Modifier.PRIVATE !in it.modifiers }
+                if (settable.isEmpty()) {
+                    line("        return false;")
+                    return@method
+                }
+                line("        if (field.getDeclaringClass() != $className.class) {")
+                line("            return false;")
+                line("        }")
+                line("        switch (field.getName()) {")
+                for (field in settable) {
+                    val target = if (Modifier.STATIC in field.modifiers) className else "(($className) owner)"
+                    line("            case \"${field.simpleName}\":")
+                    line("                $target.${field.simpleName} = (${typeName(field.asType())}) value;")
+                    line("                return true;")
+                }
+                line("            default:")
+                line("                return false;")
+                line("        }")
+            }
+            invokeMethod("invokePostConstruct", postConstruct)
+            invokeMethod("invokePreDestroy", preDestroy)
+            sb.setLength(sb.length - 1)
+            line("}")
+            return sb.toString()
+        }
+
+        private fun annotationsConstant(name: String, annotationNames: List<String>) {
+            line("    private static final java.util.List<java.lang.String> $name =")
+            line(
+                "        java.util.Collections.unmodifiableList(java.util.Arrays.asList(" +
+                    annotationNames.joinToString(", ") { "\"$it\"" } + "));"
+            )
+        }
+
+        private fun lookupMethod(name: String, method: ExecutableElement?) {
+            method("java.lang.reflect.Method $name() throws java.lang.Exception") {
+                if (method == null) {
+                    line("        return null;")
+                    return@method
+                }
+                val parameterTypes = method.parameters.joinToString("") { ", ${typeName(it.asType())}.class" }
+                line("        return $className.class.getMethod(\"${method.simpleName}\"$parameterTypes);")
+            }
+        }
+
+        private fun invokeMethod(name: String, method: ExecutableElement?) {
+            method(
+                "void $name(java.lang.Object instance, java.lang.Object[] args) throws java.lang.Throwable"
+            ) {
+                if (method == null) {
+                    return@method
+                }
+                // parameter types as the member of the component class, for the inherited generic methods
+                val memberType = env.typeUtils.asMemberOf(type.asType() as DeclaredType, method)
+                val parameterTypes = (memberType as ExecutableType).parameterTypes
+                val args = parameterTypes.withIndex().joinToString(", ") { (i, t) -> "(${typeName(t)}) args[$i]" }
+                line("        (($className) instance).${method.simpleName}($args);")
+            }
+        }
+
+        private fun method(signature: String, body: () -> Unit) {
+            line("    @Override")
+            line("    public $signature {")
+            body()
+            line("    }")
+            line()
+        }
+
+        private fun line(text: String = "") {
+            sb.append(text).append('\n')
+        }
+    }
+
+    // the erased type name without type annotations, which can be used in casts and class literals
+    private fun typeName(type: TypeMirror): String {
+        val erased = env.typeUtils.erasure(type)
+        return when (erased.kind) {
+            TypeKind.DECLARED -> ((erased as DeclaredType).asElement() as TypeElement).qualifiedName.toString()
+            TypeKind.ARRAY -> typeName((erased as ArrayType).componentType) + "[]"
+            TypeKind.BOOLEAN, TypeKind.BYTE, TypeKind.SHORT, TypeKind.CHAR,
+            TypeKind.INT, TypeKind.LONG, TypeKind.FLOAT, TypeKind.DOUBLE -> erased.kind.name.lowercase()
+
+            else -> "java.lang.Object"
+        }
+    }
+}
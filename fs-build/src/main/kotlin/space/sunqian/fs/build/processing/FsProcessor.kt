@@ -3,18 +3,21 @@ package space.sunqian.fs.build.processing
 import javax.annotation.processing.AbstractProcessor
 import javax.annotation.processing.ProcessingEnvironment
 import javax.annotation.processing.RoundEnvironment
-import javax.annotation.processing.SupportedAnnotationTypes
 import javax.lang.model.SourceVersion
 import javax.lang.model.element.TypeElement
 
 /**
  * FsProcessor is the processor for this lib.
+ *
+ * It also generates the static DI wiring for the component classes, see [DIWiringGenerator]. The DI annotations can
+ * be specified by processor options `fs.di.componentAnnotations`, `fs.di.postConstructAnnotations` and
+ * `fs.di.preDestroyAnnotations` (comma-separated class names).
  */
-@SupportedAnnotationTypes(value = ["space.sunqian.fs.build.processing.AutoVersion"])
 //@SupportedSourceVersion(SourceVersion.RELEASE_8)
 class FsProcessor : AbstractProcessor() {
 
     private lateinit var sourceVersion: SourceVersion
+    private lateinit var diWiringGenerator: DIWiringGenerator
 
     override fun init(processingEnv: ProcessingEnvironment) {
         super.init(processingEnv)
@@ -45,6 +48,20 @@ class FsProcessor : AbstractProcessor() {
         }
 
         sourceVersion = SourceVersion.valueOf("RELEASE_${javaMajorVersion(javaVersion)}")
+        diWiringGenerator = DIWiringGenerator(processingEnv)
+    }
+
+    override fun getSupportedAnnotationTypes(): Set<String> {
+        val types = LinkedHashSet<String>()
+        types.add(AutoVersion::class.java.name)
+        if (::diWiringGenerator.isInitialized) {
+            types.addAll(diWiringGenerator.supportedAnnotationTypes)
+        }
+        return types
+    }
+
+    override fun getSupportedOptions(): Set<String> {
+        return DIWiringGenerator.OPTIONS
     }
 
     override fun process(
@@ -55,6 +72,7 @@ class FsProcessor : AbstractProcessor() {
             "processing ${annotations.joinToString { it.toString() }}: " +
                 "${roundEnv.getElementsAnnotatedWith(AutoVersion::class.java)}"
         )
+        diWiringGenerator.process(roundEnv)
         return false
     }
 
@@ -1,11 +1,20 @@
 package tests.build
 
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
 import org.junit.jupiter.api.Assertions.assertNotNull
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Test
 import space.sunqian.fs.build.processing.FsProcessor
+import java.io.File
+import java.io.StringWriter
+import java.net.URI
+import java.nio.file.Files
+import javax.tools.JavaFileObject
+import javax.tools.SimpleJavaFileObject
+import javax.tools.ToolProvider
 
 @DisplayName("FsProcessor Unit Tests")
 class FsProcessorTest {
@@ -22,4 +31,141 @@ class FsProcessorTest {
         assertNotNull(processor)
         assertTrue(processor is FsProcessor)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `should generate DI wiring`() {
+        val outDir = Files.createTempDirectory("fs-processor").toFile()
+        try {
+            val sources = listOf(
+                // stub of fs-core, fs-build does not depend on it
+                source("space.sunqian.fs.di.DIWiring", "package space.sunqian.fs.di; public interface DIWiring {}"),
+                source("test.di.Res", "package test.di; public @interface Res {}"),
+                source("test.di.Post", "package test.di; public @interface Post {}"),
+                source("test.di.Pre", "package test.di; public @interface Pre {}"),
+                source(
+                    "test.di.Service",
+                    """
+                    package test.di;
+                    public class Service<T extends Number> {
+                        @Res Dep dep;
+                        @Res private Dep privateDep;
+                        @Res static Dep staticDep;
+                        @Res final Dep finalDep = null;
+                        @Res T number;
+                        @Post public void init(Dep dep, T number) {}
+                        @Pre public void destroy() {}
+                        public static class Inner {
+                            @Res Dep dep;
+                        }
+                        private static class PrivateInner {
+                            @Res Dep dep;
+                            static class Nested {}
+                        }
+                        public static class NoConstructor {
+                            @Res Dep dep;
+                            public NoConstructor(int i) {}
+                        }
+                        public static class PrivateFieldType {
+                            @Res Hidden hidden;
+                        }
+                        public static class PrivateArrayFieldType {
+                            @Res Hidden[][] hidden;
+                        }
+                        public static class PrivateParameterType {
+                            @Post public void init(Hidden hidden) {}
+                        }
+                        public static class PrivateEnclosingType {
+                            @Res PrivateInner.Nested nested;
+                        }
+                        public static class PrivateTypeOfPrivateField {
+                            @Res private Hidden hidden;
+                        }
+                        public static class OtherPackageType {
+                            @Res test.di.other.Visible visible;
+                            @Pre public void destroy(test.di.other.Visible visible) {}
+                        }
+                        public static class OtherPackageHiddenType extends test.di.other.Visible {
+                            @Res Hidden hidden;
+                        }
+                        private static class Hidden {}
+                    }
+                    """
+                ),
+                source("test.di.Dep", "package test.di; public class Dep {}"),
+                source(
+                    "test.di.other.Visible",
+                    "package test.di.other; public class Visible { protected static class Hidden {} }"
+                ),
+            )
+            val compiler = ToolProvider.getSystemJavaCompiler()
+            val output = StringWriter()
+            val task = compiler.getTask(
+                output, null, null,
+                listOf(
+                    "-proc:only",
+                    "-s", outDir.path,
+                    "-d", outDir.path,
+                    "-Afs.di.componentAnnotations=test.di.Res",
+                    "-Afs.di.postConstructAnnotations=test.di.Post",
+                    "-Afs.di.preDestroyAnnotations=test.di.Pre",
+                ),
+                null,
+                sources
+            )
+            task.setProcessors(listOf(processor))
+            assertTrue(task.call(), output.toString())
+            val dir = File(outDir, "test/di")
+            val service = File(dir, "Service\$FsWiring.java").readText()
+            assertTrue(service.contains("public final class Service\$FsWiring implements space.sunqian.fs.di.DIWiring"))
+            assertTrue(service.contains("java.util.Arrays.asList(\"test.di.Res\")"))
+            assertTrue(service.contains("test.di.Service.class.getDeclaredField(\"dep\")"))
+            assertTrue(service.contains("test.di.Service.class.getDeclaredField(\"privateDep\")"))
+            assertFalse(service.contains("getDeclaredField(\"finalDep\")"))
+            assertTrue(service.contains("((test.di.Service) owner).dep = (test.di.Dep) value;"))
+            assertFalse(service.contains(".privateDep = "))
+            assertTrue(service.contains("test.di.Service.staticDep = (test.di.Dep) value;"))
+            assertTrue(service.contains("((test.di.Service) owner).number = (java.lang.Number) value;"))
+            assertTrue(
+                service.contains(
+                    "test.di.Service.class.getMethod(\"init\", test.di.Dep.class, java.lang.Number.class)"
+                )
+            )
+            assertTrue(
+                service.contains(
+                    "((test.di.Service) instance).init((test.di.Dep) args[0], (java.lang.Number) args[1]);"
+                )
+            )
+            assertTrue(service.contains("((test.di.Service) instance).destroy();"))
+            assertTrue(service.contains("return new test.di.Service();"))
+            val inner = File(dir, "Service\$Inner\$FsWiring.java").readText()
+            assertTrue(inner.contains("return test.di.Service.Inner.class;"))
+            assertTrue(inner.contains("return null;"))
+            assertFalse(File(dir, "Service\$PrivateInner\$FsWiring.java").exists())
+            assertFalse(File(dir, "Service\$NoConstructor\$FsWiring.java").exists())
+            // inaccessible referenced types
+            assertFalse(File(dir, "Service\$PrivateFieldType\$FsWiring.java").exists())
+            assertFalse(File(dir, "Service\$PrivateArrayFieldType\$FsWiring.java").exists())
+            assertFalse(File(dir, "Service\$PrivateParameterType\$FsWiring.java").exists())
+            assertFalse(File(dir, "Service\$PrivateEnclosingType\$FsWiring.java").exists())
+            assertFalse(File(dir, "Service\$OtherPackageHiddenType\$FsWiring.java").exists())
+            // private fields are not set by the generated source
+            assertTrue(File(dir, "Service\$PrivateTypeOfPrivateField\$FsWiring.java").exists())
+            val otherPackage = File(dir, "Service\$OtherPackageType\$FsWiring.java").readText()
+            assertTrue(otherPackage.contains(".visible = (test.di.other.Visible) value;"))
+            assertTrue(otherPackage.contains("getMethod(\"destroy\", test.di.other.Visible.class)"))
+            val config = File(outDir, "META-INF/native-image/space.sunqian.fs/di-wiring/reflect-config.json").readText()
+            assertTrue(config.contains("\"name\": \"test.di.Service\$FsWiring\""))
+            assertTrue(config.contains("\"name\": \"test.di.Service\$Inner\$FsWiring\""))
+            assertEquals(4, config.split("\"<init>\"").size - 1)
+        } finally {
+            outDir.deleteRecursively()
+        }
+    }
+
+    private fun source(name: String, code: String): JavaFileObject {
+        val uri = URI.create("string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension)
+        return object : SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            override fun getCharContent(ignoreEncodingErrors: Boolean): CharSequence = code
+        }
+    }
+}
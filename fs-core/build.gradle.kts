@@ -30,6 +30,7 @@ dependencies {
 
   testAnnotationProcessor(platform(project(":fs-dependencies")))
   testAnnotationProcessor("org.projectlombok:lombok")
+  testAnnotationProcessor(project(":fs-build"))
 
   testCompileOnly(platform(project(":fs-dependencies")))
   testCompileOnly("org.projectlombok:lombok")
@@ -162,6 +163,7 @@ tasks.register("compileTestJava${javaVerFrom}", JavaCompile::class) {
     languageVersion = javaVersionFrom
   }
   options.annotationProcessorPath = configurations.getByName("testAnnotationProcessor")
+  options.generatedSourceOutputDirectory = layout.buildDirectory.dir("generated/sources/annotationProcessor/java/test$javaVerFrom")
 }
 
 // 9-17
@@ -187,6 +189,7 @@ tasks.register("compileTestJava${javaVerFrom}", JavaCompile::class) {
     options.compilerArgs.add("--release")
     options.compilerArgs.add(javaVersion.toString())
     options.annotationProcessorPath = configurations.getByName("testAnnotationProcessor")
+    options.generatedSourceOutputDirectory = layout.buildDirectory.dir("generated/sources/annotationProcessor/java/test$javaVersion")
   }
 }
 
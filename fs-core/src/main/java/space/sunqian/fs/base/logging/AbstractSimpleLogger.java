@@ -104,9 +104,60 @@ public abstract class AbstractSimpleLogger implements SimpleLogger {
         if (level.value() < this.level.value()) {
             return null;
         }
-        ZonedDateTime now = ZonedDateTime.now();
-        Thread currentThread = Thread.currentThread();
-        StackTraceElement[] stackElements = currentThread.getStackTrace();
-        return SimpleLog.newLog(now, level, message, stackElements, currentThread);
+        return new LazyLog(ZonedDateTime.now(), level, message, Thread.currentThread());
+    }
+
+    /**
+     * Log message of which stack trace is captured at the first invocation of {@link #stackTrace()}.
+     */
+    private static final class LazyLog implements SimpleLog {
+
+        private final @Nonnull ZonedDateTime timestamp;
+        private final @Nonnull Level level;
+        private final @Nonnull Object[] message;
+        private final @Nonnull Thread thread;
+        private @Nonnull StackTraceElement @Nullable [] stackTrace;
+
+        private LazyLog(
+            @Nonnull ZonedDateTime timestamp,
+            @Nonnull Level level,
+            @Nonnull Object[] message,
+            @Nonnull Thread thread
+        ) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.message = message;
+            this.thread = thread;
+        }
+
+        @Override
+        public @Nonnull ZonedDateTime timestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public @Nonnull Level level() {
+            return level;
+        }
+
+        @Override
+        public @Nonnull Object[] message() {
+            return message;
+        }
+
+        @Override
+        public @Nonnull StackTraceElement @Nonnull [] stackTrace() {
+            StackTraceElement[] trace = stackTrace;
+            if (trace == null) {
+                trace = thread.getStackTrace();
+                stackTrace = trace;
+            }
+            return trace;
+        }
+
+        @Override
+        public @Nonnull Thread thread() {
+            return thread;
+        }
     }
 }
@@ -0,0 +1,180 @@
+package space.sunqian.fs.base.logging;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.base.Checker;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Asynchronous {@link SimpleLogger}. The logging threads only put the log events into a lock-free ring buffer of
+ * preallocated events, and a single consumer thread formats the events into a reusable buffer and appends them to the
+ * appender in batches. Each batch is appended by one {@link Appendable#append(CharSequence)}, so the lines from
+ * different threads are never interleaved, and the appender is flushed after each batch if it is an instance of
+ * {@link java.io.Flushable}.
+ * <p>
+ * The message objects are converted to string by the consumer thread, so they should not be modified after logging.
+ * The caller location is still resolved in the logging thread.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * AsyncSimpleLogger logger = AsyncSimpleLogger.newBuilder()
+ *     .level(SimpleLogger.Level.INFO)
+ *     .appendable(System.out)
+ *     .bufferSize(4096)
+ *     .fullPolicy(AsyncSimpleLogger.FullPolicy.DROP)
+ *     .build();
+ * logger.info("hello, ", "world");
+ * // flushes and stops the consumer thread
+ * logger.close();
+ * }</pre>
+ *
+ * @author sunqian
+ */
+public interface AsyncSimpleLogger extends SimpleLogger, AutoCloseable {
+
+    /**
+     * Returns a builder for {@link AsyncSimpleLogger}.
+     *
+     * @return a builder for {@link AsyncSimpleLogger}
+     */
+    static @Nonnull Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Blocks until all log events logged before this method are appended to the appender. If the consumer thread has
+     * been terminated, this method returns immediately.
+     */
+    void flush();
+
+    /**
+     * Returns the number of the log events dropped by {@link FullPolicy#DROP} policy.
+     *
+     * @return the number of the log events dropped by {@link FullPolicy#DROP} policy
+     */
+    long droppedCount();
+
+    /**
+     * Appends all remaining log events to the appender, then stops the consumer thread. The log events logged after
+     * this method are appended directly by the logging threads, and the log events logged concurrently with this
+     * method may be lost.
+     */
+    @Override
+    void close();
+
+    /**
+     * Policy when the ring buffer is full.
+     */
+    enum FullPolicy {
+
+        /**
+         * Blocks the logging thread until there is free space in the ring buffer.
+         */
+        BLOCK,
+
+        /**
+         * Drops the log event, the number of the dropped events can be obtained by {@link #droppedCount()}.
+         */
+        DROP,
+
+        /**
+         * Formats and appends the log event directly in the logging thread. Note the log line may be appended before
+         * the log events still in the ring buffer.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Builder class for {@link AsyncSimpleLogger}.
+     */
+    class Builder {
+
+        private @Nonnull Level level = Level.INFO;
+        private @Nonnull Appendable appendable = System.out;
+        private int bufferSize = 1024;
+        private @Nonnull FullPolicy fullPolicy = FullPolicy.BLOCK;
+        private @Nullable ThreadFactory threadFactory = null;
+        private boolean callerLocation = true;
+
+        /**
+         * Sets the log level, default is {@link Level#INFO}.
+         *
+         * @param level the log level
+         * @return this builder
+         */
+        public @Nonnull Builder level(@Nonnull Level level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Sets the appender, default is {@link System#out}.
+         *
+         * @param appendable the appender
+         * @return this builder
+         */
+        public @Nonnull Builder appendable(@Nonnull Appendable appendable) {
+            this.appendable = appendable;
+            return this;
+        }
+
+        /**
+         * Sets the number of the preallocated log events in the ring buffer, default is {@code 1024}. It is rounded up
+         * to a power of {@code 2}.
+         *
+         * @param bufferSize the number of the preallocated log events in the ring buffer
+         * @return this builder
+         * @throws IllegalArgumentException if {@code bufferSize <= 0} or {@code bufferSize > 2^30}
+         */
+        public @Nonnull Builder bufferSize(int bufferSize) throws IllegalArgumentException {
+            Checker.checkArgument(bufferSize > 0 && bufferSize <= 1 << 30, "The bufferSize must > 0 and <= 2^30.");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the policy when the ring buffer is full, default is {@link FullPolicy#BLOCK}.
+         *
+         * @param fullPolicy the policy when the ring buffer is full
+         * @return this builder
+         */
+        public @Nonnull Builder fullPolicy(@Nonnull FullPolicy fullPolicy) {
+            this.fullPolicy = fullPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the thread factory to create the consumer thread. If it is not set, the consumer thread is a daemon
+         * thread created by {@link Thread#Thread(Runnable, String)}.
+         *
+         * @param threadFactory the thread factory to create the consumer thread
+         * @return this builder
+         */
+        public @Nonnull Builder threadFactory(@Nullable ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Sets whether to output the caller location, default is {@code true}. See
+         * {@link SimpleLogger#newLogger(Level, Appendable, boolean)}.
+         *
+         * @param callerLocation whether to output the caller location
+         * @return this builder
+         */
+        public @Nonnull Builder callerLocation(boolean callerLocation) {
+            this.callerLocation = callerLocation;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new {@link AsyncSimpleLogger}, the consumer thread is started before returning.
+         *
+         * @return a new {@link AsyncSimpleLogger}
+         */
+        public @Nonnull AsyncSimpleLogger build() {
+            return new AsyncSimpleLoggerImpl(level, appendable, bufferSize, fullPolicy, threadFactory, callerLocation);
+        }
+    }
+}
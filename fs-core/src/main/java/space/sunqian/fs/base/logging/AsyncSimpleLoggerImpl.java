@@ -0,0 +1,271 @@
+package space.sunqian.fs.base.logging;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+
+import java.io.Flushable;
+import java.lang.reflect.Method;
+import java.time.ZonedDateTime;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+final class AsyncSimpleLoggerImpl extends AbstractSimpleLogger implements AsyncSimpleLogger {
+
+    private static final @Nonnull String THREAD_NAME = "fs-async-logger";
+    // max parking time of the idle consumer, it is woken up by the logging threads in time
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    // parking time of the logging threads waiting for free space or flushing
+    private static final long WAIT_PARK_NANOS = 100_000L;
+    // max number of the chars of a batch
+    private static final int MAX_BATCH_CHARS = 64 * 1024;
+
+    private final @Nonnull Appendable appendable;
+    private final @Nonnull FullPolicy fullPolicy;
+    private final boolean callerLocation;
+    private final @Nonnull Event @Nonnull [] events;
+    private final int mask;
+    // next sequence to be claimed by the logging threads
+    private final @Nonnull AtomicLong tail = new AtomicLong();
+    // next sequence to be consumed, the slots before it are free
+    private volatile long head;
+    // number of the events have been appended
+    private volatile long written;
+    private final @Nonnull LongAdder dropped = new LongAdder();
+    private final @Nonnull Object writeLock = new Object();
+    private final @Nonnull Thread consumer;
+    private volatile boolean consumerWaiting;
+    private volatile boolean closed;
+
+    AsyncSimpleLoggerImpl(
+        @Nonnull Level level,
+        @Nonnull Appendable appendable,
+        int bufferSize,
+        @Nonnull FullPolicy fullPolicy,
+        @Nullable ThreadFactory threadFactory,
+        boolean callerLocation
+    ) {
+        super(level);
+        this.appendable = appendable;
+        this.fullPolicy = fullPolicy;
+        this.callerLocation = callerLocation;
+        int capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.events = new Event[capacity];
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event();
+        }
+        this.mask = capacity - 1;
+        Runnable task = this::consume;
+        if (threadFactory == null) {
+            this.consumer = new Thread(task, THREAD_NAME);
+            consumer.setDaemon(true);
+        } else {
+            this.consumer = threadFactory.newThread(task);
+        }
+        consumer.start();
+    }
+
+    @Override
+    protected void log(@Nonnull SimpleLog log, @Nonnull Method method) {
+        StackTraceElement caller = callerLocation ? CallerService.INST.callerOf(method) : null;
+        String threadName = log.thread().getName();
+        if (closed) {
+            appendDirectly(log, caller, threadName);
+            return;
+        }
+        long sequence = claim();
+        if (sequence < 0) {
+            if (fullPolicy == FullPolicy.DROP) {
+                dropped.increment();
+                return;
+            }
+            if (fullPolicy == FullPolicy.CALLER_RUNS) {
+                appendDirectly(log, caller, threadName);
+                return;
+            }
+            sequence = claimBlocking();
+            if (sequence < 0) {
+                // closed while waiting
+                appendDirectly(log, caller, threadName);
+                return;
+            }
+        }
+        Event event = events[(int) sequence & mask];
+        try {
+            event.timestamp = log.timestamp();
+            event.level = log.level();
+            event.caller = caller;
+            event.threadName = threadName;
+            event.message = log.message();
+        } catch (Throwable e) {
+            // the claimed slot must be published anyway, otherwise the consumer waits for it forever
+            event.clear();
+            event.skipped = true;
+            throw e;
+        } finally {
+            // publishes the event
+            event.sequence = sequence;
+        }
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private long claim() {
+        while (true) {
+            long t = tail.get();
+            if (t - head >= events.length) {
+                return -1;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                return t;
+            }
+        }
+    }
+
+    private long claimBlocking() {
+        while (!closed) {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+            long sequence = claim();
+            if (sequence >= 0) {
+                return sequence;
+            }
+        }
+        return -1;
+    }
+
+    private void appendDirectly(
+        @Nonnull SimpleLog log,
+        @Nullable StackTraceElement caller,
+        @Nonnull String threadName
+    ) {
+        StringBuilder line = new StringBuilder();
+        SimpleLoggerImpl.appendLine(line, log.timestamp(), log.level(), caller, threadName, log.message());
+        try {
+            write(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void consume() {
+        StringBuilder buffer = new StringBuilder();
+        long next = head;
+        while (true) {
+            Event event = events[(int) next & mask];
+            if (event.sequence != next) {
+                if (next < tail.get()) {
+                    // claimed but not published yet
+                    Thread.yield();
+                    continue;
+                }
+                if (closed) {
+                    break;
+                }
+                consumerWaiting = true;
+                if (event.sequence != next && !closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerWaiting = false;
+                continue;
+            }
+            // formats all published events into one batch
+            do {
+                if (!event.skipped) {
+                    try {
+                        SimpleLoggerImpl.appendLine(
+                            buffer, event.timestamp, event.level, event.caller, event.threadName, event.message
+                        );
+                    } catch (Throwable e) {
+                        handleError(e);
+                    }
+                }
+                event.clear();
+                next++;
+                event = events[(int) next & mask];
+            } while (event.sequence == next && buffer.length() < MAX_BATCH_CHARS);
+            // frees the slots
+            head = next;
+            try {
+                write(buffer);
+            } catch (Throwable e) {
+                handleError(e);
+            }
+            written = next;
+            if (buffer.capacity() > MAX_BATCH_CHARS * 2) {
+                buffer = new StringBuilder();
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    private void write(@Nonnull CharSequence chars) throws Exception {
+        synchronized (writeLock) {
+            appendable.append(chars);
+            if (appendable instanceof Flushable) {
+                ((Flushable) appendable).flush();
+            }
+        }
+    }
+
+    private static void handleError(@Nonnull Throwable e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (written < target && consumer.isAlive()) {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(consumer);
+        boolean interrupted = false;
+        while (consumer.isAlive()) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Event {
+
+        // the sequence of the published event in this slot
+        private volatile long sequence = -1;
+        private @Nullable ZonedDateTime timestamp;
+        private @Nullable Level level;
+        private @Nullable StackTraceElement caller;
+        private @Nullable String threadName;
+        private Object @Nullable [] message;
+        // whether the logging thread failed to fill this slot, then the slot is published without a log
+        private boolean skipped;
+
+        private void clear() {
+            skipped = false;
+            timestamp = null;
+            level = null;
+            caller = null;
+            threadName = null;
+            message = null;
+        }
+    }
+}
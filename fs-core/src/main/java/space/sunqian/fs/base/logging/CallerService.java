@@ -0,0 +1,26 @@
+package space.sunqian.fs.base.logging;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.fs.base.FsLoader;
+
+import java.lang.reflect.Method;
+
+/**
+ * Service for resolving the caller location of the logging methods.
+ */
+interface CallerService {
+
+    @Nonnull
+    CallerService INST = FsLoader.loadImplByJvm(CallerService.class, 9);
+
+    /**
+     * Returns the stack frame which calls the given logging method in the current thread, or
+     * {@link space.sunqian.fs.base.thread.TraceKit#EMPTY_FRAME} if not found.
+     *
+     * @param method the logging method
+     * @return the stack frame which calls the given logging method, or
+     * {@link space.sunqian.fs.base.thread.TraceKit#EMPTY_FRAME} if not found
+     */
+    @Nonnull
+    StackTraceElement callerOf(@Nonnull Method method);
+}
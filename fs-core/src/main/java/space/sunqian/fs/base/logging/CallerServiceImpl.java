@@ -0,0 +1,14 @@
+package space.sunqian.fs.base.logging;
+
+import space.sunqian.annotation.Nonnull;
+
+import java.lang.reflect.Method;
+
+enum CallerServiceImpl implements CallerService {
+    INST;
+
+    @Override
+    public @Nonnull StackTraceElement callerOf(@Nonnull Method method) {
+        return SimpleLoggerImpl.getCallerTrace(method, Thread.currentThread().getStackTrace());
+    }
+}
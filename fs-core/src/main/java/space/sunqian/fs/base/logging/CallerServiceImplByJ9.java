@@ -0,0 +1,30 @@
+package space.sunqian.fs.base.logging;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.fs.base.thread.TraceKit;
+
+import java.lang.reflect.Method;
+
+/**
+ * Walks only the frames up to the caller by {@link StackWalker}, instead of capturing the full stack trace.
+ */
+@SuppressWarnings("unused")
+enum CallerServiceImplByJ9 implements CallerService {
+    INST;
+
+    private static final @Nonnull StackWalker WALKER =
+        StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    @Override
+    public @Nonnull StackTraceElement callerOf(@Nonnull Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        String name = method.getName();
+        return WALKER.walk(frames -> frames
+            .dropWhile(frame -> frame.getDeclaringClass() != declaringClass || !name.equals(frame.getMethodName()))
+            .skip(1)
+            .findFirst()
+            .map(StackWalker.StackFrame::toStackTraceElement)
+            .orElse(TraceKit.EMPTY_FRAME)
+        );
+    }
+}
@@ -81,6 +81,10 @@ public interface SimpleLog {
 
     /**
      * Returns the stack trace of this log message.
+     * <p>
+     * Capturing the stack trace is expensive, the implementation may capture it lazily at the first invocation of
+     * this method. In this case, the first invocation should be in the thread where the log message is logged,
+     * otherwise the stack trace of that thread at the time of the invocation is returned.
      *
      * @return the stack trace of this log message
      */
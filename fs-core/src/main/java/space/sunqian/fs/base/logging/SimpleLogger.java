@@ -27,7 +27,44 @@ public interface SimpleLogger {
      * @return a new logger with the given log level and appender
      */
     static @Nonnull SimpleLogger newLogger(@Nonnull SimpleLogger.Level level, @Nonnull Appendable appendable) {
-        return new SimpleLoggerImpl(level, appendable);
+        return newLogger(level, appendable, true);
+    }
+
+    /**
+     * Returns a new logger with the given log level, appender, and whether to output the caller location.
+     * <p>
+     * The caller location is the class name, method name, and line number of the code calling the logging method. On
+     * JDK 9+, it is resolved by {@link StackWalker} which only walks the frames up to the caller, otherwise, it is
+     * resolved from the full stack trace of the current thread. Disabling it saves the resolution cost of each log.
+     *
+     * @param level          the given log level
+     * @param appendable     the given appender
+     * @param callerLocation whether to output the caller location
+     * @return a new logger with the given log level, appender, and whether to output the caller location
+     */
+    static @Nonnull SimpleLogger newLogger(
+        @Nonnull SimpleLogger.Level level,
+        @Nonnull Appendable appendable,
+        boolean callerLocation
+    ) {
+        return new SimpleLoggerImpl(level, appendable, callerLocation);
+    }
+
+    /**
+     * Returns a new asynchronous logger with the given log level and appender, and the default settings of
+     * {@link AsyncSimpleLogger.Builder}. The returned logger should be closed by {@link AsyncSimpleLogger#close()}
+     * after use.
+     *
+     * @param level      the given log level
+     * @param appendable the given appender
+     * @return a new asynchronous logger with the given log level and appender
+     * @see AsyncSimpleLogger
+     */
+    static @Nonnull AsyncSimpleLogger newAsyncLogger(
+        @Nonnull SimpleLogger.Level level,
+        @Nonnull Appendable appendable
+    ) {
+        return AsyncSimpleLogger.newBuilder().level(level).appendable(appendable).build();
     }
 
     /**
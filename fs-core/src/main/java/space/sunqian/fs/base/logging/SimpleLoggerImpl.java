@@ -1,51 +1,74 @@
 package space.sunqian.fs.base.logging;
 
 import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.base.date.DateKit;
 import space.sunqian.fs.base.thread.TraceKit;
 
 import java.lang.reflect.Method;
+import java.time.ZonedDateTime;
 
 final class SimpleLoggerImpl extends AbstractSimpleLogger {
 
-    static @Nonnull SimpleLogger SYSTEM = new SimpleLoggerImpl(SimpleLogger.Level.INFO, System.out);
+    static @Nonnull SimpleLogger SYSTEM = new SimpleLoggerImpl(SimpleLogger.Level.INFO, System.out, true);
 
     private final @Nonnull Appendable appendable;
+    private final boolean callerLocation;
 
-    SimpleLoggerImpl(@Nonnull Level level, @Nonnull Appendable appendable) {
+    SimpleLoggerImpl(@Nonnull Level level, @Nonnull Appendable appendable, boolean callerLocation) {
         super(level);
         this.appendable = appendable;
+        this.callerLocation = callerLocation;
     }
 
     @Override
     protected void log(@Nonnull SimpleLog log, @Nonnull Method method) {
         try {
-            StackTraceElement caller = getCallerTrace(method, log.stackTrace());
-            appendable.append(DateKit.format(log.timestamp()))
-                .append("[")
-                .append(log.level().name())
-                .append("]");
-            appendable.append("@")
-                .append(caller.getClassName())
-                .append(".")
-                .append(caller.getMethodName())
-                .append("(")
-                .append(String.valueOf(caller.getLineNumber()))
-                .append(")");
-            appendable.append("-")
-                .append("[")
-                .append(log.thread().getName())
-                .append("]: ");
-            for (Object o : log.message()) {
-                appendable.append(String.valueOf(o));
-            }
-            appendable.append(System.lineSeparator());
+            StackTraceElement caller = callerLocation ? CallerService.INST.callerOf(method) : null;
+            StringBuilder line = new StringBuilder();
+            appendLine(line, log.timestamp(), log.level(), caller, log.thread().getName(), log.message());
+            appendable.append(line);
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
     }
 
-    private @Nonnull StackTraceElement getCallerTrace(
+    /**
+     * Formats the log line with the given parameters and appends it, including the line separator, to the given
+     * builder. The caller location part is omitted if the given caller is {@code null}.
+     */
+    static void appendLine(
+        @Nonnull StringBuilder builder,
+        @Nonnull ZonedDateTime timestamp,
+        @Nonnull Level level,
+        @Nullable StackTraceElement caller,
+        @Nonnull String threadName,
+        Object @Nonnull [] message
+    ) {
+        builder.append(DateKit.format(timestamp))
+            .append('[')
+            .append(level.name())
+            .append(']');
+        if (caller != null) {
+            builder.append('@')
+                .append(caller.getClassName())
+                .append('.')
+                .append(caller.getMethodName())
+                .append('(')
+                .append(caller.getLineNumber())
+                .append(')');
+        }
+        builder.append('-')
+            .append('[')
+            .append(threadName)
+            .append("]: ");
+        for (Object o : message) {
+            builder.append(o);
+        }
+        builder.append(System.lineSeparator());
+    }
+
+    static @Nonnull StackTraceElement getCallerTrace(
         @Nonnull Method method,
         @Nonnull StackTraceElement[] stackElements
     ) {
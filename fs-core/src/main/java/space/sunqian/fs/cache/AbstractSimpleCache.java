@@ -194,7 +194,14 @@ public abstract class AbstractSimpleCache<K, V> implements SimpleCache<K, V> {
         return value == null ? new Null() : value;
     }
 
-    private @Nullable V unmaskRawValue(@Nonnull Object raw) {
+    /**
+     * Unmasks the raw value stored in the {@link Value}, which is generated by {@link #generate(Object, Object)}, to the
+     * actual value. The {@code null} is masked as a non-null object, so the unmasked value may be {@code null}.
+     *
+     * @param raw the raw value stored in the {@link Value}
+     * @return the actual value
+     */
+    protected final @Nullable V unmaskRawValue(@Nonnull Object raw) {
         if (raw instanceof Null) {
             return null;
         }
@@ -0,0 +1,626 @@
+package space.sunqian.fs.cache;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.base.value.Val;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * {@link SimpleCache} implementation bounded by size (or weight) and/or time.
+ * <p>
+ * The size bound is based on the W-TinyLFU policy.
+ * The entries are kept in three access-ordered queues: a small admission window (1% of the maximum) and a main space
+ * split into a probation segment and a protected segment (80% of the main space). Entries evicted from the window are
+ * candidates for the main space, and a candidate is only admitted if its estimated access frequency, recorded by a
+ * {@link FrequencySketch}, is higher than that of the victim of the probation segment.
+ * <p>
+ * Reads never take a lock, they are recorded into a lossy striped buffer. Writes are recorded into a write queue. Both
+ * buffers are replayed against the policy by whichever thread acquires the eviction lock in {@link #clean()}, so the
+ * eviction cost is amortized O(1). Note the size of this cache may exceed the maximum for a short time when the
+ * eviction lock is being held by another thread.
+ * <p>
+ * The time bound supports expire-after-write and expire-after-access. An expired entry is invisible as soon as it
+ * expires, and it is removed by a hierarchical {@link TimerWheel}, which schedules and cancels an entry in O(1) and is
+ * advanced in the same maintenance of the buffers, at most once per tick of the wheel. There is no full scan of the
+ * entries and no dedicated thread.
+ *
+ * @author sunqian
+ */
+final class BoundedCache<K, V> extends AbstractSimpleCache<K, V> {
+
+    private static final int NONE = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+    private static final int ALIVE = 4;
+    private static final int RETIRED = -1;
+
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final @Nullable ToIntBiFunction<? super K, ? super V> weigher;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final @Nonnull LongSupplier ticker;
+    private final boolean recordsReads;
+
+    private final @Nonnull ReadBuffer<Node> readBuffer = new ReadBuffer<>();
+    private final @Nonnull Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+    private final @Nonnull ReentrantLock evictionLock = new ReentrantLock();
+    private volatile boolean drainRequired = false;
+    private volatile long nextExpirationTime;
+
+    // guarded by evictionLock
+    private final @Nullable FrequencySketch sketch;
+    private final @Nullable TimerWheel timerWheel;
+    private final @Nonnull AccessQueue window = new AccessQueue();
+    private final @Nonnull AccessQueue probation = new AccessQueue();
+    private final @Nonnull AccessQueue protectedQueue = new AccessQueue();
+    private long weightedSize = 0;
+    private long windowWeight = 0;
+    private long protectedWeight = 0;
+
+    /**
+     * Constructs with the bounds, a negative maximum or duration means the corresponding bound is disabled.
+     */
+    BoundedCache(
+        long maximum,
+        @Nullable ToIntBiFunction<? super K, ? super V> weigher,
+        long expireAfterWriteNanos,
+        long expireAfterAccessNanos,
+        @Nonnull LongSupplier ticker
+    ) {
+        super(new ConcurrentHashMap<>());
+        this.maximum = maximum;
+        this.windowMaximum = Math.max(1, maximum / 100);
+        this.protectedMaximum = (long) ((maximum - windowMaximum) * 0.8);
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.ticker = ticker;
+        this.sketch = maximum >= 0 ? new FrequencySketch(maximum) : null;
+        if (expireAfterWriteNanos >= 0 || expireAfterAccessNanos >= 0) {
+            long now = ticker.getAsLong();
+            this.timerWheel = new TimerWheel(now);
+            this.nextExpirationTime = now + TimerWheel.TICK;
+        } else {
+            this.timerWheel = null;
+        }
+        this.recordsReads = sketch != null || expireAfterAccessNanos >= 0;
+    }
+
+    @Override
+    protected @Nonnull Value<K> generate(@Nonnull K key, @Nonnull Object value) {
+        int weight = weigher == null ? 1 : weigher.applyAsInt(key, unmaskRawValue(value));
+        if (weight < 0) {
+            throw new IllegalArgumentException("The weight must be greater than or equal to 0.");
+        }
+        Node node = new Node(key, value, weight, timerWheel == null ? 0 : ticker.getAsLong());
+        writeBuffer.add(() -> onAdd(node));
+        return node;
+    }
+
+    @Override
+    public @Nullable V get(@Nonnull K key, @Nonnull Function<? super @Nonnull K, ? extends @Nullable V> loader) {
+        V value = super.get(key, loader);
+        clean();
+        return value;
+    }
+
+    @Override
+    public @Nullable Val<V> getVal(
+        @Nonnull K key,
+        @Nonnull Function<? super @Nonnull K, ? extends @Nullable Val<? extends @Nullable V>> loader
+    ) {
+        Val<V> value = super.getVal(key, loader);
+        clean();
+        return value;
+    }
+
+    @Override
+    public void put(@Nonnull K key, @Nullable V value) {
+        super.put(key, value);
+        clean();
+    }
+
+    @Override
+    public void clean() {
+        while (maintenanceRequired() && evictionLock.tryLock()) {
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private boolean maintenanceRequired() {
+        if (drainRequired || !writeBuffer.isEmpty()) {
+            return true;
+        }
+        return timerWheel != null && ticker.getAsLong() - nextExpirationTime >= 0;
+    }
+
+    private void maintenance() {
+        drainRequired = false;
+        readBuffer.drainTo(this::onAccess);
+        while (true) {
+            @Nullable Runnable task = writeBuffer.poll();
+            if (task == null) {
+                break;
+            }
+            task.run();
+        }
+        if (timerWheel != null) {
+            long now = ticker.getAsLong();
+            nextExpirationTime = now + TimerWheel.TICK;
+            timerWheel.advance(now);
+        }
+        evictEntries();
+    }
+
+    private void onAdd(@Nonnull Node node) {
+        if (node.queue == RETIRED) {
+            return;
+        }
+        if (timerWheel != null) {
+            timerWheel.schedule(node);
+        }
+        if (sketch == null) {
+            node.queue = ALIVE;
+            return;
+        }
+        sketch.increment(node.key);
+        node.queue = WINDOW;
+        window.addLast(node);
+        windowWeight += node.weight;
+        weightedSize += node.weight;
+    }
+
+    private void onAccess(@Nonnull Node node) {
+        if (node.queue <= NONE) {
+            return;
+        }
+        if (expireAfterAccessNanos >= 0 && timerWheel != null) {
+            timerWheel.reschedule(node);
+        }
+        if (sketch == null) {
+            return;
+        }
+        sketch.increment(node.key);
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                protectedWeight += node.weight;
+                demoteFromProtected();
+                break;
+            default:
+                protectedQueue.moveToLast(node);
+        }
+    }
+
+    private void onRemove(@Nonnull Node node) {
+        if (node.queue > NONE) {
+            unlink(node);
+        }
+        node.queue = RETIRED;
+    }
+
+    // the sum may wrap around as the ticker, so the times are only compared by their differences
+    private long expirationTime(@Nonnull Node node) {
+        if (expireAfterWriteNanos < 0) {
+            return node.accessTime + expireAfterAccessNanos;
+        }
+        long time = node.writeTime + expireAfterWriteNanos;
+        if (expireAfterAccessNanos >= 0) {
+            long accessTime = node.accessTime + expireAfterAccessNanos;
+            if (accessTime - time < 0) {
+                time = accessTime;
+            }
+        }
+        return time;
+    }
+
+    private void demoteFromProtected() {
+        while (protectedWeight > protectedMaximum) {
+            @Nullable Node first = protectedQueue.first();
+            if (first == null) {
+                return;
+            }
+            protectedQueue.remove(first);
+            protectedWeight -= first.weight;
+            first.queue = PROBATION;
+            probation.addLast(first);
+        }
+    }
+
+    private void evictEntries() {
+        if (sketch == null) {
+            return;
+        }
+        // moves the overflow of window to the tail of probation, they are the candidates
+        @Nullable Node candidate = null;
+        while (windowWeight > windowMaximum) {
+            @Nullable Node first = window.first();
+            if (first == null) {
+                break;
+            }
+            window.remove(first);
+            windowWeight -= first.weight;
+            first.queue = PROBATION;
+            probation.addLast(first);
+            if (candidate == null) {
+                candidate = first;
+            }
+        }
+        // evicts the victims or the rejected candidates
+        while (weightedSize > maximum) {
+            @Nullable Node victim = probation.first();
+            if (victim == null) {
+                victim = protectedQueue.first();
+                if (victim == null) {
+                    victim = window.first();
+                }
+                if (victim == null) {
+                    return;
+                }
+                evict(victim);
+                continue;
+            }
+            if (candidate == null || candidate == victim) {
+                if (candidate != null) {
+                    candidate = candidate.next;
+                }
+                evict(victim);
+                continue;
+            }
+            @Nullable Node next = candidate.next;
+            if (admit(candidate.key, victim.key)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+            }
+            candidate = next;
+        }
+    }
+
+    private boolean admit(@Nonnull K candidateKey, @Nonnull K victimKey) {
+        int candidateFreq = sketch.frequency(candidateKey);
+        int victimFreq = sketch.frequency(victimKey);
+        if (candidateFreq > victimFreq) {
+            return true;
+        }
+        if (candidateFreq <= 5) {
+            return false;
+        }
+        // admits a warm candidate randomly to resist the hash flooding attack
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    private void evict(@Nonnull Node node) {
+        unlink(node);
+        node.queue = RETIRED;
+        node.value = null;
+        cacheMap.remove(node.key, node);
+    }
+
+    private void unlink(@Nonnull Node node) {
+        if (timerWheel != null) {
+            timerWheel.deschedule(node);
+        }
+        switch (node.queue) {
+            case ALIVE:
+                return;
+            case WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            default:
+                protectedQueue.remove(node);
+                protectedWeight -= node.weight;
+        }
+        weightedSize -= node.weight;
+    }
+
+    private final class Node implements Value<K> {
+
+        private final @Nonnull K key;
+        private final int weight;
+        private final long writeTime;
+        private volatile long accessTime;
+        private volatile @Nullable Object value;
+
+        // guarded by evictionLock
+        private int queue = NONE;
+        private @Nullable Node prev;
+        private @Nullable Node next;
+        private int timerLevel = -1;
+        private int timerIndex;
+        private @Nullable Node timerPrev;
+        private @Nullable Node timerNext;
+
+        private Node(@Nonnull K key, @Nonnull Object value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+
+        @Override
+        public @Nonnull K key() {
+            return key;
+        }
+
+        @Override
+        public @Nullable Object refValue() {
+            @Nullable Object v = value;
+            if (v == null) {
+                return null;
+            }
+            if (timerWheel != null) {
+                long now = ticker.getAsLong();
+                if (now - expirationTime(this) >= 0) {
+                    // expired, it will be removed by the timer wheel
+                    drainRequired = true;
+                    return null;
+                }
+                if (expireAfterAccessNanos >= 0) {
+                    accessTime = now;
+                }
+            }
+            if (recordsReads && readBuffer.offer(this)) {
+                drainRequired = true;
+            }
+            return v;
+        }
+
+        @Override
+        public void invalid() {
+            value = null;
+            cacheMap.remove(key, this);
+            writeBuffer.add(() -> onRemove(this));
+        }
+    }
+
+    /**
+     * Hierarchical timing wheel to expire the entries. Each level is an array of buckets of doubly-linked nodes, and a
+     * bucket of level {@code i} spans {@code 2^SHIFTS[i]} nanoseconds. An entry is scheduled into the level whose range
+     * covers its delay, and it is cascaded into the lower levels or expired when its bucket is passed.
+     */
+    private final class TimerWheel {
+
+        // 2^24ns ≈ 16.8ms, 2^30ns ≈ 1.07s, 2^36ns ≈ 1.15m, 2^42ns ≈ 1.22h, 2^48ns ≈ 3.26d
+        private static final long TICK = 1L << 24;
+        private final int @Nonnull [] shifts = {24, 30, 36, 42, 48};
+        private final int @Nonnull [] buckets = {64, 64, 64, 64, 1};
+        private final @Nullable Object @Nonnull [] @Nonnull [] wheel = new Object[shifts.length][];
+        private long nanos;
+
+        private TimerWheel(long now) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = new Object[buckets[i]];
+            }
+            this.nanos = now;
+        }
+
+        private void schedule(@Nonnull Node node) {
+            long time = expirationTime(node);
+            long delay = Math.max(0, time - nanos);
+            int level = 0;
+            while (level < shifts.length - 1 && delay >= 1L << shifts[level + 1]) {
+                level++;
+            }
+            int index = (int) ((time >>> shifts[level]) & (buckets[level] - 1));
+            @Nullable Node head = Fs.as(wheel[level][index]);
+            node.timerLevel = level;
+            node.timerIndex = index;
+            node.timerPrev = null;
+            node.timerNext = head;
+            if (head != null) {
+                head.timerPrev = node;
+            }
+            wheel[level][index] = node;
+        }
+
+        private void reschedule(@Nonnull Node node) {
+            deschedule(node);
+            schedule(node);
+        }
+
+        private void deschedule(@Nonnull Node node) {
+            if (node.timerLevel < 0) {
+                return;
+            }
+            @Nullable Node prev = node.timerPrev;
+            @Nullable Node next = node.timerNext;
+            if (prev == null) {
+                wheel[node.timerLevel][node.timerIndex] = next;
+            } else {
+                prev.timerNext = next;
+            }
+            if (next != null) {
+                next.timerPrev = prev;
+            }
+            node.timerLevel = -1;
+            node.timerPrev = null;
+            node.timerNext = null;
+        }
+
+        private void advance(long now) {
+            long previous = nanos;
+            nanos = now;
+            for (int i = 0; i < shifts.length; i++) {
+                long previousTicks = previous >>> shifts[i];
+                long delta = (now >>> shifts[i]) - previousTicks;
+                if (delta <= 0) {
+                    break;
+                }
+                expire(i, previousTicks, delta, now);
+            }
+        }
+
+        private void expire(int level, long previousTicks, long delta, long now) {
+            @Nullable Object[] bucketArray = wheel[level];
+            int mask = bucketArray.length - 1;
+            int steps = (int) Math.min(delta + 1, bucketArray.length);
+            int start = (int) (previousTicks & mask);
+            for (int i = 0; i < steps; i++) {
+                int index = (start + i) & mask;
+                @Nullable Node node = Fs.as(bucketArray[index]);
+                bucketArray[index] = null;
+                while (node != null) {
+                    @Nullable Node next = node.timerNext;
+                    node.timerLevel = -1;
+                    node.timerPrev = null;
+                    node.timerNext = null;
+                    if (now - expirationTime(node) >= 0) {
+                        evict(node);
+                    } else {
+                        schedule(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+    }
+
+    private final class AccessQueue {
+
+        private @Nullable Node head;
+        private @Nullable Node tail;
+
+        private @Nullable Node first() {
+            return head;
+        }
+
+        private void addLast(@Nonnull Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        private void remove(@Nonnull Node node) {
+            @Nullable Node prev = node.prev;
+            @Nullable Node next = node.next;
+            if (prev == null) {
+                head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        private void moveToLast(@Nonnull Node node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    /**
+     * Lossy striped ring buffers to record reads. Writing threads are spread on stripes by their ids, and the records
+     * are dropped if the stripe is full or contended, which is acceptable for the frequency and recency estimation.
+     */
+    private static final class ReadBuffer<E> {
+
+        private static final int STRIPE_SIZE = 16;
+        private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+
+        private final @Nonnull Stripe<E>[] stripes;
+        private final int mask;
+
+        @SuppressWarnings("unchecked")
+        private ReadBuffer() {
+            int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+            this.stripes = new Stripe[n];
+            for (int i = 0; i < n; i++) {
+                stripes[i] = new Stripe<>();
+            }
+            this.mask = n - 1;
+        }
+
+        /**
+         * Records the element, returns {@code true} if the stripe is full and should be drained.
+         */
+        private boolean offer(@Nonnull E e) {
+            int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+            return stripes[(h ^ (h >>> 16)) & mask].offer(e);
+        }
+
+        private void drainTo(@Nonnull Consumer<? super E> consumer) {
+            for (Stripe<E> stripe : stripes) {
+                stripe.drainTo(consumer);
+            }
+        }
+
+        private static final class Stripe<E> {
+
+            private final @Nonnull AtomicLong writeCounter = new AtomicLong();
+            private final @Nonnull AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(STRIPE_SIZE);
+            private volatile long readCounter = 0;
+
+            private boolean offer(@Nonnull E e) {
+                long head = readCounter;
+                long tail = writeCounter.get();
+                long size = tail - head;
+                if (size >= STRIPE_SIZE) {
+                    return true;
+                }
+                if (writeCounter.compareAndSet(tail, tail + 1)) {
+                    buffer.lazySet((int) (tail & STRIPE_MASK), e);
+                    return size + 1 >= STRIPE_SIZE;
+                }
+                return false;
+            }
+
+            private void drainTo(@Nonnull Consumer<? super E> consumer) {
+                long head = readCounter;
+                long tail = writeCounter.get();
+                for (; head < tail; head++) {
+                    int index = (int) (head & STRIPE_MASK);
+                    @Nullable E e = buffer.get(index);
+                    if (e == null) {
+                        // not published yet
+                        break;
+                    }
+                    buffer.lazySet(index, null);
+                    consumer.accept(e);
+                }
+                readCounter = head;
+            }
+        }
+    }
+}
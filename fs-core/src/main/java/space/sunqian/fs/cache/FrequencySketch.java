@@ -0,0 +1,106 @@
+package space.sunqian.fs.cache;
+
+import space.sunqian.annotation.Nonnull;
+
+/**
+ * A Count-Min sketch with 4-bit counters to estimate the popularity of the keys within a time window, used by the
+ * TinyLFU admission policy. Each key is mapped to four counters, and its frequency is the minimum of them. When the
+ * number of increments reaches the sample size, all counters are halved to let the sketch age.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author sunqian
+ */
+final class FrequencySketch {
+
+    private static final long @Nonnull [] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_TABLE_SIZE = 1 << 20;
+
+    private final long @Nonnull [] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size = 0;
+
+    /**
+     * Constructs with the expected maximum number of the keys.
+     *
+     * @param maximum the expected maximum number of the keys
+     */
+    FrequencySketch(long maximum) {
+        int capacity = (int) Math.min(Math.max(1, maximum), MAX_TABLE_SIZE);
+        int tableSize = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Returns the estimated frequency of the given key, in the range of {@code [0, 15]}.
+     *
+     * @param key the given key
+     * @return the estimated frequency of the given key
+     */
+    int frequency(@Nonnull Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the frequency of the given key if it is not already at the maximum.
+     *
+     * @param key the given key
+     */
+    void increment(@Nonnull Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) != mask) {
+            table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
@@ -3,14 +3,18 @@ package space.sunqian.fs.cache;
 import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.Nullable;
 import space.sunqian.annotation.ThreadSafe;
+import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.value.Val;
 
 import java.lang.ref.PhantomReference;
 import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
 
 /**
  * This interface is a simplified key-value pair cache interface (implementations must be thread-safe). It only provides
@@ -84,6 +88,59 @@ public interface SimpleCache<K, V> extends CacheFunction<K, V> {
         return SimpleCacheBack.ofStrong();
     }
 
+    /**
+     * Returns a new builder for building {@link SimpleCache} bounded by size (or weight) and/or time.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a new builder for building {@link SimpleCache}
+     */
+    static <K, V> @Nonnull Builder<K, V> newBuilder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns a new size bounded {@link SimpleCache} based on {@link ConcurrentHashMap}. When the number of entries
+     * exceeds the given maximum size, the returned cache evicts the entries which are unlikely to be used again, by the
+     * W-TinyLFU policy: a small LRU admission window, and a main space guarded by a frequency sketch of the recent
+     * accesses. The eviction is performed in its {@link #clean()} method, which is automatically invoked once every time
+     * another method is executed, and the eviction cost is amortized O(1).
+     * <p>
+     * The reads of the returned cache never block on a lock. Note the size of the returned cache may exceed the maximum
+     * size for a short time under concurrent writes.
+     *
+     * @param maxSize the maximum size, must be greater than or equal to 0
+     * @param <K>     the key type
+     * @param <V>     the value type
+     * @return a new size bounded {@link SimpleCache}
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    static <K, V> @Nonnull SimpleCache<K, V> ofBounded(long maxSize) throws IllegalArgumentException {
+        return SimpleCacheBack.ofBounded(maxSize, null);
+    }
+
+    /**
+     * Returns a new weight bounded {@link SimpleCache} based on {@link ConcurrentHashMap}. This method is the weighted
+     * version of {@link #ofBounded(long)}: the weight of each entry is computed by the given weigher when it is put into
+     * the cache, and the entries are evicted when the total weight exceeds the given maximum weight.
+     * <p>
+     * The weigher must return a non-negative weight, otherwise an {@link IllegalArgumentException} will be thrown when
+     * the entry is put into the cache.
+     *
+     * @param maxWeight the maximum weight, must be greater than or equal to 0
+     * @param weigher   the weigher to compute the weight of each entry, the value passed to it may be {@code null}
+     * @param <K>       the key type
+     * @param <V>       the value type
+     * @return a new weight bounded {@link SimpleCache}
+     * @throws IllegalArgumentException if the maximum weight is negative
+     */
+    static <K, V> @Nonnull SimpleCache<K, V> ofBounded(
+        long maxWeight,
+        @Nonnull ToIntBiFunction<? super @Nonnull K, ? super @Nullable V> weigher
+    ) throws IllegalArgumentException {
+        return SimpleCacheBack.ofBounded(maxWeight, weigher);
+    }
+
     /**
      * Returns a new {@link SimpleCache} based on the given map.
      * <p>
@@ -191,4 +248,130 @@ public interface SimpleCache<K, V> extends CacheFunction<K, V> {
      */
     @Nonnull
     Map<K, V> copyEntries();
+
+    /**
+     * Builder for building {@link SimpleCache} bounded by size (or weight) and/or time, based on
+     * {@link ConcurrentHashMap}.
+     * <p>
+     * The size bound is the same as {@link SimpleCache#ofBounded(long)} and {@link SimpleCache#ofBounded(long,
+     * ToIntBiFunction)}. The time bound expires the entries after a fixed duration since they are written
+     * ({@link #expireAfterWrite(Duration)}) and/or last accessed ({@link #expireAfterAccess(Duration)}). An expired
+     * entry is invisible immediately, and it will be removed by a hierarchical timing wheel in {@link #clean()}, which
+     * is amortized across the reads and writes without any full scan or dedicated thread. Note the {@link #size()} may
+     * include the expired entries which are not removed yet.
+     * <p>
+     * If no bound is set, the built cache is the same as {@link SimpleCache#ofStrong()}.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    class Builder<K, V> {
+
+        // max expiration duration in nanoseconds (about 146 years), the expiration time is compared by the difference
+        // to the ticker, which must not overflow
+        private static final long MAX_EXPIRY_NANOS = Long.MAX_VALUE >> 1;
+
+        private long maximum = -1;
+        private @Nullable ToIntBiFunction<? super K, ? super V> weigher;
+        private long expireAfterWriteNanos = -1;
+        private long expireAfterAccessNanos = -1;
+        private @Nonnull LongSupplier ticker = System::nanoTime;
+
+        /**
+         * Sets the maximum size of the cache.
+         *
+         * @param maxSize the maximum size of the cache
+         * @return this builder
+         * @throws IllegalArgumentException if maxSize is less than 0
+         */
+        public @Nonnull Builder<K, V> maxSize(long maxSize) throws IllegalArgumentException {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("maxSize must be greater than or equal to 0.");
+            }
+            this.maximum = maxSize;
+            this.weigher = null;
+            return this;
+        }
+
+        /**
+         * Sets the maximum weight of the cache, and the weigher to compute the weight of each entry.
+         *
+         * @param maxWeight the maximum weight of the cache
+         * @param weigher   the weigher to compute the weight of each entry, the value passed to it may be
+         *                  {@code null}
+         * @return this builder
+         * @throws IllegalArgumentException if maxWeight is less than 0
+         */
+        public @Nonnull Builder<K, V> maxWeight(
+            long maxWeight,
+            @Nonnull ToIntBiFunction<? super @Nonnull K, ? super @Nullable V> weigher
+        ) throws IllegalArgumentException {
+            if (maxWeight < 0) {
+                throw new IllegalArgumentException("maxWeight must be greater than or equal to 0.");
+            }
+            this.maximum = maxWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Sets the duration after which the entries expire since they are created or replaced. The duration longer
+         * than about {@code 146} years is truncated to it.
+         *
+         * @param duration the duration after which the entries expire since they are written
+         * @return this builder
+         * @throws IllegalArgumentException if duration is negative
+         */
+        public @Nonnull Builder<K, V> expireAfterWrite(@Nonnull Duration duration) throws IllegalArgumentException {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("expireAfterWrite must be greater than or equal to 0.");
+            }
+            this.expireAfterWriteNanos = expiryNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the duration after which the entries expire since they are created, replaced or last read. The duration
+         * longer than about {@code 146} years is truncated to it.
+         *
+         * @param duration the duration after which the entries expire since they are last accessed
+         * @return this builder
+         * @throws IllegalArgumentException if duration is negative
+         */
+        public @Nonnull Builder<K, V> expireAfterAccess(@Nonnull Duration duration) throws IllegalArgumentException {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("expireAfterAccess must be greater than or equal to 0.");
+            }
+            this.expireAfterAccessNanos = expiryNanos(duration);
+            return this;
+        }
+
+        private static long expiryNanos(@Nonnull Duration duration) {
+            return duration.compareTo(Duration.ofNanos(MAX_EXPIRY_NANOS)) >= 0 ? MAX_EXPIRY_NANOS : duration.toNanos();
+        }
+
+        /**
+         * Sets the time source in nanoseconds for the expiration, which is {@link System#nanoTime()} by default.
+         *
+         * @param ticker the time source in nanoseconds
+         * @return this builder
+         */
+        public @Nonnull Builder<K, V> ticker(@Nonnull LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        /**
+         * Builds a {@link SimpleCache} instance.
+         *
+         * @param <K1> the key type, it is used to pass the generic type in method-chaining
+         * @param <V1> the value type, it is used to pass the generic type in method-chaining
+         * @return the built {@link SimpleCache} instance
+         */
+        public <K1 extends K, V1 extends V> @Nonnull SimpleCache<K1, V1> build() {
+            return Fs.as(SimpleCacheBack.build(
+                maximum, weigher, expireAfterWriteNanos, expireAfterAccessNanos, ticker
+            ));
+        }
+    }
 }
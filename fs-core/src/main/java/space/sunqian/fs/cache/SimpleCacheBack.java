@@ -15,6 +15,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
 
 final class SimpleCacheBack {
 
@@ -38,6 +40,28 @@ final class SimpleCacheBack {
         return new MapCache<>(map);
     }
 
+    static <K, V> @Nonnull SimpleCache<K, V> ofBounded(
+        long maximum, @Nullable ToIntBiFunction<? super K, ? super V> weigher
+    ) {
+        if (maximum < 0) {
+            throw new IllegalArgumentException("The maximum must be greater than or equal to 0.");
+        }
+        return new BoundedCache<>(maximum, weigher, -1, -1, System::nanoTime);
+    }
+
+    static <K, V> @Nonnull SimpleCache<K, V> build(
+        long maximum,
+        @Nullable ToIntBiFunction<? super K, ? super V> weigher,
+        long expireAfterWriteNanos,
+        long expireAfterAccessNanos,
+        @Nonnull LongSupplier ticker
+    ) {
+        if (maximum < 0 && expireAfterWriteNanos < 0 && expireAfterAccessNanos < 0) {
+            return ofStrong();
+        }
+        return new BoundedCache<>(maximum, weigher, expireAfterWriteNanos, expireAfterAccessNanos, ticker);
+    }
+
     private static <K, V> void compareAndRemove(@Nonnull Map<K, V> map, K key, V value) {
         V v = map.get(key);
         if (v == value) {
@@ -3,6 +3,8 @@
  * <pre>{@code
  * SimpleCache soft = SimpleCache.ofSoft();
  * SimpleCache weak = SimpleCache.ofWeak();
+ * SimpleCache bounded = SimpleCache.ofBounded(1000);
+ * SimpleCache expiring = SimpleCache.newBuilder().expireAfterWrite(Duration.ofMinutes(5)).build();
  * }</pre>
  * And cache function:
  * <pre>{@code
@@ -0,0 +1,328 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.base.bytes.BytesBuilder;
+import space.sunqian.fs.io.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * {@link Appendable} which encodes the appended chars to UTF-8 bytes directly into a pooled chunk, and writes the chunk
+ * to the output stream or channel when it is full. It also provides the methods to write numbers and escaped JSON
+ * strings without the intermediate strings.
+ * <p>
+ * {@link #flush()} must be called after writing, and {@link #release()} must be called finally to return the chunk to
+ * the pool.
+ */
+final class JsonBytesAppender implements Appendable {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final @Nonnull BufferPool POOL = BufferPool.newBuilder().direct(false).build();
+
+    // the max bytes of a char written by writeString, such as \u001F
+    private static final int MAX_ESCAPED_BYTES = 6;
+    // the max bytes of a long value: -9223372036854775808
+    private static final int MAX_LONG_BYTES = 20;
+
+    private final @Nullable OutputStream out;
+    private final @Nullable WritableByteChannel channel;
+    private @Nullable ByteBuffer chunk;
+    private final byte @Nonnull [] buf;
+    private final int end;
+    private int pos;
+    // pending high surrogate of append(char)
+    private char highSurrogate;
+    // created when the chunk is full and there is no output, for toByteArray()
+    private @Nullable BytesBuilder overflow;
+
+    JsonBytesAppender(@Nullable OutputStream out) {
+        this(out, null);
+    }
+
+    JsonBytesAppender(@Nonnull WritableByteChannel channel) {
+        this(null, channel);
+    }
+
+    private JsonBytesAppender(@Nullable OutputStream out, @Nullable WritableByteChannel channel) {
+        this.out = out;
+        this.channel = channel;
+        ByteBuffer chunk = POOL.allocate(CHUNK_SIZE);
+        this.chunk = chunk;
+        this.buf = chunk.array();
+        this.pos = chunk.arrayOffset();
+        this.end = pos + chunk.capacity();
+    }
+
+    @Override
+    public @Nonnull JsonBytesAppender append(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                require(4);
+                pos = encodeSurrogates(high, c, buf, pos);
+                return this;
+            }
+            require(1);
+            buf[pos++] = '?';
+        }
+        if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+            return this;
+        }
+        require(3);
+        pos = encodeChar(c, buf, pos);
+        return this;
+    }
+
+    @Override
+    public @Nonnull JsonBytesAppender append(@Nullable CharSequence csq) throws IOException {
+        CharSequence cs = csq == null ? "null" : csq;
+        return append(cs, 0, cs.length());
+    }
+
+    @Override
+    public @Nonnull JsonBytesAppender append(@Nullable CharSequence csq, int start, int end) throws IOException {
+        CharSequence cs = csq == null ? "null" : csq;
+        int i = start;
+        while (i < end) {
+            if (highSurrogate != 0) {
+                append(cs.charAt(i++));
+                continue;
+            }
+            // each char needs at most 3 bytes here, a surrogate pair needs 4 bytes for 2 chars
+            int room = (this.end - pos) / 3;
+            if (room == 0) {
+                flushChunk();
+                continue;
+            }
+            int segmentEnd = Math.min(end, i + room);
+            byte[] b = buf;
+            int p = pos;
+            while (i < segmentEnd) {
+                char c = cs.charAt(i);
+                if (c < 0x80) {
+                    b[p++] = (byte) c;
+                    i++;
+                    continue;
+                }
+                if (Character.isSurrogate(c)) {
+                    break;
+                }
+                p = encodeChar(c, b, p);
+                i++;
+            }
+            pos = p;
+            if (i < segmentEnd) {
+                // surrogate
+                append(cs.charAt(i++));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes the given int value as decimal digits.
+     */
+    void writeInt(int value) throws IOException {
+        writeLong(value);
+    }
+
+    /**
+     * Writes the given long value as decimal digits.
+     */
+    void writeLong(long value) throws IOException {
+        require(MAX_LONG_BYTES);
+        if (value == Long.MIN_VALUE) {
+            pos = encodeAscii("-9223372036854775808", buf, pos);
+            return;
+        }
+        byte[] b = buf;
+        int p = pos;
+        if (value < 0) {
+            b[p++] = '-';
+            value = -value;
+        }
+        int size = digitCount(value);
+        int i = p + size;
+        while (value >= 10) {
+            long q = value / 10;
+            b[--i] = (byte) ('0' + (int) (value - q * 10));
+            value = q;
+        }
+        b[--i] = (byte) ('0' + (int) value);
+        pos = p + size;
+    }
+
+    /**
+     * Writes the given string as a quoted and escaped JSON string.
+     */
+    void writeString(@Nonnull String string) throws IOException {
+        require(1);
+        buf[pos++] = '"';
+        int len = string.length();
+        int i = 0;
+        while (i < len) {
+            int room = (end - pos) / MAX_ESCAPED_BYTES;
+            if (room == 0) {
+                flushChunk();
+                continue;
+            }
+            int segmentEnd = Math.min(len, i + room);
+            byte[] b = buf;
+            int p = pos;
+            while (i < segmentEnd) {
+                char c = string.charAt(i);
+                if (c < 0x80) {
+                    byte[] escaped = JsonFormatterBack.ControlTables.ESCAPE_BYTES[c];
+                    if (escaped == null) {
+                        b[p++] = (byte) c;
+                    } else {
+                        System.arraycopy(escaped, 0, b, p, escaped.length);
+                        p += escaped.length;
+                    }
+                    i++;
+                    continue;
+                }
+                if (Character.isHighSurrogate(c)
+                    && i + 1 < len
+                    && Character.isLowSurrogate(string.charAt(i + 1))
+                ) {
+                    // 4 bytes for 2 chars, the room of 2 chars is enough
+                    p = encodeSurrogates(c, string.charAt(i + 1), b, p);
+                    i += 2;
+                    continue;
+                }
+                p = Character.isSurrogate(c) ? encodeAscii("?", b, p) : encodeChar(c, b, p);
+                i++;
+            }
+            pos = p;
+        }
+        require(1);
+        buf[pos++] = '"';
+    }
+
+    /**
+     * Writes all buffered bytes to the output stream or channel.
+     */
+    void flush() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            require(1);
+            buf[pos++] = '?';
+        }
+        if (out != null || channel != null) {
+            flushChunk();
+            if (out != null) {
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Returns all written bytes if there is no output stream or channel.
+     */
+    byte @Nonnull [] toByteArray() throws IOException {
+        flush();
+        int start = start();
+        BytesBuilder builder = overflow;
+        if (builder == null) {
+            return Arrays.copyOfRange(buf, start, pos);
+        }
+        builder.write(buf, start, pos - start);
+        pos = start;
+        return builder.toByteArray();
+    }
+
+    /**
+     * Returns the chunk to the pool.
+     */
+    void release() {
+        ByteBuffer c = chunk;
+        if (c != null) {
+            chunk = null;
+            POOL.release(c);
+        }
+    }
+
+    private void require(int size) throws IOException {
+        if (end - pos < size) {
+            flushChunk();
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        int start = start();
+        int length = pos - start;
+        if (length == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buf, start, length);
+        } else if (channel != null) {
+            ByteBuffer src = ByteBuffer.wrap(buf, start, length);
+            while (src.hasRemaining()) {
+                channel.write(src);
+            }
+        } else {
+            BytesBuilder builder = overflow;
+            if (builder == null) {
+                builder = new BytesBuilder(CHUNK_SIZE * 2);
+                overflow = builder;
+            }
+            builder.write(buf, start, length);
+        }
+        pos = start;
+    }
+
+    private int start() {
+        ByteBuffer c = chunk;
+        return c == null ? 0 : c.arrayOffset();
+    }
+
+    private static int encodeChar(char c, byte @Nonnull [] b, int p) {
+        if (c < 0x80) {
+            b[p++] = (byte) c;
+        } else if (c < 0x800) {
+            b[p++] = (byte) (0xc0 | (c >> 6));
+            b[p++] = (byte) (0x80 | (c & 0x3f));
+        } else {
+            b[p++] = (byte) (0xe0 | (c >> 12));
+            b[p++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            b[p++] = (byte) (0x80 | (c & 0x3f));
+        }
+        return p;
+    }
+
+    private static int encodeSurrogates(char high, char low, byte @Nonnull [] b, int p) {
+        int codePoint = Character.toCodePoint(high, low);
+        b[p++] = (byte) (0xf0 | (codePoint >> 18));
+        b[p++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        b[p++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        b[p++] = (byte) (0x80 | (codePoint & 0x3f));
+        return p;
+    }
+
+    private static int encodeAscii(@Nonnull String ascii, byte @Nonnull [] b, int p) {
+        for (int i = 0; i < ascii.length(); i++) {
+            b[p++] = (byte) ascii.charAt(i);
+        }
+        return p;
+    }
+
+    private static int digitCount(long value) {
+        long x = 10;
+        for (int i = 1; i < 19; i++) {
+            if (value < x) {
+                return i;
+            }
+            x *= 10;
+        }
+        return 19;
+    }
+}
@@ -4,6 +4,7 @@ import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.chars.CharsKit;
+import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.data.DataFormattingException;
 import space.sunqian.fs.io.IOKit;
 import space.sunqian.fs.object.annotation.DatePattern;
@@ -16,14 +17,19 @@ import space.sunqian.fs.object.schema.ObjectSchemaParser;
 import space.sunqian.fs.utils.codec.Base64Kit;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 final class JsonFormatterBack {
@@ -48,7 +54,7 @@ final class JsonFormatterBack {
         return new JsonFormatterImpl(objectParser, objectConverter, ignoreNullValue);
     }
 
-    private static final class JsonFormatterImpl implements JsonFormatter {
+    static final class JsonFormatterImpl implements JsonFormatter {
 
         private static final @Nonnull JsonFormatterImpl DEFAULT = newFormatter(
             false
@@ -70,14 +76,14 @@ final class JsonFormatterBack {
             FORMAT_MAP.put(String.class, (impl, obj, appender) -> impl.writeString((String) obj, appender));
             // FORMAT_MAP.put(boolean.class, (impl, obj, appender) -> appender.append(obj.toString()));
             FORMAT_MAP.put(Boolean.class, (impl, obj, appender) -> appender.append(obj.toString()));
-            FORMAT_MAP.put(Byte.class, (impl, obj, appender) -> appender.append(obj.toString()));
+            FORMAT_MAP.put(Byte.class, (impl, obj, appender) -> impl.writeInt((Byte) obj, appender));
             // FORMAT_MAP.put(short.class, (impl, obj, appender) -> appender.append(obj.toString()));
-            FORMAT_MAP.put(Short.class, (impl, obj, appender) -> appender.append(obj.toString()));
+            FORMAT_MAP.put(Short.class, (impl, obj, appender) -> impl.writeInt((Short) obj, appender));
             // FORMAT_MAP.put(char.class, (impl, obj, appender) -> appender.append(obj.toString()));
             // FORMAT_MAP.put(int.class, (impl, obj, appender) -> appender.append(obj.toString()));
-            FORMAT_MAP.put(Integer.class, (impl, obj, appender) -> appender.append(obj.toString()));
+            FORMAT_MAP.put(Integer.class, (impl, obj, appender) -> impl.writeInt((Integer) obj, appender));
             // FORMAT_MAP.put(long.class, (impl, obj, appender) -> appender.append(obj.toString()));
-            FORMAT_MAP.put(Long.class, (impl, obj, appender) -> appender.append(obj.toString()));
+            FORMAT_MAP.put(Long.class, (impl, obj, appender) -> impl.writeLong((Long) obj, appender));
             // FORMAT_MAP.put(float.class, (impl, obj, appender) -> appender.append(obj.toString()));
             FORMAT_MAP.put(Float.class, (impl, obj, appender) -> appender.append(obj.toString()));
             // FORMAT_MAP.put(double.class, (impl, obj, appender) -> appender.append(obj.toString()));
@@ -113,6 +119,7 @@ final class JsonFormatterBack {
         private final @Nonnull ObjectSchemaParser objectParser;
         private final @Nonnull ObjectConverter objectConverter;
         private final boolean ignoreNullValue;
+        private final @Nonnull SimpleCache<@Nonnull Class<?>, @Nonnull JsonObjectWriter> writers = SimpleCache.ofSoft();
 
         JsonFormatterImpl(
             @Nonnull ObjectSchemaParser objectParser,
@@ -133,6 +140,46 @@ final class JsonFormatterBack {
             }
         }
 
+        // The byte outputs are written by JsonBytesAppender in UTF-8 (the default charset) directly.
+
+        @Override
+        public void formatTo(@Nullable Object data, @Nonnull OutputStream out) throws DataFormattingException {
+            formatBytes(data, new JsonBytesAppender(out));
+        }
+
+        @Override
+        public void formatTo(
+            @Nullable Object data, @Nonnull WritableByteChannel channel
+        ) throws DataFormattingException {
+            formatBytes(data, new JsonBytesAppender(channel));
+        }
+
+        @Override
+        public byte @Nonnull [] formatBytes(@Nullable Object data) throws DataFormattingException {
+            JsonBytesAppender appender = new JsonBytesAppender((OutputStream) null);
+            try {
+                writeAny(data, appender);
+                return appender.toByteArray();
+            } catch (Exception e) {
+                throw new DataFormattingException(e);
+            } finally {
+                appender.release();
+            }
+        }
+
+        private void formatBytes(
+            @Nullable Object data, @Nonnull JsonBytesAppender appender
+        ) throws DataFormattingException {
+            try {
+                writeAny(data, appender);
+                appender.flush();
+            } catch (Exception e) {
+                throw new DataFormattingException(e);
+            } finally {
+                appender.release();
+            }
+        }
+
         private void writeAny(@Nullable Object any, @Nonnull Appendable appender) throws Exception {
             Object actualValue = preProcess(any);
             if (actualValue == null) {
@@ -179,35 +226,43 @@ final class JsonFormatterBack {
             writeObject(actualValue, appender);
         }
 
-        private void writeString(@Nonnull String string, @Nonnull Appendable appender) throws Exception {
+        void writeString(@Nonnull String string, @Nonnull Appendable appender) throws Exception {
+            if (appender instanceof JsonBytesAppender) {
+                ((JsonBytesAppender) appender).writeString(string);
+                return;
+            }
+            String[] table = ControlTables.ESCAPE_TABLE;
             appender.append('\"');
             int s = 0;
             for (int i = 0; i < string.length(); i++) {
                 char c = string.charAt(i);
-                switch (c) {
-                    case '"':
-                        appender.append(string, s, i);
-                        s = i + 1;
-                        appender.append("\\\"");
-                        continue;
-                    case '\\':
-                        appender.append(string, s, i);
-                        s = i + 1;
-                        appender.append("\\\\");
-                        continue;
-                    default:
-                        String escaped = ControlTables.toUnicodeEscape(c);
-                        if (escaped != null) {
-                            appender.append(string, s, i);
-                            s = i + 1;
-                            appender.append(escaped);
-                        }
+                String escaped;
+                if (c < table.length && (escaped = table[c]) != null) {
+                    appender.append(string, s, i);
+                    s = i + 1;
+                    appender.append(escaped);
                 }
             }
             appender.append(string, s, string.length());
             appender.append('\"');
         }
 
+        void writeInt(int value, @Nonnull Appendable appender) throws Exception {
+            if (appender instanceof JsonBytesAppender) {
+                ((JsonBytesAppender) appender).writeInt(value);
+                return;
+            }
+            appender.append(Integer.toString(value));
+        }
+
+        void writeLong(long value, @Nonnull Appendable appender) throws Exception {
+            if (appender instanceof JsonBytesAppender) {
+                ((JsonBytesAppender) appender).writeLong(value);
+                return;
+            }
+            appender.append(Long.toString(value));
+        }
+
         private void writeMap(@Nonnull Map<?, ?> map, @Nonnull Appendable appender) throws Exception {
             appender.append('{');
             boolean[] isFirst = {true};
@@ -233,34 +288,38 @@ final class JsonFormatterBack {
         }
 
         private void writeObject(@Nonnull Object object, @Nonnull Appendable appender) throws Exception {
-            ObjectSchema schema = objectParser.parse(object.getClass());
-            appender.append('{');
-            boolean[] isFirst = {true};
+            JsonObjectWriter writer = writers.get(object.getClass(), this::newWriter);
+            writer.write(object, appender);
+        }
+
+        private @Nonnull JsonObjectWriter newWriter(@Nonnull Class<?> type) {
+            ObjectSchema schema = objectParser.parse(type);
+            List<ObjectProperty> propertyList = new ArrayList<>(schema.properties().size());
             schema.properties().forEach((key, property) -> {
-                try {
-                    // ignore class
-                    if ("class".equals(property.name())) {
-                        return;
-                    }
-                    Object value = property.getValue(object);
-                    Object actualValue = preProcess(value);
-                    if (ignoreNullValue && actualValue == null) {
-                        return;
-                    }
-                    if (isFirst[0]) {
-                        isFirst[0] = false;
-                    } else {
-                        appender.append(',');
-                    }
-                    writeProperty(property, actualValue, appender);
-                } catch (Exception e) {
-                    throw new JsonDataException(e);
+                // ignore class
+                if (!"class".equals(property.name())) {
+                    propertyList.add(property);
                 }
             });
-            appender.append('}');
+            ObjectProperty[] properties = propertyList.toArray(new ObjectProperty[0]);
+            String[] names = new String[properties.length];
+            StringBuilder nameBuilder = new StringBuilder();
+            for (int i = 0; i < properties.length; i++) {
+                String name = properties[i].name();
+                nameBuilder.setLength(0);
+                Fs.uncheck(() -> writeString(name, nameBuilder), JsonDataException::new);
+                names[i] = nameBuilder.append(':').toString();
+            }
+            JsonObjectWriter writer = JsonWriterByAsm.newWriter(type, properties, names);
+            if (writer == null) {
+                writer = new ReflectiveWriter(names);
+            }
+            writer.init(this, properties, ignoreNullValue);
+            return writer;
         }
 
-        private @Nullable Object preProcess(@Nullable Object any) {
+        @Nullable
+        Object preProcess(@Nullable Object any) {
             if (any instanceof byte[]) {
                 if (((byte[]) any).length != 0) {
                     return Base64Kit.encoder().encodeToString((byte[]) any);
@@ -293,11 +352,9 @@ final class JsonFormatterBack {
             return any;
         }
 
-        private void writeProperty(
+        void writePropertyValue(
             @Nonnull ObjectProperty property, @Nullable Object value, @Nonnull Appendable appender
         ) throws Exception {
-            writeString(property.name(), appender);
-            appender.append(':');
             if (value != null) {
                 if (value instanceof Date || value instanceof TemporalAccessor) {
                     DatePattern datePattern = property.getAnnotation(DatePattern.class);
@@ -373,7 +430,7 @@ final class JsonFormatterBack {
                 if (comma) {
                     appender.append(',');
                 }
-                appender.append(String.valueOf(element));
+                writeInt(element, appender);
                 comma = true;
             }
             appender.append(']');
@@ -386,7 +443,7 @@ final class JsonFormatterBack {
                 if (comma) {
                     appender.append(',');
                 }
-                appender.append(String.valueOf(element));
+                writeInt(element, appender);
                 comma = true;
             }
             appender.append(']');
@@ -399,7 +456,7 @@ final class JsonFormatterBack {
                 if (comma) {
                     appender.append(',');
                 }
-                appender.append(String.valueOf(l));
+                writeLong(l, appender);
                 comma = true;
             }
             appender.append(']');
@@ -432,10 +489,37 @@ final class JsonFormatterBack {
         }
     }
 
-    private static final class ControlTables {
+    private static final class ReflectiveWriter extends JsonObjectWriter {
+
+        private final @Nonnull String @Nonnull [] names;
+
+        private ReflectiveWriter(@Nonnull String @Nonnull [] names) {
+            this.names = names;
+        }
+
+        @Override
+        protected void writeProperties(@Nonnull Object object, @Nonnull Appendable appender) throws Exception {
+            boolean first = true;
+            for (int i = 0; i < names.length; i++) {
+                first = writeValue(first, names[i], i, getValue(i, object), appender);
+            }
+        }
+    }
+
+    static final class ControlTables {
 
         private static final @Nonnull String @Nonnull [] CONTROL_CHAR_ESCAPE_TABLE;
 
+        /**
+         * Escaped strings of the ASCII chars in JSON string, {@code null} if the char needs no escape.
+         */
+        static final @Nullable String @Nonnull [] ESCAPE_TABLE;
+
+        /**
+         * UTF-8 bytes of the {@link #ESCAPE_TABLE}.
+         */
+        static final byte @Nullable [] @Nonnull [] ESCAPE_BYTES;
+
         static {
             CONTROL_CHAR_ESCAPE_TABLE = new String[32];
             for (int i = 0; i < CONTROL_CHAR_ESCAPE_TABLE.length; i++) {
@@ -446,6 +530,17 @@ final class JsonFormatterBack {
             CONTROL_CHAR_ESCAPE_TABLE['\t'] = "\\t";
             CONTROL_CHAR_ESCAPE_TABLE['\b'] = "\\b";
             CONTROL_CHAR_ESCAPE_TABLE['\f'] = "\\f";
+            ESCAPE_TABLE = new String[128];
+            System.arraycopy(CONTROL_CHAR_ESCAPE_TABLE, 0, ESCAPE_TABLE, 0, CONTROL_CHAR_ESCAPE_TABLE.length);
+            ESCAPE_TABLE['"'] = "\\\"";
+            ESCAPE_TABLE['\\'] = "\\\\";
+            ESCAPE_BYTES = new byte[ESCAPE_TABLE.length][];
+            for (int i = 0; i < ESCAPE_TABLE.length; i++) {
+                String escaped = ESCAPE_TABLE[i];
+                if (escaped != null) {
+                    ESCAPE_BYTES[i] = escaped.getBytes(StandardCharsets.US_ASCII);
+                }
+            }
         }
 
         private static @Nullable String toUnicodeEscape(char c) {
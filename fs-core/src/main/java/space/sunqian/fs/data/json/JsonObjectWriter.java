@@ -0,0 +1,224 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.object.schema.ObjectProperty;
+
+/**
+ * Writer of the properties of objects of a specified type, used by the {@link JsonFormatter#defaultFormatter()} and
+ * the formatters created by {@link JsonFormatter#newFormatter}. The formatter creates a writer for each type and caches
+ * it, the writer is a generated subclass that calls the getters directly when the type allows, otherwise a
+ * reflective one.
+ * <p>
+ * Each {@code writeXxx} method of this class writes a property, its {@code first} parameter is whether no property
+ * has been written before, and it returns the new value of that flag for the next property. The {@code name}
+ * parameter is the pre-escaped JSON name with the quotes and colon, such as {@code "name":}.
+ * <p>
+ * This is a lib-internal class, it is public only for the generated subclasses.
+ *
+ * @author sunqian
+ */
+public abstract class JsonObjectWriter {
+
+    private JsonFormatterBack.JsonFormatterImpl formatter;
+    private ObjectProperty @Nonnull [] properties;
+    private boolean ignoreNullValue;
+
+    /**
+     * Constructs an uninitialized writer, it will be initialized by the formatter.
+     */
+    protected JsonObjectWriter() {
+        this.properties = new ObjectProperty[0];
+    }
+
+    final void init(
+        @Nonnull JsonFormatterBack.JsonFormatterImpl formatter,
+        ObjectProperty @Nonnull [] properties,
+        boolean ignoreNullValue
+    ) {
+        this.formatter = formatter;
+        this.properties = properties;
+        this.ignoreNullValue = ignoreNullValue;
+    }
+
+    /**
+     * Writes the given object as a JSON object into the given appender.
+     *
+     * @param object   the given object
+     * @param appender the given appender
+     * @throws Exception if any error occurs
+     */
+    public final void write(@Nonnull Object object, @Nonnull Appendable appender) throws Exception {
+        appender.append('{');
+        writeProperties(object, appender);
+        appender.append('}');
+    }
+
+    /**
+     * Writes the properties of the given object into the given appender, without the braces.
+     *
+     * @param object   the given object
+     * @param appender the given appender
+     * @throws Exception if any error occurs
+     */
+    protected abstract void writeProperties(@Nonnull Object object, @Nonnull Appendable appender) throws Exception;
+
+    /**
+     * Returns the value of the property at the specified index from the given object, by the getter of the property.
+     *
+     * @param index  the specified index
+     * @param object the given object
+     * @return the value of the property
+     */
+    protected final @Nullable Object getValue(int index, @Nonnull Object object) {
+        return properties[index].getValue(object);
+    }
+
+    /**
+     * Writes the property at the specified index with the given value, the value will be processed as the reflective
+     * way, including the null check and the annotations of the property.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param index    the specified index
+     * @param value    the given value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeValue(
+        boolean first, @Nonnull String name, int index, @Nullable Object value, @Nonnull Appendable appender
+    ) throws Exception {
+        Object actualValue = formatter.preProcess(value);
+        if (ignoreNullValue && actualValue == null) {
+            return first;
+        }
+        writeName(first, name, appender);
+        formatter.writePropertyValue(properties[index], actualValue, appender);
+        return false;
+    }
+
+    /**
+     * Writes a string property.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param value    the string value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeString(
+        boolean first, @Nonnull String name, @Nullable String value, @Nonnull Appendable appender
+    ) throws Exception {
+        if (value == null) {
+            if (ignoreNullValue) {
+                return first;
+            }
+            writeName(first, name, appender);
+            appender.append(Fs.NULL_STRING);
+            return false;
+        }
+        writeName(first, name, appender);
+        formatter.writeString(value, appender);
+        return false;
+    }
+
+    /**
+     * Writes a boolean property.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param value    the boolean value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeBoolean(
+        boolean first, @Nonnull String name, boolean value, @Nonnull Appendable appender
+    ) throws Exception {
+        writeName(first, name, appender);
+        appender.append(value ? "true" : "false");
+        return false;
+    }
+
+    /**
+     * Writes an int property, also used for byte and short properties.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param value    the int value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeInt(
+        boolean first, @Nonnull String name, int value, @Nonnull Appendable appender
+    ) throws Exception {
+        writeName(first, name, appender);
+        formatter.writeInt(value, appender);
+        return false;
+    }
+
+    /**
+     * Writes a long property.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param value    the long value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeLong(
+        boolean first, @Nonnull String name, long value, @Nonnull Appendable appender
+    ) throws Exception {
+        writeName(first, name, appender);
+        formatter.writeLong(value, appender);
+        return false;
+    }
+
+    /**
+     * Writes a float property.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param value    the float value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeFloat(
+        boolean first, @Nonnull String name, float value, @Nonnull Appendable appender
+    ) throws Exception {
+        writeName(first, name, appender);
+        appender.append(Float.toString(value));
+        return false;
+    }
+
+    /**
+     * Writes a double property.
+     *
+     * @param first    whether no property has been written before
+     * @param name     the pre-escaped name
+     * @param value    the double value
+     * @param appender the given appender
+     * @return the new value of the first flag
+     * @throws Exception if any error occurs
+     */
+    protected final boolean writeDouble(
+        boolean first, @Nonnull String name, double value, @Nonnull Appendable appender
+    ) throws Exception {
+        writeName(first, name, appender);
+        appender.append(Double.toString(value));
+        return false;
+    }
+
+    private void writeName(boolean first, @Nonnull String name, @Nonnull Appendable appender) throws Exception {
+        if (!first) {
+            appender.append(',');
+        }
+        appender.append(name);
+    }
+}
@@ -4,11 +4,14 @@ import space.sunqian.annotation.Nonnull;
 import space.sunqian.fs.base.chars.CharsKit;
 import space.sunqian.fs.data.ByteDataParser;
 import space.sunqian.fs.data.CharDataParser;
+import space.sunqian.fs.io.ByteReader;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
 
 /**
  * Represents the JSON data parser that parses JSON data a {@code JsonData} object.
@@ -26,6 +29,18 @@ public interface JsonParser extends ByteDataParser<JsonData>, CharDataParser<Jso
         return JsonParserImpl.INST;
     }
 
+    /**
+     * Parses and returns the JSON data from the given array to a {@link JsonData} object, using
+     * {@link CharsKit#defaultCharset()}.
+     *
+     * @param input the given array
+     * @return the parsed {@link JsonData} object
+     * @throws JsonDataParsingException if any error occurs during parsing
+     */
+    default @Nonnull JsonData parse(byte @Nonnull [] input) throws JsonDataParsingException {
+        return parse(new ByteArrayInputStream(input));
+    }
+
     /**
      * Parses and returns the JSON data from the given input stream to a {@link JsonData} object, using
      * {@link CharsKit#defaultCharset()}.
@@ -61,6 +76,44 @@ public interface JsonParser extends ByteDataParser<JsonData>, CharDataParser<Jso
     @Nonnull
     JsonData parse(@Nonnull Reader reader) throws JsonDataParsingException;
 
+    /**
+     * Parses the given UTF-8 encoded input stream, which must be a JSON array, lazily. Returns an iterator of the
+     * elements of the array, each element is read from the input stream only when the iterator advances to it, so the
+     * whole array does not need to be held in memory.
+     * <p>
+     * The iterator throws {@link JsonDataParsingException} if any error occurs during parsing, including there is any
+     * non-whitespace char after the array. The input stream will not be closed by this method or the iterator.
+     *
+     * @param input the given UTF-8 encoded input stream
+     * @return an iterator of the elements of the array
+     * @throws JsonDataParsingException if the input is not a JSON array or any error occurs during parsing
+     * @see JsonReader
+     */
+    default @Nonnull Iterator<@Nonnull JsonData> iterateArray(
+        @Nonnull InputStream input
+    ) throws JsonDataParsingException {
+        return JsonParserImpl.iterateArray(JsonReader.from(input));
+    }
+
+    /**
+     * Parses the given UTF-8 encoded readable byte channel, which must be a JSON array, lazily. Returns an iterator of
+     * the elements of the array, each element is read from the channel only when the iterator advances to it, so the
+     * whole array does not need to be held in memory.
+     * <p>
+     * The iterator throws {@link JsonDataParsingException} if any error occurs during parsing, including there is any
+     * non-whitespace char after the array. The channel will not be closed by this method or the iterator.
+     *
+     * @param channel the given UTF-8 encoded readable byte channel
+     * @return an iterator of the elements of the array
+     * @throws JsonDataParsingException if the input is not a JSON array or any error occurs during parsing
+     * @see JsonReader
+     */
+    default @Nonnull Iterator<@Nonnull JsonData> iterateArray(
+        @Nonnull ReadableByteChannel channel
+    ) throws JsonDataParsingException {
+        return JsonParserImpl.iterateArray(JsonReader.from(ByteReader.from(channel)));
+    }
+
     /**
      * Parses and returns the JSON data from the given JSON string to a {@link JsonData} object.
      *
@@ -5,35 +5,49 @@ import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.chars.CharsKit;
 import space.sunqian.fs.base.number.NumKit;
+import space.sunqian.fs.io.ByteReader;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 enum JsonParserImpl implements JsonParser {
     INST;
 
     private static final @Nonnull Object NULL = new Object();
 
+    // The byte inputs are parsed directly on the UTF-8 bytes (the default charset) without decoding by a Reader.
+
+    @Override
+    public @Nonnull JsonData parse(byte @Nonnull [] input) throws JsonDataParsingException {
+        return parse(new JsonReaderImpl(input, 0, input.length));
+    }
+
     @Override
     public @Nonnull JsonData parse(@Nonnull InputStream input) throws JsonDataParsingException {
-        Reader reader = new InputStreamReader(input, CharsKit.defaultCharset());
-        return parse(reader);
+        return parse(new JsonReaderImpl(ByteReader.from(input)));
     }
 
     @Override
     public @Nonnull JsonData parse(@Nonnull ReadableByteChannel channel) throws JsonDataParsingException {
-        // compatible with JDK8
-        @SuppressWarnings("CharsetObjectCanBeUsed")
-        Reader reader = Channels.newReader(channel, CharsKit.defaultCharset().name());
-        return parse(reader);
+        return parse(new JsonReaderImpl(ByteReader.from(channel)));
+    }
+
+    private @Nonnull JsonData parse(@Nonnull JsonReaderImpl reader) throws JsonDataParsingException {
+        try {
+            return toJsonData(reader.parseDocument());
+        } catch (JsonDataParsingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonDataParsingException(e);
+        }
     }
 
     @Override
@@ -41,22 +55,7 @@ enum JsonParserImpl implements JsonParser {
         try {
             JReader jReader = new JReader(reader);
             Object result = parseJson(jReader, new StringBuilder(), true);
-            if (result == null) {
-                return JsonData.ofNull();
-            }
-            if (result instanceof String) {
-                return JsonData.ofString((String) result);
-            }
-            if (result instanceof Boolean) {
-                return JsonData.ofBoolean((Boolean) result);
-            }
-            if (result instanceof Number) {
-                return JsonData.ofNumber((Number) result);
-            }
-            if (result instanceof List<?>) {
-                return JsonData.ofList(Fs.as(result));
-            }
-            return JsonData.ofMap(Fs.as(result));
+            return toJsonData(result);
         } catch (JsonDataParsingException e) {
             throw e;
         } catch (Exception e) {
@@ -64,6 +63,63 @@ enum JsonParserImpl implements JsonParser {
         }
     }
 
+    static @Nonnull JsonData toJsonData(@Nullable Object result) {
+        if (result == null) {
+            return JsonData.ofNull();
+        }
+        if (result instanceof String) {
+            return JsonData.ofString((String) result);
+        }
+        if (result instanceof Boolean) {
+            return JsonData.ofBoolean((Boolean) result);
+        }
+        if (result instanceof Number) {
+            return JsonData.ofNumber((Number) result);
+        }
+        if (result instanceof List<?>) {
+            return JsonData.ofList(Fs.as(result));
+        }
+        return JsonData.ofMap(Fs.as(result));
+    }
+
+    static @Nonnull Iterator<@Nonnull JsonData> iterateArray(
+        @Nonnull JsonReader reader
+    ) throws JsonDataParsingException {
+        JsonToken first = reader.peek();
+        if (first != JsonToken.BEGIN_ARRAY) {
+            throw new JsonDataParsingException((int) reader.position(), first.name(), JsonToken.BEGIN_ARRAY.name());
+        }
+        reader.nextToken();
+        return new Iterator<JsonData>() {
+
+            private boolean end = false;
+
+            @Override
+            public boolean hasNext() throws JsonDataParsingException {
+                if (end) {
+                    return false;
+                }
+                if (reader.hasNext()) {
+                    return true;
+                }
+                JsonToken token = reader.nextToken();
+                if (token != JsonToken.END_ARRAY || reader.peek() != JsonToken.END_DOCUMENT) {
+                    throw new JsonDataParsingException((int) reader.position(), token.name(), null);
+                }
+                end = true;
+                return false;
+            }
+
+            @Override
+            public @Nonnull JsonData next() throws JsonDataParsingException {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return reader.nextValue();
+            }
+        };
+    }
+
     private Object parseJson(
         @Nonnull JReader reader, @Nonnull StringBuilder strBuilder, boolean toEnd
     ) throws Exception {
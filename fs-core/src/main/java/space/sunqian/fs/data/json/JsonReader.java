@@ -0,0 +1,209 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.fs.io.ByteReader;
+import space.sunqian.fs.io.IORuntimeException;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Pull-style reader of JSON tokens, reads the UTF-8 encoded JSON input token by token without building the whole
+ * tree, so it can process very large input in constant memory. Example:
+ * <pre>{@code
+ * // {"name": "a", "ids": [1, 2, 3]}
+ * JsonReader reader = JsonReader.from(input);
+ * reader.nextToken(); // BEGIN_OBJECT
+ * while (reader.hasNext()) {
+ *     String name = reader.nextName();
+ *     if ("ids".equals(name)) {
+ *         reader.nextToken(); // BEGIN_ARRAY
+ *         while (reader.hasNext()) {
+ *             long id = reader.nextLong();
+ *         }
+ *         reader.nextToken(); // END_ARRAY
+ *     } else {
+ *         reader.skipValue();
+ *     }
+ * }
+ * reader.nextToken(); // END_OBJECT
+ * }</pre>
+ * The index of the {@link JsonDataParsingException} thrown by this reader is the byte offset of the input.
+ *
+ * @author sunqian
+ */
+public interface JsonReader extends Closeable {
+
+    /**
+     * Returns a new {@link JsonReader} which reads the given UTF-8 encoded array.
+     *
+     * @param input the given UTF-8 encoded array
+     * @return a new {@link JsonReader} which reads the given UTF-8 encoded array
+     */
+    static @Nonnull JsonReader from(byte @Nonnull [] input) {
+        return new JsonReaderImpl(input, 0, input.length);
+    }
+
+    /**
+     * Returns a new {@link JsonReader} which reads the remaining data of the given UTF-8 encoded buffer. The content
+     * of the buffer must not be modified during reading, and the position of the buffer after reading is undefined.
+     *
+     * @param input the given UTF-8 encoded buffer
+     * @return a new {@link JsonReader} which reads the remaining data of the given UTF-8 encoded buffer
+     */
+    static @Nonnull JsonReader from(@Nonnull ByteBuffer input) {
+        if (input.hasArray()) {
+            int off = input.arrayOffset() + input.position();
+            JsonReader reader = new JsonReaderImpl(input.array(), off, off + input.remaining());
+            input.position(input.limit());
+            return reader;
+        }
+        return from(ByteReader.from(input));
+    }
+
+    /**
+     * Returns a new {@link JsonReader} which reads the given UTF-8 encoded input stream.
+     *
+     * @param input the given UTF-8 encoded input stream
+     * @return a new {@link JsonReader} which reads the given UTF-8 encoded input stream
+     */
+    static @Nonnull JsonReader from(@Nonnull InputStream input) {
+        return from(ByteReader.from(input));
+    }
+
+    /**
+     * Returns a new {@link JsonReader} which reads the given UTF-8 encoded byte reader.
+     *
+     * @param input the given UTF-8 encoded byte reader
+     * @return a new {@link JsonReader} which reads the given UTF-8 encoded byte reader
+     */
+    static @Nonnull JsonReader from(@Nonnull ByteReader input) {
+        return new JsonReaderImpl(input);
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return the type of the next token
+     * @throws JsonDataParsingException if any error occurs during parsing
+     */
+    @Nonnull
+    JsonToken peek() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token and returns its type. If the token is a name or a value, its content is skipped, use
+     * {@link #nextName()}, {@link #nextString()}, {@link #nextLong()} and so on to read the content.
+     * <p>
+     * If the input has been read to the end, returns {@link JsonToken#END_DOCUMENT}.
+     *
+     * @return the type of the consumed token
+     * @throws JsonDataParsingException if any error occurs during parsing
+     */
+    @Nonnull
+    JsonToken nextToken() throws JsonDataParsingException;
+
+    /**
+     * Returns whether the current array or object has more elements.
+     *
+     * @return whether the current array or object has more elements
+     * @throws JsonDataParsingException if any error occurs during parsing
+     */
+    boolean hasNext() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#NAME}, and returns the name.
+     *
+     * @return the name of the next property
+     * @throws JsonDataParsingException if the next token is not a name or any error occurs during parsing
+     */
+    @Nonnull
+    String nextName() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#STRING} or {@link JsonToken#NUMBER}, and returns the
+     * string value, or the literal text of the number.
+     *
+     * @return the string value of the next token
+     * @throws JsonDataParsingException if the next token is not a string or number, or any error occurs during parsing
+     */
+    @Nonnull
+    String nextString() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#NUMBER}, and returns it as a {@code long} value.
+     *
+     * @return the {@code long} value of the next token
+     * @throws JsonDataParsingException if the next token is not a number, or the number can not be represented as a
+     *                                  {@code long} exactly, or any error occurs during parsing
+     */
+    long nextLong() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#NUMBER}, and returns it as a {@code double} value.
+     *
+     * @return the {@code double} value of the next token
+     * @throws JsonDataParsingException if the next token is not a number or any error occurs during parsing
+     */
+    double nextDouble() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#NUMBER}, and returns it as a {@link Number}, in the
+     * same way as the {@link JsonParser#defaultParser()}.
+     *
+     * @return the number value of the next token
+     * @throws JsonDataParsingException if the next token is not a number or any error occurs during parsing
+     */
+    @Nonnull
+    Number nextNumber() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#BOOLEAN}, and returns the boolean value.
+     *
+     * @return the boolean value of the next token
+     * @throws JsonDataParsingException if the next token is not a boolean or any error occurs during parsing
+     */
+    boolean nextBoolean() throws JsonDataParsingException;
+
+    /**
+     * Consumes the next token which must be a {@link JsonToken#NULL}.
+     *
+     * @throws JsonDataParsingException if the next token is not a null or any error occurs during parsing
+     */
+    void nextNull() throws JsonDataParsingException;
+
+    /**
+     * Consumes and returns the next value as a {@link JsonData}. If the value is an object or array, the whole
+     * subtree is read into memory.
+     * <p>
+     * If the next token is a name, the name is skipped and its value is returned.
+     *
+     * @return the next value as a {@link JsonData}
+     * @throws JsonDataParsingException if there is no next value or any error occurs during parsing
+     */
+    @Nonnull
+    JsonData nextValue() throws JsonDataParsingException;
+
+    /**
+     * Skips the next value without materializing it. If the value is an object or array, all of its nested values are
+     * skipped. If the next token is a name, the name and its value are skipped.
+     *
+     * @throws JsonDataParsingException if there is no next value or any error occurs during parsing
+     */
+    void skipValue() throws JsonDataParsingException;
+
+    /**
+     * Returns the byte offset of the input where the next token will be read from.
+     *
+     * @return the byte offset of the input where the next token will be read from
+     */
+    long position();
+
+    /**
+     * Closes this reader and the underlying input.
+     *
+     * @throws IORuntimeException if an I/O error occurs
+     */
+    @Override
+    void close() throws IORuntimeException;
+}
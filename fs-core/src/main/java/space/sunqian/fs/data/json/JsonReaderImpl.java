@@ -0,0 +1,857 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.base.chars.CharsKit;
+import space.sunqian.fs.base.number.NumKit;
+import space.sunqian.fs.io.ByteReader;
+import space.sunqian.fs.io.IOKit;
+import space.sunqian.fs.io.IORuntimeException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class JsonReaderImpl implements JsonReader {
+
+    // scopes
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private static final long MULT_MIN = Long.MIN_VALUE / 10;
+
+    private final @Nullable ByteReader source;
+    private final byte @Nonnull [] buf;
+    private int pos;
+    private int limit;
+    // offset of the input at index 0 of the buffer
+    private long bufOffset;
+
+    private int @Nonnull [] stack = new int[32];
+    private int stackSize = 1;
+    private @Nullable JsonToken peeked;
+    private boolean peekedBoolean;
+    private final @Nonnull StringBuilder builder = new StringBuilder();
+
+    JsonReaderImpl(byte @Nonnull [] input, int start, int end) {
+        this.source = null;
+        this.buf = input;
+        this.pos = start;
+        this.limit = end;
+        this.bufOffset = -start;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    JsonReaderImpl(@Nonnull ByteReader source) {
+        this.source = source;
+        this.buf = new byte[IOKit.bufferSize()];
+        this.pos = 0;
+        this.limit = 0;
+        this.bufOffset = 0;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    @Override
+    public @Nonnull JsonToken peek() throws JsonDataParsingException {
+        JsonToken p = peeked;
+        if (p == null) {
+            p = doPeek();
+            peeked = p;
+        }
+        return p;
+    }
+
+    private @Nonnull JsonToken doPeek() throws JsonDataParsingException {
+        int top = stack[stackSize - 1];
+        int c;
+        switch (top) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    pos++;
+                    return JsonToken.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw unexpected(c, "]");
+                }
+                pos++;
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                stack[stackSize - 1] = DANGLING_NAME;
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    pos++;
+                    return JsonToken.END_OBJECT;
+                }
+                if (top == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw unexpected(c, "}");
+                    }
+                    pos++;
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw unexpected(c, "\"");
+                }
+                pos++;
+                return JsonToken.NAME;
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                c = nextNonWhitespace();
+                if (c != ':') {
+                    throw unexpected(c, ":");
+                }
+                pos++;
+                break;
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default:
+                // NONEMPTY_DOCUMENT
+                c = nextNonWhitespace();
+                if (c == -1) {
+                    return JsonToken.END_DOCUMENT;
+                }
+                throw unexpected(c, null);
+        }
+        c = nextNonWhitespace();
+        switch (c) {
+            case ']':
+                if (top == EMPTY_ARRAY) {
+                    pos++;
+                    return JsonToken.END_ARRAY;
+                }
+                throw unexpected(c, null);
+            case '[':
+                pos++;
+                return JsonToken.BEGIN_ARRAY;
+            case '{':
+                pos++;
+                return JsonToken.BEGIN_OBJECT;
+            case '"':
+                pos++;
+                return JsonToken.STRING;
+            case 't':
+                literal("true");
+                peekedBoolean = true;
+                return JsonToken.BOOLEAN;
+            case 'f':
+                literal("false");
+                peekedBoolean = false;
+                return JsonToken.BOOLEAN;
+            case 'n':
+                literal("null");
+                return JsonToken.NULL;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return JsonToken.NUMBER;
+            default:
+                throw unexpected(c, null);
+        }
+    }
+
+    @Override
+    public @Nonnull JsonToken nextToken() throws JsonDataParsingException {
+        JsonToken token = peek();
+        switch (token) {
+            case BEGIN_ARRAY:
+                push(EMPTY_ARRAY);
+                break;
+            case BEGIN_OBJECT:
+                push(EMPTY_OBJECT);
+                break;
+            case END_ARRAY:
+            case END_OBJECT:
+                stackSize--;
+                break;
+            case NAME:
+            case STRING:
+                skipString();
+                break;
+            case NUMBER:
+                skipNumber();
+                break;
+            default:
+                // BOOLEAN, NULL, END_DOCUMENT
+                break;
+        }
+        if (token != JsonToken.END_DOCUMENT) {
+            peeked = null;
+        }
+        return token;
+    }
+
+    @Override
+    public boolean hasNext() throws JsonDataParsingException {
+        JsonToken token = peek();
+        return token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT && token != JsonToken.END_DOCUMENT;
+    }
+
+    @Override
+    public @Nonnull String nextName() throws JsonDataParsingException {
+        expect(JsonToken.NAME);
+        String name = readString();
+        peeked = null;
+        return name;
+    }
+
+    @Override
+    public @Nonnull String nextString() throws JsonDataParsingException {
+        JsonToken token = peek();
+        String result;
+        if (token == JsonToken.STRING) {
+            result = readString();
+        } else if (token == JsonToken.NUMBER) {
+            result = readNumberText();
+        } else {
+            throw unexpectedToken(token, JsonToken.STRING);
+        }
+        peeked = null;
+        return result;
+    }
+
+    @Override
+    public long nextLong() throws JsonDataParsingException {
+        expect(JsonToken.NUMBER);
+        long start = position();
+        long negValue = 0;
+        boolean negative = false;
+        boolean integral = true;
+        int digits = 0;
+        builder.setLength(0);
+        while (true) {
+            if (pos >= limit && !fill(1)) {
+                break;
+            }
+            int c = buf[pos];
+            if (!isNumberChar(c)) {
+                break;
+            }
+            pos++;
+            builder.append((char) c);
+            if (!integral) {
+                continue;
+            }
+            if (c >= '0' && c <= '9') {
+                int d = c - '0';
+                if (negValue < MULT_MIN) {
+                    integral = false;
+                    continue;
+                }
+                negValue *= 10;
+                if (negValue < Long.MIN_VALUE + d) {
+                    integral = false;
+                    continue;
+                }
+                negValue -= d;
+                digits++;
+            } else if (c == '-' && builder.length() == 1) {
+                negative = true;
+            } else {
+                integral = false;
+            }
+        }
+        peeked = null;
+        if (integral && digits > 0 && (negative || negValue != Long.MIN_VALUE)) {
+            return negative ? negValue : -negValue;
+        }
+        String text = builder.toString();
+        try {
+            return new BigDecimal(text).longValueExact();
+        } catch (Exception e) {
+            throw new JsonDataParsingException((int) start, text, null);
+        }
+    }
+
+    @Override
+    public double nextDouble() throws JsonDataParsingException {
+        expect(JsonToken.NUMBER);
+        long start = position();
+        String text = readNumberText();
+        peeked = null;
+        try {
+            return Double.parseDouble(text);
+        } catch (Exception e) {
+            throw new JsonDataParsingException((int) start, text, null);
+        }
+    }
+
+    @Override
+    public @Nonnull Number nextNumber() throws JsonDataParsingException {
+        expect(JsonToken.NUMBER);
+        Number number = readNumber();
+        peeked = null;
+        return number;
+    }
+
+    @Override
+    public boolean nextBoolean() throws JsonDataParsingException {
+        expect(JsonToken.BOOLEAN);
+        peeked = null;
+        return peekedBoolean;
+    }
+
+    @Override
+    public void nextNull() throws JsonDataParsingException {
+        expect(JsonToken.NULL);
+        peeked = null;
+    }
+
+    @Override
+    public @Nonnull JsonData nextValue() throws JsonDataParsingException {
+        if (peek() == JsonToken.NAME) {
+            nextToken();
+        }
+        return JsonParserImpl.toJsonData(readValue());
+    }
+
+    private @Nullable Object readValue() throws JsonDataParsingException {
+        JsonToken token = peek();
+        switch (token) {
+            case BEGIN_OBJECT: {
+                nextToken();
+                Map<String, Object> map = new LinkedHashMap<>();
+                while (hasNext()) {
+                    String name = nextName();
+                    map.put(name, readValue());
+                }
+                nextToken();
+                return map;
+            }
+            case BEGIN_ARRAY: {
+                nextToken();
+                List<Object> list = new ArrayList<>();
+                while (hasNext()) {
+                    list.add(readValue());
+                }
+                nextToken();
+                return list;
+            }
+            case STRING:
+                return nextString();
+            case NUMBER:
+                return nextNumber();
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                throw unexpectedToken(token, null);
+        }
+    }
+
+    /**
+     * Parses the whole input as one JSON value, directly on the UTF-8 bytes without the token state machine. The
+     * grammar is the same as the char-based parsing of {@link JsonParserImpl}, so the results of both ways are same.
+     */
+    @Nullable
+    Object parseDocument() throws JsonDataParsingException {
+        Object result = parseAny();
+        int c = nextNonWhitespace();
+        if (c != -1) {
+            throw unexpected(c, null);
+        }
+        return result;
+    }
+
+    private @Nullable Object parseAny() throws JsonDataParsingException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                pos++;
+                return parseObject();
+            case '[':
+                pos++;
+                return parseArray();
+            case '"':
+                pos++;
+                return readString();
+            case 't':
+                literal("true");
+                return true;
+            case 'f':
+                literal("false");
+                return false;
+            case 'n':
+                literal("null");
+                return null;
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                return readNumber();
+            default:
+                throw unexpected(c, null);
+        }
+    }
+
+    private @Nonnull Map<String, Object> parseObject() throws JsonDataParsingException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        boolean first = true;
+        while (true) {
+            int c = nextNonWhitespace();
+            switch (c) {
+                case '"':
+                    pos++;
+                    String key = readString();
+                    c = nextNonWhitespace();
+                    if (c != ':') {
+                        throw unexpected(c, ":");
+                    }
+                    pos++;
+                    map.put(key, parseAny());
+                    first = false;
+                    continue;
+                case ',':
+                    if (first) {
+                        throw unexpected(c, null);
+                    }
+                    pos++;
+                    continue;
+                case '}':
+                    pos++;
+                    return map;
+                case -1:
+                    throw unexpected(c, "}");
+                default:
+                    throw unexpected(c, null);
+            }
+        }
+    }
+
+    private @Nonnull List<Object> parseArray() throws JsonDataParsingException {
+        List<Object> list = new ArrayList<>();
+        while (true) {
+            int c = nextNonWhitespace();
+            switch (c) {
+                case ',':
+                    if (list.isEmpty()) {
+                        throw unexpected(c, null);
+                    }
+                    pos++;
+                    continue;
+                case ']':
+                    pos++;
+                    return list;
+                case -1:
+                    throw unexpected(c, "]");
+                default:
+                    list.add(parseAny());
+            }
+        }
+    }
+
+    @Override
+    public void skipValue() throws JsonDataParsingException {
+        if (peek() == JsonToken.NAME) {
+            nextToken();
+        }
+        int depth = 0;
+        do {
+            JsonToken token = peek();
+            switch (token) {
+                case BEGIN_ARRAY:
+                case BEGIN_OBJECT:
+                    depth++;
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    if (depth == 0) {
+                        throw unexpectedToken(token, null);
+                    }
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw unexpectedToken(token, null);
+                default:
+                    break;
+            }
+            nextToken();
+        } while (depth > 0);
+    }
+
+    @Override
+    public long position() {
+        return bufOffset + pos;
+    }
+
+    @Override
+    public void close() throws IORuntimeException {
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void expect(@Nonnull JsonToken expected) throws JsonDataParsingException {
+        JsonToken token = peek();
+        if (token != expected) {
+            throw unexpectedToken(token, expected);
+        }
+    }
+
+    private boolean fill(int minimum) throws JsonDataParsingException {
+        ByteReader src = source;
+        if (src == null) {
+            return limit - pos >= minimum;
+        }
+        if (pos > 0) {
+            int remaining = limit - pos;
+            System.arraycopy(buf, pos, buf, 0, remaining);
+            bufOffset += pos;
+            limit = remaining;
+            pos = 0;
+        }
+        try {
+            while (limit < minimum) {
+                int readSize = src.readTo(buf, limit, buf.length - limit);
+                if (readSize < 0) {
+                    return false;
+                }
+                limit += readSize;
+            }
+        } catch (IORuntimeException e) {
+            throw new JsonDataParsingException(e);
+        }
+        return true;
+    }
+
+    private int nextNonWhitespace() throws JsonDataParsingException {
+        while (true) {
+            pos = JsonScanService.INST.skipWhitespace(buf, pos, limit);
+            if (pos < limit) {
+                return buf[pos] & 0xff;
+            }
+            if (!fill(1)) {
+                return -1;
+            }
+        }
+    }
+
+    private void literal(@Nonnull String literal) throws JsonDataParsingException {
+        int len = literal.length();
+        if (limit - pos < len && !fill(len)) {
+            throw new JsonDataParsingException((int) position(), null, literal);
+        }
+        for (int i = 0; i < len; i++) {
+            if (buf[pos + i] != literal.charAt(i)) {
+                throw new JsonDataParsingException(
+                    (int) position(), new String(buf, pos, i + 1, StandardCharsets.UTF_8), literal
+                );
+            }
+        }
+        pos += len;
+    }
+
+    private @Nonnull String readString() throws JsonDataParsingException {
+        // fast path: the whole string without escape can be buffered, decode it at once
+        int from = pos;
+        boolean ascii = true;
+        while (true) {
+            int r = JsonScanService.INST.scanString(buf, from, limit);
+            int i = r < 0 ? ~r : r;
+            ascii &= r >= 0;
+            if (i < limit) {
+                // the malformed UTF-8 is reported by the slow path
+                if (buf[i] != '"' || (!ascii && !isWellFormedUtf8(buf, pos, i))) {
+                    break;
+                }
+                String str = new String(buf, pos, i - pos, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+                pos = i + 1;
+                return str;
+            }
+            int scanned = limit - pos;
+            if (scanned >= buf.length || !fill(scanned + 1)) {
+                break;
+            }
+            from = pos + scanned;
+        }
+        StringBuilder sb = builder;
+        sb.setLength(0);
+        while (true) {
+            int c = nextByte("\"");
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == '\\') {
+                readEscape(sb);
+            } else if (c < 0x80) {
+                sb.append((char) c);
+            } else {
+                readUtf8(c, sb);
+            }
+        }
+    }
+
+    private void skipString() throws JsonDataParsingException {
+        while (true) {
+            while (pos < limit) {
+                int r = JsonScanService.INST.scanString(buf, pos, limit);
+                pos = r < 0 ? ~r : r;
+                if (pos == limit) {
+                    break;
+                }
+                if (buf[pos++] == '"') {
+                    return;
+                }
+                // skip the escaped char, the \\uXXXX has no quote
+                nextByte(null);
+            }
+            if (!fill(1)) {
+                throw new JsonDataParsingException((int) position(), null, "\"");
+            }
+        }
+    }
+
+    private void readEscape(@Nonnull StringBuilder sb) throws JsonDataParsingException {
+        int c = nextByte(null);
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                sb.append((char) c);
+                return;
+            case 'r':
+                sb.append('\r');
+                return;
+            case 'n':
+                sb.append('\n');
+                return;
+            case 't':
+                sb.append('\t');
+                return;
+            case 'b':
+                sb.append('\b');
+                return;
+            case 'f':
+                sb.append('\f');
+                return;
+            case 'u':
+                char c1 = (char) nextByte(null);
+                char c2 = (char) nextByte(null);
+                char c3 = (char) nextByte(null);
+                char c4 = (char) nextByte(null);
+                try {
+                    sb.append(CharsKit.unicodeToChar(c1, c2, c3, c4));
+                } catch (Exception e) {
+                    throw new JsonDataParsingException((int) position() - 4, "" + c1 + c2 + c3 + c4, null);
+                }
+                return;
+            default:
+                throw new JsonDataParsingException((int) position() - 1, String.valueOf((char) c), null);
+        }
+    }
+
+    private void readUtf8(int first, @Nonnull StringBuilder sb) throws JsonDataParsingException {
+        int codePoint;
+        int more;
+        if ((first & 0xe0) == 0xc0) {
+            codePoint = first & 0x1f;
+            more = 1;
+        } else if ((first & 0xf0) == 0xe0) {
+            codePoint = first & 0x0f;
+            more = 2;
+        } else if ((first & 0xf8) == 0xf0) {
+            codePoint = first & 0x07;
+            more = 3;
+        } else {
+            throw new JsonDataParsingException((int) position() - 1, "0x" + Integer.toHexString(first), null);
+        }
+        for (int i = 0; i < more; i++) {
+            int next = nextByte(null);
+            if ((next & 0xc0) != 0x80) {
+                throw new JsonDataParsingException((int) position() - 1, "0x" + Integer.toHexString(next), null);
+            }
+            codePoint = (codePoint << 6) | (next & 0x3f);
+        }
+        // overlong encodings, surrogates and out of range code points
+        if (codePoint < (more == 1 ? 0x80 : more == 2 ? 0x800 : 0x10000)
+            || (codePoint >= 0xd800 && codePoint <= 0xdfff)
+            || codePoint > 0x10ffff
+        ) {
+            throw new JsonDataParsingException(
+                (int) position() - more - 1, "0x" + Integer.toHexString(first), null
+            );
+        }
+        sb.appendCodePoint(codePoint);
+    }
+
+    /**
+     * Returns whether the bytes in the given range are well-formed UTF-8, the same rules as
+     * {@link #readUtf8(int, StringBuilder)}.
+     */
+    private static boolean isWellFormedUtf8(byte @Nonnull [] bytes, int from, int to) {
+        int i = from;
+        while (i < to) {
+            int b = bytes[i++] & 0xff;
+            if (b < 0x80) {
+                continue;
+            }
+            int more;
+            // the valid range of the second byte
+            int min = 0x80;
+            int max = 0xbf;
+            if (b >= 0xc2 && b <= 0xdf) {
+                more = 1;
+            } else if (b >= 0xe0 && b <= 0xef) {
+                more = 2;
+                if (b == 0xe0) {
+                    min = 0xa0;
+                } else if (b == 0xed) {
+                    max = 0x9f;
+                }
+            } else if (b >= 0xf0 && b <= 0xf4) {
+                more = 3;
+                if (b == 0xf0) {
+                    min = 0x90;
+                } else if (b == 0xf4) {
+                    max = 0x8f;
+                }
+            } else {
+                return false;
+            }
+            if (to - i < more) {
+                return false;
+            }
+            int second = bytes[i++] & 0xff;
+            if (second < min || second > max) {
+                return false;
+            }
+            for (int j = 1; j < more; j++) {
+                if ((bytes[i++] & 0xc0) != 0x80) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int nextByte(@Nullable String expected) throws JsonDataParsingException {
+        if (pos >= limit && !fill(1)) {
+            throw new JsonDataParsingException((int) position(), null, expected);
+        }
+        return buf[pos++] & 0xff;
+    }
+
+    private @Nonnull String readNumberText() throws JsonDataParsingException {
+        StringBuilder sb = builder;
+        sb.setLength(0);
+        while (true) {
+            if (pos >= limit && !fill(1)) {
+                break;
+            }
+            int c = buf[pos];
+            if (!isNumberChar(c)) {
+                break;
+            }
+            sb.append((char) c);
+            pos++;
+        }
+        return sb.toString();
+    }
+
+    private void skipNumber() throws JsonDataParsingException {
+        while (true) {
+            if (pos >= limit && !fill(1)) {
+                return;
+            }
+            if (!isNumberChar(buf[pos])) {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private @Nonnull Number readNumber() throws JsonDataParsingException {
+        // fast path: a buffered integer of at most 18 digits, same result as NumKit.toNumber without the text
+        int i = pos;
+        boolean negative = i < limit && buf[i] == '-';
+        if (negative) {
+            i++;
+        }
+        int digitsStart = i;
+        int digitsEnd = Math.min(limit, digitsStart + 19);
+        long value = 0;
+        while (i < digitsEnd) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            value = value * 10 + d;
+            i++;
+        }
+        int digits = i - digitsStart;
+        if (digits > 0 && digits <= 18 && (i < limit ? !isNumberChar(buf[i]) : source == null)) {
+            pos = i;
+            if (negative) {
+                value = -value;
+            }
+            if (digits <= 9) {
+                return (int) value;
+            }
+            return value;
+        }
+        long start = position();
+        String text = readNumberText();
+        try {
+            return NumKit.toNumber(text);
+        } catch (Exception e) {
+            throw new JsonDataParsingException((int) start, text, null);
+        }
+    }
+
+    private static boolean isNumberChar(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private @Nonnull JsonDataParsingException unexpected(int c, @Nullable String expected) {
+        if (c == -1) {
+            return new JsonDataParsingException((int) position(), null, expected);
+        }
+        return new JsonDataParsingException((int) position(), String.valueOf((char) c), expected);
+    }
+
+    private @Nonnull JsonDataParsingException unexpectedToken(
+        @Nonnull JsonToken token, @Nullable JsonToken expected
+    ) {
+        return new JsonDataParsingException(
+            (int) position(), token.name(), expected == null ? null : expected.name()
+        );
+    }
+}
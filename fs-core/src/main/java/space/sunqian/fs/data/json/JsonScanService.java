@@ -0,0 +1,41 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.fs.base.FsLoader;
+
+/**
+ * Service for bulk scanning of the UTF-8 encoded JSON bytes.
+ */
+interface JsonScanService {
+
+    @Nonnull
+    JsonScanService INST = FsLoader.loadImplByJvm(JsonScanService.class, 9);
+
+    /**
+     * Returns the index of the first {@code "} or {@code \} in the given range of the array, or {@code to} if not
+     * found. If there is any non-ASCII byte before the returned index, returns the bitwise complement ({@code ~}) of
+     * the index instead.
+     *
+     * @param buf  the array
+     * @param from the start index inclusive
+     * @param to   the end index exclusive
+     * @return the index of the first {@code "} or {@code \}, or its bitwise complement if there is a non-ASCII byte
+     * before it
+     */
+    int scanString(byte @Nonnull [] buf, int from, int to);
+
+    /**
+     * Returns the index of the first non-whitespace byte in the given range of the array, or {@code to} if not found.
+     * The whitespace bytes are the ASCII chars for which {@link Character#isWhitespace(char)} returns {@code true}.
+     *
+     * @param buf  the array
+     * @param from the start index inclusive
+     * @param to   the end index exclusive
+     * @return the index of the first non-whitespace byte, or {@code to} if not found
+     */
+    int skipWhitespace(byte @Nonnull [] buf, int from, int to);
+
+    static boolean isWhitespace(int b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1c && b <= 0x1f);
+    }
+}
@@ -0,0 +1,32 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+
+enum JsonScanServiceImpl implements JsonScanService {
+    INST;
+
+    @Override
+    public int scanString(byte @Nonnull [] buf, int from, int to) {
+        boolean ascii = true;
+        for (int i = from; i < to; i++) {
+            byte b = buf[i];
+            if (b == '"' || b == '\\') {
+                return ascii ? i : ~i;
+            }
+            if (b < 0) {
+                ascii = false;
+            }
+        }
+        return ascii ? to : ~to;
+    }
+
+    @Override
+    public int skipWhitespace(byte @Nonnull [] buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!JsonScanService.isWhitespace(buf[i])) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
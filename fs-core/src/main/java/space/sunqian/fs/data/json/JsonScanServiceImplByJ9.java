@@ -0,0 +1,76 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Scans 8 bytes at a time with SWAR (SIMD within a register) tricks.
+ */
+@SuppressWarnings("unused")
+enum JsonScanServiceImplByJ9 implements JsonScanService {
+    INST;
+
+    private static final @Nonnull VarHandle LONGS =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+    private static final long QUOTES = ONES * '"';
+    private static final long BACKSLASHES = ONES * '\\';
+    private static final long SPACES = ONES * ' ';
+
+    @Override
+    public int scanString(byte @Nonnull [] buf, int from, int to) {
+        boolean ascii = true;
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long word = (long) LONGS.get(buf, i);
+            long found = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES);
+            if (found != 0) {
+                // the lowest marked byte is exact, the borrow only affects higher bytes
+                int bit = Long.numberOfTrailingZeros(found);
+                long lower = (1L << (bit - 7)) - 1;
+                if ((word & HIGHS & lower) != 0) {
+                    ascii = false;
+                }
+                int index = i + (bit >>> 3);
+                return ascii ? index : ~index;
+            }
+            if ((word & HIGHS) != 0) {
+                ascii = false;
+            }
+        }
+        for (; i < to; i++) {
+            byte b = buf[i];
+            if (b == '"' || b == '\\') {
+                return ascii ? i : ~i;
+            }
+            if (b < 0) {
+                ascii = false;
+            }
+        }
+        return ascii ? to : ~to;
+    }
+
+    @Override
+    public int skipWhitespace(byte @Nonnull [] buf, int from, int to) {
+        int i = from;
+        // skips the indents of formatted JSON
+        while (i + 8 <= to && (long) LONGS.get(buf, i) == SPACES) {
+            i += 8;
+        }
+        for (; i < to; i++) {
+            if (!JsonScanService.isWhitespace(buf[i])) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static long zeroBytes(long word) {
+        return (word - ONES) & ~word & HIGHS;
+    }
+}
@@ -0,0 +1,50 @@
+package space.sunqian.fs.data.json;
+
+/**
+ * Represents the type of JSON token read by {@link JsonReader}.
+ *
+ * @author sunqian
+ */
+public enum JsonToken {
+
+    /**
+     * The opening of a JSON object: <code>{</code>.
+     */
+    BEGIN_OBJECT,
+    /**
+     * The closing of a JSON object: <code>}</code>.
+     */
+    END_OBJECT,
+    /**
+     * The opening of a JSON array: {@code [}.
+     */
+    BEGIN_ARRAY,
+    /**
+     * The closing of a JSON array: {@code ]}.
+     */
+    END_ARRAY,
+    /**
+     * The name of a property of a JSON object.
+     */
+    NAME,
+    /**
+     * A JSON string value.
+     */
+    STRING,
+    /**
+     * A JSON number value.
+     */
+    NUMBER,
+    /**
+     * A JSON boolean value.
+     */
+    BOOLEAN,
+    /**
+     * A JSON null value.
+     */
+    NULL,
+    /**
+     * The end of the JSON input.
+     */
+    END_DOCUMENT,
+}
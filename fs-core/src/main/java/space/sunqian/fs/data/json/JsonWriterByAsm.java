@@ -0,0 +1,236 @@
+package space.sunqian.fs.data.json;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.asm.ClassWriter;
+import space.sunqian.fs.asm.MethodVisitor;
+import space.sunqian.fs.asm.Opcodes;
+import space.sunqian.fs.base.system.JvmKit;
+import space.sunqian.fs.dynamic.DynamicClassLoader;
+import space.sunqian.fs.object.annotation.NumPattern;
+import space.sunqian.fs.object.schema.ObjectProperty;
+import space.sunqian.fs.third.asm.AsmKit;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Generates the subclasses of {@link JsonObjectWriter} by ASM, which call the getters of the properties directly and
+ * write the primitive values without boxing.
+ */
+final class JsonWriterByAsm {
+
+    private static final @Nonnull String WRITER_NAME = JvmKit.toInternalName(JsonObjectWriter.class);
+    private static final @Nonnull String OBJECT_DESC = JvmKit.toDescriptor(Object.class);
+    private static final @Nonnull String STRING_DESC = JvmKit.toDescriptor(String.class);
+    private static final @Nonnull String APPENDABLE_DESC = JvmKit.toDescriptor(Appendable.class);
+    private static final @Nonnull String WRITE_PROPERTIES_DESC = "(" + OBJECT_DESC + APPENDABLE_DESC + ")V";
+    private static final @Nonnull String GET_VALUE_DESC = "(I" + OBJECT_DESC + ")" + OBJECT_DESC;
+    private static final @Nonnull String @Nonnull [] EXCEPTIONS = {JvmKit.toInternalName(Exception.class)};
+
+    // locals of writeProperties
+    private static final int OBJECT_INDEX = 1;
+    private static final int APPENDER_INDEX = 2;
+    private static final int BEAN_INDEX = 3;
+    private static final int FIRST_INDEX = 4;
+
+    /**
+     * Returns a new generated writer for the given type, or {@code null} if the class generation is not allowed for
+     * the given type. The returned writer is not initialized.
+     */
+    static @Nullable JsonObjectWriter newWriter(
+        @Nonnull Class<?> type,
+        ObjectProperty @Nonnull [] properties,
+        @Nonnull String @Nonnull [] names
+    ) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        // the generated class must see both the type and the JsonObjectWriter
+        ClassLoader fsLoader = JsonObjectWriter.class.getClassLoader();
+        ClassLoader parent = type.getClassLoader();
+        if (parent == null) {
+            parent = fsLoader;
+        } else if (parent != fsLoader && !isVisible(parent, JsonObjectWriter.class)) {
+            if (!isVisible(fsLoader, type)) {
+                return null;
+            }
+            parent = fsLoader;
+        }
+        try {
+            byte[] bytecode = generate(type, properties, names);
+            Class<?> cls = new DynamicClassLoader(parent).loadClass(null, bytecode);
+            return Fs.as(cls.getDeclaredConstructor().newInstance());
+        } catch (Exception | LinkageError e) {
+            // for example, defining class is forbidden in the current environment
+            return null;
+        }
+    }
+
+    private static boolean isVisible(@Nullable ClassLoader loader, @Nonnull Class<?> cls) {
+        try {
+            return Class.forName(cls.getName(), false, loader) == cls;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static byte @Nonnull [] generate(
+        @Nonnull Class<?> type,
+        ObjectProperty @Nonnull [] properties,
+        @Nonnull String @Nonnull [] names
+    ) {
+        String className = AsmKit.newClassInternalName(JsonWriterByAsm.class.getPackage());
+        String typeName = JvmKit.toInternalName(type);
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(
+            Opcodes.V1_8,
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            className,
+            null,
+            WRITER_NAME,
+            null
+        );
+        {
+            MethodVisitor visitor = classWriter.visitMethod(
+                Opcodes.ACC_PUBLIC,
+                AsmKit.CONSTRUCTOR_NAME,
+                AsmKit.EMPTY_METHOD_DESCRIPTOR,
+                null,
+                null
+            );
+            visitor.visitVarInsn(Opcodes.ALOAD, 0);
+            visitor.visitMethodInsn(
+                Opcodes.INVOKESPECIAL,
+                WRITER_NAME,
+                AsmKit.CONSTRUCTOR_NAME,
+                AsmKit.EMPTY_METHOD_DESCRIPTOR,
+                false
+            );
+            visitor.visitInsn(Opcodes.RETURN);
+            visitor.visitMaxs(0, 0);
+            visitor.visitEnd();
+        }
+        MethodVisitor visitor = classWriter.visitMethod(
+            Opcodes.ACC_PROTECTED,
+            "writeProperties",
+            WRITE_PROPERTIES_DESC,
+            null,
+            EXCEPTIONS
+        );
+        // T bean = (T) object;
+        visitor.visitVarInsn(Opcodes.ALOAD, OBJECT_INDEX);
+        visitor.visitTypeInsn(Opcodes.CHECKCAST, typeName);
+        visitor.visitVarInsn(Opcodes.ASTORE, BEAN_INDEX);
+        // boolean first = true;
+        visitor.visitInsn(Opcodes.ICONST_1);
+        visitor.visitVarInsn(Opcodes.ISTORE, FIRST_INDEX);
+        for (int i = 0; i < properties.length; i++) {
+            // first = writeXxx(first, name, [i,] value, appender);
+            visitor.visitVarInsn(Opcodes.ALOAD, 0);
+            visitor.visitVarInsn(Opcodes.ILOAD, FIRST_INDEX);
+            visitor.visitLdcInsn(names[i]);
+            String writeMethod = writeProperty(visitor, typeName, properties[i], i);
+            visitor.visitVarInsn(Opcodes.ALOAD, APPENDER_INDEX);
+            visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, WRITER_NAME, writeMethod, writeDescriptor(writeMethod), false);
+            visitor.visitVarInsn(Opcodes.ISTORE, FIRST_INDEX);
+        }
+        visitor.visitInsn(Opcodes.RETURN);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Loads the value (and the index for writeValue) of the property onto the stack, returns the name of the write
+     * method to be called.
+     */
+    private static @Nonnull String writeProperty(
+        @Nonnull MethodVisitor visitor, @Nonnull String typeName, @Nonnull ObjectProperty property, int index
+    ) {
+        Method getter = property.getterMethod();
+        if (getter == null
+            || !Modifier.isPublic(getter.getModifiers())
+            || Modifier.isStatic(getter.getModifiers())
+            || getter.getParameterCount() != 0
+        ) {
+            // value = getValue(index, object);
+            AsmKit.visitConst(visitor, index);
+            visitor.visitVarInsn(Opcodes.ALOAD, 0);
+            AsmKit.visitConst(visitor, index);
+            visitor.visitVarInsn(Opcodes.ALOAD, OBJECT_INDEX);
+            visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, WRITER_NAME, "getValue", GET_VALUE_DESC, false);
+            return "writeValue";
+        }
+        Class<?> returnType = getter.getReturnType();
+        String writeMethod = directWriteMethod(property, returnType);
+        if (writeMethod == null) {
+            AsmKit.visitConst(visitor, index);
+        }
+        // bean.getXxx()
+        visitor.visitVarInsn(Opcodes.ALOAD, BEAN_INDEX);
+        visitor.visitMethodInsn(
+            Opcodes.INVOKEVIRTUAL, typeName, getter.getName(), JvmKit.toDescriptor(getter), false
+        );
+        if (writeMethod == null) {
+            AsmKit.wrapToObject(visitor, returnType);
+            return "writeValue";
+        }
+        return writeMethod;
+    }
+
+    private static @Nullable String directWriteMethod(@Nonnull ObjectProperty property, @Nonnull Class<?> type) {
+        if (type.equals(String.class)) {
+            return "writeString";
+        }
+        if (!type.isPrimitive() || type.equals(char.class) || property.getAnnotation(NumPattern.class) != null) {
+            return null;
+        }
+        if (type.equals(boolean.class)) {
+            return "writeBoolean";
+        }
+        if (type.equals(long.class)) {
+            return "writeLong";
+        }
+        if (type.equals(float.class)) {
+            return "writeFloat";
+        }
+        if (type.equals(double.class)) {
+            return "writeDouble";
+        }
+        // byte, short, int
+        return "writeInt";
+    }
+
+    private static @Nonnull String writeDescriptor(@Nonnull String writeMethod) {
+        String value;
+        switch (writeMethod) {
+            case "writeValue":
+                value = "I" + OBJECT_DESC;
+                break;
+            case "writeString":
+                value = STRING_DESC;
+                break;
+            case "writeBoolean":
+                value = "Z";
+                break;
+            case "writeLong":
+                value = "J";
+                break;
+            case "writeFloat":
+                value = "F";
+                break;
+            case "writeDouble":
+                value = "D";
+                break;
+            default:
+                value = "I";
+        }
+        return "(Z" + STRING_DESC + value + APPENDABLE_DESC + ")Z";
+    }
+
+    private JsonWriterByAsm() {
+    }
+}
@@ -12,10 +12,12 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * This interface represents a DI container that manages the injection of dependencies into objects.
@@ -46,6 +48,11 @@ public interface DIContainer {
      * {@linkplain space.sunqian.fs.di DI documentation} for more information. A DI container can only initialize once
      * and cannot re-initialize.
      * <p>
+     * If a parallel executor is specified by {@link Builder#parallelExecutor(Executor)}, the {@code post-construct}
+     * methods are executed on the executor, and the components which do not depend on each other (by fields or
+     * parameters of {@code post-construct} methods) are initialized in parallel. If an exception occurs, the components
+     * being initialized are still completed, but no more component will be initialized.
+     * <p>
      * This method blocks current thread until the initialization operation is completed.
      *
      * @return this DI container
@@ -73,6 +80,11 @@ public interface DIContainer {
      * Sub-containers are not automatically shut down along with this container, but components that sub-containers
      * depend on from this DI container will be destroyed by this DI container.
      * <p>
+     * If a parallel executor is specified by {@link Builder#parallelExecutor(Executor)}, the {@code pre-destroy} methods
+     * are executed on the executor in reverse topological order of the initialization: a component is destroyed after
+     * the components which depend on it (except the dependencies of {@code pre-destroy} methods, which are destroyed
+     * first), and the components which do not depend on each other are destroyed in parallel.
+     * <p>
      * This method blocks current thread until the shutdown operation is completed.
      *
      * @return this DI container
@@ -88,6 +100,26 @@ public interface DIContainer {
      */
     boolean isShutdown();
 
+    /**
+     * Returns the execution times of the {@code post-construct} methods executed by {@link #initialize()}, in the order
+     * of completion. The returned map is an immutable snapshot, and the components not initialized by this container
+     * are absent.
+     *
+     * @return the execution times of the {@code post-construct} methods executed by {@link #initialize()}
+     */
+    @Nonnull
+    Map<@Nonnull DIComponent, @Nonnull Duration> postConstructTimes();
+
+    /**
+     * Returns the execution times of the {@code pre-destroy} methods executed by {@link #shutdown()}, in the order of
+     * completion. The returned map is an immutable snapshot, and the components not destroyed by this container are
+     * absent.
+     *
+     * @return the execution times of the {@code pre-destroy} methods executed by {@link #shutdown()}
+     */
+    @Nonnull
+    Map<@Nonnull DIComponent, @Nonnull Duration> preDestroyTimes();
+
     /**
      * Returns all parent containers of this container.
      *
@@ -204,6 +236,8 @@ public interface DIContainer {
 
         private @Nonnull DIComponent.Resolver componentResolver = DIComponent.defaultResolver();
         private @Nonnull DIComponent.FieldSetter fieldSetter = DIComponent.defaultFieldSetter();
+        private @Nullable Executor parallelExecutor;
+        private boolean generatedWiring = true;
 
         /**
          * Adds a component annotation type that marks a {@link Field} references a component from the container.
@@ -355,6 +389,40 @@ public interface DIContainer {
             return this;
         }
 
+        /**
+         * Sets the executor to execute the {@code post-construct} and {@code pre-destroy} methods in parallel. The
+         * default is {@code null}, means those methods are executed sequentially in the calling thread.
+         * <p>
+         * If the executor is specified, the container builds the dependency graph from the fields and the parameters of
+         * the {@code post-construct} and {@code pre-destroy} methods, and submits the components whose dependencies
+         * have been completed to the executor. The components depending on each other through fields cyclically are
+         * executed sequentially in one task. See {@link DIContainer#initialize()} and {@link DIContainer#shutdown()}.
+         *
+         * @param parallelExecutor the executor to execute the {@code post-construct} and {@code pre-destroy} methods in
+         *                         parallel, may be {@code null}
+         * @return this builder
+         */
+        public @Nonnull Builder parallelExecutor(@Nullable Executor parallelExecutor) {
+            this.parallelExecutor = parallelExecutor;
+            return this;
+        }
+
+        /**
+         * Sets whether to use the {@link DIWiring} classes generated at build time, default is {@code true}.
+         * <p>
+         * If it is {@code true}, the default resolver, the default field setter, the instantiation and the invocation
+         * of the {@code post-construct} and {@code pre-destroy} methods use the generated wiring of the component class
+         * if it exists, and fall back to reflection otherwise. If it is {@code false}, the container always uses
+         * reflection.
+         *
+         * @param generatedWiring whether to use the {@link DIWiring} classes generated at build time
+         * @return this builder
+         */
+        public @Nonnull Builder generatedWiring(boolean generatedWiring) {
+            this.generatedWiring = generatedWiring;
+            return this;
+        }
+
         /**
          * Builds and returns a new DI container instance, the returned instance is not initialized.
          *
@@ -378,7 +446,9 @@ public interface DIContainer {
                 postConstructAnnotations,
                 preDestroyAnnotations,
                 componentResolver,
-                fieldSetter
+                fieldSetter,
+                parallelExecutor,
+                generatedWiring
             );
         }
     }
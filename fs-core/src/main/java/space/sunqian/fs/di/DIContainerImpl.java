@@ -5,6 +5,7 @@ import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.Nullable;
 import space.sunqian.annotation.OutParam;
 import space.sunqian.fs.Fs;
+import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.dynamic.aspect.AspectMaker;
 import space.sunqian.fs.dynamic.aspect.AspectSpec;
@@ -17,24 +18,42 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 final class DIContainerImpl implements DIContainer {
 
     private static final Runnable EMPTY_RUNNABLE = () -> {};
 
+    // the generated wirings of the component classes, null if absent
+    private static final @Nonnull SimpleCache<@Nonnull Class<?>, @Nullable DIWiring> WIRINGS = SimpleCache.ofSoft();
+
     private final @Nonnull Map<@Nonnull Type, @Nonnull DIComponent> components;
     private final @Nonnull Map<@Nonnull Type, @Nonnull DIComponent> localComponents;
     private final @Nonnull List<@Nonnull DIContainer> parentContainers;
+    private final @Nullable Executor parallelExecutor;
+    private final boolean generatedWiring;
+    private final @Nonnull Map<@Nonnull DIComponent, @Nonnull Duration> postConstructTimes =
+        Collections.synchronizedMap(new LinkedHashMap<>());
+    private final @Nonnull Map<@Nonnull DIComponent, @Nonnull Duration> preDestroyTimes =
+        Collections.synchronizedMap(new LinkedHashMap<>());
 
     private volatile int state = 0;
 
@@ -45,8 +64,14 @@ final class DIContainerImpl implements DIContainer {
         @Nonnull Collection<@Nonnull String> postConstructAnnotations,
         @Nonnull Collection<@Nonnull String> preDestroyAnnotations,
         @Nonnull DIComponent.Resolver resolver,
-        @Nonnull DIComponent.FieldSetter fieldSetter
+        @Nonnull DIComponent.FieldSetter fieldSetter,
+        @Nullable Executor parallelExecutor,
+        boolean generatedWiring
     ) throws DIInitializeException, DIException {
+        this.generatedWiring = generatedWiring;
+        if (!generatedWiring && resolver == Resolver.INST) {
+            resolver = Resolver.REFLECTION;
+        }
         Map<Type, Res> resMap = new LinkedHashMap<>();
         // add components from parent containers
         for (DIContainer container : parentContainers) {
@@ -110,7 +135,8 @@ final class DIContainerImpl implements DIContainer {
                 inst,
                 res.local,
                 res.postConstructMethod(),
-                res.preDestroyMethod()
+                res.preDestroyMethod(),
+                res.wiring
             );
             components.put(res.type, component);
             if (res.local) {
@@ -121,6 +147,7 @@ final class DIContainerImpl implements DIContainer {
         this.parentContainers = ListKit.toList(parentContainers);
         this.components = Collections.unmodifiableMap(components);
         this.localComponents = Collections.unmodifiableMap(localComponents);
+        this.parallelExecutor = parallelExecutor;
         // set dependencies
         configureComponentDependencies(resMap);
         // check cycle dependencies for post-construct methods and pre-destroy methods
@@ -191,7 +218,7 @@ final class DIContainerImpl implements DIContainer {
         if (!canInstantiate(descriptor.rawClass())) {
             return;
         }
-        Res res = new Res(descriptor);
+        Res res = new Res(descriptor, generatedWiring ? getWiring(descriptor.rawClass()) : null);
         componentMap.put(type, res);
         // dependency fields
         for (Field dependencyField : descriptor.dependencyFields()) {
@@ -291,6 +318,12 @@ final class DIContainerImpl implements DIContainer {
         @Nonnull DIComponent.FieldSetter fieldSetter,
         @Nonnull Field field, @Nonnull Object owner, @Nonnull Object value
     ) throws DIException {
+        if (generatedWiring && fieldSetter == FieldSetter.INST) {
+            DIWiring wiring = getWiring(field.getDeclaringClass());
+            if (wiring != null && wiring.setField(field, owner, value)) {
+                return;
+            }
+        }
         Fs.uncheck(
             () -> {
                 fieldSetter.set(field, owner, value);
@@ -327,22 +360,88 @@ final class DIContainerImpl implements DIContainer {
             throw new DIException("DIContainer is already initialized.");
         }
         try {
-            Set<DIComponent> unprocessed = new LinkedHashSet<>(localComponents.values());
-            Set<DIComponent> processed = new LinkedHashSet<>(unprocessed.size());
+            Set<DIComponent> unprocessed = Collections.synchronizedSet(new LinkedHashSet<>(localComponents.values()));
+            Set<DIComponent> processed = Collections.synchronizedSet(new LinkedHashSet<>(unprocessed.size()));
+            Executor executor = parallelExecutor;
+            if (executor == null) {
+                for (DIComponent component : localComponents.values()) {
+                    try {
+                        postConstruct(component, unprocessed, processed);
+                    } catch (Exception e) {
+                        unprocessed.remove(component);
+                        throw new DIInitializeException(component, e, new ArrayList<>(processed), new ArrayList<>(unprocessed));
+                    }
+                }
+                return this;
+            }
+            // inherited components are not in the graph, initializes them first in this thread
             for (DIComponent component : localComponents.values()) {
                 try {
-                    postConstruct(component, unprocessed, processed);
+                    for (DIComponent dependency : component.postConstructDependencies()) {
+                        if (!dependency.isLocal()) {
+                            postConstruct(dependency, unprocessed, processed);
+                        }
+                    }
                 } catch (Exception e) {
                     unprocessed.remove(component);
                     throw new DIInitializeException(component, e, new ArrayList<>(processed), new ArrayList<>(unprocessed));
                 }
             }
+            ParallelExecution execution = new ParallelExecution(
+                executor,
+                localComponents.values(),
+                this::postConstructPredecessors,
+                component -> postConstruct(component, unprocessed, processed)
+            );
+            execution.run();
+            DIComponent failedComponent = execution.failedComponent;
+            if (failedComponent != null) {
+                unprocessed.remove(failedComponent);
+                DIInitializeException exception = new DIInitializeException(
+                    failedComponent, execution.cause, new ArrayList<>(processed), new ArrayList<>(unprocessed)
+                );
+                execution.suppressed.forEach(exception::addSuppressed);
+                throw exception;
+            }
         } finally {
             this.state = 1;
         }
         return this;
     }
 
+    // the local components which must be initialized before the given component: the dependencies of its
+    // post-construct method and its fields
+    private @Nonnull Collection<@Nonnull DIComponent> postConstructPredecessors(@Nonnull DIComponent component) {
+        Set<DIComponent> predecessors = new LinkedHashSet<>();
+        addLocalComponents(component.postConstructDependencies(), predecessors);
+        addLocalComponents(component.dependencies(), predecessors);
+        return predecessors;
+    }
+
+    // the local components which must be destroyed before the given component: the dependencies of its pre-destroy
+    // method, and the components which are initialized after it (reverse topological order)
+    private @Nonnull Collection<@Nonnull DIComponent> preDestroyPredecessors(@Nonnull DIComponent component) {
+        Set<DIComponent> predecessors = new LinkedHashSet<>();
+        addLocalComponents(component.preDestroyDependencies(), predecessors);
+        for (DIComponent other : localComponents.values()) {
+            if (other.postConstructDependencies().contains(component) || other.dependencies().contains(component)) {
+                predecessors.add(other);
+            }
+        }
+        return predecessors;
+    }
+
+    private void addLocalComponents(
+        @Nonnull List<@Nonnull DIComponent> components,
+        @Nonnull @OutParam Set<@Nonnull DIComponent> result
+    ) {
+        for (DIComponent component : components) {
+            if (component.isLocal()) {
+                result.add(component);
+            }
+        }
+    }
+
     private void postConstruct(
         @Nonnull DIComponent component,
         @Nonnull Set<@Nonnull DIComponent> unprocessed,
@@ -354,7 +453,9 @@ final class DIContainerImpl implements DIContainer {
         for (DIComponent postConstructDependency : component.postConstructDependencies()) {
             postConstruct(postConstructDependency, unprocessed, processed);
         }
+        long start = System.nanoTime();
         component.postConstruct();
+        postConstructTimes.put(component, Duration.ofNanos(System.nanoTime() - start));
         unprocessed.remove(component);
         processed.add(component);
     }
@@ -373,16 +474,49 @@ final class DIContainerImpl implements DIContainer {
             throw new DIException("DIContainer is already shutdown.");
         }
         try {
-            Set<DIComponent> unprocessed = new LinkedHashSet<>(localComponents.values());
-            Set<DIComponent> processed = new LinkedHashSet<>(unprocessed.size());
+            Set<DIComponent> unprocessed = Collections.synchronizedSet(new LinkedHashSet<>(localComponents.values()));
+            Set<DIComponent> processed = Collections.synchronizedSet(new LinkedHashSet<>(unprocessed.size()));
+            Executor executor = parallelExecutor;
+            if (executor == null) {
+                for (DIComponent component : localComponents.values()) {
+                    try {
+                        preDestroy(component, unprocessed, processed);
+                    } catch (Exception e) {
+                        unprocessed.remove(component);
+                        throw new DIShutdownException(component, e, new ArrayList<>(processed), new ArrayList<>(unprocessed));
+                    }
+                }
+                return this;
+            }
+            // inherited components are not in the graph, destroys them first in this thread
             for (DIComponent component : localComponents.values()) {
                 try {
-                    preDestroy(component, unprocessed, processed);
+                    for (DIComponent dependency : component.preDestroyDependencies()) {
+                        if (!dependency.isLocal()) {
+                            preDestroy(dependency, unprocessed, processed);
+                        }
+                    }
                 } catch (Exception e) {
                     unprocessed.remove(component);
                     throw new DIShutdownException(component, e, new ArrayList<>(processed), new ArrayList<>(unprocessed));
                 }
             }
+            ParallelExecution execution = new ParallelExecution(
+                executor,
+                localComponents.values(),
+                this::preDestroyPredecessors,
+                component -> preDestroy(component, unprocessed, processed)
+            );
+            execution.run();
+            DIComponent failedComponent = execution.failedComponent;
+            if (failedComponent != null) {
+                unprocessed.remove(failedComponent);
+                DIShutdownException exception = new DIShutdownException(
+                    failedComponent, execution.cause, new ArrayList<>(processed), new ArrayList<>(unprocessed)
+                );
+                execution.suppressed.forEach(exception::addSuppressed);
+                throw exception;
+            }
         } finally {
             this.state = 2;
         }
@@ -400,7 +534,9 @@ final class DIContainerImpl implements DIContainer {
         for (DIComponent preDestroyDependency : component.preDestroyDependencies()) {
             preDestroy(preDestroyDependency, unprocessed, processed);
         }
+        long start = System.nanoTime();
         component.preDestroy();
+        preDestroyTimes.put(component, Duration.ofNanos(System.nanoTime() - start));
         unprocessed.remove(component);
         processed.add(component);
     }
@@ -410,6 +546,20 @@ final class DIContainerImpl implements DIContainer {
         return state >= 2;
     }
 
+    @Override
+    public @Nonnull Map<@Nonnull DIComponent, @Nonnull Duration> postConstructTimes() {
+        synchronized (postConstructTimes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(postConstructTimes));
+        }
+    }
+
+    @Override
+    public @Nonnull Map<@Nonnull DIComponent, @Nonnull Duration> preDestroyTimes() {
+        synchronized (preDestroyTimes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(preDestroyTimes));
+        }
+    }
+
     @Override
     public @Nonnull List<@Nonnull DIContainer> parentContainers() {
         return parentContainers;
@@ -439,6 +589,28 @@ final class DIContainerImpl implements DIContainer {
         return null;
     }
 
+    private static @Nullable DIWiring getWiring(@Nonnull Class<?> componentClass) {
+        return WIRINGS.get(componentClass, DIContainerImpl::loadWiring);
+    }
+
+    private static @Nullable DIWiring loadWiring(@Nonnull Class<?> componentClass) {
+        ClassLoader loader = componentClass.getClassLoader();
+        if (loader == null) {
+            return null;
+        }
+        try {
+            Class<?> wiringClass = Class.forName(componentClass.getName() + DIWiring.CLASS_NAME_SUFFIX, true, loader);
+            if (!DIWiring.class.isAssignableFrom(wiringClass)) {
+                return null;
+            }
+            DIWiring wiring = (DIWiring) wiringClass.getConstructor().newInstance();
+            return wiring.componentClass().equals(componentClass) ? wiring : null;
+        } catch (Exception | LinkageError e) {
+            // no available wiring, uses reflection
+            return null;
+        }
+    }
+
     private static @Nonnull Class<?> rawClass(@Nonnull Type type) {
         Class<?> raw = TypeKit.getRawClass(type);
         if (raw == null) {
@@ -453,19 +625,25 @@ final class DIContainerImpl implements DIContainer {
         private final boolean local;
         private final @Nonnull Object instance;
         private final @Nullable DIComponent.Descriptor descriptor;
+        private final @Nullable DIWiring wiring;
 
         private Object advisedInstance;
         private boolean isAspectHandler = false;
 
         private Res(
-            @Nonnull DIComponent.Descriptor descriptor
+            @Nonnull DIComponent.Descriptor descriptor,
+            @Nullable DIWiring wiring
         ) throws DIException {
             this.type = descriptor.type();
             this.local = true;
             this.descriptor = descriptor;
+            this.wiring = wiring;
             try {
-                this.instance = Invocable.of(descriptor.rawClass().getConstructor()).invoke(null);
-            } catch (Exception e) {
+                this.instance = wiring != null ?
+                    wiring.newInstance()
+                    :
+                    Invocable.of(descriptor.rawClass().getConstructor()).invoke(null);
+            } catch (Throwable e) {
                 throw new DIException("Creates instance for " + type.getTypeName() + " failed.", e);
             }
         }
@@ -474,6 +652,7 @@ final class DIContainerImpl implements DIContainer {
             this.type = type;
             this.local = false;
             this.descriptor = null;
+            this.wiring = null;
             this.instance = instance;
         }
 
@@ -497,6 +676,196 @@ final class DIContainerImpl implements DIContainer {
         }
     }
 
+    /**
+     * Executes an action for each component on an executor, in parallel for the components which do not depend on each
+     * other. The strongly connected components of the dependency graph (which are only possible through fields) are
+     * executed as a group in declaration order in one task, so the graph of the groups is a DAG.
+     */
+    private static final class ParallelExecution {
+
+        private final @Nonnull Executor executor;
+        private final @Nonnull Consumer<@Nonnull DIComponent> action;
+        private final @Nonnull List<@Nonnull Group> groups = new ArrayList<>();
+
+        // guarded by this
+        private int running = 0;
+        private @Nullable DIComponent failedComponent;
+        private @Nullable Throwable cause;
+        private final @Nonnull List<@Nonnull Throwable> suppressed = new ArrayList<>();
+
+        private ParallelExecution(
+            @Nonnull Executor executor,
+            @Nonnull Collection<@Nonnull DIComponent> components,
+            @Nonnull Function<@Nonnull DIComponent, @Nonnull Collection<@Nonnull DIComponent>> predecessors,
+            @Nonnull Consumer<@Nonnull DIComponent> action
+        ) {
+            this.executor = executor;
+            this.action = action;
+            Map<DIComponent, Node> nodes = new IdentityHashMap<>(components.size());
+            for (DIComponent component : components) {
+                nodes.put(component, new Node(component));
+            }
+            for (Node node : nodes.values()) {
+                for (DIComponent predecessor : predecessors.apply(node.component)) {
+                    Node pn = nodes.get(predecessor);
+                    if (pn != null && pn != node) {
+                        node.predecessors.add(pn);
+                    }
+                }
+            }
+            // Tarjan's algorithm
+            Deque<Node> stack = new ArrayDeque<>();
+            int[] index = {0};
+            for (DIComponent component : components) {
+                Node node = nodes.get(component);
+                if (node.index < 0) {
+                    connect(node, stack, index);
+                }
+            }
+            // members of a group in declaration order
+            for (DIComponent component : components) {
+                Fs.asNonnull(nodes.get(component).group).members.add(component);
+            }
+            for (Node node : nodes.values()) {
+                Group group = Fs.asNonnull(node.group);
+                for (Node predecessor : node.predecessors) {
+                    Group pg = Fs.asNonnull(predecessor.group);
+                    if (pg != group && pg.successors.add(group)) {
+                        group.waiting.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        private void connect(@Nonnull Node node, @Nonnull Deque<@Nonnull Node> stack, int @Nonnull [] index) {
+            node.index = index[0];
+            node.lowLink = index[0];
+            index[0]++;
+            stack.push(node);
+            node.onStack = true;
+            for (Node predecessor : node.predecessors) {
+                if (predecessor.index < 0) {
+                    connect(predecessor, stack, index);
+                    node.lowLink = Math.min(node.lowLink, predecessor.lowLink);
+                } else if (predecessor.onStack) {
+                    node.lowLink = Math.min(node.lowLink, predecessor.index);
+                }
+            }
+            if (node.lowLink == node.index) {
+                Group group = new Group();
+                Node member;
+                do {
+                    member = stack.pop();
+                    member.onStack = false;
+                    member.group = group;
+                } while (member != node);
+                groups.add(group);
+            }
+        }
+
+        private void run() {
+            for (Group group : groups) {
+                if (group.waiting.get() == 0) {
+                    submit(group);
+                }
+            }
+            boolean interrupted = false;
+            synchronized (this) {
+                while (running > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // the running tasks can not be abandoned, waits for them anyway
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void submit(@Nonnull Group group) {
+            synchronized (this) {
+                if (failedComponent != null) {
+                    return;
+                }
+                running++;
+            }
+            try {
+                executor.execute(() -> execute(group));
+            } catch (Throwable e) {
+                fail(group.members.get(0), e);
+                finish();
+            }
+        }
+
+        private void execute(@Nonnull Group group) {
+            try {
+                for (DIComponent member : group.members) {
+                    if (isFailed()) {
+                        return;
+                    }
+                    try {
+                        action.accept(member);
+                    } catch (Throwable e) {
+                        fail(member, e);
+                        return;
+                    }
+                }
+                for (Group successor : group.successors) {
+                    if (successor.waiting.decrementAndGet() == 0) {
+                        submit(successor);
+                    }
+                }
+            } finally {
+                finish();
+            }
+        }
+
+        private synchronized boolean isFailed() {
+            return failedComponent != null;
+        }
+
+        private synchronized void fail(@Nonnull DIComponent component, @Nonnull Throwable e) {
+            if (failedComponent == null) {
+                failedComponent = component;
+                cause = e;
+            } else {
+                suppressed.add(e);
+            }
+        }
+
+        private synchronized void finish() {
+            running--;
+            if (running == 0) {
+                notifyAll();
+            }
+        }
+
+        private static final class Node {
+
+            private final @Nonnull DIComponent component;
+            private final @Nonnull List<@Nonnull Node> predecessors = new ArrayList<>();
+
+            private int index = -1;
+            private int lowLink;
+            private boolean onStack;
+            private @Nullable Group group;
+
+            private Node(@Nonnull DIComponent component) {
+                this.component = component;
+            }
+        }
+
+        private static final class Group {
+
+            private final @Nonnull List<@Nonnull DIComponent> members = new ArrayList<>();
+            private final @Nonnull Set<@Nonnull Group> successors = new LinkedHashSet<>();
+            private final @Nonnull AtomicInteger waiting = new AtomicInteger();
+        }
+    }
+
     private final class DIComponentImpl implements DIComponent {
 
         private final @Nonnull Type type;
@@ -524,8 +893,9 @@ final class DIContainerImpl implements DIContainer {
             @Nonnull Object instance,
             boolean local,
             @Nullable Method postConstructMethod,
-            @Nullable Method preDestroyMethod
-        ) {
+            @Nullable Method preDestroyMethod,
+            @Nullable DIWiring wiring
+        ) throws DIException {
             this.type = type;
             this.instance = instance;
             this.local = local;
@@ -534,27 +904,46 @@ final class DIContainerImpl implements DIContainer {
             this.postConstruct = postConstructMethod == null ?
                 EMPTY_RUNNABLE
                 :
-                () -> {
-                    Invocable invocable = Invocable.of(postConstructMethod);
-                    Type[] paramTypes = postConstructMethod.getGenericParameterTypes();
-                    Object[] args = new Object[paramTypes.length];
-                    for (int i = 0; i < paramTypes.length; i++) {
-                        args[i] = getObject(paramTypes[i]);
-                    }
-                    invocable.invoke(instance, args);
-                };
+                newRunnable(
+                    postConstructMethod,
+                    wiring != null && postConstructMethod.equals(
+                        Fs.uncheck(wiring::postConstructMethod, DIException::new)
+                    ) ?
+                        wiring::invokePostConstruct
+                        :
+                        null
+                );
             this.preDestroy = preDestroyMethod == null ?
                 EMPTY_RUNNABLE
                 :
-                () -> {
-                    Invocable invocable = Invocable.of(preDestroyMethod);
-                    Type[] paramTypes = preDestroyMethod.getGenericParameterTypes();
-                    Object[] args = new Object[paramTypes.length];
-                    for (int i = 0; i < paramTypes.length; i++) {
-                        args[i] = getObject(paramTypes[i]);
-                    }
-                    invocable.invoke(instance, args);
-                };
+                newRunnable(
+                    preDestroyMethod,
+                    wiring != null && preDestroyMethod.equals(
+                        Fs.uncheck(wiring::preDestroyMethod, DIException::new)
+                    ) ?
+                        wiring::invokePreDestroy
+                        :
+                        null
+                );
+        }
+
+        private @Nonnull Runnable newRunnable(@Nonnull Method method, @Nullable WiringInvoker wiringInvoker) {
+            return () -> {
+                Type[] paramTypes = method.getGenericParameterTypes();
+                Object[] args = new Object[paramTypes.length];
+                for (int i = 0; i < paramTypes.length; i++) {
+                    args[i] = getObject(paramTypes[i]);
+                }
+                if (wiringInvoker == null) {
+                    Invocable.of(method).invoke(instance, args);
+                    return;
+                }
+                try {
+                    wiringInvoker.invoke(instance, args);
+                } catch (Throwable e) {
+                    throw new InvocationException(e);
+                }
+            };
         }
 
         @Override
@@ -625,9 +1014,16 @@ final class DIContainerImpl implements DIContainer {
         }
     }
 
+    private interface WiringInvoker {
+        void invoke(@Nonnull Object instance, Object @Nonnull [] args) throws Throwable;
+    }
+
     enum Resolver implements DIComponent.Resolver {
 
-        INST;
+        INST,
+
+        // ignores the generated wirings
+        REFLECTION;
 
         @Override
         public DIComponent.@Nonnull Descriptor resolve(
@@ -637,6 +1033,23 @@ final class DIContainerImpl implements DIContainer {
             @Nonnull Collection<@Nonnull String> preDestroyAnnotations
         ) throws Exception {
             Class<?> rawClass = rawClass(type);
+            DIWiring wiring = this == INST ? getWiring(rawClass) : null;
+            if (wiring != null
+                && sameNames(wiring.componentAnnotations(), componentAnnotations)
+                && sameNames(wiring.postConstructAnnotations(), postConstructAnnotations)
+                && sameNames(wiring.preDestroyAnnotations(), preDestroyAnnotations)
+            ) {
+                // generated at build time, no scanning
+                Method postConstruct = wiring.postConstructMethod();
+                Method preDestroy = wiring.preDestroyMethod();
+                return newDescriptor(
+                    type,
+                    rawClass,
+                    postConstruct,
+                    preDestroy != null && preDestroy.equals(postConstruct) ? postConstruct : preDestroy,
+                    wiring.dependencyFields()
+                );
+            }
             // fields
             Field[] fields = rawClass.getDeclaredFields();
             ArrayList<Field> dependencyFields = new ArrayList<>();
@@ -666,8 +1079,20 @@ final class DIContainerImpl implements DIContainer {
                     }
                 }
             }
-            Method postConstructMethod = postConstruct;
-            Method preDestroyMethod = preDestroy;
+            return newDescriptor(type, rawClass, postConstruct, preDestroy, depFields);
+        }
+
+        private boolean sameNames(@Nonnull List<@Nonnull String> names, @Nonnull Collection<@Nonnull String> others) {
+            return new HashSet<>(names).equals(new HashSet<>(others));
+        }
+
+        private DIComponent.@Nonnull Descriptor newDescriptor(
+            @Nonnull Type type,
+            @Nonnull Class<?> rawClass,
+            @Nullable Method postConstructMethod,
+            @Nullable Method preDestroyMethod,
+            @Nonnull @Immutable List<@Nonnull Field> depFields
+        ) {
             return new DIComponent.Descriptor() {
                 @Override
                 public @Nonnull Type type() {
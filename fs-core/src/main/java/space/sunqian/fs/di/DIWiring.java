@@ -0,0 +1,143 @@
+package space.sunqian.fs.di;
+
+import space.sunqian.annotation.Immutable;
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Static wiring metadata of a component class, generated at build time by the annotation processor
+ * {@code space.sunqian.fs.build.processing.FsProcessor} of {@code fs-build}. The generated class is in the same
+ * package as the component class, and its name is the binary name of the component class plus
+ * {@link #CLASS_NAME_SUFFIX}, such as {@code com.xx.Outer$Inner$FsWiring}.
+ * <p>
+ * If the wiring of a component class is present, {@link DIContainer} uses it instead of the reflective scanning of the
+ * fields and methods, the reflective instantiation, the reflective field setting (for non-private fields) and the
+ * reflective invocation of the {@code post-construct} and {@code pre-destroy} methods. The wiring is only used to
+ * resolve the component if the annotations of the container equal to the annotations which the wiring was generated
+ * with. To generate the wiring, add {@code fs-build} as an annotation processor:
+ * <pre>{@code
+ * annotationProcessor("space.sunqian.fs:fs-build")
+ * }</pre>
+ * The annotations can be specified by processor options {@code fs.di.componentAnnotations},
+ * {@code fs.di.postConstructAnnotations} and {@code fs.di.preDestroyAnnotations} (comma-separated class names), the
+ * defaults are the same as {@link DIContainer.Builder}.
+ *
+ * @author sunqian
+ */
+public interface DIWiring {
+
+    /**
+     * The suffix of the name of the generated wiring class: {@value}.
+     */
+    @Nonnull
+    String CLASS_NAME_SUFFIX = "$FsWiring";
+
+    /**
+     * Returns the component class of this wiring.
+     *
+     * @return the component class of this wiring
+     */
+    @Nonnull
+    Class<?> componentClass();
+
+    /**
+     * Returns the class names of the component annotations which this wiring was generated with.
+     *
+     * @return the class names of the component annotations which this wiring was generated with
+     */
+    @Nonnull
+    @Immutable
+    List<@Nonnull String> componentAnnotations();
+
+    /**
+     * Returns the class names of the post-construct annotations which this wiring was generated with.
+     *
+     * @return the class names of the post-construct annotations which this wiring was generated with
+     */
+    @Nonnull
+    @Immutable
+    List<@Nonnull String> postConstructAnnotations();
+
+    /**
+     * Returns the class names of the pre-destroy annotations which this wiring was generated with.
+     *
+     * @return the class names of the pre-destroy annotations which this wiring was generated with
+     */
+    @Nonnull
+    @Immutable
+    List<@Nonnull String> preDestroyAnnotations();
+
+    /**
+     * Returns the dependency fields of the component class, in declaration order.
+     *
+     * @return the dependency fields of the component class, in declaration order
+     * @throws Exception if any error occurs
+     */
+    @Nonnull
+    @Immutable
+    List<@Nonnull Field> dependencyFields() throws Exception;
+
+    /**
+     * Returns the post-construct method of the component class, may be {@code null} if there is no post-construct
+     * method.
+     *
+     * @return the post-construct method of the component class, may be {@code null} if there is no post-construct
+     * method
+     * @throws Exception if any error occurs
+     */
+    @Nullable
+    Method postConstructMethod() throws Exception;
+
+    /**
+     * Returns the pre-destroy method of the component class, may be {@code null} if there is no pre-destroy method.
+     *
+     * @return the pre-destroy method of the component class, may be {@code null} if there is no pre-destroy method
+     * @throws Exception if any error occurs
+     */
+    @Nullable
+    Method preDestroyMethod() throws Exception;
+
+    /**
+     * Creates a new instance of the component class by its public no-argument constructor.
+     *
+     * @return a new instance of the component class
+     * @throws Throwable any error thrown by the constructor
+     */
+    @Nonnull
+    Object newInstance() throws Throwable;
+
+    /**
+     * Sets the value to the specified dependency field of the owner without reflection. Returns {@code false} if the
+     * field can not be set statically (such as a private field), in which case the field is not set.
+     *
+     * @param field the dependency field
+     * @param owner the owner instance, an instance of the component class
+     * @param value the value to be set
+     * @return whether the field is set
+     */
+    boolean setField(@Nonnull Field field, @Nonnull Object owner, @Nonnull Object value);
+
+    /**
+     * Invokes the post-construct method on the specified instance without reflection. This method has no effect if
+     * there is no post-construct method.
+     *
+     * @param instance the instance of the component class
+     * @param args     the arguments of the post-construct method
+     * @throws Throwable any error thrown by the post-construct method
+     */
+    void invokePostConstruct(@Nonnull Object instance, Object @Nonnull [] args) throws Throwable;
+
+    /**
+     * Invokes the pre-destroy method on the specified instance without reflection. This method has no effect if there
+     * is no pre-destroy method.
+     *
+     * @param instance the instance of the component class
+     * @param args     the arguments of the pre-destroy method
+     * @throws Throwable any error thrown by the pre-destroy method
+     */
+    void invokePreDestroy(@Nonnull Object instance, Object @Nonnull [] args) throws Throwable;
+}
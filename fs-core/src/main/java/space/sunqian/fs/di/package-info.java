@@ -194,11 +194,23 @@
  * (post-construct methods are not executed). Call {@link space.sunqian.fs.di.DIContainer#initialize()} to initialize
  * the components.
  * <p>
+ * The scanning, instantiation and injection above are based on reflection by default. If the static wiring of a
+ * component class, which is generated at build time by the annotation processor of {@code fs-build}, is present, the
+ * container uses it instead of reflection. See {@link space.sunqian.fs.di.DIWiring}.
+ * <p>
  * When {@code initialize} method is executed, all {@code post-construct} methods in the container will be executed
  * sequentially according to their dependency relationships. The dependencies of each post-construct method are
  * declared by its parameter types, each parameter is considered as a dependency (like Field in component Class). And
  * when a post-construct method is executed, all its dependency parameter instances will be injected into it.
  * <p>
+ * For a container with many components, a parallel executor can be specified by
+ * {@link space.sunqian.fs.di.DIContainer.Builder#parallelExecutor(java.util.concurrent.Executor)}. Then the
+ * {@code post-construct} methods of the components which do not depend on each other (by fields or parameters) are
+ * executed in parallel on the executor, and the {@code pre-destroy} methods are executed in reverse order. The
+ * execution time of each method can be obtained by
+ * {@link space.sunqian.fs.di.DIContainer#postConstructTimes()} and
+ * {@link space.sunqian.fs.di.DIContainer#preDestroyTimes()}.
+ * <p>
  * An DI container can be inherited from a parent container:
  * <pre>{@code
  * DIContainer child = DIContainer.newBuilder()
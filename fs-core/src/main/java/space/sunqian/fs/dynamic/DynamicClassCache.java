@@ -0,0 +1,98 @@
+package space.sunqian.fs.dynamic;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.annotation.ThreadSafe;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the generated classes, keyed by a string which describes the shape of the generated classes. A group of
+ * classes generated for the same key, such as a proxy class and its inner classes, are defined in a new
+ * {@link DynamicClassLoader}, and the first class of the group is cached and returned.
+ * <p>
+ * The cache may have a persistent directory. If present, the bytecode of each generated group is written into the
+ * directory, and the cache (even in another JVM process) will define the classes from the written bytecode instead of
+ * generating them again. The persisted bytecode is tied to the key and the version of this lib, so the key must
+ * contain everything which affects the bytecode, such as the names of the classes and the descriptors of the methods.
+ * Example:
+ * <pre>{@code
+ * DynamicClassCache cache = DynamicClassCache.newCache(Paths.get("/tmp/fs-classes"));
+ * ProxySpec spec = new AsmProxyMaker(cache).make(cls, interfaces, handler);
+ * }</pre>
+ * Note the generated classes are defined by the loaders of which parent is the system class loader, the classes
+ * referenced by the bytecode must be visible to the system class loader.
+ *
+ * @author sunqian
+ */
+@ThreadSafe
+public interface DynamicClassCache {
+
+    /**
+     * Returns the default shared {@link DynamicClassCache} which has no persistent directory. The cached classes will be
+     * automatically collected by the garbage collection based on the characteristics of
+     * {@link java.lang.ref.SoftReference}.
+     *
+     * @return the default shared {@link DynamicClassCache}
+     */
+    static @Nonnull DynamicClassCache defaultCache() {
+        return DynamicClassCacheImpl.Default.INST;
+    }
+
+    /**
+     * Returns a new {@link DynamicClassCache} which has no persistent directory. The cached classes will be
+     * automatically collected by the garbage collection based on the characteristics of
+     * {@link java.lang.ref.SoftReference}.
+     *
+     * @return a new {@link DynamicClassCache} which has no persistent directory
+     */
+    static @Nonnull DynamicClassCache newCache() {
+        return new DynamicClassCacheImpl(null);
+    }
+
+    /**
+     * Returns a new {@link DynamicClassCache} with the specified persistent directory. The cached classes will be
+     * automatically collected by the garbage collection based on the characteristics of
+     * {@link java.lang.ref.SoftReference}, and be defined again from the persistent directory if needed.
+     * <p>
+     * Reading and writing the persistent directory are best-effort: an unreadable file is ignored and the classes are
+     * generated again, and a failure of writing is ignored after the classes are defined.
+     *
+     * @param persistentDir the specified persistent directory, it will be created if it does not exist, may be
+     *                      {@code null} if there is no persistent directory
+     * @return a new {@link DynamicClassCache} with the specified persistent directory
+     */
+    static @Nonnull DynamicClassCache newCache(@Nullable Path persistentDir) {
+        return new DynamicClassCacheImpl(persistentDir);
+    }
+
+    /**
+     * Returns the class for the specified key. If the class is not cached, the bytecode is read from the persistent
+     * directory (if any), or generated by the specified generator and then written into the persistent directory. All
+     * classes of the bytecode are defined in a new {@link DynamicClassLoader}, and the first one is cached and
+     * returned.
+     * <p>
+     * The loading for the same key is atomic, the persistent directory and the generator are only accessed once unless
+     * the cached class has been collected.
+     *
+     * @param key       the specified key, which describes the shape of the generated classes
+     * @param generator the generator to generate the bytecode of the classes, the first one is the returned class
+     * @return the class for the specified key
+     * @throws DynamicException if any error occurs
+     */
+    @Nonnull
+    Class<?> get(
+        @Nonnull String key,
+        @Nonnull Supplier<? extends @Nonnull List<byte @Nonnull []>> generator
+    ) throws DynamicException;
+
+    /**
+     * Returns the persistent directory of this cache, may be {@code null} if there is no persistent directory.
+     *
+     * @return the persistent directory of this cache, may be {@code null} if there is no persistent directory
+     */
+    @Nullable
+    Path persistentDir();
+}
@@ -0,0 +1,166 @@
+package space.sunqian.fs.dynamic;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.cache.SimpleCache;
+import space.sunqian.fs.utils.codec.HexKit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+final class DynamicClassCacheImpl implements DynamicClassCache {
+
+    // magic number of the persisted file: FSDC
+    private static final int MAGIC = 0x46534443;
+    private static final @Nonnull String FILE_SUFFIX = ".classes";
+
+    private final @Nonnull SimpleCache<@Nonnull String, @Nonnull Class<?>> classes = SimpleCache.ofSoft();
+    private final @Nullable Path persistentDir;
+
+    DynamicClassCacheImpl(@Nullable Path persistentDir) {
+        this.persistentDir = persistentDir;
+    }
+
+    @Override
+    public @Nonnull Class<?> get(
+        @Nonnull String key,
+        @Nonnull Supplier<? extends @Nonnull List<byte @Nonnull []>> generator
+    ) throws DynamicException {
+        return Fs.asNonnull(classes.get(key, k -> loadClass(key, generator)));
+    }
+
+    @Override
+    public @Nullable Path persistentDir() {
+        return persistentDir;
+    }
+
+    private @Nonnull Class<?> loadClass(
+        @Nonnull String key,
+        @Nonnull Supplier<? extends @Nonnull List<byte @Nonnull []>> generator
+    ) throws DynamicException {
+        if (persistentDir == null) {
+            return defineClasses(key, generator.get());
+        }
+        byte[] header = (Fs.LIB_VERSION + "\n" + key).getBytes(StandardCharsets.UTF_8);
+        Path file = persistentDir.resolve(fileName(header));
+        List<byte[]> persisted = readBytecodes(file, header);
+        if (persisted != null) {
+            try {
+                return defineClasses(key, persisted);
+            } catch (DynamicException | LinkageError e) {
+                // the persisted bytecode is broken, generates it again
+            }
+        }
+        List<byte[]> bytecodes = generator.get();
+        Class<?> cls = defineClasses(key, bytecodes);
+        writeBytecodes(file, header, bytecodes);
+        return cls;
+    }
+
+    private @Nonnull Class<?> defineClasses(
+        @Nonnull String key, @Nonnull List<byte @Nonnull []> bytecodes
+    ) throws DynamicException {
+        if (bytecodes.isEmpty()) {
+            throw new DynamicException("No class is generated for the key: " + key + ".");
+        }
+        // using new class loader to help collect unused classes
+        DynamicClassLoader loader = new DynamicClassLoader();
+        Class<?> first = null;
+        for (byte[] bytecode : bytecodes) {
+            Class<?> cls = loader.loadClass(null, bytecode);
+            if (first == null) {
+                first = cls;
+            }
+        }
+        return first;
+    }
+
+    private @Nonnull String fileName(byte @Nonnull [] header) throws DynamicException {
+        return Fs.uncheck(() -> {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexKit.encoder().encodeToString(digest.digest(header)) + FILE_SUFFIX;
+        }, DynamicException::new);
+    }
+
+    private @Nullable List<byte @Nonnull []> readBytecodes(@Nonnull Path file, byte @Nonnull [] header) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+            if (data.readInt() != MAGIC) {
+                return null;
+            }
+            byte[] persistedHeader = new byte[data.readInt()];
+            data.readFully(persistedHeader);
+            if (!Arrays.equals(header, persistedHeader)) {
+                return null;
+            }
+            int count = data.readInt();
+            List<byte[]> bytecodes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytecode = new byte[data.readInt()];
+                data.readFully(bytecode);
+                bytecodes.add(bytecode);
+            }
+            return bytecodes;
+        } catch (IOException | RuntimeException e) {
+            // the file is broken or being replaced, treats it as absent
+            return null;
+        }
+    }
+
+    private void writeBytecodes(
+        @Nonnull Path file, byte @Nonnull [] header, @Nonnull List<byte @Nonnull []> bytecodes
+    ) {
+        Path dir = Fs.asNonnull(file.getParent());
+        Path temp = null;
+        try {
+            Files.createDirectories(dir);
+            // writes to a temp file then moves, the readers never see a partial file
+            temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+                data.writeInt(MAGIC);
+                data.writeInt(header.length);
+                data.write(header);
+                data.writeInt(bytecodes.size());
+                for (byte[] bytecode : bytecodes) {
+                    data.writeInt(bytecode.length);
+                    data.write(bytecode);
+                }
+                data.flush();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // persisting is best-effort the same as reading, the classes are defined already
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException | RuntimeException e) {
+                    // ignored
+                }
+            }
+        }
+    }
+
+    static final class Default {
+        static final @Nonnull DynamicClassCache INST = new DynamicClassCacheImpl(null);
+    }
+}
@@ -10,7 +10,7 @@ import space.sunqian.fs.asm.Label;
 import space.sunqian.fs.asm.MethodVisitor;
 import space.sunqian.fs.asm.Opcodes;
 import space.sunqian.fs.base.system.JvmKit;
-import space.sunqian.fs.dynamic.DynamicClassLoader;
+import space.sunqian.fs.dynamic.DynamicClassCache;
 import space.sunqian.fs.dynamic.aspect.AspectException;
 import space.sunqian.fs.dynamic.aspect.AspectHandler;
 import space.sunqian.fs.dynamic.aspect.AspectMaker;
@@ -22,9 +22,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -36,6 +35,9 @@ import java.util.Objects;
  * constructor to ensure that the {@link AspectSpec#newInstance()} can execute correctly. And only the methods, which
  * can pass the {@link ProxyKit#isProxiable(Method)} and {@link AspectHandler#needsAspect(Method)}, can be advised.
  * <p>
+ * The generated aspect classes are cached in a {@link DynamicClassCache}, the aspect class is shared by the makings
+ * of the same advised class and advised methods, even if the aspect handlers are different.
+ * <p>
  * Note the generated aspect class is {@code final}.
  *
  * @author sunqian
@@ -64,21 +66,33 @@ public class AsmAspectMaker implements AspectMaker {
     private static final @Nonnull String METHOD_NAME = JvmKit.toInternalName(Method.class);
     private static final @Nonnull String ARGS_NAME = JvmKit.toInternalName(Object[].class);
 
+    private final @Nonnull DynamicClassCache classCache;
+
+    /**
+     * Constructs with the {@link DynamicClassCache#defaultCache()}.
+     */
+    public AsmAspectMaker() {
+        this(DynamicClassCache.defaultCache());
+    }
+
+    /**
+     * Constructs with the specified class cache. The aspect classes of the same advised class and advised methods are
+     * generated once and shared in the class cache, and may be persisted if the class cache has a persistent directory.
+     *
+     * @param classCache the specified class cache
+     */
+    public AsmAspectMaker(@Nonnull DynamicClassCache classCache) {
+        this.classCache = classCache;
+    }
+
     @Override
     public @Nonnull AspectSpec make(
         @Nonnull Class<?> advisedClass,
         @Nonnull AspectHandler aspectHandler
     ) throws AsmAspectException {
         try {
-            Package pkg = AsmAspectMaker.class.getPackage();
-            // aspect class internal name
-            String aspectName = AsmKit.newClassInternalName(pkg);
-            // aspect class descriptor
-            // String aspectDescriptor = "L" + aspectName + ";";
-            String advisedName = JvmKit.toInternalName(advisedClass);
             // advised methods
-            Map<Method, AspectMethodInfo> advisedMethodMap = new LinkedHashMap<>();
-            // IntVar methodCount = IntVar.of(0);
+            List<Method> advisedMethods = new ArrayList<>();
             for (Method method : advisedClass.getMethods()) {
                 if (!ProxyKit.isProxiable(method)) {
                     continue;
@@ -86,37 +100,60 @@ public class AsmAspectMaker implements AspectMaker {
                 if (!aspectHandler.needsAspect(method)) {
                     continue;
                 }
-                advisedMethodMap.put(
-                    method,
-                    buildAspectMethodInfo(
-                        method
-                        // advisedName,
-                        // aspectDescriptor,
-                        // methodCount.getAndIncrement()
-                    )
-                );
+                advisedMethods.add(method);
             }
-            AspectClassInfo acInfo = new AspectClassInfo(
-                aspectName,
-                // aspectDescriptor,
-                advisedName,
-                new ArrayList<>(advisedMethodMap.values())
+            String classKey = classKey(advisedClass, advisedMethods);
+            Class<?> aspectClass = classCache.get(
+                classKey,
+                () -> Fs.uncheck(() -> generateClasses(advisedClass, advisedMethods), AsmAspectException::new)
             );
-            byte[] aspectClassBytes = generateAspectClass(acInfo);
-            // using new class loader to help collect unused classes
-            DynamicClassLoader loader = new DynamicClassLoader();
-            Class<?> aspectClass = loader.loadClass(null, aspectClassBytes);
             return new AsmAspectSpec(
                 aspectClass,
                 advisedClass,
                 aspectHandler,
-                advisedMethodMap.keySet().toArray(new Method[0])
+                advisedMethods.toArray(new Method[0])
             );
+        } catch (AsmAspectException e) {
+            throw e;
         } catch (Exception e) {
             throw new AsmAspectException(e);
         }
     }
 
+    /**
+     * The key contains everything which affects the generated bytecode, except the generated class name.
+     */
+    private @Nonnull String classKey(@Nonnull Class<?> advisedClass, @Nonnull List<@Nonnull Method> advisedMethods) {
+        StringBuilder key = new StringBuilder(AsmAspectMaker.class.getName())
+            .append(':').append(advisedClass.getName());
+        for (Method method : advisedMethods) {
+            key.append(';')
+                .append(method.getName())
+                .append(JvmKit.toDescriptor(method));
+        }
+        return key.toString();
+    }
+
+    private @Nonnull List<byte @Nonnull []> generateClasses(
+        @Nonnull Class<?> advisedClass,
+        @Nonnull List<@Nonnull Method> advisedMethods
+    ) throws Exception {
+        Package pkg = AsmAspectMaker.class.getPackage();
+        // aspect class internal name
+        String aspectName = AsmKit.newClassInternalName(pkg);
+        String advisedName = JvmKit.toInternalName(advisedClass);
+        List<AspectMethodInfo> methodInfos = new ArrayList<>(advisedMethods.size());
+        for (Method method : advisedMethods) {
+            methodInfos.add(buildAspectMethodInfo(method));
+        }
+        AspectClassInfo acInfo = new AspectClassInfo(
+            aspectName,
+            advisedName,
+            methodInfos
+        );
+        return Collections.singletonList(generateAspectClass(acInfo));
+    }
+
     private @Nonnull AspectMethodInfo buildAspectMethodInfo(
         @Nonnull Method method
         //@Nonnull String ownerName,
@@ -11,8 +11,7 @@ import space.sunqian.fs.asm.Label;
 import space.sunqian.fs.asm.MethodVisitor;
 import space.sunqian.fs.asm.Opcodes;
 import space.sunqian.fs.base.system.JvmKit;
-import space.sunqian.fs.base.value.IntVar;
-import space.sunqian.fs.dynamic.DynamicClassLoader;
+import space.sunqian.fs.dynamic.DynamicClassCache;
 import space.sunqian.fs.dynamic.proxy.ProxyException;
 import space.sunqian.fs.dynamic.proxy.ProxyHandler;
 import space.sunqian.fs.dynamic.proxy.ProxyInvoker;
@@ -27,6 +26,7 @@ import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +44,9 @@ import java.util.Map;
  * descriptor, this implementation only passes the first one encountered to the
  * {@link ProxyHandler#needsProxy(Method)}.
  * <p>
+ * The generated proxy classes are cached in a {@link DynamicClassCache}, the proxy class is shared by the makings of
+ * the same proxied class, interfaces and proxied methods, even if the proxy handlers are different.
+ * <p>
  * Note the generated proxy class is {@code final}.
  *
  * @author sunqian
@@ -76,6 +79,26 @@ public class AsmProxyMaker implements ProxyMaker {
     private static final @Nonnull String INVOKER_INVOKE_SUPER_DESCRIPTOR = JvmKit.toDescriptor(INVOKER_INVOKE_SUPER);
     private static final @Nonnull String @Nullable [] INVOKER_INVOKE_SUPER_EXCEPTIONS = JvmKit.toExceptions(INVOKER_INVOKE_SUPER);
 
+    private final @Nonnull DynamicClassCache classCache;
+
+    /**
+     * Constructs with the {@link DynamicClassCache#defaultCache()}.
+     */
+    public AsmProxyMaker() {
+        this(DynamicClassCache.defaultCache());
+    }
+
+    /**
+     * Constructs with the specified class cache. The proxy classes of the same proxied class, interfaces and proxied
+     * methods are generated once and shared in the class cache, and may be persisted if the class cache has a persistent
+     * directory.
+     *
+     * @param classCache the specified class cache
+     */
+    public AsmProxyMaker(@Nonnull DynamicClassCache classCache) {
+        this.classCache = classCache;
+    }
+
     @Override
     public @Nonnull ProxySpec make(
         @Nullable Class<?> proxiedClass,
@@ -83,60 +106,28 @@ public class AsmProxyMaker implements ProxyMaker {
         @Nonnull ProxyHandler proxyHandler
     ) throws AsmProxyException {
         try {
-            Package pkg = AsmProxyMaker.class.getPackage();
-            // proxy class internal name
-            String proxyName = AsmKit.newClassInternalName(pkg);
-            // proxy class descriptor
-            String proxyDescriptor = "L" + proxyName + ";";
             // proxy class's superclass, which is the proxied class
             Class<?> proxySuperClass = proxiedClass == null ? Object.class : proxiedClass;
-            String proxySuperName = JvmKit.toInternalName(proxySuperClass);
-            // proxy class's interfaces, which is the proxied interfaces
-            String[] proxyInterfaces = {};
-            if (!interfaces.isEmpty()) {
-                proxyInterfaces = interfaces.stream().map(JvmKit::toInternalName).toArray(String[]::new);
-            }
-            // ProxyInvoker's class internal name (inner class's simple name)
-            String invokerSimpleName = INVOKER_SIMPLE_NAME;
-            String invokerName = proxyName + "$" + invokerSimpleName;
-            // proxied methods
-            Map<Method, ProxyMethodInfo> proxiedMethodMap = new LinkedHashMap<>();
+            // proxied methods and their owner types
+            Map<Method, Class<?>> proxiedMethodMap = new LinkedHashMap<>();
             Map<Class<?>, List<Method>> proxiableMethods = ProxyKit.getProxiableMethods(
                 proxiedClass,
                 interfaces,
                 proxyHandler
             );
-            IntVar methodCount = IntVar.of(0);
             proxiableMethods.forEach((type, methods) -> {
-                String ownerName = JvmKit.toInternalName(type);
                 for (Method method : methods) {
-                    proxiedMethodMap.put(
-                        method,
-                        buildProxyMethodInfo(
-                            method,
-                            ownerName,
-                            proxyDescriptor,
-                            type.isInterface(),
-                            methodCount.getAndIncrement()
-                        )
-                    );
+                    proxiedMethodMap.put(method, type);
                 }
             });
-            ProxyClassInfo pcInfo = new ProxyClassInfo(
-                proxyName,
-                proxyDescriptor,
-                proxySuperName,
-                proxyInterfaces,
-                invokerSimpleName,
-                invokerName,
-                new ArrayList<>(proxiedMethodMap.values())
+            String classKey = classKey(proxySuperClass, interfaces, proxiedMethodMap);
+            Class<?> proxyClass = classCache.get(
+                classKey,
+                () -> Fs.uncheck(
+                    () -> generateClasses(proxySuperClass, interfaces, proxiedMethodMap),
+                    AsmProxyException::new
+                )
             );
-            byte[] proxyClassBytes = generateProxyClass(pcInfo);
-            byte[] invokerClassBytes = generateInvokerClass(pcInfo);
-            // using new class loader to help collect unused classes
-            DynamicClassLoader loader = new DynamicClassLoader();
-            Class<?> proxyClass = loader.loadClass(null, proxyClassBytes);
-            loader.loadClass(null, invokerClassBytes);
             return new AsmProxySpec(
                 proxyClass,
                 proxySuperClass,
@@ -144,11 +135,81 @@ public class AsmProxyMaker implements ProxyMaker {
                 proxyHandler,
                 proxiedMethodMap.keySet().toArray(new Method[0])
             );
+        } catch (AsmProxyException e) {
+            throw e;
         } catch (Exception e) {
             throw new AsmProxyException(e);
         }
     }
 
+    /**
+     * The key contains everything which affects the generated bytecode, except the generated class names.
+     */
+    private @Nonnull String classKey(
+        @Nonnull Class<?> proxySuperClass,
+        @Nonnull List<@Nonnull Class<?>> interfaces,
+        @Nonnull Map<@Nonnull Method, @Nonnull Class<?>> proxiedMethodMap
+    ) {
+        StringBuilder key = new StringBuilder(AsmProxyMaker.class.getName())
+            .append(':').append(proxySuperClass.getName());
+        for (Class<?> anInterface : interfaces) {
+            key.append(',').append(anInterface.getName());
+        }
+        proxiedMethodMap.forEach((method, type) -> key.append(';')
+            .append(type.getName())
+            .append('#')
+            .append(method.getModifiers())
+            .append('#')
+            .append(method.getName())
+            .append(JvmKit.toDescriptor(method))
+        );
+        return key.toString();
+    }
+
+    private @Nonnull List<byte @Nonnull []> generateClasses(
+        @Nonnull Class<?> proxySuperClass,
+        @Nonnull List<@Nonnull Class<?>> interfaces,
+        @Nonnull Map<@Nonnull Method, @Nonnull Class<?>> proxiedMethodMap
+    ) throws Exception {
+        Package pkg = AsmProxyMaker.class.getPackage();
+        // proxy class internal name
+        String proxyName = AsmKit.newClassInternalName(pkg);
+        // proxy class descriptor
+        String proxyDescriptor = "L" + proxyName + ";";
+        String proxySuperName = JvmKit.toInternalName(proxySuperClass);
+        // proxy class's interfaces, which is the proxied interfaces
+        String[] proxyInterfaces = {};
+        if (!interfaces.isEmpty()) {
+            proxyInterfaces = interfaces.stream().map(JvmKit::toInternalName).toArray(String[]::new);
+        }
+        // ProxyInvoker's class internal name (inner class's simple name)
+        String invokerSimpleName = INVOKER_SIMPLE_NAME;
+        String invokerName = proxyName + "$" + invokerSimpleName;
+        // proxied methods
+        List<ProxyMethodInfo> methodInfos = new ArrayList<>(proxiedMethodMap.size());
+        proxiedMethodMap.forEach((method, type) -> methodInfos.add(
+            buildProxyMethodInfo(
+                method,
+                JvmKit.toInternalName(type),
+                proxyDescriptor,
+                type.isInterface(),
+                methodInfos.size()
+            )
+        ));
+        ProxyClassInfo pcInfo = new ProxyClassInfo(
+            proxyName,
+            proxyDescriptor,
+            proxySuperName,
+            proxyInterfaces,
+            invokerSimpleName,
+            invokerName,
+            methodInfos
+        );
+        byte[] proxyClassBytes = generateProxyClass(pcInfo);
+        byte[] invokerClassBytes = generateInvokerClass(pcInfo);
+        return Arrays.asList(proxyClassBytes, invokerClassBytes);
+    }
+
     private @Nonnull ProxyMethodInfo buildProxyMethodInfo(
         @Nonnull Method method,
         @Nonnull String ownerName,
@@ -1,11 +1,13 @@
 package space.sunqian.fs.invoke;
 
 import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.asm.ClassWriter;
 import space.sunqian.fs.asm.MethodVisitor;
 import space.sunqian.fs.asm.Opcodes;
 import space.sunqian.fs.base.system.JvmKit;
+import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.dynamic.DynamicClassLoader;
 import space.sunqian.fs.reflect.ClassKit;
 import space.sunqian.fs.third.asm.AsmKit;
@@ -13,6 +15,7 @@ import space.sunqian.fs.third.asm.AsmKit;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 
 final class ByAsm {
@@ -25,23 +28,99 @@ final class ByAsm {
     );
     private static final @Nonnull String @Nonnull [] INVOKE_CHECKED_EXCEPTIONS = {JvmKit.toInternalName(Throwable.class)};
     private static final @Nonnull String INVOKE_CHECKED_DESC = JvmKit.toDescriptor(INVOKE_CHECKED);
+    private static final @Nonnull String OBJECT_DESC = JvmKit.toDescriptor(Object.class);
+
+    // the max number of arguments of the fixed-arity methods: invokeDirectly0, invokeDirectly1...
+    private static final int MAX_FIXED_ARGS_NUM = 3;
+
+    // the generated invocables are stateless, so they are shared for the same executable
+    private static final @Nonnull SimpleCache<@Nonnull Executable, @Nonnull Invocable> CACHE = SimpleCache.ofSoft();
+
+    // whether class definition is allowed in current environment, checked by defining an invocable once
+    private static final boolean DEFINABLE = checkDefinable();
+
+    private static boolean checkDefinable() {
+        try {
+            return newInvocable(Object.class.getMethod("hashCode")).invokeDirectly0("") != null;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether the invocable of the given executable can be created by ASM, and its generated class can access
+     * the executable in current environment.
+     */
+    static boolean isSupported(@Nonnull Executable executable) {
+        return DEFINABLE && isPublic(executable) && parentLoader(executable.getDeclaringClass()) != null;
+    }
+
+    /**
+     * Returns whether the executable, its declaring class and its parameter types are public, and the executable is not
+     * a constructor of an abstract class. The bytecode generated by this class can access such executable from any
+     * package.
+     */
+    static boolean isPublic(@Nonnull Executable executable) {
+        Class<?> declaringClass = executable.getDeclaringClass();
+        if (!Modifier.isPublic(executable.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+        if (executable instanceof Constructor && Modifier.isAbstract(declaringClass.getModifiers())) {
+            return false;
+        }
+        // the generated class casts the arguments to the parameter types
+        for (Class<?> parameterType : executable.getParameterTypes()) {
+            if (!isPublicType(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublicType(@Nonnull Class<?> type) {
+        Class<?> cur = type;
+        while (cur.isArray()) {
+            cur = cur.getComponentType();
+        }
+        return cur.isPrimitive() || Modifier.isPublic(cur.getModifiers());
+    }
 
     static @Nonnull Invocable newInvocable(@Nonnull Method method) {
-        String className = buildClassName();
-        ClassWriter classWriter = generateClassBody(className);
-        generateMethodInvoker(classWriter, method);
-        classWriter.visitEnd();
-        byte[] bytecode = classWriter.toByteArray();
-        return generate(bytecode);
+        return CACHE.get(method, m -> {
+            byte[] bytecode = generateBytecode(method, buildClassName());
+            return generate(bytecode, method.getDeclaringClass());
+        });
     }
 
     static @Nonnull Invocable newInvocable(@Nonnull Constructor<?> constructor) {
-        String className = buildClassName();
+        return CACHE.get(constructor, c -> {
+            byte[] bytecode = generateBytecode(constructor, buildClassName());
+            return generate(bytecode, constructor.getDeclaringClass());
+        });
+    }
+
+    /**
+     * Generates the bytecode of the class which implements {@link Invocable} for the given executable, with the given
+     * class internal name. The class has a public no-arg constructor.
+     */
+    static byte @Nonnull [] generateBytecode(@Nonnull Executable executable, @Nonnull String className) {
         ClassWriter classWriter = generateClassBody(className);
-        generateConstructorInvoker(classWriter, constructor);
+        int paramCount = executable.getParameterCount();
+        if (executable instanceof Method) {
+            Method method = (Method) executable;
+            generateMethodInvoker(classWriter, method, -1);
+            if (paramCount <= MAX_FIXED_ARGS_NUM) {
+                generateMethodInvoker(classWriter, method, paramCount);
+            }
+        } else {
+            Constructor<?> constructor = (Constructor<?>) executable;
+            generateConstructorInvoker(classWriter, constructor, -1);
+            if (paramCount <= MAX_FIXED_ARGS_NUM) {
+                generateConstructorInvoker(classWriter, constructor, paramCount);
+            }
+        }
         classWriter.visitEnd();
-        byte[] bytecode = classWriter.toByteArray();
-        return generate(bytecode);
+        return classWriter.toByteArray();
     }
 
     private static @Nonnull String buildClassName() {
@@ -49,8 +128,33 @@ final class ByAsm {
         return AsmKit.newClassInternalName(pkg);
     }
 
-    private static @Nonnull Invocable generate(byte[] bytecode) {
-        DynamicClassLoader classLoader = new DynamicClassLoader();
+    /**
+     * Returns the parent class loader of the generated class, which can see both the given class and the
+     * {@link Invocable}, or {@code null} if there is no such loader.
+     */
+    private static @Nullable ClassLoader parentLoader(@Nonnull Class<?> declaringClass) {
+        ClassLoader fsLoader = Invocable.class.getClassLoader();
+        ClassLoader loader = declaringClass.getClassLoader();
+        if (loader == null || loader == fsLoader) {
+            return fsLoader;
+        }
+        if (isVisible(loader, Invocable.class)) {
+            return loader;
+        }
+        return isVisible(fsLoader, declaringClass) ? fsLoader : null;
+    }
+
+    static boolean isVisible(@Nullable ClassLoader loader, @Nonnull Class<?> cls) {
+        try {
+            return Class.forName(cls.getName(), false, loader) == cls;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static @Nonnull Invocable generate(byte[] bytecode, @Nonnull Class<?> declaringClass) {
+        ClassLoader parent = parentLoader(declaringClass);
+        DynamicClassLoader classLoader = parent == null ? new DynamicClassLoader() : new DynamicClassLoader(parent);
         Class<?> cls = classLoader.loadClass(null, bytecode);
         return Fs.uncheck(() -> Fs.as(cls.getDeclaredConstructor().newInstance()), InvocationException::new);
     }
@@ -88,14 +192,36 @@ final class ByAsm {
         return classWriter;
     }
 
-    private static void generateMethodInvoker(@Nonnull ClassWriter classWriter, @Nonnull Method method) {
-        MethodVisitor visitor = classWriter.visitMethod(
-            Opcodes.ACC_PUBLIC | Opcodes.ACC_VARARGS,
-            INVOKE_CHECKED.getName(),
-            INVOKE_CHECKED_DESC,
+    /**
+     * Generates invokeDirectly if the fixed is negative, otherwise generates invokeDirectly0, invokeDirectly1... of
+     * which argument number is the fixed.
+     */
+    private static @Nonnull MethodVisitor visitInvokeMethod(@Nonnull ClassWriter classWriter, int fixed) {
+        if (fixed < 0) {
+            return classWriter.visitMethod(
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_VARARGS,
+                INVOKE_CHECKED.getName(),
+                INVOKE_CHECKED_DESC,
+                null,
+                INVOKE_CHECKED_EXCEPTIONS
+            );
+        }
+        StringBuilder descriptor = new StringBuilder("(").append(OBJECT_DESC);
+        for (int i = 0; i < fixed; i++) {
+            descriptor.append(OBJECT_DESC);
+        }
+        descriptor.append(")").append(OBJECT_DESC);
+        return classWriter.visitMethod(
+            Opcodes.ACC_PUBLIC,
+            INVOKE_CHECKED.getName() + fixed,
+            descriptor.toString(),
             null,
             INVOKE_CHECKED_EXCEPTIONS
         );
+    }
+
+    private static void generateMethodInvoker(@Nonnull ClassWriter classWriter, @Nonnull Method method, int fixed) {
+        MethodVisitor visitor = visitInvokeMethod(classWriter, fixed);
         String methodOwnerName = JvmKit.toInternalName(method.getDeclaringClass());
         boolean isStatic = ClassKit.isStatic(method);
         if (!isStatic) {
@@ -104,7 +230,7 @@ final class ByAsm {
             visitor.visitTypeInsn(Opcodes.CHECKCAST, methodOwnerName);
         }
         // loads args
-        loadParameters(visitor, method);
+        loadParameters(visitor, method, fixed);
         // return object.doMethod(...) or Object.doMethod(...);
         if (isStatic) {
             visitor.visitMethodInsn(
@@ -130,21 +256,15 @@ final class ByAsm {
     }
 
     private static void generateConstructorInvoker(
-        @Nonnull ClassWriter classWriter, @Nonnull Constructor<?> constructor
+        @Nonnull ClassWriter classWriter, @Nonnull Constructor<?> constructor, int fixed
     ) {
-        MethodVisitor visitor = classWriter.visitMethod(
-            Opcodes.ACC_PUBLIC | Opcodes.ACC_VARARGS,
-            INVOKE_CHECKED.getName(),
-            INVOKE_CHECKED_DESC,
-            null,
-            INVOKE_CHECKED_EXCEPTIONS
-        );
+        MethodVisitor visitor = visitInvokeMethod(classWriter, fixed);
         String methodOwnerName = JvmKit.toInternalName(constructor.getDeclaringClass());
         // new Object();
         visitor.visitTypeInsn(Opcodes.NEW, methodOwnerName);
         visitor.visitInsn(Opcodes.DUP);
         // loads args
-        loadParameters(visitor, constructor);
+        loadParameters(visitor, constructor, fixed);
         // init new object
         visitor.visitMethodInsn(
             Opcodes.INVOKESPECIAL,
@@ -158,14 +278,19 @@ final class ByAsm {
         visitor.visitEnd();
     }
 
-    private static void loadParameters(@Nonnull MethodVisitor visitor, @Nonnull Executable executable) {
+    private static void loadParameters(@Nonnull MethodVisitor visitor, @Nonnull Executable executable, int fixed) {
         int pIndex = 0;
         for (Parameter parameter : executable.getParameters()) {
-            // get args
-            visitor.visitVarInsn(Opcodes.ALOAD, 2);
-            AsmKit.visitConst(visitor, pIndex++);
-            // get args[pIndex]
-            visitor.visitInsn(Opcodes.AALOAD);
+            if (fixed < 0) {
+                // get args
+                visitor.visitVarInsn(Opcodes.ALOAD, 2);
+                AsmKit.visitConst(visitor, pIndex++);
+                // get args[pIndex]
+                visitor.visitInsn(Opcodes.AALOAD);
+            } else {
+                // get the (pIndex)th argument
+                visitor.visitVarInsn(Opcodes.ALOAD, 2 + pIndex++);
+            }
             AsmKit.convertObjectTo(visitor, parameter.getType());
         }
     }
@@ -0,0 +1,32 @@
+package space.sunqian.fs.invoke;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.base.value.SimpleKey;
+import space.sunqian.fs.cache.SimpleCache;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+final class ByHiddenClass {
+
+    // the generated invocables are stateless, so they are shared for the same executable and the same accessible flag
+    private static final @Nonnull SimpleCache<@Nonnull SimpleKey, @Nonnull Invocable> CACHE = SimpleCache.ofSoft();
+
+    static @Nonnull Invocable newInvocable(@Nonnull Method method) {
+        return CACHE.get(SimpleKey.of(method, method.isAccessible()), k -> {
+            Invocable invocable = Fs.uncheck(() -> InvokeService.INST.newInvocable(method), InvocationException::new);
+            return invocable != null ? invocable : ByMethodHandle.newInvocable(method);
+        });
+    }
+
+    static @Nonnull Invocable newInvocable(@Nonnull Constructor<?> constructor) {
+        return CACHE.get(SimpleKey.of(constructor, constructor.isAccessible()), k -> {
+            Invocable invocable = Fs.uncheck(() -> InvokeService.INST.newInvocable(constructor), InvocationException::new);
+            return invocable != null ? invocable : ByMethodHandle.newInvocable(constructor);
+        });
+    }
+
+    private ByHiddenClass() {
+    }
+}
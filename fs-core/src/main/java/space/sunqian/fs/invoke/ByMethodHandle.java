@@ -151,6 +151,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke();
         }
+
+        @Override
+        public @Nullable Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+            return methodHandle.invoke();
+        }
     }
 
     private static final class StaticInvoker1 implements Invocable {
@@ -164,6 +169,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(args[0]);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+            return methodHandle.invoke(a0);
+        }
     }
 
     private static final class StaticInvoker2 implements Invocable {
@@ -177,6 +187,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(args[0], args[1]);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+            return methodHandle.invoke(a0, a1);
+        }
     }
 
     private static final class StaticInvoker3 implements Invocable {
@@ -190,6 +205,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(args[0], args[1], args[2]);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly3(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2) throws Throwable {
+            return methodHandle.invoke(a0, a1, a2);
+        }
     }
 
     private static final class StaticInvoker4 implements Invocable {
@@ -372,6 +392,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(inst);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+            return methodHandle.invoke(inst);
+        }
     }
 
     private static final class InstanceInvoker1 implements Invocable {
@@ -385,6 +410,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(inst, args[0]);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+            return methodHandle.invoke(inst, a0);
+        }
     }
 
     private static final class InstanceInvoker2 implements Invocable {
@@ -398,6 +428,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(inst, args[0], args[1]);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+            return methodHandle.invoke(inst, a0, a1);
+        }
     }
 
     private static final class InstanceInvoker3 implements Invocable {
@@ -411,6 +446,11 @@ final class ByMethodHandle {
         public @Nullable Object invokeDirectly(@Nullable Object inst, @Nullable Object @Nonnull ... args) throws Throwable {
             return methodHandle.invoke(inst, args[0], args[1], args[2]);
         }
+
+        @Override
+        public @Nullable Object invokeDirectly3(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2) throws Throwable {
+            return methodHandle.invoke(inst, a0, a1, a2);
+        }
     }
 
     private static final class InstanceInvoker4 implements Invocable {
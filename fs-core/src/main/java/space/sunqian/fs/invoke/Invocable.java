@@ -12,7 +12,11 @@ import java.lang.reflect.Method;
  * scope or other similar entity.
  * <p>
  * This interface provides two equivalent methods: {@link #invoke(Object, Object...)} which declares an unchecked
- * exception, and {@link #invokeDirectly(Object, Object...)} which declares a checked exception.
+ * exception, and {@link #invokeDirectly(Object, Object...)} which declares a checked exception. There are also
+ * fixed-arity variants of them for zero to three arguments, such as {@link #invoke1(Object, Object)} and
+ * {@link #invokeDirectly1(Object, Object)}, which do not need the argument array; the invocables created by
+ * {@link InvocationMode#ASM}, {@link InvocationMode#HIDDEN_CLASS} and {@link InvocationMode#METHOD_HANDLE}
+ * implement them without the array.
  * <p>
  * The thread-safety of this interface depends on invocable entity it holds.
  *
@@ -76,6 +80,8 @@ public interface Invocable {
                 return ByMethodHandle.newInvocable(method);
             case ASM:
                 return ByAsm.newInvocable(method);
+            case HIDDEN_CLASS:
+                return ByHiddenClass.newInvocable(method);
             default:
                 return ByReflection.newInvocable(method);
         }
@@ -95,6 +101,8 @@ public interface Invocable {
                 return ByMethodHandle.newInvocable(constructor);
             case ASM:
                 return ByAsm.newInvocable(constructor);
+            case HIDDEN_CLASS:
+                return ByHiddenClass.newInvocable(constructor);
             default:
                 return ByReflection.newInvocable(constructor);
         }
@@ -144,4 +152,144 @@ public interface Invocable {
      * @throws Throwable the exception directly thrown from the underlying invocation
      */
     Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable;
+
+    /**
+     * Executes this invocable entity with an instance and no arguments. This method is equivalent to
+     * {@link #invoke(Object, Object...)} but avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @return the invocation result
+     * @throws InvocationException for any {@link Throwable}
+     * @see #invokeDirectly0(Object)
+     */
+    default Object invoke0(@Nullable Object inst) throws InvocationException {
+        try {
+            return invokeDirectly0(inst);
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Executes this invocable entity with an instance and one argument. This method is equivalent to
+     * {@link #invoke(Object, Object...)} but avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @param a0   the first invocation argument
+     * @return the invocation result
+     * @throws InvocationException for any {@link Throwable}
+     * @see #invokeDirectly1(Object, Object)
+     */
+    default Object invoke1(@Nullable Object inst, @Nullable Object a0) throws InvocationException {
+        try {
+            return invokeDirectly1(inst, a0);
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Executes this invocable entity with an instance and two arguments. This method is equivalent to
+     * {@link #invoke(Object, Object...)} but avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @param a0   the first invocation argument
+     * @param a1   the second invocation argument
+     * @return the invocation result
+     * @throws InvocationException for any {@link Throwable}
+     * @see #invokeDirectly2(Object, Object, Object)
+     */
+    default Object invoke2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws InvocationException {
+        try {
+            return invokeDirectly2(inst, a0, a1);
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Executes this invocable entity with an instance and three arguments. This method is equivalent to
+     * {@link #invoke(Object, Object...)} but avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @param a0   the first invocation argument
+     * @param a1   the second invocation argument
+     * @param a2   the third invocation argument
+     * @return the invocation result
+     * @throws InvocationException for any {@link Throwable}
+     * @see #invokeDirectly3(Object, Object, Object, Object)
+     */
+    default Object invoke3(
+        @Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2
+    ) throws InvocationException {
+        try {
+            return invokeDirectly3(inst, a0, a1, a2);
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Executes this invocable entity with an instance and no arguments, and directly throws any exception thrown from
+     * the underlying invocation (if any). This method is equivalent to {@link #invokeDirectly(Object, Object...)} but
+     * avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @return the invocation result
+     * @throws Throwable the exception directly thrown from the underlying invocation
+     * @implNote The default implementation calls {@link #invokeDirectly(Object, Object...)} with the arguments.
+     */
+    default Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+        return invokeDirectly(inst);
+    }
+
+    /**
+     * Executes this invocable entity with an instance and one argument, and directly throws any exception thrown from
+     * the underlying invocation (if any). This method is equivalent to {@link #invokeDirectly(Object, Object...)} but
+     * avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @param a0   the first invocation argument
+     * @return the invocation result
+     * @throws Throwable the exception directly thrown from the underlying invocation
+     * @implNote The default implementation calls {@link #invokeDirectly(Object, Object...)} with the arguments.
+     */
+    default Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+        return invokeDirectly(inst, a0);
+    }
+
+    /**
+     * Executes this invocable entity with an instance and two arguments, and directly throws any exception thrown from
+     * the underlying invocation (if any). This method is equivalent to {@link #invokeDirectly(Object, Object...)} but
+     * avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @param a0   the first invocation argument
+     * @param a1   the second invocation argument
+     * @return the invocation result
+     * @throws Throwable the exception directly thrown from the underlying invocation
+     * @implNote The default implementation calls {@link #invokeDirectly(Object, Object...)} with the arguments.
+     */
+    default Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+        return invokeDirectly(inst, a0, a1);
+    }
+
+    /**
+     * Executes this invocable entity with an instance and three arguments, and directly throws any exception thrown
+     * from the underlying invocation (if any). This method is equivalent to {@link #invokeDirectly(Object, Object...)}
+     * but avoids creating the argument array if this entity supports it.
+     *
+     * @param inst the instance
+     * @param a0   the first invocation argument
+     * @param a1   the second invocation argument
+     * @param a2   the third invocation argument
+     * @return the invocation result
+     * @throws Throwable the exception directly thrown from the underlying invocation
+     * @implNote The default implementation calls {@link #invokeDirectly(Object, Object...)} with the arguments.
+     */
+    default Object invokeDirectly3(
+        @Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2
+    ) throws Throwable {
+        return invokeDirectly(inst, a0, a1, a2);
+    }
 }
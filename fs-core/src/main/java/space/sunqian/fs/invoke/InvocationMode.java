@@ -31,10 +31,33 @@ public enum InvocationMode {
      * Note it uses the built-in asm package: {@code space.sunqian.fs.asm}.
      */
     ASM,
+
+    /**
+     * Using generated classes which are unloadable once the {@link Invocable} is no longer reachable, and directly call
+     * the executable like {@link #ASM}:
+     * <ul>
+     *     <li>
+     *         On JDK 15+, the bytecode same as {@link #ASM} is defined as a hidden class by
+     *         {@code MethodHandles.Lookup.defineHiddenClass}, without a new class loader. The hidden class is a
+     *         nestmate of the declaring class if the executable is accessible (public, or its accessible flag is set);
+     *     </li>
+     *     <li>
+     *         On JDK 8-14, the class is generated by {@link java.lang.invoke.LambdaMetafactory}, for the public
+     *         executables of which number of parameters is no more than 3;
+     *     </li>
+     * </ul>
+     * If the executable is not supported by the above, {@link #METHOD_HANDLE} is used instead.
+     */
+    HIDDEN_CLASS,
     ;
 
     /**
      * Returns the recommended implementation for the specified method in current environment.
+     * <p>
+     * {@link #ASM} is recommended if class definition is allowed in current environment (which is checked once by
+     * defining a class), and the method, its declaring class and its parameter types are public. Otherwise,
+     * {@link #METHOD_HANDLE} is recommended if the number of parameters is supported by the fixed-arity invokers,
+     * else {@link #REFLECTION}.
      *
      * @param method the specified method
      * @return the recommended implementation for the specified method in current environment
@@ -45,6 +68,9 @@ public enum InvocationMode {
 
     /**
      * Returns the recommended implementation for the specified constructor in current environment.
+     * <p>
+     * The rules are same as {@link #recommended(Method)}, and the declaring class of the constructor also must not be
+     * abstract for {@link #ASM}.
      *
      * @param constructor the specified constructor
      * @return the recommended implementation for the specified constructor in current environment
@@ -54,6 +80,9 @@ public enum InvocationMode {
     }
 
     private static @Nonnull InvocationMode recommended(@Nonnull Executable executable, boolean isStatic) {
+        if (ByAsm.isSupported(executable)) {
+            return ASM;
+        }
         int paramCount = executable.getParameterCount();
         if (isStatic) {
             return paramCount <= ByMethodHandle.MAX_STATIC_ARGS_NUM ? METHOD_HANDLE : REFLECTION;
@@ -0,0 +1,21 @@
+package space.sunqian.fs.invoke;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.base.FsLoader;
+
+import java.lang.reflect.Executable;
+
+interface InvokeService {
+
+    @Nonnull
+    InvokeService INST = FsLoader.loadImplByJvm(InvokeService.class, 15);
+
+    /**
+     * Returns a new {@link Invocable} for the given method or constructor, of which class is unloadable once the
+     * returned instance is no longer reachable. Returns {@code null} if this service does not support the given
+     * executable.
+     */
+    @Nullable
+    Invocable newInvocable(@Nonnull Executable executable) throws Exception;
+}
@@ -0,0 +1,389 @@
+package space.sunqian.fs.invoke;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.reflect.ClassKit;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+
+/**
+ * Implementation by {@link LambdaMetafactory}. The lambda class implements one of the functional interfaces declared in
+ * this enum, and its functional method directly calls the executable. The functional interfaces implement the methods
+ * of {@link Invocable} by the functional method.
+ */
+enum InvokeServiceImpl implements InvokeService {
+    INST;
+
+    private static final @Nonnull String FUNCTIONAL_METHOD_NAME = "call";
+
+    // the max number of arguments of the functional interfaces
+    private static final int MAX_ARGS_NUM = 3;
+
+    @Override
+    public @Nullable Invocable newInvocable(@Nonnull Executable executable) throws Exception {
+        int paramCount = executable.getParameterCount();
+        if (paramCount > MAX_ARGS_NUM) {
+            return null;
+        }
+        // the lambda class is defined in this package, and resolves the classes by the loader of this class
+        if (!ByAsm.isPublic(executable)
+            || !ByAsm.isVisible(Invocable.class.getClassLoader(), executable.getDeclaringClass())) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle implMethod;
+        Class<?> functionalInterface;
+        boolean isVoid;
+        if (executable instanceof Method) {
+            Method method = (Method) executable;
+            implMethod = lookup.unreflect(method);
+            isVoid = void.class.equals(method.getReturnType());
+            functionalInterface = ClassKit.isStatic(method) ?
+                staticInterface(paramCount, isVoid)
+                :
+                instanceInterface(paramCount, isVoid);
+        } else {
+            implMethod = lookup.unreflectConstructor((Constructor<?>) executable);
+            isVoid = false;
+            functionalInterface = staticInterface(paramCount, false);
+        }
+        MethodType implType = implMethod.type();
+        MethodType samMethodType = MethodType.genericMethodType(implType.parameterCount());
+        MethodType instantiatedMethodType = implType.wrap();
+        if (isVoid) {
+            samMethodType = samMethodType.changeReturnType(void.class);
+            instantiatedMethodType = instantiatedMethodType.changeReturnType(void.class);
+        } else {
+            instantiatedMethodType = instantiatedMethodType.changeReturnType(Object.class);
+        }
+        CallSite callSite = LambdaMetafactory.metafactory(
+            lookup,
+            FUNCTIONAL_METHOD_NAME,
+            MethodType.methodType(functionalInterface),
+            samMethodType,
+            implMethod,
+            instantiatedMethodType
+        );
+        try {
+            return Fs.as(callSite.getTarget().invoke());
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    private static @Nonnull Class<?> staticInterface(int paramCount, boolean isVoid) {
+        switch (paramCount) {
+            case 0:
+                return isVoid ? StaticVoid0.class : Static0.class;
+            case 1:
+                return isVoid ? StaticVoid1.class : Static1.class;
+            case 2:
+                return isVoid ? StaticVoid2.class : Static2.class;
+            default:
+                return isVoid ? StaticVoid3.class : Static3.class;
+        }
+    }
+
+    private static @Nonnull Class<?> instanceInterface(int paramCount, boolean isVoid) {
+        switch (paramCount) {
+            case 0:
+                return isVoid ? InstanceVoid0.class : Instance0.class;
+            case 1:
+                return isVoid ? InstanceVoid1.class : Instance1.class;
+            case 2:
+                return isVoid ? InstanceVoid2.class : Instance2.class;
+            default:
+                return isVoid ? InstanceVoid3.class : Instance3.class;
+        }
+    }
+
+    @FunctionalInterface
+    interface Static0 extends Invocable {
+
+        Object call() throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call();
+        }
+
+        @Override
+        default Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+            return call();
+        }
+    }
+
+    @FunctionalInterface
+    interface Static1 extends Invocable {
+
+        Object call(Object a0) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(args[0]);
+        }
+
+        @Override
+        default Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+            return call(a0);
+        }
+    }
+
+    @FunctionalInterface
+    interface Static2 extends Invocable {
+
+        Object call(Object a0, Object a1) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(args[0], args[1]);
+        }
+
+        @Override
+        default Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+            return call(a0, a1);
+        }
+    }
+
+    @FunctionalInterface
+    interface Static3 extends Invocable {
+
+        Object call(Object a0, Object a1, Object a2) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(args[0], args[1], args[2]);
+        }
+
+        @Override
+        default Object invokeDirectly3(
+            @Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2
+        ) throws Throwable {
+            return call(a0, a1, a2);
+        }
+    }
+
+    @FunctionalInterface
+    interface StaticVoid0 extends Invocable {
+
+        void call() throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call();
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+            call();
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface StaticVoid1 extends Invocable {
+
+        void call(Object a0) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(args[0]);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+            call(a0);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface StaticVoid2 extends Invocable {
+
+        void call(Object a0, Object a1) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(args[0], args[1]);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+            call(a0, a1);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface StaticVoid3 extends Invocable {
+
+        void call(Object a0, Object a1, Object a2) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(args[0], args[1], args[2]);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly3(
+            @Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2
+        ) throws Throwable {
+            call(a0, a1, a2);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface Instance0 extends Invocable {
+
+        Object call(Object inst) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(inst);
+        }
+
+        @Override
+        default Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+            return call(inst);
+        }
+    }
+
+    @FunctionalInterface
+    interface Instance1 extends Invocable {
+
+        Object call(Object inst, Object a0) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(inst, args[0]);
+        }
+
+        @Override
+        default Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+            return call(inst, a0);
+        }
+    }
+
+    @FunctionalInterface
+    interface Instance2 extends Invocable {
+
+        Object call(Object inst, Object a0, Object a1) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(inst, args[0], args[1]);
+        }
+
+        @Override
+        default Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+            return call(inst, a0, a1);
+        }
+    }
+
+    @FunctionalInterface
+    interface Instance3 extends Invocable {
+
+        Object call(Object inst, Object a0, Object a1, Object a2) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            return call(inst, args[0], args[1], args[2]);
+        }
+
+        @Override
+        default Object invokeDirectly3(
+            @Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2
+        ) throws Throwable {
+            return call(inst, a0, a1, a2);
+        }
+    }
+
+    @FunctionalInterface
+    interface InstanceVoid0 extends Invocable {
+
+        void call(Object inst) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(inst);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly0(@Nullable Object inst) throws Throwable {
+            call(inst);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface InstanceVoid1 extends Invocable {
+
+        void call(Object inst, Object a0) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(inst, args[0]);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly1(@Nullable Object inst, @Nullable Object a0) throws Throwable {
+            call(inst, a0);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface InstanceVoid2 extends Invocable {
+
+        void call(Object inst, Object a0, Object a1) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(inst, args[0], args[1]);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly2(@Nullable Object inst, @Nullable Object a0, @Nullable Object a1) throws Throwable {
+            call(inst, a0, a1);
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface InstanceVoid3 extends Invocable {
+
+        void call(Object inst, Object a0, Object a1, Object a2) throws Throwable;
+
+        @Override
+        default Object invokeDirectly(@Nullable Object inst, Object @Nonnull ... args) throws Throwable {
+            call(inst, args[0], args[1], args[2]);
+            return null;
+        }
+
+        @Override
+        default Object invokeDirectly3(
+            @Nullable Object inst, @Nullable Object a0, @Nullable Object a1, @Nullable Object a2
+        ) throws Throwable {
+            call(inst, a0, a1, a2);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package space.sunqian.fs.invoke;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.third.asm.AsmKit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Modifier;
+
+/**
+ * Implementation by {@link MethodHandles.Lookup#defineHiddenClass(byte[], boolean, MethodHandles.Lookup.ClassOption...)}.
+ * The bytecode of the hidden class is same as {@link InvocationMode#ASM}. If the executable is accessible, the hidden
+ * class is defined as a nestmate of the declaring class of the executable, otherwise it is defined in this package and
+ * the executable must be public.
+ */
+enum InvokeServiceImplByJ15 implements InvokeService {
+    INST;
+
+    @Override
+    public @Nullable Invocable newInvocable(@Nonnull Executable executable) throws Exception {
+        MethodHandles.Lookup lookup = hostLookup(executable);
+        if (lookup == null) {
+            if (!ByAsm.isPublic(executable)
+                || !ByAsm.isVisible(Invocable.class.getClassLoader(), executable.getDeclaringClass())) {
+                return null;
+            }
+            lookup = MethodHandles.lookup();
+        }
+        String className = AsmKit.newClassInternalName(lookup.lookupClass().getPackage());
+        byte[] bytecode = ByAsm.generateBytecode(executable, className);
+        MethodHandles.Lookup hiddenLookup = lookup.defineHiddenClass(
+            bytecode, true, MethodHandles.Lookup.ClassOption.NESTMATE
+        );
+        Class<?> hiddenClass = hiddenLookup.lookupClass();
+        try {
+            return Fs.as(hiddenLookup.findConstructor(hiddenClass, MethodType.methodType(void.class)).invoke());
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the lookup with private access on the declaring class of the given executable, or {@code null} if the
+     * executable is not accessible (public, or its accessible flag is set), or the hidden class can not be defined as a
+     * nestmate of the declaring class.
+     */
+    @SuppressWarnings("deprecation")
+    private static @Nullable MethodHandles.Lookup hostLookup(@Nonnull Executable executable) {
+        Class<?> host = executable.getDeclaringClass();
+        boolean accessible = executable.isAccessible()
+            || (Modifier.isPublic(executable.getModifiers()) && Modifier.isPublic(host.getModifiers()));
+        if (!accessible) {
+            return null;
+        }
+        if (executable instanceof Constructor && Modifier.isAbstract(host.getModifiers())) {
+            return null;
+        }
+        // the hidden class is defined by the loader of the host
+        if (!ByAsm.isVisible(host.getClassLoader(), Invocable.class)) {
+            return null;
+        }
+        // the hidden class casts the arguments to the parameter types
+        for (Class<?> parameterType : executable.getParameterTypes()) {
+            if (!isAccessibleType(parameterType, host)) {
+                return null;
+            }
+        }
+        try {
+            return MethodHandles.privateLookupIn(host, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessibleType(@Nonnull Class<?> type, @Nonnull Class<?> host) {
+        Class<?> cur = type;
+        while (cur.isArray()) {
+            cur = cur.getComponentType();
+        }
+        if (cur.isPrimitive() || Modifier.isPublic(cur.getModifiers())) {
+            return true;
+        }
+        return cur.getClassLoader() == host.getClassLoader() && cur.getPackageName().equals(host.getPackageName());
+    }
+}
@@ -0,0 +1,233 @@
+package space.sunqian.fs.io;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.ThreadSafe;
+import space.sunqian.fs.base.Checker;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pool of {@link ByteBuffer}, typically used for socket and channel I/O to reduce the GC churn of temporary buffers. The
+ * default implementation pools direct buffers, reading from or writing to a channel with a direct buffer also avoids
+ * the copy between the heap and the native memory.
+ * <p>
+ * The pooled buffers are organized by size classes of the power of 2, each thread has a small cache for each size
+ * class, and the overflow of the thread caches is kept in a shared cache. The requests larger than the max pooled size
+ * are allocated directly and not pooled. Example:
+ * <pre>{@code
+ * BufferPool pool = BufferPool.defaultPool();
+ * ByteBuffer buffer = pool.allocate(1024);
+ * try {
+ *     channel.read(buffer);
+ *     // ...
+ * } finally {
+ *     pool.release(buffer);
+ * }
+ * }</pre>
+ * A buffer must not be used after it is released, and must not be released more than once. A buffer which is not
+ * released will be reclaimed by GC, and the sampled ones are reported as leaks by {@link Stats#leakCount()}.
+ *
+ * @author sunqian
+ */
+@ThreadSafe
+public interface BufferPool {
+
+    /**
+     * Returns the default shared {@link BufferPool} which pools direct buffers, with the default configurations of
+     * {@link Builder}.
+     *
+     * @return the default shared {@link BufferPool}
+     */
+    static @Nonnull BufferPool defaultPool() {
+        return BufferPoolImpl.Default.INST;
+    }
+
+    /**
+     * Returns a new builder for building {@link BufferPool}.
+     *
+     * @return a new builder for building {@link BufferPool}
+     */
+    static @Nonnull Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Allocates a buffer of which position is {@code 0} and limit is the given size. The capacity of the returned buffer
+     * may be greater than the given size.
+     *
+     * @param size the given size, must {@code >= 0}
+     * @return a buffer of which position is {@code 0} and limit is the given size
+     * @throws IllegalArgumentException if the given size is negative
+     */
+    @Nonnull
+    ByteBuffer allocate(int size) throws IllegalArgumentException;
+
+    /**
+     * Releases the given buffer back to this pool. The buffer must be allocated from this pool, and must not be used
+     * after released. If the given buffer is not poolable (such as the buffer larger than the max pooled size), it will
+     * be dropped.
+     *
+     * @param buffer the given buffer
+     */
+    void release(@Nonnull ByteBuffer buffer);
+
+    /**
+     * Returns the statistics of this pool, which are updated in real time.
+     *
+     * @return the statistics of this pool
+     */
+    @Nonnull
+    Stats stats();
+
+    /**
+     * Statistics of a {@link BufferPool}.
+     */
+    interface Stats {
+
+        /**
+         * Returns the number of the allocations.
+         *
+         * @return the number of the allocations
+         */
+        long allocationCount();
+
+        /**
+         * Returns the number of the releases.
+         *
+         * @return the number of the releases
+         */
+        long releaseCount();
+
+        /**
+         * Returns the number of the allocations satisfied by the cached buffers.
+         *
+         * @return the number of the allocations satisfied by the cached buffers
+         */
+        long hitCount();
+
+        /**
+         * Returns the number of the allocations which create new poolable buffers.
+         *
+         * @return the number of the allocations which create new poolable buffers
+         */
+        long missCount();
+
+        /**
+         * Returns the number of the allocations larger than the max pooled size, which are allocated directly and not
+         * pooled.
+         *
+         * @return the number of the allocations larger than the max pooled size
+         */
+        long unpooledCount();
+
+        /**
+         * Returns the number of the buffers allocated but not yet released, that is, {@code allocationCount() -
+         * releaseCount()}.
+         *
+         * @return the number of the buffers allocated but not yet released
+         */
+        default long activeCount() {
+            return allocationCount() - releaseCount();
+        }
+
+        /**
+         * Returns the number of the detected leaks, that is, the sampled buffers which are reclaimed by GC without
+         * being released. The leak detection is sampled (see {@link Builder#leakSampleInterval(int)}), so the actual
+         * number of the leaks may be greater.
+         *
+         * @return the number of the detected leaks
+         */
+        long leakCount();
+    }
+
+    /**
+     * Builder for building {@link BufferPool}.
+     */
+    class Builder {
+
+        private boolean direct = true;
+        private int maxPooledSize = 1024 * 1024;
+        private int threadCacheCapacity = 8;
+        private long sharedCacheBytes = 4 * 1024 * 1024;
+        private int leakSampleInterval = 128;
+
+        /**
+         * Sets whether to pool direct buffers, default is {@code true}.
+         *
+         * @param direct whether to pool direct buffers
+         * @return this builder
+         */
+        public @Nonnull Builder direct(boolean direct) {
+            this.direct = direct;
+            return this;
+        }
+
+        /**
+         * Sets the max pooled size, it will be rounded up to the power of 2. The requests larger than this size are
+         * allocated directly and not pooled. Default is {@code 1MB}.
+         *
+         * @param maxPooledSize the max pooled size, must {@code > 0}
+         * @return this builder
+         * @throws IllegalArgumentException if the max pooled size {@code <= 0} or greater than {@code 1 << 30}
+         */
+        public @Nonnull Builder maxPooledSize(int maxPooledSize) throws IllegalArgumentException {
+            Checker.checkArgument(maxPooledSize > 0 && maxPooledSize <= 1 << 30, "maxPooledSize must in (0, 1 << 30]");
+            this.maxPooledSize = maxPooledSize;
+            return this;
+        }
+
+        /**
+         * Sets the max number of the cached buffers of each size class for each thread, {@code 0} to disable thread
+         * caches. Only the size classes not greater than {@code 64KB} are cached by threads. Default is {@code 8}.
+         *
+         * @param threadCacheCapacity the max number of the cached buffers of each size class for each thread, must
+         *                            {@code >= 0}
+         * @return this builder
+         * @throws IllegalArgumentException if the capacity is negative
+         */
+        public @Nonnull Builder threadCacheCapacity(int threadCacheCapacity) throws IllegalArgumentException {
+            Checker.checkArgument(threadCacheCapacity >= 0, "threadCacheCapacity must >= 0");
+            this.threadCacheCapacity = threadCacheCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the max total bytes of the buffers in the shared cache. It is one budget shared by all size classes, the
+         * released buffer is discarded if caching it would exceed the budget. The thread caches are not counted. Default
+         * is {@code 4MB}.
+         *
+         * @param sharedCacheBytes the max total bytes of the buffers in the shared cache, must {@code >= 0}
+         * @return this builder
+         * @throws IllegalArgumentException if the bytes is negative
+         */
+        public @Nonnull Builder sharedCacheBytes(long sharedCacheBytes) throws IllegalArgumentException {
+            Checker.checkArgument(sharedCacheBytes >= 0, "sharedCacheBytes must >= 0");
+            this.sharedCacheBytes = sharedCacheBytes;
+            return this;
+        }
+
+        /**
+         * Sets the sample interval of the leak detection: one of each {@code interval} allocations is tracked, and
+         * reported by {@link Stats#leakCount()} if it is reclaimed by GC without being released. {@code 1} to track
+         * all allocations, {@code 0} to disable the leak detection. Default is {@code 128}.
+         *
+         * @param leakSampleInterval the sample interval of the leak detection, must {@code >= 0}
+         * @return this builder
+         * @throws IllegalArgumentException if the interval is negative
+         */
+        public @Nonnull Builder leakSampleInterval(int leakSampleInterval) throws IllegalArgumentException {
+            Checker.checkArgument(leakSampleInterval >= 0, "leakSampleInterval must >= 0");
+            this.leakSampleInterval = leakSampleInterval;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link BufferPool} with the configurations of this builder.
+         *
+         * @return a new {@link BufferPool}
+         */
+        public @Nonnull BufferPool build() {
+            return new BufferPoolImpl(direct, maxPooledSize, threadCacheCapacity, sharedCacheBytes, leakSampleInterval);
+        }
+    }
+}
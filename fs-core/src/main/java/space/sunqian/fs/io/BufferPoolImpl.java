@@ -0,0 +1,300 @@
+package space.sunqian.fs.io;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.base.Checker;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+final class BufferPoolImpl implements BufferPool, BufferPool.Stats {
+
+    // min size class: 256B
+    private static final int MIN_SHIFT = 8;
+    // max size class cached by threads: 64KB
+    private static final int MAX_THREAD_CACHE_SHIFT = 16;
+
+    private final boolean direct;
+    private final int maxShift;
+    private final int leakSampleInterval;
+
+    // caches
+    private final @Nonnull ConcurrentLinkedQueue<@Nonnull ByteBuffer> @Nonnull [] sharedCaches;
+    // total bytes of the buffers in the shared cache, for all size classes
+    private final @Nonnull AtomicLong sharedBytes = new AtomicLong();
+    private final long sharedCacheBytes;
+    private final @Nonnull ThreadLocal<@Nullable LocalCache> localCache;
+
+    // stats
+    private final @Nonnull LongAdder allocationCount = new LongAdder();
+    private final @Nonnull LongAdder releaseCount = new LongAdder();
+    private final @Nonnull LongAdder hitCount = new LongAdder();
+    private final @Nonnull LongAdder missCount = new LongAdder();
+    private final @Nonnull LongAdder unpooledCount = new LongAdder();
+    private final @Nonnull LongAdder leakCount = new LongAdder();
+
+    // leak detection
+    private final @Nonnull AtomicLong sampleCounter = new AtomicLong();
+    private final @Nonnull ConcurrentHashMap<@Nonnull Object, @Nonnull LeakRef> tracked = new ConcurrentHashMap<>();
+    private final @Nonnull ReferenceQueue<@Nonnull ByteBuffer> leakQueue = new ReferenceQueue<>();
+
+    BufferPoolImpl(
+        boolean direct, int maxPooledSize, int threadCacheCapacity, long sharedCacheBytes, int leakSampleInterval
+    ) {
+        this.direct = direct;
+        this.maxShift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(maxPooledSize - 1));
+        this.leakSampleInterval = leakSampleInterval;
+        this.sharedCacheBytes = sharedCacheBytes;
+        int classNum = maxShift - MIN_SHIFT + 1;
+        this.sharedCaches = newQueueArray(classNum);
+        int @Nonnull [] localCapacities = new int[classNum];
+        for (int i = 0; i < classNum; i++) {
+            int shift = i + MIN_SHIFT;
+            sharedCaches[i] = new ConcurrentLinkedQueue<>();
+            localCapacities[i] = shift <= MAX_THREAD_CACHE_SHIFT ? threadCacheCapacity : 0;
+        }
+        this.localCache = threadCacheCapacity > 0 ?
+            ThreadLocal.withInitial(() -> new LocalCache(localCapacities)) : ThreadLocal.withInitial(() -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nonnull ConcurrentLinkedQueue<@Nonnull ByteBuffer> @Nonnull [] newQueueArray(int length) {
+        return new ConcurrentLinkedQueue[length];
+    }
+
+    @Override
+    public @Nonnull ByteBuffer allocate(int size) throws IllegalArgumentException {
+        Checker.checkArgument(size >= 0, "size must >= 0.");
+        allocationCount.increment();
+        int index = sizeClass(size);
+        ByteBuffer buffer;
+        if (index < 0) {
+            unpooledCount.increment();
+            buffer = newBuffer(size);
+        } else {
+            buffer = poll(index);
+            if (buffer == null) {
+                missCount.increment();
+                buffer = newBuffer(1 << (index + MIN_SHIFT));
+            } else {
+                hitCount.increment();
+                buffer.clear();
+            }
+            buffer.limit(size);
+        }
+        track(buffer);
+        return buffer;
+    }
+
+    private @Nullable ByteBuffer poll(int index) {
+        LocalCache cache = localCache.get();
+        if (cache != null) {
+            ByteBuffer buffer = cache.poll(index);
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        ByteBuffer buffer = sharedCaches[index].poll();
+        if (buffer != null) {
+            sharedBytes.addAndGet(-buffer.capacity());
+        }
+        return buffer;
+    }
+
+    @Override
+    public void release(@Nonnull ByteBuffer buffer) {
+        releaseCount.increment();
+        untrack(buffer);
+        int index = poolableClass(buffer);
+        if (index < 0) {
+            return;
+        }
+        LocalCache cache = localCache.get();
+        if (cache != null && cache.offer(index, buffer)) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        if (sharedBytes.addAndGet(capacity) <= sharedCacheBytes) {
+            sharedCaches[index].offer(buffer);
+        } else {
+            sharedBytes.addAndGet(-capacity);
+        }
+    }
+
+    private int sizeClass(int size) {
+        if (size <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return shift > maxShift ? -1 : shift - MIN_SHIFT;
+    }
+
+    private int poolableClass(@Nonnull ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (buffer.isDirect() != direct || buffer.isReadOnly() || Integer.bitCount(capacity) != 1) {
+            return -1;
+        }
+        int shift = Integer.numberOfTrailingZeros(capacity);
+        if (shift < MIN_SHIFT || shift > maxShift) {
+            return -1;
+        }
+        return shift - MIN_SHIFT;
+    }
+
+    private @Nonnull ByteBuffer newBuffer(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private void track(@Nonnull ByteBuffer buffer) {
+        if (leakSampleInterval <= 0 || sampleCounter.incrementAndGet() % leakSampleInterval != 0) {
+            return;
+        }
+        LeakRef ref = new LeakRef(buffer, leakQueue);
+        tracked.put(ref, ref);
+        expungeLeaks();
+    }
+
+    private void untrack(@Nonnull ByteBuffer buffer) {
+        if (tracked.isEmpty()) {
+            return;
+        }
+        tracked.remove(new LeakKey(buffer));
+    }
+
+    private void expungeLeaks() {
+        Reference<?> ref;
+        while ((ref = leakQueue.poll()) != null) {
+            if (tracked.remove(ref) != null) {
+                leakCount.increment();
+            }
+        }
+    }
+
+    @Override
+    public @Nonnull Stats stats() {
+        return this;
+    }
+
+    @Override
+    public long allocationCount() {
+        return allocationCount.sum();
+    }
+
+    @Override
+    public long releaseCount() {
+        return releaseCount.sum();
+    }
+
+    @Override
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long unpooledCount() {
+        return unpooledCount.sum();
+    }
+
+    @Override
+    public long leakCount() {
+        expungeLeaks();
+        return leakCount.sum();
+    }
+
+    private static final class LocalCache {
+
+        private final @Nullable ByteBuffer @Nonnull [] @Nonnull [] stacks;
+        private final int @Nonnull [] sizes;
+
+        private LocalCache(int @Nonnull [] capacities) {
+            this.stacks = new ByteBuffer[capacities.length][];
+            for (int i = 0; i < capacities.length; i++) {
+                stacks[i] = new ByteBuffer[capacities[i]];
+            }
+            this.sizes = new int[capacities.length];
+        }
+
+        private @Nullable ByteBuffer poll(int index) {
+            int size = sizes[index];
+            if (size == 0) {
+                return null;
+            }
+            size--;
+            ByteBuffer buffer = stacks[index][size];
+            stacks[index][size] = null;
+            sizes[index] = size;
+            return buffer;
+        }
+
+        private boolean offer(int index, @Nonnull ByteBuffer buffer) {
+            int size = sizes[index];
+            ByteBuffer[] stack = stacks[index];
+            if (size >= stack.length) {
+                return false;
+            }
+            stack[size] = buffer;
+            sizes[index] = size + 1;
+            return true;
+        }
+    }
+
+    /**
+     * Weak reference of a tracked buffer, the buffer is compared by identity.
+     */
+    private static final class LeakRef extends WeakReference<ByteBuffer> {
+
+        private final int hash;
+
+        private LeakRef(@Nonnull ByteBuffer referent, @Nonnull ReferenceQueue<? super ByteBuffer> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+    }
+
+    /**
+     * Key to look up the {@link LeakRef} of a buffer.
+     */
+    private static final class LeakKey {
+
+        private final @Nonnull ByteBuffer buffer;
+
+        private LeakKey(@Nonnull ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(buffer);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof LeakRef && ((LeakRef) obj).get() == buffer;
+        }
+    }
+
+    static final class Default {
+        static final @Nonnull BufferPool INST = BufferPool.newBuilder().build();
+    }
+}
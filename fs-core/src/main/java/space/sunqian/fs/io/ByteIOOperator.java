@@ -27,6 +27,21 @@ public interface ByteIOOperator {
      */
     int bufferSize();
 
+    /**
+     * Returns the buffer pool for the channel I/O operations, or {@code null} if the buffers are allocated for each
+     * operation. If the pool is present, the temporary buffers of the operations reading from a channel (such as
+     * {@link #read(ReadableByteChannel)} and {@link #readTo(ReadableByteChannel, WritableByteChannel)}) are allocated
+     * from and released back to the pool, the returned data is still copied into new buffers.
+     * <p>
+     * The default implementation returns {@code null}.
+     *
+     * @return the buffer pool for the channel I/O operations, or {@code null} if the buffers are allocated for each
+     * operation
+     */
+    default @Nullable BufferPool bufferPool() {
+        return null;
+    }
+
     /**
      * Reads all data from the input stream into a new array, continuing until reaches the end of the input stream, and
      * returns the array.
@@ -78,7 +93,7 @@ public interface ByteIOOperator {
      * @throws IORuntimeException if an I/O error occurs
      */
     default @Nullable ByteBuffer read(@Nonnull ReadableByteChannel src) throws IORuntimeException {
-        return IOKit.read0(src, bufferSize(), IOChecker.endChecker());
+        return IOKit.read0(src, bufferSize(), bufferPool(), IOChecker.endChecker());
     }
 
     /**
@@ -357,7 +372,7 @@ public interface ByteIOOperator {
      * @throws IORuntimeException if an I/O error occurs
      */
     default long readTo(@Nonnull ReadableByteChannel src, @Nonnull WritableByteChannel dst) throws IORuntimeException {
-        return IOKit.readTo0(src, dst, bufferSize(), IOChecker.endChecker());
+        return IOKit.readTo0(src, dst, bufferSize(), bufferPool(), IOChecker.endChecker());
     }
 
     /**
@@ -586,7 +601,7 @@ public interface ByteIOOperator {
      * @throws IORuntimeException if an I/O error occurs
      */
     default @Nullable ByteBuffer available(@Nonnull ReadableByteChannel src) throws IORuntimeException {
-        return IOKit.read0(src, bufferSize(), IOChecker.availableChecker());
+        return IOKit.read0(src, bufferSize(), bufferPool(), IOChecker.availableChecker());
     }
 
     /**
@@ -878,7 +893,7 @@ public interface ByteIOOperator {
      * @throws IORuntimeException if an I/O error occurs
      */
     default long availableTo(@Nonnull ReadableByteChannel src, @Nonnull WritableByteChannel dst) throws IORuntimeException {
-        return IOKit.readTo0(src, dst, bufferSize(), IOChecker.availableChecker());
+        return IOKit.readTo0(src, dst, bufferSize(), bufferPool(), IOChecker.availableChecker());
     }
 
     /**
@@ -80,6 +80,8 @@ public interface ByteReader extends Closeable {
      *     <li>close: closes the channel;</li>
      *     <li>thread safety: no;</li>
      * </ul>
+     * The temporary buffers of reading all/available data, skipping and reading to a channel are allocated from
+     * {@link BufferPool#defaultPool()}.
      *
      * @param src     the given channel
      * @param bufSize the given buffer size, must {@code > 0}
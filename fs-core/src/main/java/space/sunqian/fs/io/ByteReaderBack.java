@@ -377,7 +377,7 @@ final class ByteReaderBack {
 
         @Override
         public @Nullable ByteBuffer read() throws IORuntimeException {
-            return IOKit.read0(src, bufSize, IOChecker.endChecker());
+            return IOKit.read0(src, bufSize, BufferPool.defaultPool(), IOChecker.endChecker());
         }
 
         @Override
@@ -392,15 +392,22 @@ final class ByteReaderBack {
         private long skip0(long len) {
             long hasRead = 0;
             int onceBufSize = (int) Math.min(len, bufSize);
-            ByteBuffer buf = ByteBuffer.allocate(onceBufSize);
-            while (hasRead < len) {
-                int onceSize = IOKit.readTo0(src, buf, (int) Math.min(onceBufSize, len - hasRead), IOChecker.endChecker());
-                if (onceSize < 0) {
-                    return hasRead;
+            BufferPool pool = BufferPool.defaultPool();
+            ByteBuffer pooled = pool.allocate(onceBufSize);
+            try {
+                ByteBuffer buf = pooled.slice();
+                while (hasRead < len) {
+                    buf.clear();
+                    int onceSize = IOKit.readTo0(src, buf, (int) Math.min(onceBufSize, len - hasRead), IOChecker.endChecker());
+                    if (onceSize < 0) {
+                        return hasRead;
+                    }
+                    hasRead += onceSize;
                 }
-                hasRead += onceSize;
+                return hasRead;
+            } finally {
+                pool.release(pooled);
             }
-            return hasRead;
         }
 
         @Override
@@ -457,7 +464,7 @@ final class ByteReaderBack {
 
         @Override
         public @Nonnull ByteSegment available() throws IORuntimeException {
-            ByteBuffer data = IOKit.read0(src, bufSize, IOChecker.availableChecker());
+            ByteBuffer data = IOKit.read0(src, bufSize, BufferPool.defaultPool(), IOChecker.availableChecker());
             if (data == null) {
                 return ByteSegment.empty(true);
             }
@@ -522,7 +529,7 @@ final class ByteReaderBack {
         }
 
         private long readTo(@Nonnull WritableByteChannel dst, ReadChecker readChecker) throws IORuntimeException {
-            return IOKit.readTo0(src, dst, bufSize, readChecker);
+            return IOKit.readTo0(src, dst, bufSize, BufferPool.defaultPool(), readChecker);
         }
 
         private long readTo(
@@ -2005,6 +2005,58 @@ public class IOKit {
         }
     }
 
+    static @Nullable ByteBuffer read0(
+        @Nonnull ReadableByteChannel src, int bufSize, @Nullable BufferPool pool, @Nonnull ReadChecker readChecker
+    ) throws IORuntimeException {
+        if (pool == null) {
+            return read0(src, bufSize, readChecker);
+        }
+        ByteBuffer pooled = pool.allocate(bufSize);
+        BytesBuilder builder = null;
+        try {
+            ByteBuffer dst = pooled.slice();
+            int readSize;
+            while (true) {
+                readSize = src.read(dst);
+                if (readChecker.readEnd(readSize)) {
+                    break;
+                }
+                if (dst.remaining() == 0) {
+                    if (builder == null) {
+                        builder = new BytesBuilder(dst.capacity() * 2);
+                    }
+                    dst.flip();
+                    builder.append(dst);
+                    dst.clear();
+                }
+            }
+            if (builder == null) {
+                int actualCount = readChecker.actualCount(readSize, dst.position());
+                if (actualCount < 0) {
+                    return null;
+                }
+                dst.flip();
+                ByteBuffer result = ByteBuffer.allocate(dst.remaining());
+                result.put(dst);
+                result.flip();
+                return result;
+            } else {
+                if (dst.position() > 0) {
+                    dst.flip();
+                    builder.append(dst);
+                }
+                return builder.toByteBuffer();
+            }
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        } finally {
+            if (builder != null) {
+                builder.close();
+            }
+            pool.release(pooled);
+        }
+    }
+
     static @Nullable ByteBuffer read0(
         @Nonnull ReadableByteChannel src, int len, int bufSize, @Nonnull ReadChecker readChecker
     ) throws IllegalArgumentException, IORuntimeException {
@@ -2282,14 +2334,40 @@ public class IOKit {
         return readTo0(src, dst, buf, readChecker);
     }
 
+    static long readTo0(
+        @Nonnull ReadableByteChannel src,
+        @Nonnull WritableByteChannel dst,
+        int bufSize,
+        @Nullable BufferPool pool,
+        @Nonnull ReadChecker readChecker
+    ) throws IORuntimeException {
+        if (pool == null) {
+            return readTo0(src, dst, bufSize, readChecker);
+        }
+        ByteBuffer pooled = pool.allocate(bufSize);
+        try {
+            return readTo0(src, dst, pooled.slice(), readChecker);
+        } finally {
+            pool.release(pooled);
+        }
+    }
+
     static long readTo0(
         @Nonnull ReadableByteChannel src,
         @Nonnull WritableByteChannel dst,
         byte @Nonnull [] buf,
         @Nonnull ReadChecker readChecker
+    ) throws IORuntimeException {
+        return readTo0(src, dst, ByteBuffer.wrap(buf), readChecker);
+    }
+
+    static long readTo0(
+        @Nonnull ReadableByteChannel src,
+        @Nonnull WritableByteChannel dst,
+        @Nonnull ByteBuffer bufWrapper,
+        @Nonnull ReadChecker readChecker
     ) throws IORuntimeException {
         try {
-            ByteBuffer bufWrapper = ByteBuffer.wrap(buf);
             long count = 0;
             while (true) {
                 int readSize = src.read(bufWrapper);
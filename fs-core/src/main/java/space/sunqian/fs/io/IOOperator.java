@@ -1,5 +1,6 @@
 package space.sunqian.fs.io;
 
+import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.ThreadSafe;
 
 /**
@@ -44,4 +45,29 @@ public interface IOOperator extends ByteIOOperator, CharIOOperator {
         IOChecker.checkBufSize(bufSize);
         return () -> bufSize;
     }
+
+    /**
+     * Returns a new {@link IOOperator} instance with the given buffer size and buffer pool. The temporary buffers of the
+     * channel I/O operations are allocated from the given pool, see {@link #bufferPool()}.
+     *
+     * @param bufSize the given buffer size, must {@code > 0}
+     * @param pool    the given buffer pool
+     * @return a new {@link IOOperator} instance with the given buffer size and buffer pool
+     * @throws IllegalArgumentException if the given buffer size {@code <= 0}
+     */
+    static IOOperator newOperator(int bufSize, @Nonnull BufferPool pool) throws IllegalArgumentException {
+        IOChecker.checkBufSize(bufSize);
+        return new IOOperator() {
+
+            @Override
+            public int bufferSize() {
+                return bufSize;
+            }
+
+            @Override
+            public @Nonnull BufferPool bufferPool() {
+                return pool;
+            }
+        };
+    }
 }
@@ -17,6 +17,15 @@ import java.nio.channels.SocketChannel;
  * same underlying channel will use the same {@link TcpContext} instance, ensuring consistent access to channel-specific
  * state and attachments throughout the channel's lifecycle.
  *
+ * <p>
+ * The write methods of the contexts provided by {@link TcpServer} never block the worker thread: the data is written to
+ * the underlying channel directly if there is no pending data and the socket send buffer has room, otherwise the
+ * remaining data is queued and flushed by the worker thread (with gathering writes) once the channel becomes writable.
+ * If the pending data exceeds the high watermark (see {@link TcpServerBuilder#writeBufferWaterMark(int, int)}),
+ * {@link #isWritable()} returns {@code false} until the pending data drops to the low watermark, and each change is
+ * notified by {@link TcpServerHandler#channelWritabilityChanged(TcpContext)}. The write methods can be invoked from
+ * other threads than the worker thread.
+ *
  * @author sunqian
  * @implNote The default I/O methods of this interface use {@link IOKit} to read and write data from the underlying
  * channel, inherited from {@link ChannelReader} and {@link ChannelWriter}.
@@ -44,7 +53,25 @@ public interface TcpContext extends ChannelContext<SocketChannel> {
     InetSocketAddress serverAddress();
 
     /**
-     * Disconnects and closes the client.
+     * Returns whether the pending data queued to write is under the high watermark. If it returns {@code false}, the
+     * peer reads slower than this side writes, and the writer should stop writing until the writability is restored
+     * (notified by {@link TcpServerHandler#channelWritabilityChanged(TcpContext)}). Note the write methods still accept
+     * data when it returns {@code false}, the watermarks are only advisory.
+     *
+     * @return whether the pending data queued to write is under the high watermark
+     */
+    boolean isWritable();
+
+    /**
+     * Returns the number of bytes queued to write but not yet written to the underlying channel.
+     *
+     * @return the number of bytes queued to write but not yet written to the underlying channel
+     */
+    long pendingWriteBytes();
+
+    /**
+     * Disconnects and closes the client. If there is pending data queued to write, the client will be closed after the
+     * pending data is flushed, and no more data can be written after this method is invoked.
      *
      * @throws NetException if any error occurs
      */
@@ -41,6 +41,14 @@ public class TcpKit {
         }
     }
 
+    static void channelWritabilityChanged(@Nonnull TcpServerHandler handler, @Nonnull TcpContext context) {
+        try {
+            handler.channelWritabilityChanged(context);
+        } catch (Throwable e) {
+            handler.exceptionCaught(context, e);
+        }
+    }
+
     private TcpKit() {
     }
 }
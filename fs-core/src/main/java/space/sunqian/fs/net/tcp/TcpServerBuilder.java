@@ -4,23 +4,32 @@ import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.Checker;
+import space.sunqian.fs.base.chars.CharsKit;
 import space.sunqian.fs.base.function.VoidCallable;
 import space.sunqian.fs.collect.ListKit;
+import space.sunqian.fs.io.BufferPool;
 import space.sunqian.fs.io.IOKit;
 import space.sunqian.fs.io.IOOperator;
+import space.sunqian.fs.io.IORuntimeException;
 import space.sunqian.fs.io.communicate.AbstractChannelContext;
 import space.sunqian.fs.net.NetException;
 import space.sunqian.fs.net.NetSelector;
 import space.sunqian.fs.net.NetServer;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketOption;
 import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -46,6 +55,9 @@ public class TcpServerBuilder {
     private final @Nonnull Map<SocketOption<?>, Object> socketOptions = new LinkedHashMap<>();
     // private long selectTimeout = 0;
     private int bufSize = IOKit.bufferSize();
+    private int writeLowWaterMark = 32 * 1024;
+    private int writeHighWaterMark = 64 * 1024;
+    private @Nonnull BufferPool bufferPool = BufferPool.defaultPool();
 
     /**
      * Sets the handler to handle server events. The default handler is {@link TcpServerHandler#nullHandler()}.
@@ -114,6 +126,41 @@ public class TcpServerBuilder {
         return this;
     }
 
+    /**
+     * Sets the low and high watermarks of the pending data queued to write for each client, in bytes. The defaults are
+     * {@code 32KB} and {@code 64KB}.
+     * <p>
+     * When the pending data of a client exceeds the high watermark, {@link TcpContext#isWritable()} of the client
+     * becomes {@code false}, and it becomes {@code true} again once the pending data drops to the low watermark. Each
+     * change is notified by {@link TcpServerHandler#channelWritabilityChanged(TcpContext)}.
+     *
+     * @param low  the low watermark, must {@code >= 0}
+     * @param high the high watermark, must {@code >= low}
+     * @return this builder
+     * @throws IllegalArgumentException if the low watermark is negative, or the high watermark is less than the low
+     *                                  watermark
+     */
+    public @Nonnull TcpServerBuilder writeBufferWaterMark(int low, int high) throws IllegalArgumentException {
+        Checker.checkArgument(low >= 0, "low watermark must >= 0");
+        Checker.checkArgument(high >= low, "high watermark must >= low watermark");
+        this.writeLowWaterMark = low;
+        this.writeHighWaterMark = high;
+        return this;
+    }
+
+    /**
+     * Sets the buffer pool for the server. The pool provides the temporary buffers of the read operations of
+     * {@link IOOperator}, and the buffers holding the pending data queued to write. The default pool is
+     * {@link BufferPool#defaultPool()}.
+     *
+     * @param bufferPool the buffer pool for the server
+     * @return this builder
+     */
+    public @Nonnull TcpServerBuilder bufferPool(@Nonnull BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        return this;
+    }
+
     /**
      * Sets a socket option. This method can be invoked multiple times to set different socket options.
      *
@@ -193,7 +240,10 @@ public class TcpServerBuilder {
                 socketOptions,
                 // selectTimeout,
                 backlog,
-                bufSize
+                bufSize,
+                writeLowWaterMark,
+                writeHighWaterMark,
+                bufferPool
             ),
             NetException::new
         );
@@ -201,6 +251,9 @@ public class TcpServerBuilder {
 
     private static final class TcpServerImpl implements TcpServer, Runnable {
 
+        // max number of buffers for each gathering write
+        private static final int MAX_GATHERING_SIZE = 64;
+
         private final @Nonnull ServerSocketChannel server;
         private final @Nonnull NetSelector mainSelector;
         // private final long selectTimeout;
@@ -209,6 +262,9 @@ public class TcpServerBuilder {
         private final @Nonnull TcpServerHandler handler;
         private final @Nonnull InetSocketAddress localAddress;
         private final int bufSize;
+        private final int writeLowWaterMark;
+        private final int writeHighWaterMark;
+        private final @Nonnull BufferPool bufferPool;
 
         private volatile boolean closed = false;
 
@@ -222,7 +278,10 @@ public class TcpServerBuilder {
             Map<SocketOption<?>, Object> socketOptions,
             // long selectTimeout,
             int backlog,
-            int bufSize
+            int bufSize,
+            int writeLowWaterMark,
+            int writeHighWaterMark,
+            @Nonnull BufferPool bufferPool
         ) throws Exception {
             this.server = ServerSocketChannel.open();
             this.mainSelector = NetSelector.open();
@@ -231,6 +290,9 @@ public class TcpServerBuilder {
             this.workers = new WorkerImpl[workThreadNum];
             // this.selectTimeout = selectTimeout;
             this.bufSize = bufSize;
+            this.writeLowWaterMark = writeLowWaterMark;
+            this.writeHighWaterMark = writeHighWaterMark;
+            this.bufferPool = bufferPool;
             server.configureBlocking(false);
             socketOptions.forEach((name, value) ->
                 Fs.uncheck(() -> server.setOption(Fs.as(name), value), NetException::new));
@@ -365,6 +427,8 @@ public class TcpServerBuilder {
 
             private final @Nonnull NetSelector selector;
             private final @Nonnull List<ClientImpl> clients = new ArrayList<>();
+            // reused buffer array for gathering writes, only used in worker thread
+            private final @Nullable ByteBuffer @Nonnull [] gatheringBuffers = new ByteBuffer[MAX_GATHERING_SIZE];
 
             // the thread this worker starts on
             private Thread thread;
@@ -407,6 +471,8 @@ public class TcpServerBuilder {
                 handleRead();
                 // loop event
                 handleLoop();
+                // flush queued data
+                handleWrite();
                 // remove closed client
                 handleClose();
             }
@@ -436,7 +502,7 @@ public class TcpServerBuilder {
                 @SuppressWarnings("resource")
                 SocketChannel channel = client.channel();
                 channel.configureBlocking(false);
-                channel.register(selector.selector(), SelectionKey.OP_READ, client);
+                client.key = channel.register(selector.selector(), SelectionKey.OP_READ, client);
             }
 
             private void handleRead() throws Exception {
@@ -446,7 +512,13 @@ public class TcpServerBuilder {
                 while (keys.hasNext()) {
                     SelectionKey key = keys.next();
                     keys.remove();
-                    TcpKit.channelRead(handler, (ClientImpl) key.attachment());
+                    ClientImpl client = (ClientImpl) key.attachment();
+                    if (key.isValid() && key.isWritable()) {
+                        client.flush();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        TcpKit.channelRead(handler, client);
+                    }
                 }
             }
 
@@ -456,6 +528,12 @@ public class TcpServerBuilder {
                 }
             }
 
+            private void handleWrite() {
+                for (ClientImpl client : clients) {
+                    client.flush();
+                }
+            }
+
             private void handleClose() {
                 Iterator<ClientImpl> iterator = clients.iterator();
                 while (iterator.hasNext()) {
@@ -481,7 +559,7 @@ public class TcpServerBuilder {
 
             private void releaseClients() {
                 for (ClientImpl client : clients) {
-                    client.close();
+                    client.forceClose();
                 }
             }
 
@@ -492,13 +570,21 @@ public class TcpServerBuilder {
                 private final @Nonnull InetSocketAddress serverAddress;
                 private final @Nonnull IOOperator ioOperator;
 
+                // write queue, guarded by itself
+                private final @Nonnull ArrayDeque<@Nonnull ByteBuffer> writeQueue = new ArrayDeque<>();
+                private long pendingWriteBytes = 0;
+                private volatile boolean writable = true;
+                private boolean writabilityChanged = false;
+                private boolean closing = false;
+                private @Nullable SelectionKey key;
+
                 private volatile boolean closed = false;
 
                 private ClientImpl(@Nonnull SocketChannel channel, int bufSize) throws IllegalArgumentException {
                     super(channel);
                     this.clientAddress = (InetSocketAddress) Fs.uncheck(channel::getRemoteAddress, NetException::new);
                     this.serverAddress = (InetSocketAddress) Fs.uncheck(channel::getLocalAddress, NetException::new);
-                    this.ioOperator = IOOperator.get(bufSize);
+                    this.ioOperator = IOOperator.newOperator(bufSize, bufferPool);
                 }
 
                 @Override
@@ -512,7 +598,169 @@ public class TcpServerBuilder {
                 }
 
                 @Override
-                public synchronized void close() throws NetException {
+                public void writeBytes(byte @Nonnull [] src) throws IORuntimeException {
+                    write(ByteBuffer.wrap(src));
+                }
+
+                @Override
+                public void writeBuffer(@Nonnull ByteBuffer src) throws IORuntimeException {
+                    write(src);
+                }
+
+                @Override
+                public void writeString(@Nonnull String src) throws IORuntimeException {
+                    writeString(src, CharsKit.defaultCharset());
+                }
+
+                @Override
+                public void writeString(@Nonnull String src, @Nonnull Charset charset) throws IORuntimeException {
+                    write(ByteBuffer.wrap(src.getBytes(charset)));
+                }
+
+                private void write(@Nonnull ByteBuffer src) throws IORuntimeException {
+                    synchronized (writeQueue) {
+                        if (closing || closed) {
+                            throw new IORuntimeException(new ClosedChannelException());
+                        }
+                        if (writeQueue.isEmpty()) {
+                            // nothing pending, try to write directly
+                            try {
+                                channel().write(src);
+                            } catch (IOException e) {
+                                throw new IORuntimeException(e);
+                            }
+                            if (!src.hasRemaining()) {
+                                return;
+                            }
+                        }
+                        int size = src.remaining();
+                        ByteBuffer copy = bufferPool.allocate(size);
+                        copy.put(src);
+                        copy.flip();
+                        writeQueue.addLast(copy);
+                        pendingWriteBytes += size;
+                        if (writable && pendingWriteBytes > writeHighWaterMark) {
+                            writable = false;
+                            writabilityChanged = true;
+                        }
+                    }
+                    wakeupIfNecessary();
+                }
+
+                /**
+                 * Flushes the queued data with gathering writes, only invoked in worker thread.
+                 */
+                private void flush() {
+                    IOException error = null;
+                    boolean changed;
+                    boolean flushed;
+                    synchronized (writeQueue) {
+                        if (writeQueue.isEmpty() && !writabilityChanged && !closing) {
+                            return;
+                        }
+                        try {
+                            flushQueue();
+                        } catch (IOException e) {
+                            error = e;
+                            releaseQueue();
+                        }
+                        if (!writable && pendingWriteBytes <= writeLowWaterMark) {
+                            writable = true;
+                            writabilityChanged = true;
+                        }
+                        changed = writabilityChanged;
+                        writabilityChanged = false;
+                        flushed = writeQueue.isEmpty();
+                    }
+                    if (error != null) {
+                        handler.exceptionCaught(this, error);
+                        forceClose();
+                        return;
+                    }
+                    SelectionKey k = key;
+                    if (k != null && k.isValid()) {
+                        int ops = flushed ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE;
+                        if (k.interestOps() != ops) {
+                            k.interestOps(ops);
+                        }
+                    }
+                    if (changed) {
+                        TcpKit.channelWritabilityChanged(handler, this);
+                    }
+                    if (flushed && closing) {
+                        forceClose();
+                    }
+                }
+
+                private void flushQueue() throws IOException {
+                    ByteBuffer[] buffers = gatheringBuffers;
+                    while (!writeQueue.isEmpty()) {
+                        int count = 0;
+                        for (ByteBuffer buffer : writeQueue) {
+                            buffers[count++] = buffer;
+                            if (count == buffers.length) {
+                                break;
+                            }
+                        }
+                        long written = channel().write(buffers, 0, count);
+                        Arrays.fill(buffers, 0, count, null);
+                        pendingWriteBytes -= written;
+                        while (!writeQueue.isEmpty() && !writeQueue.peekFirst().hasRemaining()) {
+                            bufferPool.release(writeQueue.pollFirst());
+                        }
+                        if (written == 0) {
+                            // socket send buffer is full
+                            return;
+                        }
+                    }
+                }
+
+                private void releaseQueue() {
+                    ByteBuffer buffer;
+                    while ((buffer = writeQueue.pollFirst()) != null) {
+                        bufferPool.release(buffer);
+                    }
+                    pendingWriteBytes = 0;
+                }
+
+                private void wakeupIfNecessary() {
+                    if (Thread.currentThread() != thread) {
+                        selector.wakeup();
+                        return;
+                    }
+                    // the worker thread may block on selecting next, so the write event must be registered
+                    SelectionKey k = key;
+                    if (k != null && k.isValid() && (k.interestOps() & SelectionKey.OP_WRITE) == 0) {
+                        k.interestOps(k.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                }
+
+                @Override
+                public boolean isWritable() {
+                    return writable;
+                }
+
+                @Override
+                public long pendingWriteBytes() {
+                    synchronized (writeQueue) {
+                        return pendingWriteBytes;
+                    }
+                }
+
+                @Override
+                public void close() throws NetException {
+                    synchronized (writeQueue) {
+                        if (!closed && !writeQueue.isEmpty() && channel().isOpen()) {
+                            // closed by worker thread after the pending data is flushed
+                            closing = true;
+                            wakeupIfNecessary();
+                            return;
+                        }
+                    }
+                    forceClose();
+                }
+
+                private synchronized void forceClose() throws NetException {
                     if (closed) {
                         return;
                     }
@@ -523,6 +771,9 @@ public class TcpServerBuilder {
                         TcpKit.channelClose(handler, this);
                     }, NetException::new);
                     closed = true;
+                    synchronized (writeQueue) {
+                        releaseQueue();
+                    }
                 }
 
                 @Override
@@ -71,6 +71,20 @@ public interface TcpServerHandler extends ChannelHandler<TcpContext, SocketChann
     default void channelLoop(@Nonnull TcpContext context) throws Exception {
     }
 
+    /**
+     * This method is invoked when the writability of the channel changes, that is, when the pending data queued to
+     * write exceeds the high watermark, or drops to the low watermark after exceeding. The current writability can be
+     * obtained by {@link TcpContext#isWritable()}.
+     * <p>
+     * Note the default implementation does nothing.
+     *
+     * @param context the context for the channel whose writability changes
+     * @throws Exception for any error
+     * @see TcpServerBuilder#writeBufferWaterMark(int, int)
+     */
+    default void channelWritabilityChanged(@Nonnull TcpContext context) throws Exception {
+    }
+
     /**
      * This method is invoked after catching an unhandled exception, the exception may come from this handler or from
      * the container running this handler.
@@ -0,0 +1,47 @@
+package space.sunqian.fs.net.udp;
+
+import space.sunqian.annotation.Nonnull;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * A batch of datagrams received by a UDP server in one round, passed to
+ * {@link UdpServerHandler#channelReadBatch(java.nio.channels.DatagramChannel, UdpBatch)}.
+ * <p>
+ * The data of each datagram is a slice of the server's pooled receiving buffer without copying, the batch and its
+ * buffers are only valid during the callback, and will be reused by next batch. Do not hold them after the callback
+ * returns, copy the data if necessary.
+ *
+ * @author sunqian
+ */
+public interface UdpBatch {
+
+    /**
+     * Returns the number of the datagrams in this batch.
+     *
+     * @return the number of the datagrams in this batch
+     */
+    int size();
+
+    /**
+     * Returns the data of the datagram at the specified index. The position of the returned buffer is {@code 0} and
+     * the limit is the length of the datagram.
+     *
+     * @param index the specified index
+     * @return the data of the datagram at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    @Nonnull
+    ByteBuffer data(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Returns the sender address of the datagram at the specified index.
+     *
+     * @param index the specified index
+     * @return the sender address of the datagram at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    @Nonnull
+    SocketAddress address(int index) throws IndexOutOfBoundsException;
+}
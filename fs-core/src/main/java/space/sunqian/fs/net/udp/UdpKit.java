@@ -25,6 +25,18 @@ public class UdpKit {
         }
     }
 
+    static void channelReadBatch(
+        @Nonnull UdpServerHandler handler,
+        @Nonnull DatagramChannel channel,
+        @Nonnull UdpBatch batch
+    ) {
+        try {
+            handler.channelReadBatch(channel, batch);
+        } catch (Throwable e) {
+            handler.exceptionCaught(channel, e);
+        }
+    }
+
     private UdpKit() {
     }
 }
@@ -5,7 +5,9 @@ import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.Checker;
 import space.sunqian.fs.base.function.VoidCallable;
+import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.io.BufferKit;
+import space.sunqian.fs.io.BufferPool;
 import space.sunqian.fs.io.IOKit;
 import space.sunqian.fs.net.NetException;
 import space.sunqian.fs.net.NetSelector;
@@ -17,6 +19,7 @@ import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.SelectionKey;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -28,7 +31,9 @@ import java.util.concurrent.ThreadFactory;
 /**
  * Builder for building new instances of {@link UdpServer} by {@link DatagramChannel}.
  * <p>
- * The server built by this builder requires a main thread which is responsible for receiving datagram.
+ * The server built by this builder requires a main thread which is responsible for receiving datagram. If the worker
+ * threads are configured by {@link #workerThreadNum(int)}, each worker thread also receives datagram on its own
+ * channel, which is bound to the same address as the main channel with {@code SO_REUSEPORT}.
  *
  * @author sunqian
  */
@@ -36,7 +41,11 @@ public class UdpServerBuilder {
 
     private @Nonnull UdpServerHandler handler = UdpServerHandler.nullHandler();
     private @Nullable ThreadFactory mainThreadFactory;
+    private @Nullable ThreadFactory workerThreadFactory;
+    private int workerThreadNum = 0;
     private int maxPacketSize = IOKit.bufferSize();
+    private int batchSize = 1;
+    private @Nonnull BufferPool bufferPool = BufferPool.defaultPool();
     private final @Nonnull Map<SocketOption<?>, Object> socketOptions = new LinkedHashMap<>();
 
     /**
@@ -64,6 +73,37 @@ public class UdpServerBuilder {
         return this;
     }
 
+    /**
+     * Sets the worker thread factory to create worker threads.
+     * <p>
+     * If the factory is not configured, the server will use {@link Thread#Thread(Runnable)}.
+     *
+     * @param workerThreadFactory the worker thread factory
+     * @return this builder
+     */
+    public @Nonnull UdpServerBuilder workerThreadFactory(@Nonnull ThreadFactory workerThreadFactory) {
+        this.workerThreadFactory = workerThreadFactory;
+        return this;
+    }
+
+    /**
+     * Sets the number of worker threads, default is {@code 0}.
+     * <p>
+     * If the number is greater than {@code 0}, the server opens one more channel for each worker thread, all channels
+     * are bound to the same address with {@code SO_REUSEPORT}, and the operating system distributes the received
+     * datagram among the channels. The {@code SO_REUSEPORT} is typically supported on JDK 9+ and Linux/BSD, a
+     * {@link NetException} will be thrown when binding if it is not supported.
+     *
+     * @param workerThreadNum the number of worker threads
+     * @return this builder
+     * @throws IllegalArgumentException if the number is negative
+     */
+    public @Nonnull UdpServerBuilder workerThreadNum(int workerThreadNum) throws IllegalArgumentException {
+        Checker.checkArgument(workerThreadNum >= 0, "workerThreadNum must >= 0");
+        this.workerThreadNum = workerThreadNum;
+        return this;
+    }
+
     /**
      * Sets the max data packet size this server can receive. The default is {@link IOKit#bufferSize()}.
      *
@@ -77,6 +117,38 @@ public class UdpServerBuilder {
         return this;
     }
 
+    /**
+     * Sets the max number of datagram received in one batch, default is {@code 1}.
+     * <p>
+     * If the size is {@code 1}, each received datagram is copied into a new array and passed to
+     * {@link UdpServerHandler#channelRead(DatagramChannel, byte[], SocketAddress)}. Otherwise, the server drains all
+     * ready datagram after each selecting into a pooled receiving buffer of {@code maxPacketSize * batchSize} bytes,
+     * and passes them to {@link UdpServerHandler#channelReadBatch(DatagramChannel, UdpBatch)} as buffer slices without
+     * copying, in batches of at most {@code batchSize} datagram. The size of the receiving buffer must not exceed
+     * {@link Integer#MAX_VALUE}, it is checked when binding.
+     *
+     * @param batchSize the max number of datagram received in one batch
+     * @return this builder
+     * @throws IllegalArgumentException if the size is less than 1
+     */
+    public @Nonnull UdpServerBuilder batchSize(int batchSize) throws IllegalArgumentException {
+        Checker.checkArgument(batchSize >= 1, "batchSize must >= 1");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the buffer pool for the server, the receiving buffers of the server are allocated from the pool. The default
+     * pool is {@link BufferPool#defaultPool()}.
+     *
+     * @param bufferPool the buffer pool for the server
+     * @return this builder
+     */
+    public @Nonnull UdpServerBuilder bufferPool(@Nonnull BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        return this;
+    }
+
     /**
      * Sets a socket option. This method can be invoked multiple times to set different socket options.
      *
@@ -98,9 +170,10 @@ public class UdpServerBuilder {
      * connections. And a new {@link UdpServer} instance is returned.
      *
      * @return a new {@link UdpServer} instance
-     * @throws NetException If an error occurs
+     * @throws IllegalArgumentException if {@code maxPacketSize * batchSize} overflows {@code int}
+     * @throws NetException             If an error occurs
      */
-    public @Nonnull UdpServer bind() throws NetException {
+    public @Nonnull UdpServer bind() throws IllegalArgumentException, NetException {
         return bind(null);
     }
 
@@ -111,51 +184,82 @@ public class UdpServerBuilder {
      * @param localAddress the local address the server is bound to, may be {@code null} to bind to the automatically
      *                     assigned address
      * @return a new {@link UdpServer} instance
-     * @throws NetException If an error occurs
+     * @throws IllegalArgumentException if {@code maxPacketSize * batchSize} overflows {@code int}
+     * @throws NetException             If an error occurs
      */
-    public @Nonnull UdpServer bind(@Nullable InetSocketAddress localAddress) throws NetException {
+    public @Nonnull UdpServer bind(
+        @Nullable InetSocketAddress localAddress
+    ) throws IllegalArgumentException, NetException {
+        Checker.checkArgument(
+            (long) maxPacketSize * batchSize <= Integer.MAX_VALUE,
+            "maxPacketSize * batchSize must <= Integer.MAX_VALUE"
+        );
         return Fs.uncheck(() -> new UdpServerImpl(
                 localAddress,
                 handler,
                 mainThreadFactory,
+                workerThreadFactory,
+                workerThreadNum,
                 maxPacketSize,
+                batchSize,
+                bufferPool,
                 socketOptions
             ),
             NetException::new
         );
     }
 
-    private static final class UdpServerImpl implements UdpServer, Runnable {
+    private static final class UdpServerImpl implements UdpServer {
 
-        private final @Nonnull DatagramChannel server;
-        private final @Nonnull NetSelector mainSelector;
+        private final @Nonnull ReceiverImpl @Nonnull [] receivers;
         private final @Nonnull Thread mainThread;
         private final @Nonnull UdpServerHandler handler;
         private final @Nonnull InetSocketAddress localAddress;
-        private final @Nonnull ByteBuffer buffer;
+        private final int maxPacketSize;
+        private final int batchSize;
+        private final @Nonnull BufferPool bufferPool;
 
         private volatile boolean closed = false;
 
-        @SuppressWarnings("resource")
         private UdpServerImpl(
             @Nullable InetSocketAddress localAddress,
             @Nonnull UdpServerHandler handler,
             @Nullable ThreadFactory mainthreadFactory,
+            @Nullable ThreadFactory workerThreadFactory,
+            int workerThreadNum,
             int maxPacketSize,
+            int batchSize,
+            @Nonnull BufferPool bufferPool,
             Map<SocketOption<?>, Object> socketOptions
         ) throws Exception {
-            this.server = DatagramChannel.open();
-            this.mainSelector = NetSelector.open();
             this.handler = handler;
-            this.mainThread = newThread(mainthreadFactory, this);
-            socketOptions.forEach((name, value) ->
-                Fs.uncheck(() -> server.setOption(Fs.as(name), value), NetException::new));
-            server.configureBlocking(false);
-            server.register(mainSelector.selector(), SelectionKey.OP_READ);
-            this.buffer = ByteBuffer.allocate(maxPacketSize);
-            server.bind(localAddress);
-            this.localAddress = (InetSocketAddress) server.getLocalAddress();
-            mainThread.start();
+            this.maxPacketSize = maxPacketSize;
+            this.batchSize = batchSize;
+            this.bufferPool = bufferPool;
+            this.receivers = new ReceiverImpl[workerThreadNum + 1];
+            boolean reusePort = workerThreadNum > 0;
+            InetSocketAddress bindAddress = localAddress;
+            try {
+                for (int i = 0; i < receivers.length; i++) {
+                    ReceiverImpl receiver = new ReceiverImpl(socketOptions, reusePort, bindAddress);
+                    receivers[i] = receiver;
+                    // the worker channels are bound to the actual address of the main channel
+                    bindAddress = (InetSocketAddress) receiver.channel.getLocalAddress();
+                    receiver.thread = newThread(i == 0 ? mainthreadFactory : workerThreadFactory, receiver);
+                }
+            } catch (Exception e) {
+                for (ReceiverImpl receiver : receivers) {
+                    if (receiver != null) {
+                        receiver.release();
+                    }
+                }
+                throw e;
+            }
+            this.localAddress = (InetSocketAddress) receivers[0].channel.getLocalAddress();
+            this.mainThread = receivers[0].thread;
+            for (ReceiverImpl receiver : receivers) {
+                receiver.thread.start();
+            }
         }
 
         private @Nonnull Thread newThread(@Nullable ThreadFactory factory, @Nonnull Runnable runnable) {
@@ -164,7 +268,9 @@ public class UdpServerBuilder {
 
         @Override
         public void await() throws NetException {
-            Fs.uncheck(mainThread::join);
+            for (ReceiverImpl receiver : receivers) {
+                Fs.uncheck(receiver.thread::join);
+            }
         }
 
         @Override
@@ -173,10 +279,12 @@ public class UdpServerBuilder {
                 return;
             }
             Fs.uncheck(() -> {
-                    server.close();
-                    mainSelector.close();
-                    mainSelector.wakeup();
-                    mainThread.interrupt();
+                    for (ReceiverImpl receiver : receivers) {
+                        receiver.channel.close();
+                        receiver.selector.close();
+                        receiver.selector.wakeup();
+                        receiver.thread.interrupt();
+                    }
                 },
                 NetException::new
             );
@@ -190,7 +298,10 @@ public class UdpServerBuilder {
 
         @Override
         public @Nonnull List<@Nonnull Worker> workers() {
-            return Collections.emptyList();
+            if (receivers.length == 1) {
+                return Collections.emptyList();
+            }
+            return ListKit.list(Arrays.copyOfRange(receivers, 1, receivers.length));
         }
 
         @Override
@@ -198,39 +309,6 @@ public class UdpServerBuilder {
             return closed;
         }
 
-        @Override
-        public void run() {
-            while (!mainThread.isInterrupted()) {
-                doWork(this::doMainWork, closed);
-            }
-            Fs.uncheck(() -> {
-                server.close();
-                mainSelector.close();
-            }, NetException::new);
-        }
-
-        private void doMainWork() throws Exception {
-            mainSelector.select(0);
-            Set<SelectionKey> selectedKeys = mainSelector.selectedKeys();
-            Iterator<SelectionKey> keys = selectedKeys.iterator();
-            while (keys.hasNext()) {
-                SelectionKey key = keys.next();
-                keys.remove();
-                handleRead(key);
-                // key.cancel();
-            }
-        }
-
-        private void handleRead(SelectionKey key) throws Exception {
-            DatagramChannel channel = (DatagramChannel) key.channel();
-            buffer.clear();
-            SocketAddress address = channel.receive(buffer);
-            buffer.flip();
-            byte[] data = new byte[buffer.remaining()];
-            BufferKit.readTo(buffer, data);
-            UdpKit.channelRead(handler, channel, data, address);
-        }
-
         private void doWork(VoidCallable callable, boolean closed) {
             if (closed) {
                 return;
@@ -241,5 +319,175 @@ public class UdpServerBuilder {
                 handler.exceptionCaught(null, e);
             }
         }
+
+        private final class ReceiverImpl implements Worker, Runnable, UdpBatch {
+
+            private final @Nonnull DatagramChannel channel;
+            private final @Nonnull NetSelector selector;
+            private final @Nonnull ByteBuffer pooledBuffer;
+            private final @Nonnull ByteBuffer buffer;
+
+            // batch of received datagram
+            private final @Nonnull ByteBuffer @Nonnull [] batchData;
+            private final @Nonnull SocketAddress @Nonnull [] batchAddresses;
+            private int batchCount = 0;
+
+            private Thread thread;
+
+            @SuppressWarnings("resource")
+            private ReceiverImpl(
+                Map<SocketOption<?>, Object> socketOptions,
+                boolean reusePort,
+                @Nullable InetSocketAddress localAddress
+            ) throws Exception {
+                this.channel = DatagramChannel.open();
+                try {
+                    this.selector = NetSelector.open();
+                } catch (Exception e) {
+                    channel.close();
+                    throw e;
+                }
+                this.pooledBuffer = bufferPool.allocate(batchSize == 1 ? maxPacketSize : maxPacketSize * batchSize);
+                this.buffer = pooledBuffer.slice();
+                this.batchData = new ByteBuffer[batchSize];
+                this.batchAddresses = new SocketAddress[batchSize];
+                try {
+                    socketOptions.forEach((name, value) ->
+                        Fs.uncheck(() -> channel.setOption(Fs.as(name), value), NetException::new));
+                    if (reusePort) {
+                        setReusePort();
+                    }
+                    channel.configureBlocking(false);
+                    channel.register(selector.selector(), SelectionKey.OP_READ);
+                    channel.bind(localAddress);
+                } catch (Exception e) {
+                    release();
+                    throw e;
+                }
+            }
+
+            private void setReusePort() throws Exception {
+                // SO_REUSEPORT is not defined in StandardSocketOptions until JDK 9
+                for (SocketOption<?> option : channel.supportedOptions()) {
+                    if ("SO_REUSEPORT".equals(option.name())) {
+                        channel.setOption(Fs.<SocketOption<Boolean>>as(option), true);
+                        return;
+                    }
+                }
+                throw new NetException("SO_REUSEPORT is not supported.");
+            }
+
+            @Override
+            public void run() {
+                while (!thread.isInterrupted()) {
+                    doWork(this::doReceiveWork, closed);
+                }
+                release();
+            }
+
+            private void release() {
+                try {
+                    Fs.uncheck(() -> {
+                        channel.close();
+                        selector.close();
+                    }, NetException::new);
+                } finally {
+                    bufferPool.release(pooledBuffer);
+                }
+            }
+
+            private void doReceiveWork() throws Exception {
+                selector.select(0);
+                Set<SelectionKey> selectedKeys = selector.selectedKeys();
+                Iterator<SelectionKey> keys = selectedKeys.iterator();
+                while (keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                    if (batchSize == 1) {
+                        handleRead();
+                    } else {
+                        handleReadBatch();
+                    }
+                }
+            }
+
+            private void handleRead() throws Exception {
+                buffer.clear();
+                SocketAddress address = channel.receive(buffer);
+                if (address == null) {
+                    return;
+                }
+                buffer.flip();
+                byte[] data = new byte[buffer.remaining()];
+                BufferKit.readTo(buffer, data);
+                UdpKit.channelRead(handler, channel, data, address);
+            }
+
+            private void handleReadBatch() throws Exception {
+                boolean drained = false;
+                while (!drained) {
+                    buffer.clear();
+                    while (batchCount < batchSize && buffer.capacity() - buffer.position() >= maxPacketSize) {
+                        int start = buffer.position();
+                        buffer.limit(start + maxPacketSize);
+                        SocketAddress address = channel.receive(buffer);
+                        if (address == null) {
+                            drained = true;
+                            break;
+                        }
+                        int end = buffer.position();
+                        ByteBuffer data = buffer.duplicate();
+                        data.position(start);
+                        data.limit(end);
+                        batchData[batchCount] = data.slice();
+                        batchAddresses[batchCount] = address;
+                        batchCount++;
+                    }
+                    if (batchCount == 0) {
+                        return;
+                    }
+                    try {
+                        UdpKit.channelReadBatch(handler, channel, this);
+                    } finally {
+                        Arrays.fill(batchData, 0, batchCount, null);
+                        Arrays.fill(batchAddresses, 0, batchCount, null);
+                        batchCount = 0;
+                    }
+                }
+            }
+
+            @Override
+            public int size() {
+                return batchCount;
+            }
+
+            @Override
+            public @Nonnull ByteBuffer data(int index) throws IndexOutOfBoundsException {
+                checkIndex(index);
+                return batchData[index];
+            }
+
+            @Override
+            public @Nonnull SocketAddress address(int index) throws IndexOutOfBoundsException {
+                checkIndex(index);
+                return batchAddresses[index];
+            }
+
+            private void checkIndex(int index) throws IndexOutOfBoundsException {
+                if (index < 0 || index >= batchCount) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", size: " + batchCount);
+                }
+            }
+
+            @Override
+            public int connectionNumber() {
+                return 0;
+            }
+
+            @Override
+            public @Nonnull Thread thread() {
+                return thread;
+            }
+        }
     }
-}
\ No newline at end of file
+}
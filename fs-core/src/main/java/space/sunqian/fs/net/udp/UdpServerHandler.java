@@ -4,6 +4,7 @@ import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.Nullable;
 
 import java.net.SocketAddress;
+import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
 
 /**
@@ -34,6 +35,28 @@ public interface UdpServerHandler {
         @Nonnull DatagramChannel channel, byte @Nonnull [] data, @Nonnull SocketAddress address
     ) throws Exception;
 
+    /**
+     * This method is invoked after the server receives a batch of data packets, only if the batch reading is enabled by
+     * {@link UdpServerBuilder#batchSize(int)}. The data of the batch are slices of the server's receiving buffer, and
+     * are only valid during this invocation.
+     * <p>
+     * By default, this method copies each data packet into a new array and invokes
+     * {@link #channelRead(DatagramChannel, byte[], SocketAddress)}, the exception thrown from each invocation is passed
+     * to {@link #exceptionCaught(DatagramChannel, Throwable)}.
+     *
+     * @param channel the channel where the data is received
+     * @param batch   the received batch of data packets
+     * @throws Exception for any error
+     */
+    default void channelReadBatch(@Nonnull DatagramChannel channel, @Nonnull UdpBatch batch) throws Exception {
+        for (int i = 0; i < batch.size(); i++) {
+            ByteBuffer data = batch.data(i);
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            UdpKit.channelRead(this, channel, bytes, batch.address(i));
+        }
+    }
+
     /**
      * This method is invoked after catching an unhandled exception, the exception may come from this handler or from
      * the container running this handler.
@@ -0,0 +1,48 @@
+package space.sunqian.fs.object.convert;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.ThreadSafe;
+import space.sunqian.fs.base.option.Option;
+
+import java.lang.reflect.Type;
+
+/**
+ * Compiled plan of copying properties from the objects of a specified source type to the objects of a specified
+ * destination type, created by {@link ObjectCopier#compile(Type, Type, ObjectConverter, Option[])}.
+ * <p>
+ * The schemas, the options, the name mappings of the properties, and the converters between the property types are
+ * resolved once when the plan is compiled, so a plan can be reused to copy many objects with less overhead than
+ * {@link ObjectCopier#copyProperties(Object, Type, Object, Type, ObjectConverter, Option[])}. The source and
+ * destination objects passed to {@link #copy(Object, Object)} must be the instances of the source and destination
+ * types.
+ *
+ * @author sunqian
+ */
+@ThreadSafe
+public interface CopyPlan {
+
+    /**
+     * Returns the source type of this plan.
+     *
+     * @return the source type of this plan
+     */
+    @Nonnull
+    Type srcType();
+
+    /**
+     * Returns the destination type of this plan.
+     *
+     * @return the destination type of this plan
+     */
+    @Nonnull
+    Type dstType();
+
+    /**
+     * Copy properties from the given source object to the given destination object by this plan.
+     *
+     * @param src the given source object
+     * @param dst the given destination object
+     * @throws ObjectCopyException if an error occurs during copying properties
+     */
+    void copy(@Nonnull Object src, @Nonnull Object dst) throws ObjectCopyException;
+}
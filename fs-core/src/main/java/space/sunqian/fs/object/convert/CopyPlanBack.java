@@ -0,0 +1,360 @@
+package space.sunqian.fs.object.convert;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+import space.sunqian.fs.base.option.Option;
+import space.sunqian.fs.base.string.NameMapper;
+import space.sunqian.fs.collect.SetKit;
+import space.sunqian.fs.object.annotation.DatePattern;
+import space.sunqian.fs.object.annotation.NumPattern;
+import space.sunqian.fs.object.schema.MapSchema;
+import space.sunqian.fs.object.schema.ObjectAccessor;
+import space.sunqian.fs.object.schema.ObjectProperty;
+import space.sunqian.fs.object.schema.ObjectSchema;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class CopyPlanBack {
+
+    // types of which values are returned as they are by the default converter if the source and target types are equal
+    private static final @Nonnull Set<@Nonnull Class<?>> DIRECT_TYPES = SetKit.set(
+        String.class,
+        Boolean.class,
+        Byte.class,
+        Short.class,
+        Character.class,
+        Integer.class,
+        Long.class,
+        Float.class,
+        Double.class,
+        BigInteger.class,
+        BigDecimal.class
+    );
+
+    /**
+     * Returns a plan which copies by the given action.
+     */
+    static @Nonnull CopyPlan of(@Nonnull Type srcType, @Nonnull Type dstType, @Nonnull CopyAction action) {
+        return new ActionPlan(srcType, dstType, action);
+    }
+
+    /**
+     * Returns a plan which copies by {@link ObjectCopier#copyProperties(Object, Type, Object, Type, ObjectConverter,
+     * Option[])} of the given copier, for the copiers which do not support compiling.
+     */
+    static @Nonnull CopyPlan delegate(
+        @Nonnull ObjectCopier copier,
+        @Nonnull Type srcType,
+        @Nonnull Type dstType,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull [] options
+    ) {
+        return of(srcType, dstType, (src, dst) ->
+            copier.copyProperties(src, srcType, dst, dstType, converter, options));
+    }
+
+    /**
+     * Returns a compiled plan from object to object, following the logic of the default copier handler.
+     */
+    static @Nonnull CopyPlan objectToObject(
+        @Nonnull Type srcType,
+        @Nonnull ObjectSchema srcSchema,
+        @Nonnull Type dstType,
+        @Nonnull ObjectSchema dstSchema,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull [] options
+    ) {
+        List<PropertyCopier> copiers = new ArrayList<>();
+        for (ObjectProperty srcProperty : srcSchema.properties().values()) {
+            String dstName = dstName(srcProperty, converter, options);
+            if (dstName == null) {
+                continue;
+            }
+            ObjectProperty dstProperty = dstSchema.getProperty(dstName);
+            if (dstProperty == null || !dstProperty.isWritable()) {
+                continue;
+            }
+            DatePattern datePattern = ConvertKit.getAnnotation(DatePattern.class, srcProperty, dstProperty);
+            NumPattern numPattern = ConvertKit.getAnnotation(NumPattern.class, srcProperty, dstProperty);
+            Option<?, ?>[] actualOps = ConvertKit.mergeOptions(options, datePattern, numPattern);
+            boolean direct = datePattern == null && numPattern == null
+                && isDirect(srcProperty.type(), dstProperty.type(), converter, options);
+            copiers.add(new PropertyCopier(
+                srcProperty, dstProperty, null, dstProperty.type(), direct, primitiveKind(direct, srcProperty), actualOps
+            ));
+        }
+        return new PropertiesPlan(srcType, dstType, copiers, converter, options);
+    }
+
+    /**
+     * Returns a compiled plan from object to map, following the logic of the default copier handler.
+     */
+    static @Nonnull CopyPlan objectToMap(
+        @Nonnull Type srcType,
+        @Nonnull ObjectSchema srcSchema,
+        @Nonnull Type dstType,
+        @Nonnull MapSchema dstSchema,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull [] options
+    ) {
+        List<PropertyCopier> copiers = new ArrayList<>();
+        NameMapper nameMapper = ConvertOption.getNameMapper(options);
+        for (ObjectProperty srcProperty : srcSchema.properties().values()) {
+            if (isSkipped(srcProperty, options)) {
+                continue;
+            }
+            String actualName = nameMapper.map(srcProperty.name());
+            Object dstKey = converter.convert(actualName, String.class, dstSchema.keyType(), options);
+            boolean direct = isDirect(srcProperty.type(), dstSchema.valueType(), converter, options);
+            copiers.add(new PropertyCopier(
+                srcProperty, null, dstKey, dstSchema.valueType(), direct, NOT_PRIMITIVE, options
+            ));
+        }
+        return new PropertiesPlan(srcType, dstType, copiers, converter, options);
+    }
+
+    private static @Nullable String dstName(
+        @Nonnull ObjectProperty srcProperty,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull [] options
+    ) {
+        if (isSkipped(srcProperty, options)) {
+            return null;
+        }
+        String actualName = ConvertOption.getNameMapper(options).map(srcProperty.name());
+        return Fs.as(converter.convert(actualName, String.class, String.class, options));
+    }
+
+    private static boolean isSkipped(@Nonnull ObjectProperty srcProperty, @Nonnull Option<?, ?> @Nonnull [] options) {
+        return ConvertOption.isIgnoreProperty(srcProperty.name(), options)
+            || !srcProperty.isReadable()
+            || ("class".equals(srcProperty.name()) && !ConvertOption.isIncludeClass(options));
+    }
+
+    /**
+     * Returns whether the value can be set without the converter, that is, the converter is the default converter
+     * which returns the value itself for the given types.
+     */
+    private static boolean isDirect(
+        @Nonnull Type srcType,
+        @Nonnull Type dstType,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull [] options
+    ) {
+        if (converter != ObjectConverter.defaultConverter() || ConvertOption.isNewInstanceMode(options)) {
+            return false;
+        }
+        if (!srcType.equals(dstType) || !(dstType instanceof Class<?>)) {
+            return false;
+        }
+        Class<?> cls = (Class<?>) dstType;
+        return cls.isPrimitive() || cls.isEnum() || DIRECT_TYPES.contains(cls);
+    }
+
+    /**
+     * Returns the kind of the primitive type of the given property if the value is copied directly and can be copied
+     * by the typed methods of {@link ObjectAccessor} without boxing, otherwise returns {@link #NOT_PRIMITIVE}.
+     */
+    private static int primitiveKind(boolean direct, @Nonnull ObjectProperty srcProperty) {
+        if (!direct) {
+            return NOT_PRIMITIVE;
+        }
+        Type type = srcProperty.type();
+        if (type.equals(int.class)) {
+            return INT;
+        }
+        if (type.equals(long.class)) {
+            return LONG;
+        }
+        if (type.equals(float.class)) {
+            return FLOAT;
+        }
+        if (type.equals(double.class)) {
+            return DOUBLE;
+        }
+        if (type.equals(boolean.class)) {
+            return BOOLEAN;
+        }
+        return NOT_PRIMITIVE;
+    }
+
+    /**
+     * Action of copying properties from the source object to the destination object.
+     */
+    interface CopyAction {
+
+        void copy(@Nonnull Object src, @Nonnull Object dst) throws Exception;
+    }
+
+    private static abstract class AbstractPlan implements CopyPlan {
+
+        private final @Nonnull Type srcType;
+        private final @Nonnull Type dstType;
+
+        private AbstractPlan(@Nonnull Type srcType, @Nonnull Type dstType) {
+            this.srcType = srcType;
+            this.dstType = dstType;
+        }
+
+        @Override
+        public @Nonnull Type srcType() {
+            return srcType;
+        }
+
+        @Override
+        public @Nonnull Type dstType() {
+            return dstType;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "[" + srcType.getTypeName() + " -> " + dstType.getTypeName() + "]";
+        }
+    }
+
+    private static final class ActionPlan extends AbstractPlan {
+
+        private final @Nonnull CopyAction action;
+
+        private ActionPlan(@Nonnull Type srcType, @Nonnull Type dstType, @Nonnull CopyAction action) {
+            super(srcType, dstType);
+            this.action = action;
+        }
+
+        @Override
+        public void copy(@Nonnull Object src, @Nonnull Object dst) throws ObjectCopyException {
+            try {
+                action.copy(src, dst);
+            } catch (ObjectCopyException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ObjectCopyException(e);
+            }
+        }
+    }
+
+    private static final class PropertiesPlan extends AbstractPlan {
+
+        private final @Nonnull PropertyCopier @Nonnull [] copiers;
+        private final @Nonnull ObjectConverter converter;
+        private final boolean ignoreNull;
+
+        private PropertiesPlan(
+            @Nonnull Type srcType,
+            @Nonnull Type dstType,
+            @Nonnull List<@Nonnull PropertyCopier> copiers,
+            @Nonnull ObjectConverter converter,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) {
+            super(srcType, dstType);
+            this.copiers = copiers.toArray(new PropertyCopier[0]);
+            this.converter = converter;
+            this.ignoreNull = ConvertOption.isIgnoreNull(options);
+        }
+
+        @Override
+        public void copy(@Nonnull Object src, @Nonnull Object dst) throws ObjectCopyException {
+            for (PropertyCopier copier : copiers) {
+                try {
+                    if (copier.primitiveKind != NOT_PRIMITIVE) {
+                        copier.copyPrimitive(src, dst);
+                        continue;
+                    }
+                    Object value = copier.srcProperty.getValue(src);
+                    if (value == null && ignoreNull) {
+                        continue;
+                    }
+                    copier.copy(value, dst, converter);
+                } catch (Exception e) {
+                    throw new ObjectCopyException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a source property to a destination property if {@code dstProperty} is not null, otherwise to the map
+     * entry of {@code dstKey}.
+     */
+    private static final class PropertyCopier {
+
+        private final @Nonnull ObjectProperty srcProperty;
+        private final @Nullable ObjectProperty dstProperty;
+        private final @Nullable Object dstKey;
+        private final @Nonnull Type dstValueType;
+        private final boolean direct;
+        private final int primitiveKind;
+        private final @Nonnull Option<?, ?> @Nonnull [] options;
+
+        private PropertyCopier(
+            @Nonnull ObjectProperty srcProperty,
+            @Nullable ObjectProperty dstProperty,
+            @Nullable Object dstKey,
+            @Nonnull Type dstValueType,
+            boolean direct,
+            int primitiveKind,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) {
+            this.srcProperty = srcProperty;
+            this.dstProperty = dstProperty;
+            this.dstKey = dstKey;
+            this.dstValueType = dstValueType;
+            this.direct = direct;
+            this.primitiveKind = primitiveKind;
+            this.options = options;
+        }
+
+        private void copyPrimitive(@Nonnull Object src, @Nonnull Object dst) {
+            ObjectProperty dstProperty = Fs.asNonnull(this.dstProperty);
+            ObjectAccessor srcAccessor = srcProperty.owner().accessor();
+            ObjectAccessor dstAccessor = dstProperty.owner().accessor();
+            int srcIndex = srcProperty.index();
+            int dstIndex = dstProperty.index();
+            switch (primitiveKind) {
+                case INT:
+                    dstAccessor.setInt(dstIndex, dst, srcAccessor.getInt(srcIndex, src));
+                    return;
+                case LONG:
+                    dstAccessor.setLong(dstIndex, dst, srcAccessor.getLong(srcIndex, src));
+                    return;
+                case FLOAT:
+                    dstAccessor.setFloat(dstIndex, dst, srcAccessor.getFloat(srcIndex, src));
+                    return;
+                case DOUBLE:
+                    dstAccessor.setDouble(dstIndex, dst, srcAccessor.getDouble(srcIndex, src));
+                    return;
+                default:
+                    dstAccessor.setBoolean(dstIndex, dst, srcAccessor.getBoolean(srcIndex, src));
+            }
+        }
+
+        private void copy(@Nullable Object value, @Nonnull Object dst, @Nonnull ObjectConverter converter) {
+            Object dstValue = direct ? value : converter.convert(value, srcProperty.type(), dstValueType, options);
+            ObjectProperty dstProperty = this.dstProperty;
+            if (dstProperty != null) {
+                dstProperty.setValue(dst, dstValue);
+            } else {
+                Map<Object, Object> dstMap = Fs.as(dst);
+                dstMap.put(dstKey, dstValue);
+            }
+        }
+    }
+
+    // kinds of the primitive types copied by the typed methods of ObjectAccessor
+    private static final int NOT_PRIMITIVE = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int FLOAT = 3;
+    private static final int DOUBLE = 4;
+    private static final int BOOLEAN = 5;
+
+    private CopyPlanBack() {
+    }
+}
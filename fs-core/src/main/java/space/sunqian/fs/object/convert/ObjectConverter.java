@@ -326,6 +326,23 @@ public interface ObjectConverter {
             @Nonnull ObjectConverter converter,
             @Nonnull Option<?, ?> @Nonnull ... options
         ) throws Exception;
+
+        /**
+         * Returns whether this handler is stable. For a non-null source object, whether a stable handler returns
+         * {@link Status#HANDLER_CONTINUE} is determined only by the class of the source object, the source type, the
+         * target type and the options, not by the value of the source object.
+         * <p>
+         * The default implementation of {@link ObjectConverter} caches the dispatch result of each conversion, and
+         * skips the leading stable handlers which returned {@link Status#HANDLER_CONTINUE} for the same class, types
+         * and options in the subsequent conversions.
+         * <p>
+         * Returns {@code false} by default.
+         *
+         * @return whether this handler is stable
+         */
+        default boolean isStable() {
+            return false;
+        }
     }
 
     /**
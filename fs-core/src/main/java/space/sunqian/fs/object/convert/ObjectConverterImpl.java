@@ -7,11 +7,15 @@ import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.FsLoader;
 import space.sunqian.fs.base.option.Option;
 import space.sunqian.fs.base.option.OptionKit;
+import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.object.convert.handlers.AssignableConvertHandler;
 import space.sunqian.fs.object.convert.handlers.CommonConvertHandler;
 import space.sunqian.fs.third.ThirdKit;
 
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -26,9 +30,20 @@ final class ObjectConverterImpl implements ObjectConverter, ObjectConverter.Hand
         CommonConvertHandler.getInstance()
     ), Collections.emptyList());
 
+    // max size of the dispatch cache
+    private static final int MAX_DISPATCHES = 1024;
+    // dispatch of which source object is returned directly
+    private static final int IDENTITY = -1;
+
     private final @Nonnull List<ObjectConverter.@Nonnull Handler> handlers;
     private final @Nonnull List<@Nonnull Option<?, ?>> defaultOptions;
     private final @Nonnull Option<?, ?> @Nonnull [] defaultOptionsArray;
+    private final @Nonnull Handler @Nonnull [] handlerArray;
+    // number of the leading stable handlers
+    private final int stableCount;
+    // index of the handler which resolved the conversion last time, or IDENTITY
+    private final @Nonnull SimpleCache<@Nonnull DispatchKey, @Nonnull Integer> dispatches =
+        SimpleCache.ofBounded(MAX_DISPATCHES);
 
     ObjectConverterImpl(
         @Nonnull @RetainedParam List<ObjectConverter.@Nonnull Handler> handlers,
@@ -37,6 +52,12 @@ final class ObjectConverterImpl implements ObjectConverter, ObjectConverter.Hand
         this.handlers = Collections.unmodifiableList(handlers);
         this.defaultOptions = Collections.unmodifiableList(defaultOptions);
         this.defaultOptionsArray = defaultOptions.toArray(new Option[0]);
+        this.handlerArray = handlers.toArray(new Handler[0]);
+        int stableCount = 0;
+        while (stableCount < handlerArray.length && handlerArray[stableCount].isStable()) {
+            stableCount++;
+        }
+        this.stableCount = stableCount;
     }
 
     @Override
@@ -47,10 +68,34 @@ final class ObjectConverterImpl implements ObjectConverter, ObjectConverter.Hand
         @Nonnull Option<?, ?> @Nonnull ... options
     ) throws ObjectConvertException {
         @Nonnull Option<?, ?> @Nonnull [] actualOptions = OptionKit.mergeOptions(defaultOptionsArray, options);
-        for (Handler handler : handlers()) {
+        if (src == null || stableCount == 0) {
+            return convert(src, srcType, targetType, actualOptions, 0, null);
+        }
+        DispatchKey key = new DispatchKey(src.getClass(), srcType, targetType, actualOptions);
+        Integer dispatch = dispatches.get(key);
+        if (dispatch == null) {
+            return convert(src, srcType, targetType, actualOptions, 0, key);
+        }
+        int index = dispatch;
+        if (index == IDENTITY) {
+            return Fs.as(src);
+        }
+        return convert(src, srcType, targetType, actualOptions, index, null);
+    }
+
+    private Object convert(
+        @Nullable Object src,
+        @Nonnull Type srcType,
+        @Nonnull Type targetType,
+        @Nonnull Option<?, ?> @Nonnull [] options,
+        int from,
+        @Nullable DispatchKey key
+    ) throws ObjectConvertException {
+        for (int i = from; i < handlerArray.length; i++) {
+            Handler handler = handlerArray[i];
             Object ret;
             try {
-                ret = handler.convert(src, srcType, targetType, this, actualOptions);
+                ret = handler.convert(src, srcType, targetType, this, options);
             } catch (Exception e) {
                 throw new ObjectConvertException(e);
             }
@@ -58,11 +103,37 @@ final class ObjectConverterImpl implements ObjectConverter, ObjectConverter.Hand
                 continue;
             }
             if (ret == Status.HANDLER_BREAK) {
-                throw new UnsupportedObjectConvertException(src, srcType, targetType, this, actualOptions);
+                throw new UnsupportedObjectConvertException(src, srcType, targetType, this, options);
+            }
+            if (key != null) {
+                learn(key, i, ret == src && isIdentity(handler, srcType, targetType));
             }
             return Fs.as(ret);
         }
-        throw new UnsupportedObjectConvertException(src, srcType, targetType, this, actualOptions);
+        throw new UnsupportedObjectConvertException(src, srcType, targetType, this, options);
+    }
+
+    private void learn(@Nonnull DispatchKey key, int index, boolean identity) {
+        // the skipped handlers must be stable
+        if (index > stableCount) {
+            return;
+        }
+        if (identity) {
+            dispatches.put(key, IDENTITY);
+        } else if (index > 0) {
+            dispatches.put(key, index);
+        }
+    }
+
+    /**
+     * Returns whether the source object returned by the given handler is determined by the types, that is, the
+     * {@link AssignableConvertHandler} returns it for the equal or compatible types, rather than the recursive
+     * conversion for the type variables and wildcards.
+     */
+    private boolean isIdentity(@Nonnull Handler handler, @Nonnull Type srcType, @Nonnull Type targetType) {
+        return handler == AssignableConvertHandler.getInstance()
+            && !(srcType instanceof WildcardType || srcType instanceof TypeVariable)
+            && !(targetType instanceof WildcardType || targetType instanceof TypeVariable);
     }
 
     @Override
@@ -94,4 +165,50 @@ final class ObjectConverterImpl implements ObjectConverter, ObjectConverter.Hand
             return Status.HANDLER_CONTINUE;
         }
     }
+
+    private static final class DispatchKey {
+
+        private final @Nonnull Class<?> srcClass;
+        private final @Nonnull Type srcType;
+        private final @Nonnull Type targetType;
+        private final @Nonnull Option<?, ?> @Nonnull [] options;
+        private final int hash;
+
+        private DispatchKey(
+            @Nonnull Class<?> srcClass,
+            @Nonnull Type srcType,
+            @Nonnull Type targetType,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) {
+            this.srcClass = srcClass;
+            this.srcType = srcType;
+            this.targetType = targetType;
+            this.options = options;
+            int h = srcClass.hashCode();
+            h = h * 31 + srcType.hashCode();
+            h = h * 31 + targetType.hashCode();
+            this.hash = h * 31 + Arrays.hashCode(options);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DispatchKey)) {
+                return false;
+            }
+            DispatchKey other = (DispatchKey) o;
+            return hash == other.hash
+                && srcClass == other.srcClass
+                && srcType.equals(other.srcType)
+                && targetType.equals(other.targetType)
+                && Arrays.equals(options, other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -181,6 +181,58 @@ public interface ObjectCopier {
         @Nonnull Option<?, ?> @Nonnull ... options
     ) throws ObjectCopyException;
 
+    /**
+     * Compiles and returns a {@link CopyPlan} for copying properties from the objects of the given source type to the
+     * objects of the given destination type, using {@link ObjectConverter#defaultConverter()}. This method is
+     * equivalent to:
+     * <pre>{@code
+     * compile(srcType, dstType, ObjectConverter.defaultConverter(), options);
+     * }</pre>
+     *
+     * @param srcType the given source type
+     * @param dstType the given destination type
+     * @param options the options for copying properties
+     * @return the compiled {@link CopyPlan}
+     * @throws ObjectCopyException if an error occurs during compiling
+     * @see #compile(Type, Type, ObjectConverter, Option[])
+     */
+    default @Nonnull CopyPlan compile(
+        @Nonnull Type srcType,
+        @Nonnull Type dstType,
+        @Nonnull Option<?, ?> @Nonnull ... options
+    ) throws ObjectCopyException {
+        return compile(srcType, dstType, ObjectConverter.defaultConverter(), options);
+    }
+
+    /**
+     * Compiles and returns a {@link CopyPlan} for copying properties from the objects of the given source type to the
+     * objects of the given destination type. The returned plan is reusable and thread-safe, and it copies in the same
+     * way as {@link #copyProperties(Object, Type, Object, Type, ObjectConverter, Option[])} with the same arguments,
+     * but the schemas, options, name mappings and the converters between the property types are resolved only once
+     * when compiling.
+     * <p>
+     * The given types must be parsable to {@link MapSchema} (for {@link Map} types) or {@link ObjectSchema} (for other
+     * types), the actual types of the objects passed to the plan will not be used.
+     * <p>
+     * The default implementation returns a plan which simply calls
+     * {@link #copyProperties(Object, Type, Object, Type, ObjectConverter, Option[])}.
+     *
+     * @param srcType   the given source type
+     * @param dstType   the given destination type
+     * @param converter the converter for converting values of the properties if needed
+     * @param options   the options for copying properties
+     * @return the compiled {@link CopyPlan}
+     * @throws ObjectCopyException if an error occurs during compiling
+     */
+    default @Nonnull CopyPlan compile(
+        @Nonnull Type srcType,
+        @Nonnull Type dstType,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull ... options
+    ) throws ObjectCopyException {
+        return CopyPlanBack.delegate(this, srcType, dstType, converter, options);
+    }
+
     /**
      * Returns all handlers of this {@link ObjectCopier}.
      *
@@ -6,6 +6,8 @@ import space.sunqian.annotation.RetainedParam;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.option.Option;
 import space.sunqian.fs.base.option.OptionKit;
+import space.sunqian.fs.base.value.SimpleKey;
+import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.object.convert.handlers.CommonCopierHandler;
 import space.sunqian.fs.object.schema.DataSchemaException;
@@ -14,6 +16,7 @@ import space.sunqian.fs.object.schema.MapSchemaParser;
 import space.sunqian.fs.object.schema.ObjectProperty;
 import space.sunqian.fs.object.schema.ObjectSchema;
 import space.sunqian.fs.object.schema.ObjectSchemaParser;
+import space.sunqian.fs.reflect.TypeKit;
 
 import java.lang.reflect.Type;
 import java.util.Collections;
@@ -31,6 +34,8 @@ final class ObjectCopierImpl implements ObjectCopier, ObjectCopier.Handler {
     private final @Nonnull List<@Nonnull Handler> handlers;
     private final @Nonnull List<@Nonnull Option<?, ?>> defaultOptions;
     private final @Nonnull Option<?, ?> @Nonnull [] defaultOptionsArray;
+    // plans for the copies of the default converter and no option, keyed by the classes of source and destination
+    private final @Nonnull SimpleCache<@Nonnull SimpleKey, @Nonnull CopyPlan> plans = SimpleCache.ofSoft();
 
     ObjectCopierImpl(
         @Nonnull @RetainedParam List<@Nonnull Handler> handlers,
@@ -51,6 +56,15 @@ final class ObjectCopierImpl implements ObjectCopier, ObjectCopier.Handler {
         @Nonnull Option<?, ?> @Nonnull ... options
     ) throws ObjectCopyException {
         try {
+            if (options.length == 0
+                && converter == ObjectConverter.defaultConverter()
+                && srcType == src.getClass()
+                && dstType == dst.getClass()
+            ) {
+                CopyPlan plan = plans.get(SimpleKey.of(srcType, dstType), k -> compile(srcType, dstType, converter));
+                plan.copy(src, dst);
+                return;
+            }
             @Nonnull Option<?, ?> @Nonnull [] actualOptions = OptionKit.mergeOptions(defaultOptionsArray, options);
             if (src instanceof Map) {
                 MapSchemaParser srcParser = ConvertOption.getMapSchemaParser(actualOptions);
@@ -82,6 +96,57 @@ final class ObjectCopierImpl implements ObjectCopier, ObjectCopier.Handler {
         }
     }
 
+    @Override
+    public @Nonnull CopyPlan compile(
+        @Nonnull Type srcType,
+        @Nonnull Type dstType,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull ... options
+    ) throws ObjectCopyException {
+        try {
+            @Nonnull Option<?, ?> @Nonnull [] actualOptions = OptionKit.mergeOptions(defaultOptionsArray, options);
+            // only the default handler can be compiled to the property copiers
+            boolean compilable = handlers.size() == 1 && handlers.get(0) == CommonCopierHandler.getInstance();
+            if (isMapType(srcType)) {
+                MapSchemaParser mapParser = ConvertOption.getMapSchemaParser(actualOptions);
+                MapSchema srcSchema = mapParser.parse(srcType);
+                if (isMapType(dstType)) {
+                    MapSchema dstSchema = mapParser.parse(dstType);
+                    return CopyPlanBack.of(srcType, dstType, (src, dst) ->
+                        mapToMap(Fs.as(src), srcSchema, Fs.as(dst), dstSchema, converter, actualOptions));
+                }
+                ObjectSchema dstSchema = ConvertOption.getObjectSchemaParser(actualOptions).parse(dstType);
+                return CopyPlanBack.of(srcType, dstType, (src, dst) ->
+                    mapToObject(Fs.as(src), srcSchema, dst, dstSchema, converter, actualOptions));
+            }
+            ObjectSchemaParser objectParser = ConvertOption.getObjectSchemaParser(actualOptions);
+            ObjectSchema srcSchema = objectParser.parse(srcType);
+            if (isMapType(dstType)) {
+                MapSchema dstSchema = ConvertOption.getMapSchemaParser(actualOptions).parse(dstType);
+                return compilable ?
+                    CopyPlanBack.objectToMap(srcType, srcSchema, dstType, dstSchema, converter, actualOptions)
+                    :
+                    CopyPlanBack.of(srcType, dstType, (src, dst) ->
+                        objectToMap(src, srcSchema, Fs.as(dst), dstSchema, converter, actualOptions));
+            }
+            ObjectSchema dstSchema = objectParser.parse(dstType);
+            return compilable ?
+                CopyPlanBack.objectToObject(srcType, srcSchema, dstType, dstSchema, converter, actualOptions)
+                :
+                CopyPlanBack.of(srcType, dstType, (src, dst) ->
+                    objectToObject(src, srcSchema, dst, dstSchema, converter, actualOptions));
+        } catch (ObjectCopyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ObjectCopyException(e);
+        }
+    }
+
+    private static boolean isMapType(@Nonnull Type type) {
+        Class<?> rawClass = TypeKit.getRawClass(type);
+        return rawClass != null && Map.class.isAssignableFrom(rawClass);
+    }
+
     private @Nonnull ObjectSchema parseObjectSchema(
         @Nonnull Object object,
         @Nonnull ObjectSchemaParser parser,
@@ -108,6 +108,12 @@ public class AssignableConvertHandler implements ObjectConverter.Handler {
         return ObjectConverter.Status.HANDLER_CONTINUE;
     }
 
+    @Override
+    public boolean isStable() {
+        // depends on the types and options only, subclasses may change the behavior
+        return getClass() == AssignableConvertHandler.class;
+    }
+
     private boolean isUndefined(WildcardType type) {
         Type lowerBound = TypeKit.getLowerBound(type);
         if (lowerBound == null) {
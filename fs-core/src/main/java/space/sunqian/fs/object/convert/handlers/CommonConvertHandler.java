@@ -246,6 +246,12 @@ public class CommonConvertHandler implements ObjectConverter.Handler {
         return ObjectConverter.Status.HANDLER_CONTINUE;
     }
 
+    @Override
+    public boolean isStable() {
+        // continues only for the unsupported target types, subclasses may change the behavior
+        return getClass() == CommonConvertHandler.class;
+    }
+
     private @Nullable IntFunction<Collection<Object>> collectionFunction(@Nonnull Class<?> collectionType) {
         if (Set.class.isAssignableFrom(collectionType)) {
             return Fs.as(SetKit.newFunction(collectionType));
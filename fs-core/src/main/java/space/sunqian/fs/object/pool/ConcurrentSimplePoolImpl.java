@@ -0,0 +1,483 @@
+package space.sunqian.fs.object.pool;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free implementation of {@link SimplePool}, in the style of the {@code ConcurrentBag} of HikariCP.
+ * <p>
+ * All objects are kept in a shared copy-on-write list, and each of them is wrapped in an entry with an atomic state. The
+ * entries are also indexed by the identities of their objects, to find the entry of a released object directly.
+ * Acquiring an object is a CAS on the state of an idle entry: the entries recently released by the current thread are
+ * tried first (thread-affine fast slots), then the shared list is scanned. Releasing an object sets its entry idle, and
+ * if there are waiters, hands the entry off to them directly through a fair {@link SynchronousQueue}.
+ */
+final class ConcurrentSimplePoolImpl<T> implements SimplePool<T> {
+
+    private static final int IDLE = 0;
+    private static final int ACTIVE = 1;
+    private static final int RESERVED = 2;
+    private static final int REMOVED = -1;
+
+    private static final int MAX_LOCAL_SIZE = 16;
+
+    private final int coreSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final boolean validateOnGet;
+    private final @Nonnull Supplier<? extends @Nonnull T> supplier;
+    private final @Nonnull Predicate<? super @Nonnull T> validator;
+    private final @Nonnull Consumer<? super @Nonnull T> discarder;
+
+    // objects
+    private final @Nonnull CopyOnWriteArrayList<@Nonnull Entry<T>> entries = new CopyOnWriteArrayList<>();
+    private final @Nonnull ConcurrentHashMap<@Nonnull IdentityKey, @Nonnull Entry<T>> entryMap =
+        new ConcurrentHashMap<>();
+    // weakly referenced, the removed entries are not retained by the threads
+    private final @Nonnull ThreadLocal<@Nonnull List<@Nonnull WeakReference<Entry<T>>>> localEntries =
+        ThreadLocal.withInitial(() -> new ArrayList<>(MAX_LOCAL_SIZE));
+    private final @Nonnull AtomicInteger totalSize = new AtomicInteger();
+    // waiters
+    private final @Nonnull AtomicInteger waiters = new AtomicInteger();
+    private final @Nonnull SynchronousQueue<@Nonnull Entry<T>> handoffQueue = new SynchronousQueue<>(true);
+    private final @Nonnull PoolWaitStats waitStats = new PoolWaitStats();
+    // close state
+    private volatile boolean closed = false;
+
+    ConcurrentSimplePoolImpl(
+        int coreSize, int maxSize, long idleTimeoutMillis, boolean validateOnGet,
+        @Nonnull Supplier<? extends @Nonnull T> supplier,
+        @Nonnull Predicate<? super @Nonnull T> validator,
+        @Nonnull Consumer<? super @Nonnull T> discarder
+    ) throws ObjectPoolException {
+
+        this.coreSize = coreSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validateOnGet = validateOnGet;
+        this.supplier = supplier;
+        this.validator = validator;
+        this.discarder = discarder;
+
+        // initialize core objects
+        try {
+            for (int i = 0; i < coreSize; i++) {
+                T obj = supplier.get();
+                addEntry(new Entry<>(obj, IDLE));
+                totalSize.incrementAndGet();
+            }
+        } catch (Exception e) {
+            close();
+        }
+    }
+
+    @Override
+    public @Nullable T get() throws ObjectPoolException {
+
+        checkClosed();
+
+        try {
+            return borrow(0);
+        } catch (Exception e) {
+            close();
+            throw new ObjectPoolException("Failed to get object from pool.", e);
+        }
+    }
+
+    @Override
+    public @Nullable T get(@Nonnull Duration timeout) throws ObjectPoolException {
+
+        checkClosed();
+
+        long timeoutNanos = SimplePoolImpl.timeoutNanos(timeout);
+        T obj;
+        try {
+            obj = borrow(timeoutNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ObjectPoolException("Interrupted while waiting for object from pool.", e);
+        } catch (Exception e) {
+            close();
+            throw new ObjectPoolException("Failed to get object from pool.", e);
+        }
+        if (obj == null) {
+            // the pool may be closed while waiting
+            checkClosed();
+        }
+        return obj;
+    }
+
+    private @Nullable T borrow(long timeoutNanos) throws Exception {
+
+        // try the entries recently released by current thread
+        List<WeakReference<Entry<T>>> local = localEntries.get();
+        for (int i = local.size() - 1; i >= 0; i--) {
+            Entry<T> entry = local.remove(i).get();
+            // the cleared and removed entries are skipped
+            if (entry != null && entry.state.compareAndSet(IDLE, ACTIVE) && validateAcquired(entry)) {
+                return entry.obj;
+            }
+        }
+
+        // the waiters must be counted before scanning, to let the releasing thread hand off to them
+        boolean waiting = timeoutNanos > 0;
+        if (waiting) {
+            waiters.incrementAndGet();
+        }
+        try {
+            // scan the shared entries
+            for (Entry<T> entry : entries) {
+                if (entry.state.compareAndSet(IDLE, ACTIVE) && validateAcquired(entry)) {
+                    return entry.obj;
+                }
+            }
+
+            // no idle objects available, try to create a new one
+            Entry<T> created = tryCreate(ACTIVE);
+            if (created != null) {
+                return created.obj;
+            }
+
+            // wait for the handoff, the fair synchronous queue serves the waiters in FIFO order
+            if (waiting) {
+                return awaitHandoff(timeoutNanos);
+            }
+        } finally {
+            if (waiting) {
+                waiters.decrementAndGet();
+            }
+        }
+
+        // cannot create new object (reached max size), return null
+        return null;
+    }
+
+    private @Nullable T awaitHandoff(long timeoutNanos) throws Exception {
+        waitStats.startWaiting();
+        long start = System.nanoTime();
+        long deadline = start + timeoutNanos;
+        long remaining = timeoutNanos;
+        try {
+            while (remaining > 0 && !closed) {
+                Entry<T> entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    break;
+                }
+                if (entry.state.compareAndSet(IDLE, ACTIVE) && validateAcquired(entry)) {
+                    waitStats.record(System.nanoTime() - start, false);
+                    return entry.obj;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+            if (!closed) {
+                waitStats.record(System.nanoTime() - start, true);
+            }
+            return null;
+        } finally {
+            waitStats.endWaiting();
+        }
+    }
+
+    private boolean validateAcquired(@Nonnull Entry<T> entry) {
+        if (!validateOnGet || validator.test(entry.obj)) {
+            return true;
+        }
+        remove(entry);
+        discarder.accept(entry.obj);
+        return false;
+    }
+
+    private @Nullable Entry<T> tryCreate(int state) {
+        while (true) {
+            int size = totalSize.get();
+            if (size >= maxSize) {
+                return null;
+            }
+            if (totalSize.compareAndSet(size, size + 1)) {
+                break;
+            }
+        }
+        try {
+            T obj = supplier.get();
+            Entry<T> entry = new Entry<>(obj, state);
+            addEntry(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            totalSize.decrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean release(@Nonnull T obj) throws ObjectPoolException {
+
+        checkClosed();
+
+        Entry<T> entry = entryMap.get(new IdentityKey(obj));
+        if (entry == null || entry.state.get() != ACTIVE) {
+            return false;
+        }
+        try {
+            if (!validator.test(obj)) {
+                if (entry.state.compareAndSet(ACTIVE, REMOVED)) {
+                    remove(entry);
+                    discarder.accept(obj);
+                    fillWaiters();
+                }
+                return true;
+            }
+            entry.lastReleaseTime = System.currentTimeMillis();
+            if (!entry.state.compareAndSet(ACTIVE, IDLE)) {
+                return false;
+            }
+            if (!requite(entry)) {
+                List<WeakReference<Entry<T>>> local = localEntries.get();
+                if (local.size() < MAX_LOCAL_SIZE) {
+                    local.add(new WeakReference<>(entry));
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            remove(entry);
+            close();
+            throw new ObjectPoolException("Failed to release object to pool.", e);
+        }
+    }
+
+    private void addEntry(@Nonnull Entry<T> entry) {
+        entryMap.put(new IdentityKey(entry.obj), entry);
+        entries.add(entry);
+    }
+
+    private boolean removeEntry(@Nonnull Entry<T> entry) {
+        entryMap.remove(new IdentityKey(entry.obj), entry);
+        return entries.remove(entry);
+    }
+
+    /**
+     * Hands off the idle entry to the waiters if any, returns {@code true} if the entry is taken by others.
+     */
+    private boolean requite(@Nonnull Entry<T> entry) {
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.state.get() != IDLE || handoffQueue.offer(entry)) {
+                return true;
+            }
+            if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates new objects for the waiters if the pool is not full.
+     */
+    private void fillWaiters() {
+        while (waiters.get() > 0) {
+            Entry<T> created = tryCreate(IDLE);
+            if (created == null || !requite(created)) {
+                return;
+            }
+        }
+    }
+
+    private void remove(@Nonnull Entry<T> entry) {
+        entry.state.set(REMOVED);
+        if (removeEntry(entry)) {
+            totalSize.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void clean() throws ObjectPoolException {
+
+        checkClosed();
+
+        try {
+            for (Entry<T> entry : entries) {
+                if (!entry.state.compareAndSet(IDLE, RESERVED)) {
+                    continue;
+                }
+                boolean valid;
+                try {
+                    valid = validator.test(entry.obj);
+                } catch (Exception e) {
+                    entry.state.set(IDLE);
+                    throw e;
+                }
+                if (closed) {
+                    // closed while validating, keep it as unreleased object if failed to discard
+                    try {
+                        discarder.accept(entry.obj);
+                        removeEntry(entry);
+                    } catch (Exception e) {
+                        entry.state.set(IDLE);
+                    }
+                    return;
+                }
+                if (!valid || (totalSize.get() > coreSize && entry.isIdleTimeout(idleTimeoutMillis))) {
+                    remove(entry);
+                    discarder.accept(entry.obj);
+                    continue;
+                }
+                entry.state.set(IDLE);
+                requite(entry);
+            }
+            while (totalSize.get() < coreSize) {
+                Entry<T> created = tryCreate(IDLE);
+                if (created == null) {
+                    break;
+                }
+                requite(created);
+            }
+        } catch (Exception e) {
+            close();
+            throw new ObjectPoolException("Failed to clean pool.", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        try {
+            for (Entry<T> entry : entries) {
+                if (!entry.state.compareAndSet(IDLE, REMOVED)) {
+                    continue;
+                }
+                try {
+                    discarder.accept(entry.obj);
+                    removeEntry(entry);
+                } catch (Exception e) {
+                    // do nothing
+                    entry.state.set(IDLE);
+                }
+            }
+        } finally {
+            totalSize.set(0);
+            closed = true;
+            // wake up the waiters, the closed entry can never be acquired,
+            // keeps handing off until all waiters leave, a waiter may be just about to poll
+            Entry<T> closedEntry = new Entry<>(Fs.as(this), REMOVED);
+            for (int i = 0; waiters.get() > 0; i++) {
+                if (handoffQueue.offer(closedEntry)) {
+                    continue;
+                }
+                if ((i & 0xff) == 0xff) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public @Nonnull List<T> unreleasedObjects() {
+        if (!closed) {
+            return Collections.emptyList();
+        }
+        List<T> list = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            list.add(entry.obj);
+        }
+        return list;
+    }
+
+    @Override
+    public int size() {
+        return totalSize.get();
+    }
+
+    @Override
+    public int idleSize() {
+        // the reserved entries are idle entries being validated by clean process
+        return countEntries(IDLE) + countEntries(RESERVED);
+    }
+
+    @Override
+    public int activeSize() {
+        return countEntries(ACTIVE);
+    }
+
+    private int countEntries(int state) {
+        int count = 0;
+        for (Entry<T> entry : entries) {
+            if (entry.state.get() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public @Nonnull WaitStats waitStats() {
+        return waitStats;
+    }
+
+    private void checkClosed() throws ObjectPoolException {
+        if (closed) {
+            throw new ObjectPoolException("Pool is closed.");
+        }
+    }
+
+    private static final class IdentityKey {
+
+        private final @Nonnull Object obj;
+
+        private IdentityKey(@Nonnull Object obj) {
+            this.obj = obj;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            return o instanceof IdentityKey && ((IdentityKey) o).obj == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(obj);
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final @Nonnull T obj;
+        private final @Nonnull AtomicInteger state;
+        private volatile long lastReleaseTime = System.currentTimeMillis();
+
+        private Entry(@Nonnull T obj, int state) {
+            this.obj = obj;
+            this.state = new AtomicInteger(state);
+        }
+
+        private boolean isIdleTimeout(long idleTimeoutMillis) {
+            return lastReleaseTime + idleTimeoutMillis < System.currentTimeMillis();
+        }
+    }
+}
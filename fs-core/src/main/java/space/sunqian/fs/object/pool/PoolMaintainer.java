@@ -0,0 +1,76 @@
+package space.sunqian.fs.object.pool;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background maintainer of {@link SimplePool}, which periodically invokes {@link SimplePool#clean()} of the pools to
+ * evict the idle timeout and invalid objects, and to replenish the objects up to the core size.
+ * <p>
+ * By default, all pools share one daemon thread. The maintenance task only keeps a weak reference of the pool, and it
+ * will be cancelled once the pool is closed or garbage collected.
+ */
+final class PoolMaintainer {
+
+    static void schedule(
+        @Nonnull SimplePool<?> pool,
+        long intervalMillis,
+        @Nullable ScheduledExecutorService executor
+    ) {
+        ScheduledExecutorService scheduler = executor == null ? SharedHolder.SCHEDULER : executor;
+        MaintenanceTask task = new MaintenanceTask(pool);
+        task.future = scheduler.scheduleWithFixedDelay(task, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class MaintenanceTask implements Runnable {
+
+        private final @Nonnull WeakReference<SimplePool<?>> poolRef;
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        private MaintenanceTask(@Nonnull SimplePool<?> pool) {
+            this.poolRef = new WeakReference<>(pool);
+        }
+
+        @Override
+        public void run() {
+            SimplePool<?> pool = poolRef.get();
+            if (pool == null || pool.isClosed()) {
+                cancel();
+                return;
+            }
+            try {
+                pool.clean();
+            } catch (Exception e) {
+                // the pool has been closed by the failed clean
+                cancel();
+            }
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+    }
+
+    private static final class SharedHolder {
+
+        private static final @Nonnull ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "fs-pool-maintainer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    private PoolMaintainer() {
+    }
+}
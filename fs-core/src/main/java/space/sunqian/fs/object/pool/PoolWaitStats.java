@@ -0,0 +1,64 @@
+package space.sunqian.fs.object.pool;
+
+import space.sunqian.annotation.Nonnull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recorder of {@link SimplePool.WaitStats}, shared by the implementations of {@link SimplePool}.
+ */
+final class PoolWaitStats implements SimplePool.WaitStats {
+
+    private final @Nonnull LongAdder waitCount = new LongAdder();
+    private final @Nonnull LongAdder timeoutCount = new LongAdder();
+    private final @Nonnull LongAdder totalWaitNanos = new LongAdder();
+    private final @Nonnull AtomicLong maxWaitNanos = new AtomicLong();
+    private final @Nonnull AtomicInteger waiting = new AtomicInteger();
+
+    void startWaiting() {
+        waiting.incrementAndGet();
+    }
+
+    void endWaiting() {
+        waiting.decrementAndGet();
+    }
+
+    void record(long waitNanos, boolean timeout) {
+        waitCount.increment();
+        if (timeout) {
+            timeoutCount.increment();
+        }
+        totalWaitNanos.add(waitNanos);
+        long max = maxWaitNanos.get();
+        while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+            max = maxWaitNanos.get();
+        }
+    }
+
+    @Override
+    public long waitCount() {
+        return waitCount.sum();
+    }
+
+    @Override
+    public long timeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public long totalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    @Override
+    public long maxWaitNanos() {
+        return maxWaitNanos.get();
+    }
+
+    @Override
+    public int waitingSize() {
+        return waiting.get();
+    }
+}
@@ -7,6 +7,7 @@ import space.sunqian.fs.Fs;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -43,6 +44,29 @@ public interface SimplePool<T> {
     @Nullable
     T get() throws ObjectPoolException;
 
+    /**
+     * Acquires an object from the pool, waiting up to the specified timeout if no object is available. Returns
+     * {@code null} if the timeout elapses before an object becomes available. If the timeout is zero or negative, this
+     * method is equivalent to {@link #get()}.
+     * <p>
+     * The waiting threads are served in FIFO order: a released object is handed off to the oldest waiting thread
+     * directly, rather than being put back to the pool and contended again. The statistics of the waits can be
+     * obtained from {@link #waitStats()}.
+     * <p>
+     * If the current thread is interrupted while waiting, an {@link ObjectPoolException} with the
+     * {@link InterruptedException} as its cause will be thrown, the interrupt status of the thread will be restored,
+     * and this pool will not be closed. If the pool is closed while waiting, an {@link ObjectPoolException} will be
+     * thrown. If any other exception occurs during the acquisition process, {@link #close()} will be invoked to close
+     * this pool and the {@link #unreleasedObjects()} will return the list of unreleased objects, including idle objects
+     * and active objects.
+     *
+     * @param timeout the maximum time to wait
+     * @return the acquired object, or {@code null} if the timeout elapses before an object becomes available
+     * @throws ObjectPoolException if failed to acquire object
+     */
+    @Nullable
+    T get(@Nonnull Duration timeout) throws ObjectPoolException;
+
     /**
      * Releases the given object to the pool. Returns {@code true} if the object is released successfully, {@code false}
      * otherwise. If the object is not acquired from this pool, this method will do nothing just return {@code false}.
@@ -115,6 +139,56 @@ public interface SimplePool<T> {
      */
     int activeSize();
 
+    /**
+     * Returns the wait statistics of this pool, which are updated in real time by {@link #get(Duration)}.
+     *
+     * @return the wait statistics of this pool
+     */
+    @Nonnull
+    WaitStats waitStats();
+
+    /**
+     * Wait statistics of a {@link SimplePool}. Only the acquisitions which have to wait (no object is available
+     * immediately) are counted, the acquisitions satisfied immediately are not.
+     */
+    interface WaitStats {
+
+        /**
+         * Returns the number of the acquisitions which have waited, including the timed out ones.
+         *
+         * @return the number of the acquisitions which have waited
+         */
+        long waitCount();
+
+        /**
+         * Returns the number of the acquisitions which have timed out.
+         *
+         * @return the number of the acquisitions which have timed out
+         */
+        long timeoutCount();
+
+        /**
+         * Returns the total wait time in nanoseconds of the acquisitions which have waited.
+         *
+         * @return the total wait time in nanoseconds
+         */
+        long totalWaitNanos();
+
+        /**
+         * Returns the max wait time in nanoseconds of the acquisitions which have waited.
+         *
+         * @return the max wait time in nanoseconds
+         */
+        long maxWaitNanos();
+
+        /**
+         * Returns the number of the threads which are currently waiting.
+         *
+         * @return the number of the threads which are currently waiting
+         */
+        int waitingSize();
+    }
+
     /**
      * Builder class for {@link SimplePool}.
      *
@@ -127,6 +201,13 @@ public interface SimplePool<T> {
         private int coreSize = 1;
         private int maxSize = -1;
         private long idleTimeoutMillis = 60000;
+        private boolean concurrent = false;
+
+        // maintenance:
+
+        private long maintenanceIntervalMillis = -1;
+        private @Nullable ScheduledExecutorService maintenanceExecutor;
+        private boolean validateOnGet = true;
 
         // actions:
 
@@ -227,6 +308,75 @@ public interface SimplePool<T> {
             return this;
         }
 
+        /**
+         * Sets whether to build the lock-free implementation for high concurrency, default is {@code false}.
+         * <p>
+         * The default implementation guards all operations with a single lock, which is simple and compact, but
+         * becomes the contention point under many threads. The lock-free implementation, in the style of the
+         * {@code ConcurrentBag} of HikariCP, keeps the objects in a shared copy-on-write list with an atomic state
+         * for each object. The objects recently released by a thread are tried first when the thread acquires again,
+         * and the released objects are handed off to the waiting threads directly.
+         *
+         * @param concurrent whether to build the lock-free implementation for high concurrency
+         * @return this builder
+         */
+        public @Nonnull Builder<T> concurrent(boolean concurrent) {
+            this.concurrent = concurrent;
+            return this;
+        }
+
+        /**
+         * Sets the interval of the background maintenance, default is disabled.
+         * <p>
+         * If this interval is set, {@link SimplePool#clean()} of the built pool will be invoked periodically in the
+         * background, to evict the objects which are idle timeout or invalidated by validator, and to keep the core
+         * size of objects available. The idle objects are validated one by one, without blocking the acquisition of
+         * other objects. The maintenance stops once the pool is closed (including closed due to a failed maintenance).
+         * <p>
+         * The maintenance tasks are run on a shared daemon thread by default, use
+         * {@link #maintenanceExecutor(ScheduledExecutorService)} to specify another executor.
+         *
+         * @param interval the interval of the background maintenance
+         * @return this builder
+         * @throws IllegalArgumentException if interval is less than or equal to 0
+         */
+        public @Nonnull Builder<T> maintenanceInterval(@Nonnull Duration interval) throws IllegalArgumentException {
+            if (interval.toMillis() <= 0) {
+                throw new IllegalArgumentException("maintenanceInterval must be greater than 0.");
+            }
+            this.maintenanceIntervalMillis = interval.toMillis();
+            return this;
+        }
+
+        /**
+         * Sets the executor to run the background maintenance, default is a shared daemon thread. This setting takes
+         * effect only if {@link #maintenanceInterval(Duration)} is set.
+         *
+         * @param maintenanceExecutor the executor to run the background maintenance
+         * @return this builder
+         */
+        public @Nonnull Builder<T> maintenanceExecutor(@Nonnull ScheduledExecutorService maintenanceExecutor) {
+            this.maintenanceExecutor = maintenanceExecutor;
+            return this;
+        }
+
+        /**
+         * Sets whether to validate the idle objects when acquiring them, default is {@code true}.
+         * <p>
+         * If it is {@code false}, the acquisition will not invoke the validator, and the idle objects are validated by
+         * {@link SimplePool#clean()}, typically the background maintenance (see {@link #maintenanceInterval(Duration)}),
+         * and when they are released. This removes the cost of validation (such as a validation query of a database
+         * connection) from the acquisition, at the cost that an object invalidated after the last validation may be
+         * acquired.
+         *
+         * @param validateOnGet whether to validate the idle objects when acquiring them
+         * @return this builder
+         */
+        public @Nonnull Builder<T> validateOnGet(boolean validateOnGet) {
+            this.validateOnGet = validateOnGet;
+            return this;
+        }
+
         /**
          * Builds a {@link SimplePool} instance. If some exception occurs during the initialization, a closed pool with
          * unreleased objects (if any) will be returned.
@@ -239,9 +389,20 @@ public interface SimplePool<T> {
             if (supplier == null) {
                 throw new IllegalArgumentException("Supplier must be set.");
             }
-            return Fs.as(new SimplePoolImpl<>(
-                coreSize, Math.max(coreSize, maxSize), idleTimeoutMillis, supplier, validator, discarder
-            ));
+            SimplePool<T> pool = concurrent ?
+                new ConcurrentSimplePoolImpl<>(
+                    coreSize, Math.max(coreSize, maxSize), idleTimeoutMillis, validateOnGet,
+                    supplier, validator, discarder
+                )
+                :
+                new SimplePoolImpl<>(
+                    coreSize, Math.max(coreSize, maxSize), idleTimeoutMillis, validateOnGet,
+                    supplier, validator, discarder
+                );
+            if (maintenanceIntervalMillis > 0 && !pool.isClosed()) {
+                PoolMaintainer.schedule(pool, maintenanceIntervalMillis, maintenanceExecutor);
+            }
+            return Fs.as(pool);
         }
     }
 }
\ No newline at end of file
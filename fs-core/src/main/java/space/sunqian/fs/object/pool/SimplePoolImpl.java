@@ -3,12 +3,15 @@ package space.sunqian.fs.object.pool;
 import space.sunqian.annotation.Nonnull;
 import space.sunqian.annotation.Nullable;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -18,6 +21,7 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
     private final int coreSize;
     private final int maxSize;
     private final long idleTimeoutMillis;
+    private final boolean validateOnGet;
     private final @Nonnull Supplier<? extends @Nonnull T> supplier;
     private final @Nonnull Predicate<? super @Nonnull T> validator;
     private final @Nonnull Consumer<? super @Nonnull T> discarder;
@@ -25,12 +29,17 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
     // objects
     private final @Nonnull Map<@Nonnull T, @Nonnull Status> idleMap = new IdentityHashMap<>();
     private final @Nonnull Map<@Nonnull T, @Nonnull Status> activeMap = new IdentityHashMap<>();
+    // idle objects taken out by clean process
+    private final @Nonnull Map<@Nonnull T, @Nonnull Status> reservedMap = new IdentityHashMap<>();
     private volatile int totalSize;
+    // waiters, in FIFO order
+    private final @Nonnull ArrayDeque<@Nonnull Waiter<T>> waiters = new ArrayDeque<>();
+    private final @Nonnull PoolWaitStats waitStats = new PoolWaitStats();
     // close state
     private volatile boolean closed = false;
 
     SimplePoolImpl(
-        int coreSize, int maxSize, long idleTimeoutMillis,
+        int coreSize, int maxSize, long idleTimeoutMillis, boolean validateOnGet,
         @Nonnull Supplier<? extends @Nonnull T> supplier,
         @Nonnull Predicate<? super @Nonnull T> validator,
         @Nonnull Consumer<? super @Nonnull T> discarder
@@ -39,6 +48,7 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
         this.coreSize = coreSize;
         this.maxSize = maxSize;
         this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validateOnGet = validateOnGet;
         this.supplier = supplier;
         this.validator = validator;
         this.discarder = discarder;
@@ -67,7 +77,7 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
             while (idleIt.hasNext()) {
                 Map.Entry<T, Status> entry = idleIt.next();
                 T obj = entry.getKey();
-                if (!validator.test(obj)) {
+                if (validateOnGet && !validator.test(obj)) {
                     discarder.accept(obj);
                     idleIt.remove();
                     totalSize--;
@@ -97,6 +107,108 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
         return null;
     }
 
+    @Override
+    public @Nullable T get(@Nonnull Duration timeout) throws ObjectPoolException {
+        long timeoutNanos = timeoutNanos(timeout);
+        Waiter<T> waiter;
+        synchronized (this) {
+            T obj = get();
+            if (obj != null || timeoutNanos <= 0) {
+                return obj;
+            }
+            waiter = new Waiter<>(Thread.currentThread());
+            waiters.addLast(waiter);
+        }
+
+        // the released object is set to the waiter directly by the releasing thread
+        waitStats.startWaiting();
+        long start = System.nanoTime();
+        long deadline = start + timeoutNanos;
+        try {
+            while (true) {
+                T obj = waiter.obj;
+                if (obj != null) {
+                    waitStats.record(System.nanoTime() - start, false);
+                    return obj;
+                }
+                if (closed) {
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    T handed = cancel(waiter);
+                    if (handed != null) {
+                        release(handed);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new ObjectPoolException(
+                        "Interrupted while waiting for object from pool.", new InterruptedException()
+                    );
+                }
+            }
+            // timed out or closed, but the object may be handed off just now
+            T obj = cancel(waiter);
+            if (obj != null) {
+                waitStats.record(System.nanoTime() - start, false);
+                return obj;
+            }
+            checkClosed();
+            waitStats.record(System.nanoTime() - start, true);
+            return null;
+        } finally {
+            waitStats.endWaiting();
+        }
+    }
+
+    /**
+     * Returns the timeout in nanoseconds, the timeout too long to be represented is clamped to
+     * {@link Long#MAX_VALUE}, such as {@link java.time.temporal.ChronoUnit#FOREVER}.
+     */
+    static long timeoutNanos(@Nonnull Duration timeout) {
+        try {
+            return timeout.toNanos();
+        } catch (ArithmeticException e) {
+            return timeout.isNegative() ? 0 : Long.MAX_VALUE;
+        }
+    }
+
+    private synchronized @Nullable T cancel(@Nonnull Waiter<T> waiter) {
+        if (waiter.obj == null) {
+            waiters.remove(waiter);
+        }
+        return waiter.obj;
+    }
+
+    /**
+     * Hands off the object to the oldest waiter if any, returns {@code true} if the object is taken.
+     */
+    private boolean handOff(@Nonnull T obj, @Nonnull Status status) {
+        Waiter<T> waiter = waiters.pollFirst();
+        if (waiter == null) {
+            return false;
+        }
+        status.active();
+        activeMap.put(obj, status);
+        waiter.obj = obj;
+        LockSupport.unpark(waiter.thread);
+        return true;
+    }
+
+    /**
+     * Creates new objects for the waiters if the pool is not full.
+     */
+    private void fillWaiters() {
+        while (!waiters.isEmpty() && totalSize < maxSize) {
+            T obj = supplier.get();
+            totalSize++;
+            handOff(obj, new Status());
+        }
+    }
+
     @Override
     public synchronized boolean release(@Nonnull T obj) throws ObjectPoolException {
 
@@ -108,11 +220,14 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
                 return false;
             }
             if (validator.test(obj)) {
-                status.idle();
-                idleMap.put(obj, status);
+                if (!handOff(obj, status)) {
+                    status.idle();
+                    idleMap.put(obj, status);
+                }
             } else {
                 discarder.accept(obj);
                 totalSize--;
+                fillWaiters();
             }
             return true;
         } catch (Exception e) {
@@ -122,38 +237,88 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
     }
 
     @Override
-    public synchronized void clean() throws ObjectPoolException {
+    public void clean() throws ObjectPoolException {
 
         checkClosed();
 
         try {
-            Iterator<Map.Entry<T, Status>> idleIt = idleMap.entrySet().iterator();
-            while (idleIt.hasNext()) {
-                Map.Entry<T, Status> entry = idleIt.next();
-                T obj = entry.getKey();
-                if (!validator.test(obj)) {
-                    discarder.accept(obj);
-                    idleIt.remove();
-                    totalSize--;
-                    continue;
+            // validate the idle objects one by one out of the lock, so that the acquisitions are not blocked
+            List<T> candidates;
+            synchronized (this) {
+                candidates = new ArrayList<>(idleMap.keySet());
+            }
+            for (T obj : candidates) {
+                Status status;
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    status = idleMap.remove(obj);
+                    if (status == null) {
+                        // acquired by others
+                        continue;
+                    }
+                    reservedMap.put(obj, status);
                 }
-                if (totalSize > coreSize) {
-                    Status status = entry.getValue();
-                    if (status.isIdleTimeout()) {
+                boolean valid;
+                try {
+                    valid = validator.test(obj);
+                } catch (Exception e) {
+                    synchronized (this) {
+                        reservedMap.remove(obj);
+                        idleMap.put(obj, status);
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    reservedMap.remove(obj);
+                    if (closed) {
+                        discardAfterClosed(obj, status);
+                        return;
+                    }
+                    if (!valid || (totalSize > coreSize && status.isIdleTimeout())) {
                         discarder.accept(obj);
-                        idleIt.remove();
                         totalSize--;
+                    } else if (!handOff(obj, status)) {
+                        idleMap.put(obj, status);
                     }
                 }
             }
-            if (totalSize < coreSize) {
-                int newSize = coreSize - totalSize;
-                for (int i = 0; i < newSize; i++) {
-                    T obj = supplier.get();
-                    Status newStatus = new Status();
-                    idleMap.put(obj, newStatus);
+
+            // add new objects up to the core size, also out of the lock
+            while (true) {
+                synchronized (this) {
+                    if (closed || totalSize >= coreSize) {
+                        break;
+                    }
                     totalSize++;
                 }
+                T obj;
+                try {
+                    obj = supplier.get();
+                } catch (Exception e) {
+                    synchronized (this) {
+                        if (!closed) {
+                            totalSize--;
+                        }
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    Status newStatus = new Status();
+                    if (closed) {
+                        discardAfterClosed(obj, newStatus);
+                        return;
+                    }
+                    if (!handOff(obj, newStatus)) {
+                        idleMap.put(obj, newStatus);
+                    }
+                }
+            }
+            synchronized (this) {
+                if (!closed) {
+                    fillWaiters();
+                }
             }
         } catch (Exception e) {
             close();
@@ -161,6 +326,18 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
         }
     }
 
+    /**
+     * Discards the object which is taken out by clean process when the pool is closed, the object will be kept as
+     * unreleased object if failed to discard.
+     */
+    private void discardAfterClosed(@Nonnull T obj, @Nonnull Status status) {
+        try {
+            discarder.accept(obj);
+        } catch (Exception e) {
+            reservedMap.put(obj, status);
+        }
+    }
+
     @Override
     public synchronized void close() {
         if (closed) {
@@ -183,6 +360,11 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
         } finally {
             totalSize = 0;
             closed = true;
+            // wake up the waiters
+            for (Waiter<T> waiter : waiters) {
+                LockSupport.unpark(waiter.thread);
+            }
+            waiters.clear();
         }
     }
 
@@ -198,6 +380,7 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
         }
         List<T> list = new ArrayList<>(totalSize);
         list.addAll(idleMap.keySet());
+        list.addAll(reservedMap.keySet());
         list.addAll(activeMap.keySet());
         return list;
     }
@@ -209,7 +392,7 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
 
     @Override
     public synchronized int idleSize() {
-        return idleMap.size();
+        return idleMap.size() + reservedMap.size();
     }
 
     @Override
@@ -217,6 +400,11 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
         return activeMap.size();
     }
 
+    @Override
+    public @Nonnull WaitStats waitStats() {
+        return waitStats;
+    }
+
     private void checkClosed() throws ObjectPoolException {
         if (closed) {
             throw new ObjectPoolException("Pool is closed.");
@@ -239,4 +427,14 @@ final class SimplePoolImpl<T> implements SimplePool<T> {
             return lastReleaseTime + idleTimeoutMillis < System.currentTimeMillis();
         }
     }
+
+    private static final class Waiter<T> {
+
+        private final @Nonnull Thread thread;
+        private volatile @Nullable T obj;
+
+        private Waiter(@Nonnull Thread thread) {
+            this.thread = thread;
+        }
+    }
 }
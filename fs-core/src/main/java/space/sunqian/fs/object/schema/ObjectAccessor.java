@@ -0,0 +1,509 @@
+package space.sunqian.fs.object.schema;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.annotation.ThreadSafe;
+import space.sunqian.fs.invoke.Invocable;
+import space.sunqian.fs.invoke.InvocationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index-based accessor of the properties of an {@link ObjectSchema}. The index of a property is its
+ * {@link ObjectProperty#index()}, which is the position of the property in {@link ObjectSchema#properties()}.
+ * <p>
+ * This class provides untyped methods such as {@link #get(int, Object)} and {@link #set(int, Object, Object)}, and
+ * typed methods such as {@link #getInt(int, Object)} and {@link #setInt(int, Object, int)} which read and write the
+ * primitive properties without boxing if the accessor is generated. There are two kinds of accessors:
+ * <ul>
+ *     <li>
+ *         {@link #ofInvocables(ObjectSchema)}: accesses the properties by their {@link ObjectProperty#getter()} and
+ *         {@link ObjectProperty#setter()};
+ *     </li>
+ *     <li>
+ *         {@link #of(ObjectSchema)}: generates a class by <a href="https://asm.ow2.io/">ASM</a> for the type of the
+ *         schema, which directly calls the public {@link ObjectProperty#getterMethod()} and
+ *         {@link ObjectProperty#setterMethod()}. The properties that cannot be accessed directly are still accessed by
+ *         their getters and setters. The generated classes are cached and shared by the schemas of the same type and
+ *         the same accessor methods.
+ *     </li>
+ * </ul>
+ * The exceptions thrown from the getters and setters are wrapped by {@link InvocationException}, as
+ * {@link Invocable#invoke(Object, Object...)} does.
+ *
+ * @author sunqian
+ */
+@ThreadSafe
+public abstract class ObjectAccessor {
+
+    /**
+     * Returns a new accessor for the given schema, using a class generated by <a href="https://asm.ow2.io/">ASM</a> if
+     * the class generation is allowed for the type of the schema in current environment, otherwise using the getters
+     * and setters of the properties, which is same as {@link #ofInvocables(ObjectSchema)}.
+     * <p>
+     * Note it uses the built-in asm package: {@code space.sunqian.fs.asm}.
+     *
+     * @param schema the given schema
+     * @return a new accessor for the given schema
+     */
+    public static @Nonnull ObjectAccessor of(@Nonnull ObjectSchema schema) {
+        return ObjectAccessorBack.newAccessor(schema);
+    }
+
+    /**
+     * Returns a new accessor for the given schema, which accesses the properties by their
+     * {@link ObjectProperty#getter()} and {@link ObjectProperty#setter()}.
+     *
+     * @param schema the given schema
+     * @return a new accessor for the given schema, which accesses the properties by their getters and setters
+     */
+    public static @Nonnull ObjectAccessor ofInvocables(@Nonnull ObjectSchema schema) {
+        return ObjectAccessorBack.newInvocableAccessor(schema);
+    }
+
+    private final @Nonnull ObjectProperty @Nonnull [] properties;
+    private final @Nonnull List<@Nonnull ObjectProperty> propertyList;
+
+    /**
+     * Constructs with the properties in the order of their indexes.
+     *
+     * @param properties the properties in the order of their indexes
+     */
+    protected ObjectAccessor(@Nonnull ObjectProperty @Nonnull [] properties) {
+        this.properties = properties;
+        this.propertyList = Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    /**
+     * Returns the properties of this accessor in the order of their indexes.
+     *
+     * @return the properties of this accessor in the order of their indexes
+     */
+    public final @Nonnull List<@Nonnull ObjectProperty> properties() {
+        return propertyList;
+    }
+
+    /**
+     * Returns the property value at the specified index of the specified instance.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the property value at the specified index of the specified instance
+     * @throws DataSchemaException if the property is not readable
+     * @throws InvocationException if any other error occurs
+     */
+    public final @Nullable Object get(int index, @Nonnull Object inst) throws DataSchemaException, InvocationException {
+        try {
+            return get0(index, inst);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Sets the property value at the specified index of the specified instance.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws DataSchemaException if the property is not writable
+     * @throws InvocationException if any other error occurs
+     */
+    public final void set(
+        int index, @Nonnull Object inst, @Nullable Object value
+    ) throws DataSchemaException, InvocationException {
+        try {
+            set0(index, inst, value);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code int} property value at the specified index of the specified instance. The type of the
+     * property must be {@code int} or {@link Integer}, and a generated accessor reads the {@code int} property without
+     * boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code int} property value at the specified index of the specified instance
+     * @throws DataSchemaException if the property is not readable
+     * @throws InvocationException if any other error occurs
+     */
+    public final int getInt(int index, @Nonnull Object inst) throws DataSchemaException, InvocationException {
+        try {
+            return getInt0(index, inst);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code long} property value at the specified index of the specified instance. The type of the
+     * property must be {@code long} or {@link Long}, and a generated accessor reads the {@code long} property without
+     * boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code long} property value at the specified index of the specified instance
+     * @throws DataSchemaException if the property is not readable
+     * @throws InvocationException if any other error occurs
+     */
+    public final long getLong(int index, @Nonnull Object inst) throws DataSchemaException, InvocationException {
+        try {
+            return getLong0(index, inst);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code float} property value at the specified index of the specified instance. The type of the
+     * property must be {@code float} or {@link Float}, and a generated accessor reads the {@code float} property
+     * without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code float} property value at the specified index of the specified instance
+     * @throws DataSchemaException if the property is not readable
+     * @throws InvocationException if any other error occurs
+     */
+    public final float getFloat(int index, @Nonnull Object inst) throws DataSchemaException, InvocationException {
+        try {
+            return getFloat0(index, inst);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code double} property value at the specified index of the specified instance. The type of the
+     * property must be {@code double} or {@link Double}, and a generated accessor reads the {@code double} property
+     * without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code double} property value at the specified index of the specified instance
+     * @throws DataSchemaException if the property is not readable
+     * @throws InvocationException if any other error occurs
+     */
+    public final double getDouble(int index, @Nonnull Object inst) throws DataSchemaException, InvocationException {
+        try {
+            return getDouble0(index, inst);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the {@code boolean} property value at the specified index of the specified instance. The type of the
+     * property must be {@code boolean} or {@link Boolean}, and a generated accessor reads the {@code boolean} property
+     * without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code boolean} property value at the specified index of the specified instance
+     * @throws DataSchemaException if the property is not readable
+     * @throws InvocationException if any other error occurs
+     */
+    public final boolean getBoolean(int index, @Nonnull Object inst) throws DataSchemaException, InvocationException {
+        try {
+            return getBoolean0(index, inst);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Sets the {@code int} property value at the specified index of the specified instance. The type of the property
+     * must be {@code int} or {@link Integer}, and a generated accessor writes the {@code int} property without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws DataSchemaException if the property is not writable
+     * @throws InvocationException if any other error occurs
+     */
+    public final void setInt(int index, @Nonnull Object inst, int value) throws DataSchemaException, InvocationException {
+        try {
+            setInt0(index, inst, value);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Sets the {@code long} property value at the specified index of the specified instance. The type of the property
+     * must be {@code long} or {@link Long}, and a generated accessor writes the {@code long} property without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws DataSchemaException if the property is not writable
+     * @throws InvocationException if any other error occurs
+     */
+    public final void setLong(
+        int index, @Nonnull Object inst, long value
+    ) throws DataSchemaException, InvocationException {
+        try {
+            setLong0(index, inst, value);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Sets the {@code float} property value at the specified index of the specified instance. The type of the property
+     * must be {@code float} or {@link Float}, and a generated accessor writes the {@code float} property without
+     * boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws DataSchemaException if the property is not writable
+     * @throws InvocationException if any other error occurs
+     */
+    public final void setFloat(
+        int index, @Nonnull Object inst, float value
+    ) throws DataSchemaException, InvocationException {
+        try {
+            setFloat0(index, inst, value);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Sets the {@code double} property value at the specified index of the specified instance. The type of the
+     * property must be {@code double} or {@link Double}, and a generated accessor writes the {@code double} property
+     * without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws DataSchemaException if the property is not writable
+     * @throws InvocationException if any other error occurs
+     */
+    public final void setDouble(
+        int index, @Nonnull Object inst, double value
+    ) throws DataSchemaException, InvocationException {
+        try {
+            setDouble0(index, inst, value);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Sets the {@code boolean} property value at the specified index of the specified instance. The type of the
+     * property must be {@code boolean} or {@link Boolean}, and a generated accessor writes the {@code boolean} property
+     * without boxing.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws DataSchemaException if the property is not writable
+     * @throws InvocationException if any other error occurs
+     */
+    public final void setBoolean(
+        int index, @Nonnull Object inst, boolean value
+    ) throws DataSchemaException, InvocationException {
+        try {
+            setBoolean0(index, inst, value);
+        } catch (DataSchemaException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationException(e);
+        }
+    }
+
+    /**
+     * Returns the property value at the specified index of the specified instance, and directly throws any exception
+     * thrown from the underlying getter. The default implementation invokes {@link ObjectProperty#getter()}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the property value at the specified index of the specified instance
+     * @throws Throwable the exception directly thrown from the underlying getter
+     */
+    protected @Nullable Object get0(int index, @Nonnull Object inst) throws Throwable {
+        ObjectProperty property = properties[index];
+        Invocable getter = property.getter();
+        if (getter == null) {
+            throw new DataSchemaException("The property is not readable: " + property.name() + ".");
+        }
+        return getter.invokeDirectly0(inst);
+    }
+
+    /**
+     * Sets the property value at the specified index of the specified instance, and directly throws any exception
+     * thrown from the underlying setter. The default implementation invokes {@link ObjectProperty#setter()}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws Throwable the exception directly thrown from the underlying setter
+     */
+    protected void set0(int index, @Nonnull Object inst, @Nullable Object value) throws Throwable {
+        ObjectProperty property = properties[index];
+        Invocable setter = property.setter();
+        if (setter == null) {
+            throw new DataSchemaException("The property is not writable: " + property.name() + ".");
+        }
+        setter.invokeDirectly1(inst, value);
+    }
+
+    /**
+     * Returns the {@code int} property value, the default implementation unboxes the value from
+     * {@link #get0(int, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code int} property value
+     * @throws Throwable the exception directly thrown from the underlying getter
+     */
+    protected int getInt0(int index, @Nonnull Object inst) throws Throwable {
+        return (Integer) get0(index, inst);
+    }
+
+    /**
+     * Returns the {@code long} property value, the default implementation unboxes the value from
+     * {@link #get0(int, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code long} property value
+     * @throws Throwable the exception directly thrown from the underlying getter
+     */
+    protected long getLong0(int index, @Nonnull Object inst) throws Throwable {
+        return (Long) get0(index, inst);
+    }
+
+    /**
+     * Returns the {@code float} property value, the default implementation unboxes the value from
+     * {@link #get0(int, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code float} property value
+     * @throws Throwable the exception directly thrown from the underlying getter
+     */
+    protected float getFloat0(int index, @Nonnull Object inst) throws Throwable {
+        return (Float) get0(index, inst);
+    }
+
+    /**
+     * Returns the {@code double} property value, the default implementation unboxes the value from
+     * {@link #get0(int, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code double} property value
+     * @throws Throwable the exception directly thrown from the underlying getter
+     */
+    protected double getDouble0(int index, @Nonnull Object inst) throws Throwable {
+        return (Double) get0(index, inst);
+    }
+
+    /**
+     * Returns the {@code boolean} property value, the default implementation unboxes the value from
+     * {@link #get0(int, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @return the {@code boolean} property value
+     * @throws Throwable the exception directly thrown from the underlying getter
+     */
+    protected boolean getBoolean0(int index, @Nonnull Object inst) throws Throwable {
+        return (Boolean) get0(index, inst);
+    }
+
+    /**
+     * Sets the {@code int} property value, the default implementation boxes the value and passes it to
+     * {@link #set0(int, Object, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws Throwable the exception directly thrown from the underlying setter
+     */
+    protected void setInt0(int index, @Nonnull Object inst, int value) throws Throwable {
+        set0(index, inst, value);
+    }
+
+    /**
+     * Sets the {@code long} property value, the default implementation boxes the value and passes it to
+     * {@link #set0(int, Object, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws Throwable the exception directly thrown from the underlying setter
+     */
+    protected void setLong0(int index, @Nonnull Object inst, long value) throws Throwable {
+        set0(index, inst, value);
+    }
+
+    /**
+     * Sets the {@code float} property value, the default implementation boxes the value and passes it to
+     * {@link #set0(int, Object, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws Throwable the exception directly thrown from the underlying setter
+     */
+    protected void setFloat0(int index, @Nonnull Object inst, float value) throws Throwable {
+        set0(index, inst, value);
+    }
+
+    /**
+     * Sets the {@code double} property value, the default implementation boxes the value and passes it to
+     * {@link #set0(int, Object, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws Throwable the exception directly thrown from the underlying setter
+     */
+    protected void setDouble0(int index, @Nonnull Object inst, double value) throws Throwable {
+        set0(index, inst, value);
+    }
+
+    /**
+     * Sets the {@code boolean} property value, the default implementation boxes the value and passes it to
+     * {@link #set0(int, Object, Object)}.
+     *
+     * @param index the specified index
+     * @param inst  the specified instance
+     * @param value the property value
+     * @throws Throwable the exception directly thrown from the underlying setter
+     */
+    protected void setBoolean0(int index, @Nonnull Object inst, boolean value) throws Throwable {
+        set0(index, inst, value);
+    }
+}
@@ -0,0 +1,350 @@
+package space.sunqian.fs.object.schema;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.asm.ClassWriter;
+import space.sunqian.fs.asm.Label;
+import space.sunqian.fs.asm.MethodVisitor;
+import space.sunqian.fs.asm.Opcodes;
+import space.sunqian.fs.base.system.JvmKit;
+import space.sunqian.fs.base.value.SimpleKey;
+import space.sunqian.fs.cache.SimpleCache;
+import space.sunqian.fs.dynamic.DynamicClassLoader;
+import space.sunqian.fs.reflect.TypeKit;
+import space.sunqian.fs.third.asm.AsmKit;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+final class ObjectAccessorBack {
+
+    private static final @Nonnull String ACCESSOR_NAME = JvmKit.toInternalName(ObjectAccessor.class);
+    private static final @Nonnull String OBJECT_DESC = JvmKit.toDescriptor(Object.class);
+    private static final @Nonnull String CONSTRUCTOR_DESC =
+        "(" + JvmKit.toDescriptor(ObjectProperty[].class) + ")V";
+    private static final @Nonnull String @Nonnull [] EXCEPTIONS = {JvmKit.toInternalName(Throwable.class)};
+
+    // primitive types which have typed accessor methods, and the infixes of the names of the methods
+    private static final @Nonnull Class<?> @Nonnull [] TYPED = {
+        int.class, long.class, float.class, double.class, boolean.class
+    };
+    private static final @Nonnull String @Nonnull [] TYPED_NAMES = {
+        "Int", "Long", "Float", "Double", "Boolean"
+    };
+
+    // locals of the accessor methods
+    private static final int INDEX_INDEX = 1;
+    private static final int INST_INDEX = 2;
+    private static final int VALUE_INDEX = 3;
+
+    // generated classes, keyed by the type and the directly called methods; null if the generation is not allowed
+    private static final @Nonnull SimpleCache<@Nonnull SimpleKey, @Nullable Class<?>> CLASSES = SimpleCache.ofSoft();
+
+    static @Nonnull ObjectAccessor newInvocableAccessor(@Nonnull ObjectSchema schema) {
+        return new InvocableAccessor(toArray(schema));
+    }
+
+    static @Nonnull ObjectAccessor newAccessor(@Nonnull ObjectSchema schema) {
+        ObjectProperty[] properties = toArray(schema);
+        Class<?> type = TypeKit.getRawClass(schema.type());
+        if (type == null || !Modifier.isPublic(type.getModifiers())) {
+            return new InvocableAccessor(properties);
+        }
+        Object[] keyElements = new Object[properties.length * 2 + 1];
+        keyElements[0] = type;
+        boolean hasDirect = false;
+        for (int i = 0; i < properties.length; i++) {
+            Method getter = directGetter(properties[i]);
+            Method setter = directSetter(properties[i]);
+            keyElements[i * 2 + 1] = getter;
+            keyElements[i * 2 + 2] = setter;
+            hasDirect |= getter != null || setter != null;
+        }
+        if (!hasDirect) {
+            return new InvocableAccessor(properties);
+        }
+        Class<?> cls = CLASSES.get(SimpleKey.of(keyElements), k -> generateClass(type, keyElements));
+        if (cls == null) {
+            return new InvocableAccessor(properties);
+        }
+        try {
+            return (ObjectAccessor) cls.getConstructor(ObjectProperty[].class).newInstance((Object) properties);
+        } catch (Exception e) {
+            return new InvocableAccessor(properties);
+        }
+    }
+
+    private static @Nonnull ObjectProperty @Nonnull [] toArray(@Nonnull ObjectSchema schema) {
+        return schema.properties().values().toArray(new ObjectProperty[0]);
+    }
+
+    private static @Nullable Method directGetter(@Nonnull ObjectProperty property) {
+        Method getter = property.getterMethod();
+        if (getter == null
+            || !Modifier.isPublic(getter.getModifiers())
+            || Modifier.isStatic(getter.getModifiers())
+            || getter.getParameterCount() != 0
+            || getter.getReturnType().equals(void.class)
+        ) {
+            return null;
+        }
+        return getter;
+    }
+
+    private static @Nullable Method directSetter(@Nonnull ObjectProperty property) {
+        Method setter = property.setterMethod();
+        if (setter == null
+            || !Modifier.isPublic(setter.getModifiers())
+            || Modifier.isStatic(setter.getModifiers())
+            || setter.getParameterCount() != 1
+            || !isPublicType(setter.getParameterTypes()[0])
+        ) {
+            return null;
+        }
+        return setter;
+    }
+
+    // the generated class casts the value to the parameter type of the setter, so the parameter type must be public
+    private static boolean isPublicType(@Nonnull Class<?> type) {
+        Class<?> cur = type;
+        while (cur.isArray()) {
+            cur = cur.getComponentType();
+        }
+        return cur.isPrimitive() || Modifier.isPublic(cur.getModifiers());
+    }
+
+    private static @Nullable Class<?> generateClass(@Nonnull Class<?> type, @Nullable Object @Nonnull [] keyElements) {
+        // the generated class must see both the type and the ObjectAccessor
+        ClassLoader fsLoader = ObjectAccessor.class.getClassLoader();
+        ClassLoader parent = type.getClassLoader();
+        if (parent == null) {
+            parent = fsLoader;
+        } else if (parent != fsLoader && !isVisible(parent, ObjectAccessor.class)) {
+            return null;
+        }
+        int count = (keyElements.length - 1) / 2;
+        Method[] getters = new Method[count];
+        Method[] setters = new Method[count];
+        for (int i = 0; i < count; i++) {
+            getters[i] = (Method) keyElements[i * 2 + 1];
+            setters[i] = (Method) keyElements[i * 2 + 2];
+        }
+        try {
+            byte[] bytecode = generate(type, getters, setters);
+            return new DynamicClassLoader(parent).loadClass(null, bytecode);
+        } catch (Exception | LinkageError e) {
+            // for example, defining class is forbidden in the current environment
+            return null;
+        }
+    }
+
+    private static boolean isVisible(@Nullable ClassLoader loader, @Nonnull Class<?> cls) {
+        try {
+            return Class.forName(cls.getName(), false, loader) == cls;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static byte @Nonnull [] generate(
+        @Nonnull Class<?> type,
+        @Nullable Method @Nonnull [] getters,
+        @Nullable Method @Nonnull [] setters
+    ) {
+        String className = AsmKit.newClassInternalName(ObjectAccessorBack.class.getPackage());
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(
+            Opcodes.V1_8,
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+            className,
+            null,
+            ACCESSOR_NAME,
+            null
+        );
+        {
+            MethodVisitor visitor = classWriter.visitMethod(
+                Opcodes.ACC_PUBLIC,
+                AsmKit.CONSTRUCTOR_NAME,
+                CONSTRUCTOR_DESC,
+                null,
+                null
+            );
+            visitor.visitVarInsn(Opcodes.ALOAD, 0);
+            visitor.visitVarInsn(Opcodes.ALOAD, 1);
+            visitor.visitMethodInsn(
+                Opcodes.INVOKESPECIAL,
+                ACCESSOR_NAME,
+                AsmKit.CONSTRUCTOR_NAME,
+                CONSTRUCTOR_DESC,
+                false
+            );
+            visitor.visitInsn(Opcodes.RETURN);
+            visitor.visitMaxs(0, 0);
+            visitor.visitEnd();
+        }
+        String typeName = JvmKit.toInternalName(type);
+        generateGetter(classWriter, type, typeName, getters, null, "get0");
+        generateSetter(classWriter, type, typeName, setters, null, "set0");
+        for (int i = 0; i < TYPED.length; i++) {
+            generateGetter(classWriter, type, typeName, getters, TYPED[i], "get" + TYPED_NAMES[i] + "0");
+            generateSetter(classWriter, type, typeName, setters, TYPED[i], "set" + TYPED_NAMES[i] + "0");
+        }
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Overrides the getter method of the given name, which switches on the index and calls the getter methods of
+     * which return types are the given primitive type (or any type if it is {@code null}) directly, and calls the
+     * super method for other indexes.
+     */
+    private static void generateGetter(
+        @Nonnull ClassWriter classWriter,
+        @Nonnull Class<?> type,
+        @Nonnull String typeName,
+        @Nullable Method @Nonnull [] getters,
+        @Nullable Class<?> primitive,
+        @Nonnull String methodName
+    ) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < getters.length; i++) {
+            Method getter = getters[i];
+            if (getter != null && (primitive == null || getter.getReturnType().equals(primitive))) {
+                indexes.add(i);
+            }
+        }
+        if (indexes.isEmpty()) {
+            return;
+        }
+        Class<?> returnType = primitive == null ? Object.class : primitive;
+        String descriptor = "(I" + OBJECT_DESC + ")" + JvmKit.toDescriptor(returnType);
+        MethodVisitor visitor = classWriter.visitMethod(
+            Opcodes.ACC_PROTECTED,
+            methodName,
+            descriptor,
+            null,
+            EXCEPTIONS
+        );
+        Label defaultLabel = new Label();
+        Label[] labels = visitSwitch(visitor, indexes, defaultLabel);
+        for (int i = 0; i < labels.length; i++) {
+            Method getter = getters[indexes.get(i)];
+            visitor.visitLabel(labels[i]);
+            visitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            // return ((T) inst).getXxx();
+            visitor.visitVarInsn(Opcodes.ALOAD, INST_INDEX);
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, typeName);
+            AsmKit.invokeVirtual(visitor, typeName, getter.getName(), JvmKit.toDescriptor(getter), type.isInterface());
+            if (primitive == null) {
+                AsmKit.wrapToObject(visitor, getter.getReturnType());
+            }
+            AsmKit.visitReturn(visitor, returnType, false, false);
+        }
+        // return super.getXxx0(index, inst);
+        visitor.visitLabel(defaultLabel);
+        visitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitVarInsn(Opcodes.ILOAD, INDEX_INDEX);
+        visitor.visitVarInsn(Opcodes.ALOAD, INST_INDEX);
+        visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, ACCESSOR_NAME, methodName, descriptor, false);
+        AsmKit.visitReturn(visitor, returnType, false, false);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    /**
+     * Overrides the setter method of the given name, which switches on the index and calls the setter methods of
+     * which parameter types are the given primitive type (or any type if it is {@code null}) directly, and calls the
+     * super method for other indexes.
+     */
+    private static void generateSetter(
+        @Nonnull ClassWriter classWriter,
+        @Nonnull Class<?> type,
+        @Nonnull String typeName,
+        @Nullable Method @Nonnull [] setters,
+        @Nullable Class<?> primitive,
+        @Nonnull String methodName
+    ) {
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < setters.length; i++) {
+            Method setter = setters[i];
+            if (setter != null && (primitive == null || setter.getParameterTypes()[0].equals(primitive))) {
+                indexes.add(i);
+            }
+        }
+        if (indexes.isEmpty()) {
+            return;
+        }
+        Class<?> valueType = primitive == null ? Object.class : primitive;
+        String descriptor = "(I" + OBJECT_DESC + JvmKit.toDescriptor(valueType) + ")V";
+        MethodVisitor visitor = classWriter.visitMethod(
+            Opcodes.ACC_PROTECTED,
+            methodName,
+            descriptor,
+            null,
+            EXCEPTIONS
+        );
+        Label defaultLabel = new Label();
+        Label[] labels = visitSwitch(visitor, indexes, defaultLabel);
+        for (int i = 0; i < labels.length; i++) {
+            Method setter = setters[indexes.get(i)];
+            visitor.visitLabel(labels[i]);
+            visitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+            // ((T) inst).setXxx(value);
+            visitor.visitVarInsn(Opcodes.ALOAD, INST_INDEX);
+            visitor.visitTypeInsn(Opcodes.CHECKCAST, typeName);
+            AsmKit.visitLoad(visitor, valueType, VALUE_INDEX);
+            if (primitive == null) {
+                AsmKit.convertObjectTo(visitor, setter.getParameterTypes()[0]);
+            }
+            AsmKit.invokeVirtual(visitor, typeName, setter.getName(), JvmKit.toDescriptor(setter), type.isInterface());
+            // discards the return value of the setter, if any
+            Class<?> setterReturnType = setter.getReturnType();
+            if (setterReturnType.equals(long.class) || setterReturnType.equals(double.class)) {
+                visitor.visitInsn(Opcodes.POP2);
+            } else if (!setterReturnType.equals(void.class)) {
+                visitor.visitInsn(Opcodes.POP);
+            }
+            visitor.visitInsn(Opcodes.RETURN);
+        }
+        // super.setXxx0(index, inst, value);
+        visitor.visitLabel(defaultLabel);
+        visitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitVarInsn(Opcodes.ILOAD, INDEX_INDEX);
+        visitor.visitVarInsn(Opcodes.ALOAD, INST_INDEX);
+        AsmKit.visitLoad(visitor, valueType, VALUE_INDEX);
+        visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, ACCESSOR_NAME, methodName, descriptor, false);
+        visitor.visitInsn(Opcodes.RETURN);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    private static @Nonnull Label @Nonnull [] visitSwitch(
+        @Nonnull MethodVisitor visitor,
+        @Nonnull List<@Nonnull Integer> indexes,
+        @Nonnull Label defaultLabel
+    ) {
+        int[] keys = new int[indexes.size()];
+        Label[] labels = new Label[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = indexes.get(i);
+            labels[i] = new Label();
+        }
+        visitor.visitVarInsn(Opcodes.ILOAD, INDEX_INDEX);
+        visitor.visitLookupSwitchInsn(defaultLabel, keys, labels);
+        return labels;
+    }
+
+    private static final class InvocableAccessor extends ObjectAccessor {
+
+        private InvocableAccessor(@Nonnull ObjectProperty @Nonnull [] properties) {
+            super(properties);
+        }
+    }
+
+    private ObjectAccessorBack() {
+    }
+}
@@ -29,6 +29,24 @@ public interface ObjectProperty extends ObjectPropertyBase {
     @Nonnull
     ObjectSchema owner();
 
+    /**
+     * Returns the index of this property, which is the position of this property in {@link ObjectSchema#properties()}
+     * of its owner. The index is used to access this property by {@link ObjectSchema#accessor()}.
+     *
+     * @return the index of this property
+     * @implNote The default implementation searches this property in {@link ObjectSchema#properties()} of its owner.
+     */
+    default int index() {
+        int index = 0;
+        for (ObjectProperty property : owner().properties().values()) {
+            if (property.name().equals(name())) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
     /**
      * Returns whether this property is readable.
      *
@@ -65,6 +65,19 @@ public interface ObjectSchema extends DataSchema {
         return properties().get(name);
     }
 
+    /**
+     * Returns the {@link ObjectAccessor} which accesses the properties of this {@link ObjectSchema} by their
+     * {@link ObjectProperty#index()}.
+     *
+     * @return the {@link ObjectAccessor} which accesses the properties of this {@link ObjectSchema}
+     * @implNote The default implementation returns a new accessor from {@link ObjectAccessor#ofInvocables(ObjectSchema)}
+     * for each invocation. The schemas parsed by the built-in {@link ObjectSchemaParser}s create the accessor once, by
+     * {@link ObjectAccessor#of(ObjectSchema)} if {@link ObjectSchemaParser#generatesAccessors()} returns {@code true}.
+     */
+    default @Nonnull ObjectAccessor accessor() {
+        return ObjectAccessor.ofInvocables(this);
+    }
+
     @Override
     default boolean isMapSchema() {
         return false;
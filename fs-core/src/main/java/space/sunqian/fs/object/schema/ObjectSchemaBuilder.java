@@ -43,6 +43,7 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
         private final @Nonnull ObjectSchemaParser parser;
         private final @Nonnull Type type;
         private final @Nonnull Map<@Nonnull String, @Nonnull ObjectProperty> properties;
+        private volatile @Nullable ObjectAccessor accessor;
 
         private ObjectSchemaImpl(
             @Nonnull ObjectSchemaParser parser,
@@ -52,7 +53,7 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
             this.parser = parser;
             this.type = type;
             Map<@Nonnull String, @Nonnull ObjectProperty> props = new LinkedHashMap<>();
-            propBases.forEach((name, propBase) -> props.put(name, new PropertyImpl(propBase)));
+            propBases.forEach((name, propBase) -> props.put(name, new PropertyImpl(propBase, props.size())));
             this.properties = Collections.unmodifiableMap(props);
         }
 
@@ -71,6 +72,20 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
             return properties;
         }
 
+        @Override
+        public @Nonnull ObjectAccessor accessor() {
+            ObjectAccessor accessor = this.accessor;
+            if (accessor == null) {
+                // racing threads may create different accessors, any of them is fine
+                accessor = parser.generatesAccessors() ?
+                    ObjectAccessor.of(this)
+                    :
+                    ObjectAccessor.ofInvocables(this);
+                this.accessor = accessor;
+            }
+            return accessor;
+        }
+
         @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
         @Override
         public boolean equals(Object o) {
@@ -90,6 +105,7 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
         private final class PropertyImpl implements ObjectProperty {
 
             private final @Nonnull String name;
+            private final int index;
             private final @Nonnull Type type;
             private final @Nullable Method getterMethod;
             private final @Nullable Method setterMethod;
@@ -102,8 +118,9 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
             private final @Nonnull List<@Nonnull Annotation> getterAnnotations;
             private final @Nonnull List<@Nonnull Annotation> setterAnnotations;
 
-            private PropertyImpl(@Nonnull ObjectPropertyBase propertyBase) {
+            private PropertyImpl(@Nonnull ObjectPropertyBase propertyBase, int index) {
                 this.name = propertyBase.name();
+                this.index = index;
                 this.type = propertyBase.type();
                 this.getterMethod = propertyBase.getterMethod();
                 this.setterMethod = propertyBase.setterMethod();
@@ -128,6 +145,11 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
                 return name;
             }
 
+            @Override
+            public int index() {
+                return index;
+            }
+
             @Override
             public @Nonnull Type type() {
                 return type;
@@ -158,6 +180,16 @@ final class ObjectSchemaBuilder implements ObjectSchemaParser.Context {
                 return setter;
             }
 
+            @Override
+            public @Nullable Object getValue(@Nonnull Object inst) throws DataSchemaException {
+                return accessor().get(index, inst);
+            }
+
+            @Override
+            public void setValue(@Nonnull Object inst, @Nullable Object value) throws DataSchemaException {
+                accessor().set(index, inst, value);
+            }
+
             @Override
             public @Nonnull List<@Nonnull Annotation> fieldAnnotations() {
                 return fieldAnnotations;
@@ -79,7 +79,24 @@ public interface ObjectSchemaParser {
      * @return a new {@link ObjectSchemaParser} with given handlers
      */
     static @Nonnull ObjectSchemaParser newParser(@Nonnull @RetainedParam List<@Nonnull Handler> handlers) {
-        return ObjectSchemaParserBack.newParser(handlers);
+        return ObjectSchemaParserBack.newParser(handlers, true);
+    }
+
+    /**
+     * Creates and returns a new {@link ObjectSchemaParser} with given handlers, and specifies whether the parsed
+     * schemas generate their {@link ObjectSchema#accessor()} (see {@link #generatesAccessors()}).
+     * <p>
+     * Note the created {@link ObjectSchemaParser} never caches the parsed results.
+     *
+     * @param handlers           given handlers
+     * @param generatesAccessors whether the parsed schemas generate their accessors
+     * @return a new {@link ObjectSchemaParser} with given handlers
+     */
+    static @Nonnull ObjectSchemaParser newParser(
+        @Nonnull @RetainedParam List<@Nonnull Handler> handlers,
+        boolean generatesAccessors
+    ) {
+        return ObjectSchemaParserBack.newParser(handlers, generatesAccessors);
     }
 
     /**
@@ -130,6 +147,23 @@ public interface ObjectSchemaParser {
         }
     }
 
+    /**
+     * Returns whether the {@link ObjectSchema}s parsed by this parser generate their {@link ObjectSchema#accessor()}
+     * by {@link ObjectAccessor#of(ObjectSchema)}. If {@code true}, the accessor of a parsed schema calls the public
+     * {@link ObjectProperty#getterMethod()} and {@link ObjectProperty#setterMethod()} directly, otherwise, it invokes
+     * {@link ObjectProperty#getter()} and {@link ObjectProperty#setter()}. Both {@link ObjectProperty#getValue(Object)}
+     * and {@link ObjectProperty#setValue(Object, Object)} of the parsed properties use the accessor.
+     * <p>
+     * Note if this method returns {@code true}, the handlers of this parser should guarantee that the getter/setter of
+     * a property calls the getter/setter method of the property, if the method is not {@code null}.
+     *
+     * @return whether the {@link ObjectSchema}s parsed by this parser generate their accessors
+     * @implNote The default implementation returns {@code true}.
+     */
+    default boolean generatesAccessors() {
+        return true;
+    }
+
     /**
      * Returns all handlers of this {@link ObjectSchemaParser}.
      *
@@ -23,9 +23,10 @@ final class ObjectSchemaParserBack {
     }
 
     static @Nonnull ObjectSchemaParser newParser(
-        @Nonnull @RetainedParam List<ObjectSchemaParser.@Nonnull Handler> handlers
+        @Nonnull @RetainedParam List<ObjectSchemaParser.@Nonnull Handler> handlers,
+        boolean generatesAccessors
     ) {
-        return new ObjectSchemaParserImpl(handlers);
+        return new ObjectSchemaParserImpl(handlers, generatesAccessors);
     }
 
     static @Nonnull ObjectSchemaParserBack.CachedObjectSchemaParser newCachedParser(
@@ -46,12 +47,22 @@ final class ObjectSchemaParserBack {
                 RecordSchemaHandler::getInstance, RecordSchemaHandler.class.getName() + "ImplByJ16"
             ),
             CommonSchemaHandler.getInstance()
-        ));
+        ), true);
 
         private final @Nonnull List<@Nonnull Handler> handlers;
+        private final boolean generatesAccessors;
 
-        private ObjectSchemaParserImpl(@Nonnull @RetainedParam List<@Nonnull Handler> handlers) {
+        private ObjectSchemaParserImpl(
+            @Nonnull @RetainedParam List<@Nonnull Handler> handlers,
+            boolean generatesAccessors
+        ) {
             this.handlers = handlers;
+            this.generatesAccessors = generatesAccessors;
+        }
+
+        @Override
+        public boolean generatesAccessors() {
+            return generatesAccessors;
         }
 
         @Override
@@ -98,6 +109,11 @@ final class ObjectSchemaParserBack {
             return cache.get(type, parser::parse);
         }
 
+        @Override
+        public boolean generatesAccessors() {
+            return parser.generatesAccessors();
+        }
+
         @Override
         public @Nonnull List<@Nonnull Handler> handlers() {
             return parser.handlers();
@@ -82,4 +82,10 @@ public class ProtobufConvertHandler implements ObjectConverter.Handler {
         }
         return ObjectConverter.Status.HANDLER_CONTINUE;
     }
+
+    @Override
+    public boolean isStable() {
+        // depends on the class of the source object and the types only, subclasses may change the behavior
+        return getClass() == ProtobufConvertHandler.class;
+    }
 }
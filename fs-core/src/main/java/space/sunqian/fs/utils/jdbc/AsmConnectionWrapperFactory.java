@@ -14,17 +14,49 @@ import space.sunqian.fs.object.pool.SimplePool;
 import space.sunqian.fs.reflect.TypeRef;
 import space.sunqian.fs.third.asm.AsmKit;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 final class AsmConnectionWrapperFactory {
 
     static final @Nonnull SimpleJdbcPool.ConnectionWrapperFactory INST = AsmGenerator.newWrapperFactory();
 
+    // (PreparedStatement, StatementCache, Object)PreparedStatement
+    private static final @Nonnull MethodHandle STATEMENT_CONSTRUCTOR = AsmGenerator.newStatementConstructor();
+
+    /**
+     * Wraps the statement checked out from the statement cache, closing the returned statement releases the underlying
+     * statement to the cache by {@link SimpleJdbcPool.StatementCache#release(Object, PreparedStatement)}.
+     *
+     * @param statement      the underlying statement
+     * @param statementCache the statement cache
+     * @param key            the key of the statement
+     * @return the wrapped statement
+     */
+    static @Nonnull PreparedStatement wrapStatement(
+        @Nonnull PreparedStatement statement,
+        @Nonnull SimpleJdbcPool.StatementCache statementCache,
+        @Nonnull Object key
+    ) {
+        try {
+            return (PreparedStatement) STATEMENT_CONSTRUCTOR.invokeExact(statement, statementCache, key);
+        } catch (Throwable e) {
+            // never happens
+            throw new SqlRuntimeException(e);
+        }
+    }
+
     private AsmConnectionWrapperFactory() {
     }
 
@@ -32,6 +64,7 @@ final class AsmConnectionWrapperFactory {
 
         private static final @Nonnull String POOLED_NAME = buildClassName("PooledConnection");
         private static final @Nonnull String PROVIDER_NAME = buildClassName("PooledConnectionWrapperFactory");
+        private static final @Nonnull String STATEMENT_NAME = buildClassName("CachedStatement");
         // Connection
         private static final @Nonnull String CONNECTION_INTERNAL_NAME = JvmKit.toInternalName(Connection.class);
         private static final @Nonnull String CONNECTION_DESCRIPTOR = JvmKit.toDescriptor(Connection.class);
@@ -39,6 +72,12 @@ final class AsmConnectionWrapperFactory {
         private static final @Nonnull String POOL_INTERNAL_NAME = JvmKit.toInternalName(SimplePool.class);
         private static final @Nonnull String POOL_DESCRIPTOR = JvmKit.toDescriptor(SimplePool.class);
         private static final @Nullable String POOL_SIGNATURE = JvmKit.toSignature(new TypeRef<SimplePool<Connection>>() {}.type());
+        // PreparedStatement
+        private static final @Nonnull String PREPARED_INTERNAL_NAME = JvmKit.toInternalName(PreparedStatement.class);
+        private static final @Nonnull String PREPARED_DESCRIPTOR = JvmKit.toDescriptor(PreparedStatement.class);
+        // StatementCache
+        private static final @Nonnull String CACHE_INTERNAL_NAME = JvmKit.toInternalName(SimpleJdbcPool.StatementCache.class);
+        private static final @Nonnull String CACHE_DESCRIPTOR = JvmKit.toDescriptor(SimpleJdbcPool.StatementCache.class);
         // Exceptions
         private static final @Nonnull String SQL_EXCEPTION_INTERNAL_NAME = JvmKit.toInternalName(SQLException.class);
         private static final @Nonnull String SQL_CLIENT_EXCEPTION_INTERNAL_NAME = JvmKit.toInternalName(SQLClientInfoException.class);
@@ -49,9 +88,19 @@ final class AsmConnectionWrapperFactory {
         private static final @Nonnull String PROVIDER_DESCRIPTOR = JvmKit.toDescriptor(SimpleJdbcPool.ConnectionWrapperFactory.class);
         // Others
         private static final @Nonnull String STRING_DESCRIPTOR = JvmKit.toDescriptor(String.class);
+        private static final @Nonnull String OBJECT_DESCRIPTOR = JvmKit.toDescriptor(Object.class);
+        // descriptors of the prepareStatement methods which are cached
+        private static final @Nonnull Set<@Nonnull String> CACHED_DESCRIPTORS = cachedDescriptors();
         // fields
         private static final @Nonnull String FIELD_DELEGATE = "delegate";
         private static final @Nonnull String FIELD_POOL = "pool";
+        private static final @Nonnull String FIELD_CACHE = "statementCache";
+        private static final @Nonnull String FIELD_KEY = "key";
+        // constructor descriptors
+        private static final @Nonnull String POOLED_CONSTRUCTOR_DESCRIPTOR =
+            "(" + CONNECTION_DESCRIPTOR + POOL_DESCRIPTOR + CACHE_DESCRIPTOR + ")V";
+        private static final @Nonnull String STATEMENT_CONSTRUCTOR_DESCRIPTOR =
+            "(" + PREPARED_DESCRIPTOR + CACHE_DESCRIPTOR + OBJECT_DESCRIPTOR + ")V";
 
         static SimpleJdbcPool.ConnectionWrapperFactory newWrapperFactory() throws SqlRuntimeException {
             byte[] pooledBytes = PooledAsm.bytecode();
@@ -65,6 +114,32 @@ final class AsmConnectionWrapperFactory {
             return (SimpleJdbcPool.ConnectionWrapperFactory) inst;
         }
 
+        static @Nonnull MethodHandle newStatementConstructor() throws SqlRuntimeException {
+            byte[] statementBytes = StatementAsm.bytecode();
+            Class<?> statementClass = new DynamicClassLoader().loadClass(null, statementBytes);
+            return Fs.uncheck(() ->
+                    MethodHandles.publicLookup()
+                        .findConstructor(statementClass, MethodType.methodType(
+                            void.class, PreparedStatement.class, SimpleJdbcPool.StatementCache.class, Object.class
+                        ))
+                        .asType(MethodType.methodType(
+                            PreparedStatement.class,
+                            PreparedStatement.class,
+                            SimpleJdbcPool.StatementCache.class,
+                            Object.class
+                        )),
+                SqlRuntimeException::new);
+        }
+
+        private static @Nonnull Set<@Nonnull String> cachedDescriptors() {
+            Set<String> descriptors = new HashSet<>();
+            descriptors.add("(" + STRING_DESCRIPTOR + ")" + PREPARED_DESCRIPTOR);
+            descriptors.add("(" + STRING_DESCRIPTOR + "I)" + PREPARED_DESCRIPTOR);
+            descriptors.add("(" + STRING_DESCRIPTOR + "II)" + PREPARED_DESCRIPTOR);
+            descriptors.add("(" + STRING_DESCRIPTOR + "III)" + PREPARED_DESCRIPTOR);
+            return descriptors;
+        }
+
         private static class ProviderAsm {
 
             static byte @Nonnull [] bytecode() {
@@ -123,6 +198,7 @@ final class AsmConnectionWrapperFactory {
                     methodVisitor.visitEnd();
                 }
                 {
+                    // return new PooledConnection(origin, pool, null);
                     methodVisitor = classWriter.visitMethod(
                         Opcodes.ACC_PUBLIC,
                         "wrap",
@@ -135,14 +211,40 @@ final class AsmConnectionWrapperFactory {
                     methodVisitor.visitInsn(Opcodes.DUP);
                     methodVisitor.visitVarInsn(Opcodes.ALOAD, 1);
                     methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+                    methodVisitor.visitInsn(Opcodes.ACONST_NULL);
+                    methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL,
+                        POOLED_NAME,
+                        AsmKit.CONSTRUCTOR_NAME,
+                        POOLED_CONSTRUCTOR_DESCRIPTOR,
+                        false
+                    );
+                    methodVisitor.visitInsn(Opcodes.ARETURN);
+                    methodVisitor.visitMaxs(5, 3);
+                    methodVisitor.visitEnd();
+                }
+                {
+                    // return new PooledConnection(origin, pool, statementCache);
+                    methodVisitor = classWriter.visitMethod(
+                        Opcodes.ACC_PUBLIC,
+                        "wrap",
+                        "(" + CONNECTION_DESCRIPTOR + POOL_DESCRIPTOR + CACHE_DESCRIPTOR + ")" + CONNECTION_DESCRIPTOR,
+                        "(" + CONNECTION_DESCRIPTOR + POOL_SIGNATURE + CACHE_DESCRIPTOR + ")" + CONNECTION_DESCRIPTOR,
+                        new String[]{JvmKit.toInternalName(SqlRuntimeException.class)}
+                    );
+                    methodVisitor.visitCode();
+                    methodVisitor.visitTypeInsn(Opcodes.NEW, POOLED_NAME);
+                    methodVisitor.visitInsn(Opcodes.DUP);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 1);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 3);
                     methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL,
                         POOLED_NAME,
                         AsmKit.CONSTRUCTOR_NAME,
-                        "(" + CONNECTION_DESCRIPTOR + POOL_DESCRIPTOR + ")V",
+                        POOLED_CONSTRUCTOR_DESCRIPTOR,
                         false
                     );
                     methodVisitor.visitInsn(Opcodes.ARETURN);
-                    methodVisitor.visitMaxs(4, 3);
+                    methodVisitor.visitMaxs(5, 4);
                     methodVisitor.visitEnd();
                 }
                 classWriter.visitEnd();
@@ -218,6 +320,17 @@ final class AsmConnectionWrapperFactory {
                     );
                     fieldVisitor.visitEnd();
                 }
+                {
+                    // private final @Nullable StatementCache statementCache;
+                    fieldVisitor = classWriter.visitField(
+                        Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL,
+                        FIELD_CACHE,
+                        CACHE_DESCRIPTOR,
+                        null,
+                        null
+                    );
+                    fieldVisitor.visitEnd();
+                }
                 {
                     // private volatile boolean closed;
                     fieldVisitor = classWriter.visitField(
@@ -235,16 +348,21 @@ final class AsmConnectionWrapperFactory {
                 MethodVisitor methodVisitor;
                 {
                     /*
-                     * PooledConnection(@Nonnull Connection delegate, @Nonnull SimplePool<Connection> pool) {
+                     * PooledConnection(
+                     *     @Nonnull Connection delegate,
+                     *     @Nonnull SimplePool<Connection> pool,
+                     *     @Nullable StatementCache statementCache
+                     * ) {
                      *     this.delegate = delegate;
                      *     this.pool = pool;
+                     *     this.statementCache = statementCache;
                      * }
                      */
                     methodVisitor = classWriter.visitMethod(
                         0,
                         AsmKit.CONSTRUCTOR_NAME,
-                        "(" + CONNECTION_DESCRIPTOR + POOL_DESCRIPTOR + ")V",
-                        "(" + CONNECTION_DESCRIPTOR + POOL_SIGNATURE + ")V",
+                        POOLED_CONSTRUCTOR_DESCRIPTOR,
+                        "(" + CONNECTION_DESCRIPTOR + POOL_SIGNATURE + CACHE_DESCRIPTOR + ")V",
                         null
                     );
                     methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
@@ -271,8 +389,16 @@ final class AsmConnectionWrapperFactory {
                         FIELD_POOL,
                         POOL_DESCRIPTOR
                     );
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 3);
+                    methodVisitor.visitFieldInsn(
+                        Opcodes.PUTFIELD,
+                        POOLED_NAME,
+                        FIELD_CACHE,
+                        CACHE_DESCRIPTOR
+                    );
                     methodVisitor.visitInsn(Opcodes.RETURN);
-                    methodVisitor.visitMaxs(2, 3);
+                    methodVisitor.visitMaxs(2, 4);
                     methodVisitor.visitEnd();
                 }
                 {
@@ -449,7 +575,7 @@ final class AsmConnectionWrapperFactory {
                  *     return delegate.prepareStatement(sql);
                  * }
                  */
-                int modifiers = method.getModifiers() & ~java.lang.reflect.Modifier.ABSTRACT;
+                int modifiers = method.getModifiers() & ~Modifier.ABSTRACT;
                 MethodVisitor methodVisitor;
                 String methodDescriptor = JvmKit.toDescriptor(method);
                 String[] exceptions = JvmKit.toExceptions(method);
@@ -470,32 +596,293 @@ final class AsmConnectionWrapperFactory {
                     AsmKit.EMPTY_METHOD_DESCRIPTOR,
                     false
                 );
-                methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
-                methodVisitor.visitFieldInsn(
-                    Opcodes.GETFIELD,
-                    POOLED_NAME,
-                    FIELD_DELEGATE,
-                    CONNECTION_DESCRIPTOR
+                if ("prepareStatement".equals(method.getName()) && CACHED_DESCRIPTORS.contains(methodDescriptor)) {
+                    /*
+                     * if (statementCache != null) {
+                     *     return statementCache.prepareStatement(sql);
+                     * }
+                     */
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, POOLED_NAME, FIELD_CACHE, CACHE_DESCRIPTOR);
+                    Label ifLabel = new Label();
+                    methodVisitor.visitJumpInsn(Opcodes.IFNULL, ifLabel);
+                    visitDelegate(methodVisitor, method, POOLED_NAME, FIELD_CACHE, CACHE_INTERNAL_NAME);
+                    methodVisitor.visitLabel(ifLabel);
+                    methodVisitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+                }
+                visitDelegate(methodVisitor, method, POOLED_NAME, FIELD_DELEGATE, CONNECTION_INTERNAL_NAME);
+                methodVisitor.visitMaxs(0, 0);
+                methodVisitor.visitEnd();
+            }
+        }
+
+        private static class StatementAsm {
+
+            static byte @Nonnull [] bytecode() {
+                ClassWriter classWriter = initClassWriter();
+                initFields(classWriter);
+                initMethods(classWriter);
+                Set<String> generated = new HashSet<>();
+                for (Method method : PreparedStatement.class.getMethods()) {
+                    if (Modifier.isStatic(method.getModifiers())) {
+                        continue;
+                    }
+                    String methodName = method.getName();
+                    if (method.getParameterCount() == 0
+                        && ("close".equals(methodName) || "isClosed".equals(methodName))) {
+                        continue;
+                    }
+                    // the methods re-declared by the sub-interface
+                    if (!generated.add(methodName + JvmKit.toDescriptor(method))) {
+                        continue;
+                    }
+                    initDelegateMethods(method, classWriter);
+                }
+                classWriter.visitEnd();
+                return classWriter.toByteArray();
+            }
+
+            private static @Nonnull ClassWriter initClassWriter() {
+                ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+                classWriter.visit(
+                    Opcodes.V1_8,
+                    Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                    STATEMENT_NAME,
+                    null,
+                    AsmKit.OBJECT_NAME,
+                    new String[]{PREPARED_INTERNAL_NAME}
                 );
-                Parameter[] parameters = method.getParameters();
-                int pIndex = 1;
-                for (Parameter parameter : parameters) {
-                    AsmKit.visitLoad(methodVisitor, parameter.getType(), pIndex);
-                    pIndex += AsmKit.varSize(parameter.getType());
+                return classWriter;
+            }
+
+            private static void initFields(@Nonnull ClassWriter classWriter) {
+                // private final PreparedStatement delegate;
+                classWriter.visitField(
+                    Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FIELD_DELEGATE, PREPARED_DESCRIPTOR, null, null
+                ).visitEnd();
+                // private final StatementCache statementCache;
+                classWriter.visitField(
+                    Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FIELD_CACHE, CACHE_DESCRIPTOR, null, null
+                ).visitEnd();
+                // private final Object key;
+                classWriter.visitField(
+                    Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FIELD_KEY, OBJECT_DESCRIPTOR, null, null
+                ).visitEnd();
+                // private volatile boolean closed;
+                classWriter.visitField(
+                    Opcodes.ACC_PRIVATE | Opcodes.ACC_VOLATILE, "closed", "Z", null, null
+                ).visitEnd();
+            }
+
+            private static void initMethods(@Nonnull ClassWriter classWriter) {
+                MethodVisitor methodVisitor;
+                {
+                    /*
+                     * public CachedStatement(
+                     *     @Nonnull PreparedStatement delegate,
+                     *     @Nonnull StatementCache statementCache,
+                     *     @Nonnull Object key
+                     * ) {
+                     *     this.delegate = delegate;
+                     *     this.statementCache = statementCache;
+                     *     this.key = key;
+                     * }
+                     */
+                    methodVisitor = classWriter.visitMethod(
+                        Opcodes.ACC_PUBLIC,
+                        AsmKit.CONSTRUCTOR_NAME,
+                        STATEMENT_CONSTRUCTOR_DESCRIPTOR,
+                        null,
+                        null
+                    );
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitMethodInsn(
+                        Opcodes.INVOKESPECIAL,
+                        AsmKit.OBJECT_NAME,
+                        AsmKit.CONSTRUCTOR_NAME,
+                        AsmKit.EMPTY_METHOD_DESCRIPTOR,
+                        false
+                    );
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 1);
+                    methodVisitor.visitFieldInsn(Opcodes.PUTFIELD, STATEMENT_NAME, FIELD_DELEGATE, PREPARED_DESCRIPTOR);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 2);
+                    methodVisitor.visitFieldInsn(Opcodes.PUTFIELD, STATEMENT_NAME, FIELD_CACHE, CACHE_DESCRIPTOR);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 3);
+                    methodVisitor.visitFieldInsn(Opcodes.PUTFIELD, STATEMENT_NAME, FIELD_KEY, OBJECT_DESCRIPTOR);
+                    methodVisitor.visitInsn(Opcodes.RETURN);
+                    methodVisitor.visitMaxs(0, 0);
+                    methodVisitor.visitEnd();
                 }
-                methodVisitor.visitMethodInsn(
-                    Opcodes.INVOKEINTERFACE,
-                    CONNECTION_INTERNAL_NAME,
+                {
+                    /*
+                     * @Override
+                     * public synchronized void close() throws SQLException {
+                     *     if (!closed) {
+                     *         closed = true;
+                     *         statementCache.release(key, delegate);
+                     *     }
+                     * }
+                     */
+                    methodVisitor = classWriter.visitMethod(
+                        Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNCHRONIZED,
+                        "close",
+                        AsmKit.EMPTY_METHOD_DESCRIPTOR,
+                        null,
+                        SQL_EXCEPTIONS
+                    );
+                    methodVisitor.visitCode();
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, STATEMENT_NAME, "closed", "Z");
+                    Label ifLabel = new Label();
+                    methodVisitor.visitJumpInsn(Opcodes.IFNE, ifLabel);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitInsn(Opcodes.ICONST_1);
+                    methodVisitor.visitFieldInsn(Opcodes.PUTFIELD, STATEMENT_NAME, "closed", "Z");
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, STATEMENT_NAME, FIELD_CACHE, CACHE_DESCRIPTOR);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, STATEMENT_NAME, FIELD_KEY, OBJECT_DESCRIPTOR);
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, STATEMENT_NAME, FIELD_DELEGATE, PREPARED_DESCRIPTOR);
+                    methodVisitor.visitMethodInsn(
+                        Opcodes.INVOKEINTERFACE,
+                        CACHE_INTERNAL_NAME,
+                        "release",
+                        "(" + OBJECT_DESCRIPTOR + PREPARED_DESCRIPTOR + ")V",
+                        true
+                    );
+                    methodVisitor.visitLabel(ifLabel);
+                    methodVisitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+                    methodVisitor.visitInsn(Opcodes.RETURN);
+                    methodVisitor.visitMaxs(0, 0);
+                    methodVisitor.visitEnd();
+                }
+                {
+                    /*
+                     * @Override
+                     * public boolean isClosed() throws SQLException {
+                     *     return closed;
+                     * }
+                     */
+                    methodVisitor = classWriter.visitMethod(
+                        Opcodes.ACC_PUBLIC,
+                        "isClosed",
+                        "()Z",
+                        null,
+                        SQL_EXCEPTIONS
+                    );
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, STATEMENT_NAME, "closed", "Z");
+                    methodVisitor.visitInsn(Opcodes.IRETURN);
+                    methodVisitor.visitMaxs(0, 0);
+                    methodVisitor.visitEnd();
+                }
+                {
+                    /*
+                     * private void checkClosed() throws SQLException {
+                     *     if (closed) {
+                     *         throw new SQLException("Statement has closed.");
+                     *     }
+                     * }
+                     */
+                    methodVisitor = classWriter.visitMethod(
+                        Opcodes.ACC_PRIVATE,
+                        "checkClosed",
+                        AsmKit.EMPTY_METHOD_DESCRIPTOR,
+                        null,
+                        SQL_EXCEPTIONS
+                    );
+                    methodVisitor.visitCode();
+                    methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                    methodVisitor.visitFieldInsn(Opcodes.GETFIELD, STATEMENT_NAME, "closed", "Z");
+                    Label ifLabel = new Label();
+                    methodVisitor.visitJumpInsn(Opcodes.IFEQ, ifLabel);
+                    methodVisitor.visitTypeInsn(Opcodes.NEW, SQL_EXCEPTION_INTERNAL_NAME);
+                    methodVisitor.visitInsn(Opcodes.DUP);
+                    methodVisitor.visitLdcInsn("Statement has closed.");
+                    methodVisitor.visitMethodInsn(
+                        Opcodes.INVOKESPECIAL,
+                        SQL_EXCEPTION_INTERNAL_NAME,
+                        AsmKit.CONSTRUCTOR_NAME,
+                        "(" + STRING_DESCRIPTOR + ")V",
+                        false
+                    );
+                    methodVisitor.visitInsn(Opcodes.ATHROW);
+                    methodVisitor.visitLabel(ifLabel);
+                    methodVisitor.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+                    methodVisitor.visitInsn(Opcodes.RETURN);
+                    methodVisitor.visitMaxs(0, 0);
+                    methodVisitor.visitEnd();
+                }
+            }
+
+            private static void initDelegateMethods(@Nonnull Method method, @Nonnull ClassWriter classWriter) {
+                /*
+                 * @Override
+                 * public ResultSet executeQuery() throws SQLException {
+                 *     checkClosed();
+                 *     return delegate.executeQuery();
+                 * }
+                 */
+                int modifiers = method.getModifiers() & ~Modifier.ABSTRACT;
+                MethodVisitor methodVisitor = classWriter.visitMethod(
+                    modifiers,
                     method.getName(),
-                    methodDescriptor,
-                    true
+                    JvmKit.toDescriptor(method),
+                    JvmKit.toSignature(method),
+                    JvmKit.toExceptions(method)
                 );
-                AsmKit.visitReturn(methodVisitor, method.getReturnType(), false, false);
+                methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                methodVisitor.visitMethodInsn(
+                    Opcodes.INVOKESPECIAL,
+                    STATEMENT_NAME,
+                    "checkClosed",
+                    AsmKit.EMPTY_METHOD_DESCRIPTOR,
+                    false
+                );
+                visitDelegate(methodVisitor, method, STATEMENT_NAME, FIELD_DELEGATE, PREPARED_INTERNAL_NAME);
                 methodVisitor.visitMaxs(0, 0);
                 methodVisitor.visitEnd();
             }
         }
 
+        /*
+         * return this.field.method(args...);
+         * The field is an interface declaring the method with the same descriptor.
+         */
+        private static void visitDelegate(
+            @Nonnull MethodVisitor methodVisitor,
+            @Nonnull Method method,
+            @Nonnull String owner,
+            @Nonnull String fieldName,
+            @Nonnull String fieldInternalName
+        ) {
+            methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+            methodVisitor.visitFieldInsn(
+                Opcodes.GETFIELD,
+                owner,
+                fieldName,
+                "L" + fieldInternalName + ";"
+            );
+            Parameter[] parameters = method.getParameters();
+            int pIndex = 1;
+            for (Parameter parameter : parameters) {
+                AsmKit.visitLoad(methodVisitor, parameter.getType(), pIndex);
+                pIndex += AsmKit.varSize(parameter.getType());
+            }
+            methodVisitor.visitMethodInsn(
+                Opcodes.INVOKEINTERFACE,
+                fieldInternalName,
+                method.getName(),
+                JvmKit.toDescriptor(method),
+                true
+            );
+            AsmKit.visitReturn(methodVisitor, method.getReturnType(), false, false);
+        }
+
         private static String buildClassName(@Nonnull String name) {
             Package pkg = AsmGenerator.class.getPackage();
             return AsmKit.newClassInternalName(pkg, name);
@@ -2,11 +2,23 @@ package space.sunqian.fs.utils.jdbc;
 
 import space.sunqian.annotation.Immutable;
 import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.option.Option;
 import space.sunqian.fs.base.string.NameFormatter;
 import space.sunqian.fs.base.string.NameMapper;
+import space.sunqian.fs.object.annotation.DatePattern;
+import space.sunqian.fs.object.annotation.NumPattern;
+import space.sunqian.fs.object.builder.BuilderOperator;
+import space.sunqian.fs.object.convert.ConvertKit;
+import space.sunqian.fs.object.convert.ConvertOption;
 import space.sunqian.fs.object.convert.ObjectConverter;
+import space.sunqian.fs.object.convert.ObjectCopier;
+import space.sunqian.fs.object.schema.DataSchemaException;
+import space.sunqian.fs.object.schema.ObjectAccessor;
+import space.sunqian.fs.object.schema.ObjectProperty;
+import space.sunqian.fs.object.schema.ObjectSchema;
+import space.sunqian.fs.reflect.TypeKit;
 import space.sunqian.fs.reflect.TypeRef;
 
 import java.lang.reflect.Type;
@@ -14,9 +26,16 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utilities for JDBC and SQL.
@@ -234,31 +253,282 @@ public class JdbcKit {
         return Fs.uncheck(() -> resultToObject(resultSet, javaType, nameMapper, converter, options), SqlRuntimeException::new);
     }
 
+    /**
+     * Returns a lazy stream of the objects mapped from the rows of the result set, using {@link #defaultNameMapper()}
+     * and {@link ObjectConverter#defaultConverter()} to convert the object of the JDBC type to the java type.
+     * <p>
+     * See {@link #toStream(ResultSet, Type, NameMapper, ObjectConverter, Option[])} for the details of the returned
+     * stream.
+     *
+     * @param resultSet the result set
+     * @param javaType  the element java type of the returned stream
+     * @param <T>       the element type of the returned stream
+     * @return a lazy stream of the objects mapped from the rows of the result set
+     * @throws SqlRuntimeException if any error occurs
+     */
+    public static <T> @Nonnull Stream<@Nonnull T> toStream(
+        @Nonnull ResultSet resultSet,
+        @Nonnull Class<T> javaType
+    ) throws SqlRuntimeException {
+        return toStream(resultSet, javaType, defaultNameMapper(), ObjectConverter.defaultConverter());
+    }
+
+    /**
+     * Returns a lazy stream of the objects mapped from the rows of the result set, using {@link #defaultNameMapper()}
+     * and {@link ObjectConverter#defaultConverter()} to convert the object of the JDBC type to the java type.
+     * <p>
+     * See {@link #toStream(ResultSet, Type, NameMapper, ObjectConverter, Option[])} for the details of the returned
+     * stream.
+     *
+     * @param resultSet   the result set
+     * @param javaTypeRef the element java type reference of the returned stream
+     * @param <T>         the element type of the returned stream
+     * @return a lazy stream of the objects mapped from the rows of the result set
+     * @throws SqlRuntimeException if any error occurs
+     */
+    public static <T> @Nonnull Stream<@Nonnull T> toStream(
+        @Nonnull ResultSet resultSet,
+        @Nonnull TypeRef<T> javaTypeRef
+    ) throws SqlRuntimeException {
+        return toStream(resultSet, javaTypeRef.type(), defaultNameMapper(), ObjectConverter.defaultConverter());
+    }
+
+    /**
+     * Returns a lazy stream of the objects mapped from the rows of the result set. The rows are read from the cursor of
+     * the result set only when the stream is consumed, so the number of the rows fetched from the database at a time
+     * is decided by {@link java.sql.Statement#setFetchSize(int)} (or {@link ResultSet#setFetchSize(int)}), and the
+     * consumed rows are not retained by the stream.
+     * <p>
+     * The binding of the columns to the properties of the element type is resolved once from the
+     * {@link ResultSet#getMetaData()} before the first row, then each row is set into a new instance of the element
+     * type directly, without an intermediate map for each row. If the element type is not a data object type (such as a
+     * map type), or the converter is not {@link ObjectConverter#defaultConverter()}, each row is converted from a map of
+     * the mapped column names to the values, the same as {@link #toObject(ResultSet, Type, NameMapper, ObjectConverter,
+     * Option[])}.
+     * <p>
+     * Closing the returned stream closes the result set, but not the statement. The returned stream is sequential and
+     * can only be consumed once.
+     *
+     * @param resultSet  the result set
+     * @param javaType   the element java type of the returned stream
+     * @param nameMapper the name mapper to map the column name to the field name of the element type
+     * @param converter  the converter to convert the object of the JDBC type to the java type
+     * @param options    the options for converting
+     * @param <T>        the element type of the returned stream
+     * @return a lazy stream of the objects mapped from the rows of the result set
+     * @throws SqlRuntimeException if any error occurs
+     */
+    public static <T> @Nonnull Stream<@Nonnull T> toStream(
+        @Nonnull ResultSet resultSet,
+        @Nonnull Type javaType,
+        @Nonnull NameMapper nameMapper,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull ... options
+    ) throws SqlRuntimeException {
+        RowMapper mapper = Fs.uncheck(() ->
+                new RowMapper(resultSet.getMetaData(), javaType, nameMapper, converter, options),
+            SqlRuntimeException::new
+        );
+        Iterator<T> rows = new RowIterator<>(resultSet, mapper);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+            .onClose(() -> Fs.uncheck(resultSet::close, SqlRuntimeException::new));
+    }
+
     private static <T> @Immutable @Nonnull List<@Nonnull T> resultToObject(
         @Nonnull ResultSet resultSet,
         @Nonnull Type javaType,
         @Nonnull NameMapper nameMapper,
         @Nonnull ObjectConverter converter,
         @Nonnull Option<?, ?> @Nonnull ... options
-    ) throws SQLException {
-        ResultSetMetaData metaData = resultSet.getMetaData();
+    ) throws Exception {
+        RowMapper mapper = new RowMapper(resultSet.getMetaData(), javaType, nameMapper, converter, options);
         ArrayList<T> objects = new ArrayList<>();
-        Map<String, Object> rowMap = new HashMap<>();
         while (resultSet.next()) {
-            for (int column = 0; column < metaData.getColumnCount(); column++) {
-                String columnName = metaData.getColumnName(column + 1);
-                Object jdbcObject = resultSet.getObject(column + 1);
-                String fieldName = nameMapper.map(columnName);
-                rowMap.put(fieldName, jdbcObject);
-            }
-            Object element = converter.convert(rowMap, javaType, options);
-            objects.add(Fs.as(element));
-            rowMap.clear();
+            objects.add(Fs.as(mapper.map(resultSet)));
         }
         objects.trimToSize();
         return objects;
     }
 
+    /**
+     * Maps the rows of a result set to the objects, the binding of the columns is resolved once when it is created.
+     */
+    private static final class RowMapper {
+
+        private final @Nonnull Type javaType;
+        private final @Nonnull ObjectConverter converter;
+        private final @Nonnull Option<?, ?> @Nonnull [] options;
+        // mapped names of the columns, the column index is the array index plus 1
+        private final @Nonnull String @Nonnull [] names;
+        // used to set the rows into the data objects directly, or null if the rows are converted from the maps
+        private final @Nullable BuilderOperator operator;
+        private final @Nullable ObjectAccessor accessor;
+        private final @Nonnull Binding @Nullable [] bindings;
+        private final boolean ignoreNull;
+        private final @Nonnull Map<String, Object> rowMap = new HashMap<>();
+
+        private RowMapper(
+            @Nonnull ResultSetMetaData metaData,
+            @Nonnull Type javaType,
+            @Nonnull NameMapper nameMapper,
+            @Nonnull ObjectConverter converter,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) throws SQLException {
+            this.javaType = javaType;
+            this.converter = converter;
+            this.options = options;
+            this.names = new String[metaData.getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = nameMapper.map(metaData.getColumnName(i + 1));
+            }
+            this.ignoreNull = ConvertOption.isIgnoreNull(options);
+            BuilderOperator builderOperator = builderOperator(javaType, converter, options);
+            ObjectSchema schema = builderOperator == null ? null : parseSchema(builderOperator, options);
+            Binding[] columnBindings = schema == null ? null : bind(schema, options);
+            if (columnBindings == null) {
+                this.operator = null;
+                this.accessor = null;
+                this.bindings = null;
+            } else {
+                this.operator = builderOperator;
+                this.accessor = schema.accessor();
+                this.bindings = columnBindings;
+            }
+        }
+
+        private static @Nullable BuilderOperator builderOperator(
+            @Nonnull Type javaType,
+            @Nonnull ObjectConverter converter,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) {
+            // only the default converting from the row map to a data object can be done directly
+            if (converter != ObjectConverter.defaultConverter()
+                || ConvertOption.getObjectCopier(options) != ObjectCopier.defaultCopier()) {
+                return null;
+            }
+            Class<?> rawType = TypeKit.getRawClass(javaType);
+            if (rawType == null
+                || rawType.isPrimitive()
+                || rawType.isArray()
+                || rawType.isEnum()
+                || rawType.isAssignableFrom(HashMap.class)
+                || Map.class.isAssignableFrom(rawType)
+                || Collection.class.isAssignableFrom(rawType)) {
+                return null;
+            }
+            BuilderOperator operator = ConvertOption.getBuilderOperatorProvider(options).forType(javaType);
+            // the builder must be the target object itself, such as a java bean
+            return operator == null || !operator.builderType().equals(javaType) ? null : operator;
+        }
+
+        private static @Nullable ObjectSchema parseSchema(
+            @Nonnull BuilderOperator operator,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) {
+            try {
+                return ConvertOption.getObjectSchemaParser(options).parse(operator.builderType());
+            } catch (DataSchemaException e) {
+                return null;
+            }
+        }
+
+        private @Nonnull Binding @Nullable [] bind(
+            @Nonnull ObjectSchema schema,
+            @Nonnull Option<?, ?> @Nonnull [] options
+        ) {
+            NameMapper propertyNameMapper = ConvertOption.getNameMapper(options);
+            List<Binding> list = new ArrayList<>(names.length);
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                if (ConvertOption.isIgnoreProperty(name, options)) {
+                    continue;
+                }
+                ObjectProperty property = schema.getProperty(propertyNameMapper.map(name));
+                if (property == null || !property.isWritable()) {
+                    continue;
+                }
+                Option<?, ?>[] propertyOptions = ConvertKit.mergeOptions(
+                    options,
+                    property.getAnnotation(DatePattern.class),
+                    property.getAnnotation(NumPattern.class)
+                );
+                list.add(new Binding(i + 1, property.index(), property.type(), propertyOptions));
+            }
+            // no column is bound, the target is not a data object of the row
+            return list.isEmpty() ? null : list.toArray(new Binding[0]);
+        }
+
+        private @Nonnull Object map(@Nonnull ResultSet resultSet) throws Exception {
+            if (bindings == null) {
+                for (int i = 0; i < names.length; i++) {
+                    rowMap.put(names[i], resultSet.getObject(i + 1));
+                }
+                Object element = converter.convert(rowMap, javaType, options);
+                rowMap.clear();
+                return Fs.asNonnull(element);
+            }
+            BuilderOperator builderOperator = Fs.asNonnull(operator);
+            ObjectAccessor objectAccessor = Fs.asNonnull(accessor);
+            Object builder = builderOperator.createBuilder();
+            for (Binding binding : bindings) {
+                Object jdbcObject = resultSet.getObject(binding.column);
+                if (jdbcObject == null && ignoreNull) {
+                    continue;
+                }
+                Object value = converter.convert(jdbcObject, Object.class, binding.type, binding.options);
+                objectAccessor.set(binding.index, builder, value);
+            }
+            return builderOperator.buildTarget(builder);
+        }
+    }
+
+    private static final class Binding {
+
+        private final int column;
+        private final int index;
+        private final @Nonnull Type type;
+        private final @Nonnull Option<?, ?> @Nonnull [] options;
+
+        private Binding(int column, int index, @Nonnull Type type, @Nonnull Option<?, ?> @Nonnull [] options) {
+            this.column = column;
+            this.index = index;
+            this.type = type;
+            this.options = options;
+        }
+    }
+
+    private static final class RowIterator<T> implements Iterator<T> {
+
+        private final @Nonnull ResultSet resultSet;
+        private final @Nonnull RowMapper mapper;
+        // null: not checked, true: the current row is not consumed, false: no more rows
+        private @Nullable Boolean hasRow;
+
+        private RowIterator(@Nonnull ResultSet resultSet, @Nonnull RowMapper mapper) {
+            this.resultSet = resultSet;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean hasNext() throws SqlRuntimeException {
+            Boolean row = hasRow;
+            if (row == null) {
+                row = Fs.uncheck(resultSet::next, SqlRuntimeException::new);
+                hasRow = row;
+            }
+            return row;
+        }
+
+        @Override
+        public T next() throws SqlRuntimeException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasRow = null;
+            return Fs.as(Fs.uncheck(() -> mapper.map(resultSet), SqlRuntimeException::new));
+        }
+    }
+
     private enum DbNameMapper implements NameMapper {
         INST;
 
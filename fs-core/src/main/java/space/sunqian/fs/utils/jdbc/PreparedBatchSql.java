@@ -65,4 +65,24 @@ public interface PreparedBatchSql {
             SqlRuntimeException::new
         );
     }
+
+    /**
+     * Executes this prepared SQL with its batch parameters by the given {@link SqlBatchExecutor}, which splits the
+     * batch parameters into chunks. This method is equivalent to:
+     * <pre>{@code
+     * executor.execute(connection, preparedSql(), batchParameters());
+     * }</pre>
+     *
+     * @param connection the connection to execute this prepared SQL
+     * @param executor   the executor to execute this prepared SQL
+     * @return an array of which each element is the number of rows affected by a chunk
+     * @throws SqlRuntimeException if any error occurs
+     * @see SqlBatchExecutor#execute(Connection, String, Iterable)
+     */
+    default long @Nonnull [] execute(
+        @Nonnull Connection connection,
+        @Nonnull SqlBatchExecutor executor
+    ) throws SqlRuntimeException {
+        return executor.execute(connection, preparedSql(), batchParameters());
+    }
 }
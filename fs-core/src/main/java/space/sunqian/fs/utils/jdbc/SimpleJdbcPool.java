@@ -8,6 +8,8 @@ import space.sunqian.fs.object.pool.SimplePool;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -26,6 +28,7 @@ import java.util.function.Predicate;
  *     .coreSize(5)
  *     .maxSize(20)
  *     .idleTimeout(Duration.ofMinutes(5))
+ *     .statementCacheSize(64)
  *     .build();
  *
  * try {
@@ -61,6 +64,22 @@ public interface SimpleJdbcPool {
     @Nullable
     Connection getConnection() throws SqlRuntimeException;
 
+    /**
+     * Acquires a database connection from the pool, waiting up to the specified timeout if no connection is available.
+     * Returns {@code null} if the timeout elapses before a connection becomes available. The waiting threads are
+     * served in FIFO order, and a released connection is handed off to the oldest waiting thread directly. See
+     * {@link SimplePool#get(Duration)}.
+     * <p>
+     * If any exception other than the interruption occurs during the acquisition process, {@link #close()} will be
+     * invoked to close this pool.
+     *
+     * @param timeout the maximum time to wait
+     * @return the acquired connection, or {@code null} if the timeout elapses before a connection becomes available
+     * @throws SqlRuntimeException if failed to acquire connection
+     */
+    @Nullable
+    Connection getConnection(@Nonnull Duration timeout) throws SqlRuntimeException;
+
     /**
      * Cleans the pool, removing idle connections that have timed out or been invalidated, or over the core size, adding
      * new connections up to the core size if necessary. The active connections will not be cleaned.
@@ -108,6 +127,117 @@ public interface SimpleJdbcPool {
      */
     int activeSize();
 
+    /**
+     * Returns the wait statistics of {@link #getConnection(Duration)} of this pool.
+     *
+     * @return the wait statistics of this pool
+     */
+    @Nonnull
+    SimplePool.WaitStats waitStats();
+
+    /**
+     * Returns the statistics of the prepared statement caches of the connections of this pool. If the statement cache
+     * is disabled (see {@link Builder#statementCacheSize(int)}), the counts are always {@code 0}.
+     *
+     * @return the statistics of the prepared statement caches of this pool
+     */
+    @Nonnull
+    StatementCacheStats statementCacheStats();
+
+    /**
+     * Statistics of the prepared statement caches of a {@link SimpleJdbcPool}, summed over all connections of the
+     * pool.
+     */
+    interface StatementCacheStats {
+
+        /**
+         * Returns the number of the statement preparations which reuse a cached statement.
+         *
+         * @return the number of the statement preparations which reuse a cached statement
+         */
+        long hitCount();
+
+        /**
+         * Returns the number of the statement preparations which prepare a new statement on the connection.
+         *
+         * @return the number of the statement preparations which prepare a new statement on the connection
+         */
+        long missCount();
+    }
+
+    /**
+     * Prepared statement cache of an underlying database connection. The cache lives as long as the underlying
+     * connection, across the wrapped connections acquired from the pool.
+     * <p>
+     * The wrapped connection calls the methods of this interface instead of the same methods of the underlying
+     * connection. The returned statement is checked out from the cache, and is put back into the cache by
+     * {@link #release(Object, PreparedStatement)} when it is closed.
+     */
+    interface StatementCache {
+
+        /**
+         * Returns a prepared statement for the given SQL, see {@link Connection#prepareStatement(String)}.
+         *
+         * @param sql the given SQL
+         * @return a prepared statement for the given SQL
+         * @throws SQLException if failed to prepare the statement
+         */
+        @Nonnull
+        PreparedStatement prepareStatement(@Nonnull String sql) throws SQLException;
+
+        /**
+         * Returns a prepared statement for the given SQL, see {@link Connection#prepareStatement(String, int)}.
+         *
+         * @param sql               the given SQL
+         * @param autoGeneratedKeys whether auto-generated keys should be returned
+         * @return a prepared statement for the given SQL
+         * @throws SQLException if failed to prepare the statement
+         */
+        @Nonnull
+        PreparedStatement prepareStatement(@Nonnull String sql, int autoGeneratedKeys) throws SQLException;
+
+        /**
+         * Returns a prepared statement for the given SQL, see {@link Connection#prepareStatement(String, int, int)}.
+         *
+         * @param sql                  the given SQL
+         * @param resultSetType        the result set type
+         * @param resultSetConcurrency the result set concurrency type
+         * @return a prepared statement for the given SQL
+         * @throws SQLException if failed to prepare the statement
+         */
+        @Nonnull
+        PreparedStatement prepareStatement(
+            @Nonnull String sql, int resultSetType, int resultSetConcurrency
+        ) throws SQLException;
+
+        /**
+         * Returns a prepared statement for the given SQL, see
+         * {@link Connection#prepareStatement(String, int, int, int)}.
+         *
+         * @param sql                  the given SQL
+         * @param resultSetType        the result set type
+         * @param resultSetConcurrency the result set concurrency type
+         * @param resultSetHoldability the result set holdability
+         * @return a prepared statement for the given SQL
+         * @throws SQLException if failed to prepare the statement
+         */
+        @Nonnull
+        PreparedStatement prepareStatement(
+            @Nonnull String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability
+        ) throws SQLException;
+
+        /**
+         * Releases the underlying statement checked out from this cache, this method is called when the returned
+         * statement is closed. The underlying statement is put back into this cache, or closed if it can not be
+         * cached.
+         *
+         * @param key       the key of the statement, given by this cache when the statement is checked out
+         * @param statement the underlying statement
+         * @throws SQLException if failed to release the statement
+         */
+        void release(@Nonnull Object key, @Nonnull PreparedStatement statement) throws SQLException;
+    }
+
     /**
      * Factory interface for creating database connections.
      * <p>
@@ -153,6 +283,27 @@ public interface SimpleJdbcPool {
         Connection wrap(
             @Nonnull Connection origin, @Nonnull SimplePool<Connection> pool
         ) throws SqlRuntimeException;
+
+        /**
+         * Wraps the original database connection with additional pooling behavior, and the prepared statement cache of
+         * the original connection.
+         *
+         * @param origin         the original database connection
+         * @param pool           the connection pool for the original connection
+         * @param statementCache the prepared statement cache of the original connection, may be {@code null} if the
+         *                       statement cache is disabled
+         * @return the wrapped connection
+         * @throws SqlRuntimeException if failed to wrap
+         * @implNote The default implementation ignores the statement cache and calls {@link #wrap(Connection,
+         * SimplePool)}.
+         */
+        default @Nonnull Connection wrap(
+            @Nonnull Connection origin,
+            @Nonnull SimplePool<Connection> pool,
+            @Nullable StatementCache statementCache
+        ) throws SqlRuntimeException {
+            return wrap(origin, pool);
+        }
     }
 
     /**
@@ -177,6 +328,10 @@ public interface SimpleJdbcPool {
         private int coreSize = 5;
         private int maxSize = 10;
         private @Nonnull Duration idleTimeout = Duration.ofMinutes(5);
+        private boolean concurrent = false;
+        private @Nullable Duration maintenanceInterval = null;
+        private boolean validateOnGet = true;
+        private int statementCacheSize = 0;
         private @Nullable ConnectionFactory connectionFactory = null;
         private @Nullable ConnectionWrapperFactory connectionWrapperFactory = null;
         private @Nonnull Consumer<@Nonnull Connection> closer = CLOSER;
@@ -268,6 +423,73 @@ public interface SimpleJdbcPool {
             return this;
         }
 
+        /**
+         * Sets whether to use the lock-free {@link SimplePool} implementation for high concurrency, default is
+         * {@code false}. See {@link SimplePool.Builder#concurrent(boolean)}.
+         *
+         * @param concurrent whether to use the lock-free {@link SimplePool} implementation
+         * @return this builder
+         */
+        public @Nonnull Builder concurrent(boolean concurrent) {
+            this.concurrent = concurrent;
+            return this;
+        }
+
+        /**
+         * Sets the interval of the background maintenance, default is disabled. If it is set, the idle connections
+         * will be periodically validated, evicted if idle timeout, and replenished up to the core size in the
+         * background. See {@link SimplePool.Builder#maintenanceInterval(Duration)}.
+         *
+         * @param maintenanceInterval the interval of the background maintenance
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maintenanceInterval <= 0}
+         */
+        public @Nonnull Builder maintenanceInterval(
+            @Nonnull Duration maintenanceInterval
+        ) throws IllegalArgumentException {
+            Checker.checkArgument(maintenanceInterval.toMillis() > 0, "The maintenanceInterval must > 0.");
+            this.maintenanceInterval = maintenanceInterval;
+            return this;
+        }
+
+        /**
+         * Sets whether to validate the idle connection when acquiring it, default is {@code true}. Setting it to
+         * {@code false} together with {@link #maintenanceInterval(Duration)} moves the validation (such as
+         * {@code connection.isValid(1)}, which may issue a query to the database) off the acquisition, the connections
+         * are then validated in the background and when they are released. See
+         * {@link SimplePool.Builder#validateOnGet(boolean)}.
+         *
+         * @param validateOnGet whether to validate the idle connection when acquiring it
+         * @return this builder
+         */
+        public @Nonnull Builder validateOnGet(boolean validateOnGet) {
+            this.validateOnGet = validateOnGet;
+            return this;
+        }
+
+        /**
+         * Sets the max number of the idle prepared statements cached for each underlying connection, default is
+         * {@code 0} (disabled). If it is set, the statements prepared by {@code prepareStatement(sql)} and the
+         * overloads with the {@code int} arguments of the pooled connections are cached per underlying connection, and
+         * the least recently released statements are closed when the cache is full. Closing a cached statement puts
+         * it back into the cache, with its parameters, batch and warnings cleared, and its max rows, query timeout,
+         * fetch size, fetch direction, max field size and poolable restored to the values when it was prepared, and
+         * the escape processing enabled. The statement is closed instead if the settings can not be restored. The hit
+         * and miss counts are reported by {@link SimpleJdbcPool#statementCacheStats()}.
+         * <p>
+         * Note the statement cache only works for the default connection wrapper factory, or the factory which supports
+         * {@link ConnectionWrapperFactory#wrap(Connection, SimplePool, StatementCache)}.
+         *
+         * @param statementCacheSize the max number of the idle prepared statements cached for each connection
+         * @return this builder
+         * @throws IllegalArgumentException if {@code statementCacheSize < 0}
+         */
+        public @Nonnull Builder statementCacheSize(int statementCacheSize) throws IllegalArgumentException {
+            Checker.checkArgument(statementCacheSize >= 0, "The statementCacheSize must >= 0.");
+            this.statementCacheSize = statementCacheSize;
+            return this;
+        }
+
         /**
          * Sets the connection factory for creating underlying database connections. By default, connections are created
          * using
@@ -341,7 +563,8 @@ public interface SimpleJdbcPool {
                 url, username, password, driver,
                 connectionFactory == null ? new ConnectionFactoryImpl() : connectionFactory,
                 connectionWrapperFactory == null ? AsmConnectionWrapperFactory.INST : connectionWrapperFactory,
-                closer, validator, coreSize, maxSize, idleTimeout
+                closer, validator, coreSize, maxSize, idleTimeout, concurrent, maintenanceInterval, validateOnGet,
+                statementCacheSize
             );
         }
 
@@ -8,7 +8,12 @@ import space.sunqian.fs.object.pool.SimplePool;
 
 import java.sql.Connection;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -17,6 +22,11 @@ final class SimpleJdbcPoolImpl implements SimpleJdbcPool {
 
     private final @Nonnull SimplePool<@Nonnull Connection> pool;
     private final @Nonnull ConnectionWrapperFactory connectionWrapperFactory;
+    private final int statementCacheSize;
+    // statement caches of the underlying connections, keyed by the identities of the connections
+    private final @Nonnull Map<@Nonnull Connection, @Nonnull StatementCacheImpl> statementCaches =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+    private final @Nonnull StatsImpl statementCacheStats = new StatsImpl();
 
     SimpleJdbcPoolImpl(
         @Nonnull String url,
@@ -29,24 +39,60 @@ final class SimpleJdbcPoolImpl implements SimpleJdbcPool {
         @Nonnull Predicate<@Nonnull Connection> validator,
         int coreSize,
         int maxSize,
-        @Nonnull Duration idleTimeout
+        @Nonnull Duration idleTimeout,
+        boolean concurrent,
+        @Nullable Duration maintenanceInterval,
+        boolean validateOnGet,
+        int statementCacheSize
     ) {
         this.connectionWrapperFactory = connectionWrapperFactory;
+        this.statementCacheSize = statementCacheSize;
         Fs.uncheck(() -> Class.forName(driver));
-        pool = SimplePool.<Connection>newBuilder()
+        SimplePool.Builder<Connection> builder = SimplePool.<Connection>newBuilder()
             .coreSize(coreSize)
             .maxSize(maxSize)
             .idleTimeout(idleTimeout)
             .supplier(() -> connectionFactory.create(driver, url, username, password))
-            .discarder(closer)
+            .discarder(connection -> {
+                closeStatementCache(connection);
+                closer.accept(connection);
+            })
             .validator(validator)
-            .build();
+            .concurrent(concurrent)
+            .validateOnGet(validateOnGet);
+        if (maintenanceInterval != null) {
+            builder.maintenanceInterval(maintenanceInterval);
+        }
+        pool = builder.build();
     }
 
     @Override
     public @Nullable Connection getConnection() throws SqlRuntimeException {
         Connection connection = pool.get();
-        return connection == null ? null : connectionWrapperFactory.wrap(connection, pool);
+        return connection == null ? null : wrap(connection);
+    }
+
+    @Override
+    public @Nullable Connection getConnection(@Nonnull Duration timeout) throws SqlRuntimeException {
+        Connection connection = pool.get(timeout);
+        return connection == null ? null : wrap(connection);
+    }
+
+    private @Nonnull Connection wrap(@Nonnull Connection connection) throws SqlRuntimeException {
+        if (statementCacheSize == 0) {
+            return connectionWrapperFactory.wrap(connection, pool);
+        }
+        StatementCacheImpl statementCache = statementCaches.computeIfAbsent(connection, c ->
+            new StatementCacheImpl(c, statementCacheSize, statementCacheStats.hits, statementCacheStats.misses)
+        );
+        return connectionWrapperFactory.wrap(connection, pool, statementCache);
+    }
+
+    private void closeStatementCache(@Nonnull Connection connection) {
+        StatementCacheImpl statementCache = statementCaches.remove(connection);
+        if (statementCache != null) {
+            statementCache.close();
+        }
     }
 
     @Override
@@ -57,6 +103,12 @@ final class SimpleJdbcPoolImpl implements SimpleJdbcPool {
     @Override
     public void close() throws SqlRuntimeException {
         pool.close();
+        List<StatementCacheImpl> caches;
+        synchronized (statementCaches) {
+            caches = new ArrayList<>(statementCaches.values());
+            statementCaches.clear();
+        }
+        caches.forEach(StatementCacheImpl::close);
         List<VoidCallable> callables = pool.unreleasedObjects().stream()
             .map(c -> (VoidCallable) c::close)
             .collect(Collectors.toList());
@@ -82,4 +134,30 @@ final class SimpleJdbcPoolImpl implements SimpleJdbcPool {
     public int activeSize() {
         return pool.activeSize();
     }
+
+    @Override
+    public @Nonnull SimplePool.WaitStats waitStats() {
+        return pool.waitStats();
+    }
+
+    @Override
+    public @Nonnull StatementCacheStats statementCacheStats() {
+        return statementCacheStats;
+    }
+
+    private static final class StatsImpl implements StatementCacheStats {
+
+        private final @Nonnull LongAdder hits = new LongAdder();
+        private final @Nonnull LongAdder misses = new LongAdder();
+
+        @Override
+        public long hitCount() {
+            return hits.sum();
+        }
+
+        @Override
+        public long missCount() {
+            return misses.sum();
+        }
+    }
 }
@@ -0,0 +1,214 @@
+package space.sunqian.fs.utils.jdbc;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.base.Checker;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Executor for executing a prepared SQL with a large number of parameter rows. Unlike {@link PreparedBatchSql}, which
+ * adds all rows into one JDBC batch, this executor splits the rows into chunks, and executes the chunks one by one.
+ * The rows are pulled lazily from an {@link Iterator}, so they do not need to be loaded into memory at once.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * SqlBatchExecutor executor = SqlBatchExecutor.newBuilder()
+ *     .chunkSize(500)
+ *     .multiRowInsert(true)
+ *     .maxParameters(65535)
+ *     .build();
+ * long[] counts = executor.execute(
+ *     connection,
+ *     "INSERT INTO users (name, age) VALUES (?, ?)",
+ *     rows.iterator()
+ * );
+ * }</pre>
+ * The executor is immutable and thread-safe, it can be reused for different connections and SQLs.
+ *
+ * @author sunqian
+ */
+public interface SqlBatchExecutor {
+
+    /**
+     * Returns a builder for {@link SqlBatchExecutor}.
+     *
+     * @return a builder for {@link SqlBatchExecutor}
+     */
+    static @Nonnull Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Executes the given prepared SQL with the parameter rows from the given iterator, and returns an array of which
+     * each element is the number of rows affected by a chunk, in the order of execution. If the driver reports
+     * {@link Statement#SUCCESS_NO_INFO} for any row of a chunk, the element of the chunk is
+     * {@link Statement#SUCCESS_NO_INFO}.
+     * <p>
+     * The connection is committed by {@link Connection#commit()} after all chunks are executed, if it is not in
+     * auto-commit mode. The statements created by this method are closed before returning, but the connection is not.
+     *
+     * @param connection  the connection to execute the SQL
+     * @param preparedSql the prepared SQL to execute
+     * @param rows        the iterator of the parameter rows, each row is bound to one execution of the SQL
+     * @return an array of which each element is the number of rows affected by a chunk
+     * @throws SqlRuntimeException if any error occurs
+     */
+    long @Nonnull [] execute(
+        @Nonnull Connection connection,
+        @Nonnull String preparedSql,
+        @Nonnull Iterator<? extends @Nonnull List<?>> rows
+    ) throws SqlRuntimeException;
+
+    /**
+     * Executes the given prepared SQL with the given parameter rows. This method is equivalent to:
+     * <pre>{@code
+     * execute(connection, preparedSql, rows.iterator());
+     * }</pre>
+     *
+     * @param connection  the connection to execute the SQL
+     * @param preparedSql the prepared SQL to execute
+     * @param rows        the parameter rows, each row is bound to one execution of the SQL
+     * @return an array of which each element is the number of rows affected by a chunk
+     * @throws SqlRuntimeException if any error occurs
+     * @see #execute(Connection, String, Iterator)
+     */
+    default long @Nonnull [] execute(
+        @Nonnull Connection connection,
+        @Nonnull String preparedSql,
+        @Nonnull Iterable<? extends @Nonnull List<?>> rows
+    ) throws SqlRuntimeException {
+        return execute(connection, preparedSql, rows.iterator());
+    }
+
+    /**
+     * Executes the given prepared SQL with the given stream of parameter rows. This method is equivalent to:
+     * <pre>{@code
+     * execute(connection, preparedSql, rows.iterator());
+     * }</pre>
+     * Note this method does not close the given stream.
+     *
+     * @param connection  the connection to execute the SQL
+     * @param preparedSql the prepared SQL to execute
+     * @param rows        the stream of the parameter rows, each row is bound to one execution of the SQL
+     * @return an array of which each element is the number of rows affected by a chunk
+     * @throws SqlRuntimeException if any error occurs
+     * @see #execute(Connection, String, Iterator)
+     */
+    default long @Nonnull [] execute(
+        @Nonnull Connection connection,
+        @Nonnull String preparedSql,
+        @Nonnull Stream<? extends @Nonnull List<?>> rows
+    ) throws SqlRuntimeException {
+        return execute(connection, preparedSql, rows.iterator());
+    }
+
+    /**
+     * Builder class for {@link SqlBatchExecutor}.
+     */
+    class Builder {
+
+        private int chunkSize = 1000;
+        private int maxParameters = 0;
+        private boolean multiRowInsert = false;
+        private @Nullable Executor pipelineExecutor = null;
+
+        /**
+         * Sets the max number of the rows of each chunk, default is {@code 1000}.
+         * <p>
+         * In the batch mode, the rows of a chunk are added into one JDBC batch and executed by
+         * {@link java.sql.PreparedStatement#executeLargeBatch()}. In the multi-row insert mode (see
+         * {@link #multiRowInsert(boolean)}), the rows of a chunk are bound to one multi-row insert statement.
+         *
+         * @param chunkSize the max number of the rows of each chunk
+         * @return this builder
+         * @throws IllegalArgumentException if {@code chunkSize <= 0}
+         */
+        public @Nonnull Builder chunkSize(int chunkSize) throws IllegalArgumentException {
+            Checker.checkArgument(chunkSize > 0, "The chunkSize must > 0.");
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the max number of the parameters bound to one statement, default is {@code 0} (unlimited). Many
+         * databases limit the number of the parameters of a statement, for example, {@code 65535} for PostgreSQL and
+         * {@code 2100} for SQL Server.
+         * <p>
+         * This setting only works for the multi-row insert mode (see {@link #multiRowInsert(boolean)}), the chunk size
+         * is automatically reduced to the max number of the rows whose parameters do not exceed this limit, and at
+         * least {@code 1}.
+         *
+         * @param maxParameters the max number of the parameters bound to one statement
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maxParameters < 0}
+         */
+        public @Nonnull Builder maxParameters(int maxParameters) throws IllegalArgumentException {
+            Checker.checkArgument(maxParameters >= 0, "The maxParameters must >= 0.");
+            this.maxParameters = maxParameters;
+            return this;
+        }
+
+        /**
+         * Sets whether to rewrite the insert SQL into the multi-row form, default is {@code false}.
+         * <p>
+         * If it is {@code true}, and the SQL is an {@code INSERT} statement with a {@code VALUES (...)} clause, the
+         * {@code VALUES} tuple is repeated for each row of a chunk:
+         * <pre>{@code
+         * INSERT INTO users (name, age) VALUES (?, ?)
+         * // is rewritten into (for 3 rows):
+         * INSERT INTO users (name, age) VALUES (?, ?),(?, ?),(?, ?)
+         * }</pre>
+         * and each chunk is executed by one {@link java.sql.PreparedStatement#executeLargeUpdate()}. The size of each
+         * row must be equal to the number of the parameters of the tuple. For other SQLs, this setting is ignored and
+         * the batch mode is used.
+         *
+         * @param multiRowInsert whether to rewrite the insert SQL into the multi-row form
+         * @return this builder
+         */
+        public @Nonnull Builder multiRowInsert(boolean multiRowInsert) {
+            this.multiRowInsert = multiRowInsert;
+            return this;
+        }
+
+        /**
+         * Sets the executor to prepare the chunks in parallel with the execution, default is {@code null}, means the
+         * chunks are prepared and executed sequentially in the calling thread.
+         * <p>
+         * If the executor is specified, one task is submitted to the executor for each execution, the task pulls the
+         * rows from the iterator and fills the chunks, while the calling thread binds and executes the filled chunks.
+         * At most {@code 2} filled chunks are waiting for execution. This is useful if pulling the rows is expensive,
+         * such as reading and parsing a file. Note the iterator is accessed by the task thread in this case, and the
+         * statements and connection are always accessed by the calling thread. If the task thread is interrupted
+         * (such as the executor is shut down now), the execution fails with the {@link InterruptedException} as the
+         * cause. If the execution fails, the task stops before pulling the next row, but it may be still in
+         * {@link Iterator#next()} when the execution returns, so the iterator should not be reused in that case.
+         * <p>
+         * The executor must run the task in another thread. If the task is run directly in the calling thread, is
+         * rejected, or is not started in a short time (such as the executor is saturated), the rows are pulled by the
+         * calling thread, the same as no executor is specified.
+         *
+         * @param pipelineExecutor the executor to prepare the chunks in parallel with the execution, may be
+         *                         {@code null}
+         * @return this builder
+         */
+        public @Nonnull Builder pipelineExecutor(@Nullable Executor pipelineExecutor) {
+            this.pipelineExecutor = pipelineExecutor;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new {@link SqlBatchExecutor} with the current settings.
+         *
+         * @return a new {@link SqlBatchExecutor} with the current settings
+         */
+        public @Nonnull SqlBatchExecutor build() {
+            return new SqlBatchExecutorImpl(chunkSize, maxParameters, multiRowInsert, pipelineExecutor);
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package space.sunqian.fs.utils.jdbc;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class SqlBatchExecutorImpl implements SqlBatchExecutor {
+
+    // max number of the filled chunks waiting for execution in the pipeline mode
+    private static final int PIPELINE_CAPACITY = 2;
+    // max time to wait for the pipeline task to start, the rows are pulled by the calling thread after it
+    private static final long PIPELINE_START_MILLIS = 10;
+    private static final @Nonnull Object END = new Object();
+
+    private final int chunkSize;
+    private final int maxParameters;
+    private final boolean multiRowInsert;
+    private final @Nullable Executor pipelineExecutor;
+
+    SqlBatchExecutorImpl(
+        int chunkSize,
+        int maxParameters,
+        boolean multiRowInsert,
+        @Nullable Executor pipelineExecutor
+    ) {
+        this.chunkSize = chunkSize;
+        this.maxParameters = maxParameters;
+        this.multiRowInsert = multiRowInsert;
+        this.pipelineExecutor = pipelineExecutor;
+    }
+
+    @Override
+    public long @Nonnull [] execute(
+        @Nonnull Connection connection,
+        @Nonnull String preparedSql,
+        @Nonnull Iterator<? extends @Nonnull List<?>> rows
+    ) throws SqlRuntimeException {
+        MultiRowInsert insert = multiRowInsert ? MultiRowInsert.parse(preparedSql) : null;
+        ChunkWriter writer = insert == null ?
+            new BatchWriter(connection, preparedSql)
+            :
+            new MultiRowWriter(connection, insert, insert.rowsPerChunk(chunkSize, maxParameters));
+        try {
+            List<Long> counts = pipelineExecutor == null ?
+                executeSequentially(writer, rows)
+                :
+                executePipelined(pipelineExecutor, writer, rows);
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            long[] result = new long[counts.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = counts.get(i);
+            }
+            return result;
+        } catch (SqlRuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SqlRuntimeException(e);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private @Nonnull List<Long> executeSequentially(
+        @Nonnull ChunkWriter writer,
+        @Nonnull Iterator<? extends @Nonnull List<?>> rows
+    ) throws SQLException {
+        List<Long> counts = new ArrayList<>();
+        int size = writer.chunkSize();
+        List<List<?>> chunk = new ArrayList<>(size);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() >= size) {
+                counts.add(writer.write(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            counts.add(writer.write(chunk));
+        }
+        return counts;
+    }
+
+    private @Nonnull List<Long> executePipelined(
+        @Nonnull Executor executor,
+        @Nonnull ChunkWriter writer,
+        @Nonnull Iterator<? extends @Nonnull List<?>> rows
+    ) throws Exception {
+        Pipeline pipeline = new Pipeline(rows, writer.chunkSize(), Thread.currentThread());
+        try {
+            executor.execute(pipeline);
+        } catch (RejectedExecutionException e) {
+            pipeline.abandon();
+        }
+        if (pipeline.abandoned()) {
+            // the task is run by the calling thread, or rejected
+            return executeSequentially(writer, rows);
+        }
+        List<Long> counts = new ArrayList<>();
+        try {
+            while (true) {
+                Object next = pipeline.started() ?
+                    pipeline.queue.take()
+                    :
+                    pipeline.queue.poll(PIPELINE_START_MILLIS, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    if (pipeline.abandon()) {
+                        // the task has not been started, the executor may be saturated
+                        return executeSequentially(writer, rows);
+                    }
+                    continue;
+                }
+                if (next == END) {
+                    return counts;
+                }
+                if (next instanceof Throwable) {
+                    throw new SqlRuntimeException((Throwable) next);
+                }
+                @SuppressWarnings("unchecked")
+                List<List<?>> chunk = (List<List<?>>) next;
+                counts.add(writer.write(chunk));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            // stops the producer if the execution is broken
+            pipeline.cancelled = true;
+            pipeline.queue.clear();
+        }
+    }
+
+    private static long sum(long @Nonnull [] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            if (count < 0) {
+                return Statement.SUCCESS_NO_INFO;
+            }
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static final class Pipeline implements Runnable {
+
+        private final @Nonnull BlockingQueue<@Nonnull Object> queue = new ArrayBlockingQueue<>(PIPELINE_CAPACITY);
+        private final @Nonnull Iterator<? extends @Nonnull List<?>> rows;
+        private final int chunkSize;
+        private final @Nonnull Thread caller;
+        // 0: not started, 1: started, 2: abandoned
+        private final @Nonnull AtomicInteger state = new AtomicInteger();
+        private volatile boolean cancelled;
+
+        private Pipeline(@Nonnull Iterator<? extends @Nonnull List<?>> rows, int chunkSize, @Nonnull Thread caller) {
+            this.rows = rows;
+            this.chunkSize = chunkSize;
+            this.caller = caller;
+        }
+
+        private boolean started() {
+            return state.get() == 1;
+        }
+
+        private boolean abandoned() {
+            return state.get() == 2;
+        }
+
+        /**
+         * Abandons this task if it has not been started, returns {@code true} if this task is abandoned, then the rows
+         * should be pulled by the calling thread.
+         */
+        private boolean abandon() {
+            return state.compareAndSet(0, 2) || abandoned();
+        }
+
+        @Override
+        public void run() {
+            // the calling thread can not be the producer, it would block on the full queue
+            if (Thread.currentThread() == caller) {
+                abandon();
+                return;
+            }
+            if (!state.compareAndSet(0, 1)) {
+                return;
+            }
+            // the last element for the calling thread, null if the execution is cancelled
+            Object terminal = END;
+            try {
+                List<List<?>> chunk = new ArrayList<>(chunkSize);
+                while (!cancelled && rows.hasNext()) {
+                    chunk.add(rows.next());
+                    if (chunk.size() >= chunkSize) {
+                        if (!offer(chunk)) {
+                            terminal = null;
+                            return;
+                        }
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty() && !offer(chunk)) {
+                    terminal = null;
+                }
+            } catch (Throwable e) {
+                terminal = e;
+            } finally {
+                if (terminal != null) {
+                    deliver(terminal);
+                }
+            }
+        }
+
+        /**
+         * Offers the element to the calling thread, returns {@code false} if the execution is cancelled.
+         */
+        private boolean offer(@Nonnull Object element) throws InterruptedException {
+            while (!cancelled) {
+                if (queue.offer(element, 10, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Delivers the terminal element to the calling thread unless the execution is cancelled. The interruptions are
+         * ignored until the element is delivered, then the interrupt status is restored, otherwise the calling thread
+         * would wait for the terminal element forever.
+         */
+        private void deliver(@Nonnull Object terminal) {
+            boolean interrupted = terminal instanceof InterruptedException;
+            while (!cancelled) {
+                try {
+                    if (queue.offer(terminal, 10, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private interface ChunkWriter {
+
+        int chunkSize();
+
+        long write(@Nonnull List<? extends @Nonnull List<?>> chunk) throws SQLException;
+
+        void close();
+    }
+
+    private final class BatchWriter implements ChunkWriter {
+
+        private final @Nonnull Connection connection;
+        private final @Nonnull String sql;
+        private @Nullable PreparedStatement statement;
+
+        private BatchWriter(@Nonnull Connection connection, @Nonnull String sql) {
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public int chunkSize() {
+            return chunkSize;
+        }
+
+        @Override
+        public long write(@Nonnull List<? extends @Nonnull List<?>> chunk) throws SQLException {
+            PreparedStatement statement = this.statement;
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                this.statement = statement;
+            }
+            for (List<?> row : chunk) {
+                for (int i = 0; i < row.size(); i++) {
+                    statement.setObject(i + 1, row.get(i));
+                }
+                statement.addBatch();
+            }
+            return sum(statement.executeLargeBatch());
+        }
+
+        @Override
+        public void close() {
+            PreparedStatement statement = this.statement;
+            if (statement != null) {
+                Fs.uncheck(statement::close);
+            }
+        }
+    }
+
+    private static final class MultiRowWriter implements ChunkWriter {
+
+        private final @Nonnull Connection connection;
+        private final @Nonnull MultiRowInsert insert;
+        private final int chunkSize;
+        // statement for the full chunks
+        private @Nullable PreparedStatement statement;
+
+        private MultiRowWriter(@Nonnull Connection connection, @Nonnull MultiRowInsert insert, int chunkSize) {
+            this.connection = connection;
+            this.insert = insert;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int chunkSize() {
+            return chunkSize;
+        }
+
+        @Override
+        public long write(@Nonnull List<? extends @Nonnull List<?>> chunk) throws SQLException {
+            if (chunk.size() == chunkSize) {
+                PreparedStatement statement = this.statement;
+                if (statement == null) {
+                    statement = connection.prepareStatement(insert.toSql(chunkSize));
+                    this.statement = statement;
+                }
+                return execute(statement, chunk);
+            }
+            // the last chunk which is not full
+            try (PreparedStatement statement = connection.prepareStatement(insert.toSql(chunk.size()))) {
+                return execute(statement, chunk);
+            }
+        }
+
+        private long execute(
+            @Nonnull PreparedStatement statement,
+            @Nonnull List<? extends @Nonnull List<?>> chunk
+        ) throws SQLException {
+            int paramCount = insert.parameterCount;
+            int index = 1;
+            for (List<?> row : chunk) {
+                if (row.size() != paramCount) {
+                    throw new SqlRuntimeException(
+                        "The size of the row must be equal to the number of the parameters of the VALUES tuple: "
+                            + row.size() + " != " + paramCount + "."
+                    );
+                }
+                for (Object value : row) {
+                    statement.setObject(index++, value);
+                }
+            }
+            return statement.executeLargeUpdate();
+        }
+
+        @Override
+        public void close() {
+            PreparedStatement statement = this.statement;
+            if (statement != null) {
+                Fs.uncheck(statement::close);
+            }
+        }
+    }
+
+    /**
+     * The insert SQL split around its {@code VALUES} tuple: {@code prefix + tuple + suffix}.
+     */
+    private static final class MultiRowInsert {
+
+        /**
+         * Parses the given SQL, returns {@code null} if the SQL is not an {@code INSERT} statement with a single
+         * {@code VALUES (...)} tuple, or if there are parameters after the tuple (such as
+         * {@code ON DUPLICATE KEY UPDATE c = ?}), since they can not be repeated with the tuple.
+         *
+         * @param sql the given SQL
+         * @return the parsed multi-row insert, or {@code null} if the SQL is not supported
+         */
+        private static @Nullable MultiRowInsert parse(@Nonnull String sql) {
+            int start = skipWhitespace(sql, 0);
+            if (!matchesWord(sql, start, "INSERT")) {
+                return null;
+            }
+            int i = start;
+            while (i < sql.length()) {
+                char c = sql.charAt(i);
+                if (isQuote(c)) {
+                    i = skipQuoted(sql, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (matchesWord(sql, i, "VALUES")) {
+                    int open = skipWhitespace(sql, i + "VALUES".length());
+                    if (open >= sql.length() || sql.charAt(open) != '(') {
+                        return null;
+                    }
+                    return parseTuple(sql, open);
+                }
+                i++;
+            }
+            return null;
+        }
+
+        private static @Nullable MultiRowInsert parseTuple(@Nonnull String sql, int open) {
+            int depth = 0;
+            int paramCount = 0;
+            int i = open;
+            while (i < sql.length()) {
+                char c = sql.charAt(i);
+                if (isQuote(c)) {
+                    i = skipQuoted(sql, i);
+                    if (i < 0) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (c == '?') {
+                    paramCount++;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                    if (depth == 0) {
+                        if (!isPlainSuffix(sql, i + 1)) {
+                            return null;
+                        }
+                        return new MultiRowInsert(
+                            sql.substring(0, open),
+                            sql.substring(open, i + 1),
+                            sql.substring(i + 1),
+                            paramCount
+                        );
+                    }
+                }
+                i++;
+            }
+            return null;
+        }
+
+        // the suffix must not start another tuple, or contain any parameter
+        private static boolean isPlainSuffix(@Nonnull String sql, int from) {
+            int i = skipWhitespace(sql, from);
+            if (i < sql.length() && sql.charAt(i) == ',') {
+                return false;
+            }
+            while (i < sql.length()) {
+                char c = sql.charAt(i);
+                if (isQuote(c)) {
+                    i = skipQuoted(sql, i);
+                    if (i < 0) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (c == '?') {
+                    return false;
+                }
+                i++;
+            }
+            return true;
+        }
+
+        private static boolean isQuote(char c) {
+            return c == '\'' || c == '"' || c == '`';
+        }
+
+        // returns the index after the closing quote, or -1 if the quote is not closed
+        private static int skipQuoted(@Nonnull String sql, int quoteIndex) {
+            char quote = sql.charAt(quoteIndex);
+            int i = quoteIndex + 1;
+            while (i < sql.length()) {
+                if (sql.charAt(i) == quote) {
+                    // doubled quote is an escaped quote
+                    if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                        i += 2;
+                        continue;
+                    }
+                    return i + 1;
+                }
+                i++;
+            }
+            return -1;
+        }
+
+        private static int skipWhitespace(@Nonnull String sql, int from) {
+            int i = from;
+            while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private static boolean matchesWord(@Nonnull String sql, int index, @Nonnull String word) {
+            if (!sql.regionMatches(true, index, word, 0, word.length())) {
+                return false;
+            }
+            if (index > 0 && Character.isJavaIdentifierPart(sql.charAt(index - 1))) {
+                return false;
+            }
+            int end = index + word.length();
+            return end >= sql.length() || !Character.isJavaIdentifierPart(sql.charAt(end));
+        }
+
+        private final @Nonnull String prefix;
+        private final @Nonnull String tuple;
+        private final @Nonnull String suffix;
+        private final int parameterCount;
+
+        private MultiRowInsert(
+            @Nonnull String prefix,
+            @Nonnull String tuple,
+            @Nonnull String suffix,
+            int parameterCount
+        ) {
+            this.prefix = prefix;
+            this.tuple = tuple;
+            this.suffix = suffix;
+            this.parameterCount = parameterCount;
+        }
+
+        private int rowsPerChunk(int chunkSize, int maxParameters) {
+            if (maxParameters <= 0 || parameterCount == 0) {
+                return chunkSize;
+            }
+            return Math.max(1, Math.min(chunkSize, maxParameters / parameterCount));
+        }
+
+        @Nonnull
+        private String toSql(int rows) {
+            StringBuilder builder = new StringBuilder(
+                prefix.length() + (tuple.length() + 1) * rows + suffix.length()
+            );
+            builder.append(prefix).append(tuple);
+            for (int i = 1; i < rows; i++) {
+                builder.append(',').append(tuple);
+            }
+            return builder.append(suffix).toString();
+        }
+    }
+}
@@ -12,6 +12,8 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * This interface represents the query operation of a SQL statement.
@@ -48,7 +50,9 @@ public interface SqlQuery<T> extends SqlOperation {
      * @throws SqlRuntimeException if any error occurs
      */
     default @Nullable T first() throws SqlRuntimeException {
-        return list().stream().findFirst().orElse(null);
+        try (Stream<T> stream = stream()) {
+            return stream.findFirst().orElse(null);
+        }
     }
 
     /**
@@ -61,7 +65,9 @@ public interface SqlQuery<T> extends SqlOperation {
      * @throws SqlRuntimeException if any error occurs
      */
     default @Nullable T first(@Nonnull NameMapper nameMapper) throws SqlRuntimeException {
-        return list(nameMapper).stream().findFirst().orElse(null);
+        try (Stream<T> stream = stream(nameMapper)) {
+            return stream.findFirst().orElse(null);
+        }
     }
 
     /**
@@ -79,7 +85,9 @@ public interface SqlQuery<T> extends SqlOperation {
         @Nonnull ObjectConverter converter,
         @Nonnull Option<?, ?> @Nonnull ... options
     ) throws SqlRuntimeException {
-        return list(nameMapper, converter, options).stream().findFirst().orElse(null);
+        try (Stream<T> stream = stream(nameMapper, converter, options)) {
+            return stream.findFirst().orElse(null);
+        }
     }
 
     /**
@@ -133,6 +141,107 @@ public interface SqlQuery<T> extends SqlOperation {
         ));
     }
 
+    /**
+     * Sets the number of the rows that should be fetched from the database at a time when more rows are needed, it is a
+     * hint for the JDBC driver, see {@link Statement#setFetchSize(int)}. Setting a suitable fetch size helps to read a
+     * large result set by {@link #stream()} or {@link #forEach(Consumer)} in constant memory.
+     *
+     * @param rows the number of the rows to fetch at a time, {@code 0} means the driver's default
+     * @return this query
+     * @throws SqlRuntimeException if any error occurs
+     */
+    default @Nonnull SqlQuery<T> fetchSize(int rows) throws SqlRuntimeException {
+        Fs.uncheck(() -> statement().setFetchSize(rows), SqlRuntimeException::new);
+        return this;
+    }
+
+    /**
+     * Executes this query and returns a lazy stream of the rows of the result set mapped to the type {@link T}, using
+     * {@link JdbcKit#defaultNameMapper()} and {@link ObjectConverter#defaultConverter()} to convert the object of the
+     * JDBC type to the java type.
+     * <p>
+     * The rows are read from the cursor of the result set only when the stream is consumed, see
+     * {@link JdbcKit#toStream(ResultSet, Type, NameMapper, ObjectConverter, Option[])}. The stream should be closed
+     * after use, which closes the result set.
+     *
+     * @return a lazy stream of the rows of the result set mapped to the type {@link T}
+     * @throws SqlRuntimeException if any error occurs
+     */
+    default @Nonnull Stream<@Nonnull T> stream() throws SqlRuntimeException {
+        return stream(JdbcKit.defaultNameMapper());
+    }
+
+    /**
+     * Executes this query and returns a lazy stream of the rows of the result set mapped to the type {@link T}, using
+     * {@link ObjectConverter#defaultConverter()} to convert the object of the JDBC type to the java type.
+     * <p>
+     * The rows are read from the cursor of the result set only when the stream is consumed, see
+     * {@link JdbcKit#toStream(ResultSet, Type, NameMapper, ObjectConverter, Option[])}. The stream should be closed
+     * after use, which closes the result set.
+     *
+     * @param nameMapper the mapper to map the column name to the field name of the element type
+     * @return a lazy stream of the rows of the result set mapped to the type {@link T}
+     * @throws SqlRuntimeException if any error occurs
+     */
+    default @Nonnull Stream<@Nonnull T> stream(@Nonnull NameMapper nameMapper) throws SqlRuntimeException {
+        return stream(nameMapper, ObjectConverter.defaultConverter());
+    }
+
+    /**
+     * Executes this query and returns a lazy stream of the rows of the result set mapped to the type {@link T}.
+     * <p>
+     * The rows are read from the cursor of the result set only when the stream is consumed, see
+     * {@link JdbcKit#toStream(ResultSet, Type, NameMapper, ObjectConverter, Option[])}. The stream should be closed
+     * after use, which closes the result set.
+     *
+     * @param nameMapper the mapper to map the column name to the field name of the element type
+     * @param converter  the converter to convert the JDBC type to the java type
+     * @param options    the options for converting
+     * @return a lazy stream of the rows of the result set mapped to the type {@link T}
+     * @throws SqlRuntimeException if any error occurs
+     */
+    default @Nonnull Stream<@Nonnull T> stream(
+        @Nonnull NameMapper nameMapper,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull ... options
+    ) throws SqlRuntimeException {
+        return JdbcKit.toStream(execute(), type(), nameMapper, converter, options);
+    }
+
+    /**
+     * Executes this query and performs the given action for each row of the result set mapped to the type {@link T},
+     * using {@link JdbcKit#defaultNameMapper()} and {@link ObjectConverter#defaultConverter()} to convert the object of
+     * the JDBC type to the java type. The rows are not retained, and the result set is closed after all rows are
+     * consumed.
+     *
+     * @param action the action to be performed for each row
+     * @throws SqlRuntimeException if any error occurs
+     */
+    default void forEach(@Nonnull Consumer<? super @Nonnull T> action) throws SqlRuntimeException {
+        forEach(action, JdbcKit.defaultNameMapper(), ObjectConverter.defaultConverter());
+    }
+
+    /**
+     * Executes this query and performs the given action for each row of the result set mapped to the type {@link T}.
+     * The rows are not retained, and the result set is closed after all rows are consumed.
+     *
+     * @param action     the action to be performed for each row
+     * @param nameMapper the mapper to map the column name to the field name of the element type
+     * @param converter  the converter to convert the JDBC type to the java type
+     * @param options    the options for converting
+     * @throws SqlRuntimeException if any error occurs
+     */
+    default void forEach(
+        @Nonnull Consumer<? super @Nonnull T> action,
+        @Nonnull NameMapper nameMapper,
+        @Nonnull ObjectConverter converter,
+        @Nonnull Option<?, ?> @Nonnull ... options
+    ) throws SqlRuntimeException {
+        try (Stream<T> stream = stream(nameMapper, converter, options)) {
+            stream.forEach(action);
+        }
+    }
+
     @Override
     @SuppressWarnings("resource")
     default void close() throws SqlRuntimeException {
@@ -0,0 +1,260 @@
+package space.sunqian.fs.utils.jdbc;
+
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.Fs;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+final class StatementCacheImpl implements SimpleJdbcPool.StatementCache {
+
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final @Nonnull Connection origin;
+    private final int maxSize;
+    private final @Nonnull LongAdder hits;
+    private final @Nonnull LongAdder misses;
+    // idle statements in the order of their releases, the eldest is the least recently released
+    private final @Nonnull LinkedHashMap<@Nonnull Key, @Nonnull Entry> idle = new LinkedHashMap<>();
+    private boolean closed;
+
+    StatementCacheImpl(
+        @Nonnull Connection origin,
+        int maxSize,
+        @Nonnull LongAdder hits,
+        @Nonnull LongAdder misses
+    ) {
+        this.origin = origin;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    @Override
+    public @Nonnull PreparedStatement prepareStatement(@Nonnull String sql) throws SQLException {
+        return checkOut(new Key(sql, NONE, NONE, NONE, NONE));
+    }
+
+    @Override
+    public @Nonnull PreparedStatement prepareStatement(@Nonnull String sql, int autoGeneratedKeys) throws SQLException {
+        return checkOut(new Key(sql, autoGeneratedKeys, NONE, NONE, NONE));
+    }
+
+    @Override
+    public @Nonnull PreparedStatement prepareStatement(
+        @Nonnull String sql, int resultSetType, int resultSetConcurrency
+    ) throws SQLException {
+        return checkOut(new Key(sql, NONE, resultSetType, resultSetConcurrency, NONE));
+    }
+
+    @Override
+    public @Nonnull PreparedStatement prepareStatement(
+        @Nonnull String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability
+    ) throws SQLException {
+        return checkOut(new Key(sql, NONE, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    private @Nonnull PreparedStatement checkOut(@Nonnull Key key) throws SQLException {
+        Entry entry;
+        synchronized (this) {
+            entry = idle.remove(key);
+        }
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            entry = new Entry(key, key.prepare(origin));
+        }
+        return AsmConnectionWrapperFactory.wrapStatement(entry.statement, this, entry);
+    }
+
+    @Override
+    public void release(@Nonnull Object key, @Nonnull PreparedStatement statement) throws SQLException {
+        Entry entry = (Entry) key;
+        try {
+            if (statement.isClosed()) {
+                return;
+            }
+            ResultSet resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+            statement.clearWarnings();
+            entry.restoreSettings();
+        } catch (SQLException e) {
+            // the statement is broken, discards it
+            Fs.uncheck(statement::close);
+            throw e;
+        }
+        List<Entry> evicted = new ArrayList<>(1);
+        boolean cached = false;
+        synchronized (this) {
+            if (!closed) {
+                Entry old = idle.put(entry.key, entry);
+                if (old != null) {
+                    evicted.add(old);
+                }
+                Iterator<Entry> eldest = idle.values().iterator();
+                while (idle.size() > maxSize) {
+                    evicted.add(eldest.next());
+                    eldest.remove();
+                }
+                cached = true;
+            }
+        }
+        for (Entry e : evicted) {
+            Fs.uncheck(e.statement::close);
+        }
+        // the cache has been closed
+        if (!cached) {
+            statement.close();
+        }
+    }
+
+    /**
+     * Closes all idle statements of this cache, the statements released after this method are closed directly.
+     */
+    void close() {
+        List<Entry> entries;
+        synchronized (this) {
+            closed = true;
+            entries = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        for (Entry entry : entries) {
+            Fs.uncheck(entry.statement::close);
+        }
+    }
+
+    /**
+     * Returns the number of the idle statements of this cache.
+     *
+     * @return the number of the idle statements of this cache
+     */
+    synchronized int idleSize() {
+        return idle.size();
+    }
+
+    /**
+     * Cached statement with the settings of the driver when it is prepared. The settings changed by the user are
+     * restored when the statement is released, so that they do not leak into the next checkout.
+     */
+    private static final class Entry {
+
+        private final @Nonnull Key key;
+        private final @Nonnull PreparedStatement statement;
+        private final int maxRows;
+        private final int queryTimeout;
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxFieldSize;
+        private final boolean poolable;
+
+        private Entry(@Nonnull Key key, @Nonnull PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            try {
+                this.maxRows = statement.getMaxRows();
+                this.queryTimeout = statement.getQueryTimeout();
+                this.fetchSize = statement.getFetchSize();
+                this.fetchDirection = statement.getFetchDirection();
+                this.maxFieldSize = statement.getMaxFieldSize();
+                this.poolable = statement.isPoolable();
+            } catch (SQLException e) {
+                Fs.uncheck(statement::close);
+                throw e;
+            }
+        }
+
+        private void restoreSettings() throws SQLException {
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getFetchDirection() != fetchDirection) {
+                statement.setFetchDirection(fetchDirection);
+            }
+            if (statement.getMaxFieldSize() != maxFieldSize) {
+                statement.setMaxFieldSize(maxFieldSize);
+            }
+            if (statement.isPoolable() != poolable) {
+                statement.setPoolable(poolable);
+            }
+            // there is no getter, and it is enabled by default
+            statement.setEscapeProcessing(true);
+        }
+    }
+
+    private static final class Key {
+
+        private final @Nonnull String sql;
+        private final int autoGeneratedKeys;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+        private final int resultSetHoldability;
+
+        private Key(
+            @Nonnull String sql,
+            int autoGeneratedKeys,
+            int resultSetType,
+            int resultSetConcurrency,
+            int resultSetHoldability
+        ) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+        }
+
+        private @Nonnull PreparedStatement prepare(@Nonnull Connection connection) throws SQLException {
+            if (autoGeneratedKeys != NONE) {
+                return connection.prepareStatement(sql, autoGeneratedKeys);
+            }
+            if (resultSetHoldability != NONE) {
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+            }
+            if (resultSetType != NONE) {
+                return connection.prepareStatement(sql, resultSetType, resultSetConcurrency);
+            }
+            return connection.prepareStatement(sql);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return autoGeneratedKeys == key.autoGeneratedKeys
+                && resultSetType == key.resultSetType
+                && resultSetConcurrency == key.resultSetConcurrency
+                && resultSetHoldability == key.resultSetHoldability
+                && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys, resultSetType, resultSetConcurrency, resultSetHoldability);
+        }
+    }
+}
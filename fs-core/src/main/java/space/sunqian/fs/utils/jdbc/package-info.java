@@ -33,6 +33,7 @@
  *     <li>{@link space.sunqian.fs.utils.jdbc.SqlUpdate}</li>
  *     <li>{@link space.sunqian.fs.utils.jdbc.SqlOperation}</li>
  *     <li>{@link space.sunqian.fs.utils.jdbc.SqlBatch}</li>
+ *     <li>{@link space.sunqian.fs.utils.jdbc.SqlBatchExecutor}</li>
  * </ul>
  * Utility classes:
  * <ul>
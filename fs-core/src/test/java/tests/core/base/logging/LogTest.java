@@ -2,15 +2,32 @@ package tests.core.base.logging;
 
 import internal.utils.ErrorAppender;
 import org.junit.jupiter.api.Test;
+import space.sunqian.fs.base.logging.AbstractSimpleLogger;
+import space.sunqian.fs.base.logging.AsyncSimpleLogger;
 import space.sunqian.fs.base.logging.LogKit;
 import space.sunqian.fs.base.logging.SimpleLog;
 import space.sunqian.fs.base.logging.SimpleLogger;
 import space.sunqian.fs.base.thread.TraceKit;
+import space.sunqian.fs.collect.ListKit;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LogTest {
 
@@ -69,6 +86,279 @@ public class LogTest {
         logger.trace("This", " is ", "a trace message!");
     }
 
+    @Test
+    public void testCallerLocation() throws Exception {
+        String caller = "@" + LogTest.class.getName() + ".logForCaller(";
+        StringBuilder output = new StringBuilder();
+        logForCaller(SimpleLogger.newLogger(SimpleLogger.Level.INFO, output));
+        assertTrue(output.toString().contains("[INFO]" + caller));
+        output.setLength(0);
+        logForCaller(SimpleLogger.newLogger(SimpleLogger.Level.INFO, output, true));
+        assertTrue(output.toString().contains("[INFO]" + caller));
+        output.setLength(0);
+        logForCaller(SimpleLogger.newLogger(SimpleLogger.Level.INFO, output, false));
+        assertTrue(output.toString().contains("[INFO]-[" + Thread.currentThread().getName() + "]: caller"));
+        assertFalse(output.toString().contains("@"));
+
+        // async
+        output.setLength(0);
+        AsyncSimpleLogger asyncLogger = AsyncSimpleLogger.newBuilder().appendable(output).build();
+        logForCaller(asyncLogger);
+        asyncLogger.close();
+        assertTrue(output.toString().contains("[INFO]" + caller));
+        output.setLength(0);
+        AsyncSimpleLogger noCallerLogger = AsyncSimpleLogger.newBuilder()
+            .appendable(output)
+            .callerLocation(false)
+            .build();
+        logForCaller(noCallerLogger);
+        noCallerLogger.close();
+        assertTrue(output.toString().contains("[INFO]-[" + Thread.currentThread().getName() + "]: caller"));
+        assertFalse(output.toString().contains("@"));
+
+        // the stack trace of the log is captured lazily in the logging thread
+        List<SimpleLog> logs = new ArrayList<>();
+        SimpleLogger custom = new AbstractSimpleLogger(SimpleLogger.Level.INFO) {
+            @Override
+            protected void log(SimpleLog log, Method method) {
+                logs.add(log);
+                assertTrue(Arrays.stream(log.stackTrace()).anyMatch(e ->
+                    e.getMethodName().equals("logForCaller")));
+            }
+        };
+        logForCaller(custom);
+        assertEquals(1, logs.size());
+        assertSame(logs.get(0).stackTrace(), logs.get(0).stackTrace());
+        assertEquals(Thread.currentThread(), logs.get(0).thread());
+        assertArrayEquals(new Object[]{"caller"}, logs.get(0).message());
+    }
+
+    private void logForCaller(SimpleLogger logger) {
+        logger.info("caller");
+    }
+
+    @Test
+    public void testAsyncLogger() throws Exception {
+        StringBuilder output = new StringBuilder();
+        AsyncSimpleLogger logger = AsyncSimpleLogger.newBuilder()
+            .level(SimpleLogger.Level.DEBUG)
+            .appendable(output)
+            .bufferSize(3)
+            .build();
+        assertEquals(SimpleLogger.Level.DEBUG, logger.level());
+        int threadCount = 4;
+        int lineCount = 100;
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            int t = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < lineCount; j++) {
+                    logger.info("message-", t, "-", j);
+                    logger.trace("ignored");
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        logger.flush();
+        String[] lines = output.toString().split(System.lineSeparator());
+        assertEquals(threadCount * lineCount, lines.length);
+        for (String line : lines) {
+            assertTrue(line.contains("[INFO]@" + LogTest.class.getName() + ".lambda$"));
+            assertTrue(line.matches(".*: message-\\d-\\d+$"));
+        }
+        for (int i = 0; i < threadCount; i++) {
+            int t = i;
+            List<String> messages = Arrays.stream(lines)
+                .map(line -> line.substring(line.lastIndexOf(": ") + 2))
+                .filter(m -> m.startsWith("message-" + t + "-"))
+                .collect(Collectors.toList());
+            // the lines of each thread are in order
+            assertEquals(
+                IntStream.range(0, lineCount).mapToObj(j -> "message-" + t + "-" + j).collect(Collectors.toList()),
+                messages
+            );
+        }
+        assertEquals(0, logger.droppedCount());
+
+        // logs after close are appended directly
+        logger.close();
+        logger.close();
+        logger.flush();
+        output.setLength(0);
+        logger.warn("closed");
+        assertTrue(output.toString().endsWith("-[" + Thread.currentThread().getName() + "]: closed"
+            + System.lineSeparator()));
+
+        // convenient method
+        AsyncSimpleLogger sysLogger = SimpleLogger.newAsyncLogger(SimpleLogger.Level.INFO, System.out);
+        testLoggerMethods(sysLogger);
+        sysLogger.close();
+
+        // builder arguments
+        assertThrows(IllegalArgumentException.class, () -> AsyncSimpleLogger.newBuilder().bufferSize(0));
+    }
+
+    @Test
+    public void testAsyncLoggerFullPolicy() throws Exception {
+        // DROP
+        BlockingAppender appender = new BlockingAppender();
+        AsyncSimpleLogger dropLogger = newBlockedLogger(appender, AsyncSimpleLogger.FullPolicy.DROP);
+        dropLogger.info("2");
+        dropLogger.info("3");
+        dropLogger.info("4");
+        assertEquals(1, dropLogger.droppedCount());
+        appender.release.countDown();
+        dropLogger.flush();
+        assertEquals(3, appender.lines());
+        dropLogger.close();
+
+        // CALLER_RUNS and BLOCK
+        for (AsyncSimpleLogger.FullPolicy policy : ListKit.list(
+            AsyncSimpleLogger.FullPolicy.CALLER_RUNS, AsyncSimpleLogger.FullPolicy.BLOCK
+        )) {
+            BlockingAppender blockingAppender = new BlockingAppender();
+            AsyncSimpleLogger logger = newBlockedLogger(blockingAppender, policy);
+            logger.info("2");
+            logger.info("3");
+            Thread thread = new Thread(() -> logger.info("4"));
+            thread.start();
+            // waits for the consumer (BLOCK) or the lock of the appender (CALLER_RUNS)
+            thread.join(100);
+            assertTrue(thread.isAlive());
+            blockingAppender.release.countDown();
+            thread.join();
+            logger.flush();
+            logger.close();
+            assertEquals(4, blockingAppender.lines());
+            assertEquals(0, logger.droppedCount());
+        }
+    }
+
+    private AsyncSimpleLogger newBlockedLogger(
+        BlockingAppender appender, AsyncSimpleLogger.FullPolicy policy
+    ) throws Exception {
+        AsyncSimpleLogger logger = AsyncSimpleLogger.newBuilder()
+            .appendable(appender)
+            .bufferSize(2)
+            .fullPolicy(policy)
+            .build();
+        logger.info("1");
+        // the consumer is blocked in appending the first line
+        appender.entered.await();
+        return logger;
+    }
+
+    @Test
+    public void testAsyncLoggerErrorHandling() throws Exception {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        AsyncSimpleLogger errLogger = AsyncSimpleLogger.newBuilder()
+            .level(SimpleLogger.Level.TRACE)
+            .appendable(new ErrorAppender())
+            .threadFactory(r -> {
+                Thread thread = new Thread(r);
+                thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+                return thread;
+            })
+            .build();
+        errLogger.info("This", " is ", "a info message!");
+        errLogger.error("This", " is ", "an error message with a broken object: ", new Object() {
+            @Override
+            public String toString() {
+                throw new UnsupportedOperationException();
+            }
+        });
+        errLogger.flush();
+        errLogger.close();
+        assertTrue(errors.stream().anyMatch(e -> e instanceof IOException));
+        assertTrue(errors.stream().anyMatch(e -> e instanceof UnsupportedOperationException));
+        // appended directly after close
+        assertThrows(IllegalStateException.class, () -> errLogger.info("This", " is ", "a info message!"));
+    }
+
+    @Test
+    public void testAsyncLoggerFailedFill() throws Exception {
+        StringBuilder output = new StringBuilder();
+        AsyncSimpleLogger logger = AsyncSimpleLogger.newBuilder()
+            .level(SimpleLogger.Level.TRACE)
+            .appendable(output)
+            .callerLocation(false)
+            .build();
+        SimpleLog brokenLog = new SimpleLog() {
+            @Override
+            public ZonedDateTime timestamp() {
+                return ZonedDateTime.now();
+            }
+
+            @Override
+            public SimpleLogger.Level level() {
+                return SimpleLogger.Level.INFO;
+            }
+
+            @Override
+            public Object[] message() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public StackTraceElement[] stackTrace() {
+                return Thread.currentThread().getStackTrace();
+            }
+
+            @Override
+            public Thread thread() {
+                return Thread.currentThread();
+            }
+        };
+        Method log = AbstractSimpleLogger.class.getDeclaredMethod("log", SimpleLog.class, Method.class);
+        log.setAccessible(true);
+        Method info = SimpleLogger.class.getMethod("info", Object[].class);
+        InvocationTargetException e = assertThrows(InvocationTargetException.class, () ->
+            log.invoke(logger, brokenLog, info));
+        assertTrue(e.getCause() instanceof UnsupportedOperationException);
+        // the failed slot is skipped, the following logs are still consumed
+        logger.info("after the broken log");
+        logger.flush();
+        logger.close();
+        assertEquals(1, output.toString().split(System.lineSeparator()).length);
+        assertTrue(output.toString().contains("after the broken log"));
+    }
+
+    private static final class BlockingAppender implements Appendable {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final StringBuffer buffer = new StringBuffer();
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            buffer.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            return append(csq.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) {
+            return append(String.valueOf(c));
+        }
+
+        private int lines() {
+            return buffer.toString().split(System.lineSeparator()).length;
+        }
+    }
+
     @Test
     public void testLazyToString() {
         Object lazyString = LogKit.lazyToString(() -> "hello world");
@@ -11,6 +11,8 @@ import space.sunqian.fs.cache.AbstractSimpleCache;
 import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.collect.MapKit;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -18,6 +20,7 @@ import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CacheTest implements TestPrint, DataGen {
 
@@ -35,6 +39,171 @@ public class CacheTest implements TestPrint, DataGen {
         testCache(SimpleCache.ofStrong());
     }
 
+    @Test
+    public void testBounded() throws Exception {
+        testCache(SimpleCache.ofBounded(100));
+        testCache(SimpleCache.ofBounded(100, (k, v) -> 1));
+
+        // size bounded
+        SimpleCache<Integer, Integer> cache = SimpleCache.ofBounded(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.copyEntries().size());
+        cache.clear();
+        assertEquals(0, cache.size());
+
+        // frequently used entries are retained while scanning
+        for (int i = 100; i < 10000; i++) {
+            if (i % 10 == 0) {
+                for (int j = 0; j < 10; j++) {
+                    cache.get(j, k -> k);
+                }
+            }
+            cache.get(i, k -> k);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, cache.get(i));
+        }
+        assertEquals(100, cache.size());
+
+        // weight bounded
+        SimpleCache<Integer, String> weighted = SimpleCache.ofBounded(100, (k, v) -> v == null ? 0 : v.length());
+        for (int i = 0; i < 100; i++) {
+            weighted.put(i, "0123456789");
+        }
+        assertEquals(10, weighted.size());
+        weighted.put(-1, null);
+        assertEquals(11, weighted.size());
+        weighted.put(-2, "0123456789" + "0123456789" + "0123456789" + "0123456789" + "0123456789"
+            + "0123456789" + "0123456789" + "0123456789" + "0123456789" + "0123456789" + "0");
+        assertNull(weighted.get(-2));
+        SimpleCache<Integer, Integer> negative = SimpleCache.ofBounded(100, (k, v) -> -1);
+        assertThrows(IllegalArgumentException.class, () -> negative.put(1, 1));
+        assertEquals(0, negative.size());
+
+        // zero
+        SimpleCache<Integer, Integer> zero = SimpleCache.ofBounded(0);
+        zero.put(1, 1);
+        assertNull(zero.get(1));
+        assertEquals(0, zero.size());
+        assertThrows(IllegalArgumentException.class, () -> SimpleCache.ofBounded(-1));
+    }
+
+    @Test
+    public void testExpiring() throws Exception {
+        testCache(SimpleCache.newBuilder().expireAfterWrite(Duration.ofSeconds(100)).build());
+        testCache(SimpleCache.newBuilder().expireAfterAccess(Duration.ofSeconds(100)).maxSize(100).build());
+        AtomicLong ticker = new AtomicLong();
+
+        // expire after write
+        SimpleCache<Integer, Integer> writeCache = SimpleCache.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(100))
+            .ticker(ticker::get)
+            .build();
+        writeCache.put(1, 1);
+        ticker.addAndGet(Duration.ofMillis(50).toNanos());
+        assertEquals(1, writeCache.get(1));
+        writeCache.put(2, 2);
+        ticker.addAndGet(Duration.ofMillis(60).toNanos());
+        assertNull(writeCache.get(1));
+        assertNull(writeCache.getVal(1));
+        assertEquals(2, writeCache.get(2));
+        assertEquals(MapKit.map(2, 2), writeCache.copyEntries());
+        assertEquals(1, writeCache.size());
+        assertEquals(11, writeCache.get(1, k -> 11));
+        assertEquals(2, writeCache.size());
+        ticker.addAndGet(Duration.ofMillis(60).toNanos());
+        assertNull(writeCache.get(2));
+        assertEquals(11, writeCache.get(1));
+        assertEquals(1, writeCache.size());
+        ticker.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertNull(writeCache.get(1));
+        assertEquals(0, writeCache.size());
+        for (int i = 0; i < 100; i++) {
+            writeCache.put(i, i);
+            ticker.addAndGet(Duration.ofMillis(1).toNanos());
+        }
+        assertEquals(100, writeCache.size());
+        ticker.addAndGet(Duration.ofMillis(50).toNanos());
+        assertEquals(49, writeCache.size());
+        ticker.addAndGet(Duration.ofMillis(50).toNanos());
+        assertEquals(0, writeCache.size());
+
+        // expire after access
+        SimpleCache<Integer, Integer> accessCache = SimpleCache.newBuilder()
+            .expireAfterAccess(Duration.ofMillis(100))
+            .ticker(ticker::get)
+            .build();
+        accessCache.put(1, 1);
+        ticker.addAndGet(Duration.ofMillis(60).toNanos());
+        assertEquals(1, accessCache.get(1));
+        ticker.addAndGet(Duration.ofMillis(60).toNanos());
+        assertEquals(1, accessCache.get(1));
+        assertEquals(1, accessCache.size());
+        ticker.addAndGet(Duration.ofMillis(110).toNanos());
+        assertNull(accessCache.get(1));
+        assertEquals(0, accessCache.size());
+        accessCache.put(2, 2);
+        ticker.addAndGet(Duration.ofHours(5).toNanos());
+        assertNull(accessCache.getVal(2));
+        assertEquals(3, accessCache.getVal(2, k -> Val.of(3)).get());
+
+        // both and bounded
+        SimpleCache<Integer, Integer> bothCache = SimpleCache.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(200))
+            .expireAfterAccess(Duration.ofMillis(100))
+            .maxWeight(10, (k, v) -> 1)
+            .ticker(ticker::get)
+            .build();
+        for (int i = 0; i < 20; i++) {
+            bothCache.put(i, i);
+        }
+        assertEquals(10, bothCache.size());
+        bothCache.clear();
+        bothCache.put(1, 1);
+        for (int i = 0; i < 3; i++) {
+            ticker.addAndGet(Duration.ofMillis(60).toNanos());
+            assertEquals(1, bothCache.get(1));
+        }
+        ticker.addAndGet(Duration.ofMillis(60).toNanos());
+        assertNull(bothCache.get(1));
+
+        // huge durations near the end of the ticker range
+        ticker.set(Long.MAX_VALUE - Duration.ofDays(1).toNanos());
+        SimpleCache<Integer, Integer> foreverCache = SimpleCache.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(Long.MAX_VALUE))
+            .expireAfterAccess(ChronoUnit.FOREVER.getDuration())
+            .ticker(ticker::get)
+            .build();
+        foreverCache.put(1, 1);
+        ticker.addAndGet(Duration.ofDays(2).toNanos());
+        assertEquals(1, foreverCache.get(1));
+        SimpleCache<Integer, Integer> hugeCache = SimpleCache.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(100))
+            .expireAfterAccess(Duration.ofDays(365 * 1000))
+            .ticker(ticker::get)
+            .build();
+        hugeCache.put(1, 1);
+        ticker.addAndGet(Duration.ofMillis(50).toNanos());
+        assertEquals(1, hugeCache.get(1));
+        ticker.addAndGet(Duration.ofMillis(60).toNanos());
+        assertNull(hugeCache.get(1));
+
+        // no bound and invalid bound
+        SimpleCache<Integer, Integer> strong = SimpleCache.newBuilder().build();
+        strong.put(1, 1);
+        ticker.addAndGet(Duration.ofDays(10).toNanos());
+        assertEquals(1, strong.get(1));
+        assertThrows(IllegalArgumentException.class, () -> SimpleCache.newBuilder().maxSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> SimpleCache.newBuilder().maxWeight(-1, (k, v) -> 1));
+        assertThrows(IllegalArgumentException.class, () ->
+            SimpleCache.newBuilder().expireAfterWrite(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () ->
+            SimpleCache.newBuilder().expireAfterAccess(Duration.ofMillis(-1)));
+    }
+
     @Test
     public void testMapCache() throws Exception {
         SimpleCache<Integer, Integer> cache = SimpleCache.ofMap(new HashMap<>());
@@ -320,6 +489,8 @@ public class CacheTest implements TestPrint, DataGen {
         testThreads(SimpleCache.ofSoft(), 20);
         testThreads(SimpleCache.ofPhantom(), 20);
         testThreads(SimpleCache.ofStrong(), 20);
+        testThreads(SimpleCache.ofBounded(1000), 10);
+        testThreads(SimpleCache.ofBounded(1000), 20);
     }
 
     private void testThreads(SimpleCache<Integer, Integer> cache, int threadNum) throws Exception {
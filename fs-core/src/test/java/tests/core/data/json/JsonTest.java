@@ -24,14 +24,19 @@ import space.sunqian.fs.data.json.JsonDataParsingException;
 import space.sunqian.fs.data.json.JsonFormatter;
 import space.sunqian.fs.data.json.JsonKit;
 import space.sunqian.fs.data.json.JsonParser;
+import space.sunqian.fs.data.json.JsonReader;
 import space.sunqian.fs.data.json.JsonType;
+import space.sunqian.fs.data.json.JsonToken;
 import space.sunqian.fs.io.IOKit;
+import space.sunqian.fs.io.ByteReader;
 import space.sunqian.fs.io.IORuntimeException;
 import space.sunqian.fs.object.annotation.DatePattern;
 import space.sunqian.fs.object.annotation.NumPattern;
 import space.sunqian.fs.object.convert.ObjectConverter;
 import space.sunqian.fs.object.schema.ObjectSchemaParser;
 import space.sunqian.fs.reflect.TypeRef;
+import space.sunqian.fs.third.asm.AsmKit;
+import tests.core.io.OneByteInputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -42,6 +47,7 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -50,10 +56,12 @@ import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -556,6 +564,35 @@ public class JsonTest implements TestPrint {
         WritableByteChannel channel = Channels.newChannel(out);
         JsonKit.toJsonBytes(map, channel);
         assertArrayEquals(json, out.toByteArray());
+        // the bytes are written directly, must be the same as the string
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            large.append("abc\"\\\n\u0001中文😀");
+        }
+        WriterBean bean = new WriterBean();
+        bean.setStr(large.toString());
+        bean.setL(Long.MIN_VALUE);
+        bean.setI(Integer.MIN_VALUE);
+        testFormatBytes(large.toString());
+        testFormatBytes("lone\uD83D");
+        testFormatBytes("lone\uDE00x\uD83D");
+        testFormatBytes(new int[]{0, -1, 9, 10, Integer.MAX_VALUE, Integer.MIN_VALUE});
+        testFormatBytes(new long[]{0, -1, 99, 100, 999999999999L, Long.MAX_VALUE, Long.MIN_VALUE});
+        testFormatBytes(new short[]{Short.MAX_VALUE, Short.MIN_VALUE});
+        testFormatBytes(ListKit.list((byte) -128, (short) 5, 123456789012345678L, 'c', 'é'));
+        testFormatBytes(bean);
+        testFormatBytes(ListKit.list(bean, bean, bean));
+    }
+
+    private void testFormatBytes(Object data) throws Exception {
+        byte[] expected = JsonKit.toJsonString(data).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, JsonKit.toJsonBytes(data));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonKit.toJsonBytes(data, out);
+        assertArrayEquals(expected, out.toByteArray());
+        out.reset();
+        JsonKit.toJsonBytes(data, Channels.newChannel(out));
+        assertArrayEquals(expected, out.toByteArray());
     }
 
     @Test
@@ -839,6 +876,277 @@ public class JsonTest implements TestPrint {
         assertThrows(IORuntimeException.class, () -> JsonData.ofString("123456").writeTo(new ErrorAppender()));
     }
 
+    @Test
+    public void testJsonReader() throws Exception {
+        String json = "{\"name\": \"a\\\"b\\u4e2d\u6587\", \"ids\": [1, -2, 9223372036854775807, 3.0], "
+            + "\"skip\": {\"x\": [true, false, null, {\"y\": \"}]\"}]}, \"n\": 1.5e2, \"b\": true, "
+            + "\"nil\": null, \"obj\": {\"k\": [1, \"v\"]}}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<JsonReader> readers = ListKit.list(
+            JsonReader.from(bytes),
+            JsonReader.from(ByteBuffer.wrap(bytes)),
+            JsonReader.from(new ByteArrayInputStream(bytes)),
+            JsonReader.from(ByteReader.from(new OneByteInputStream(bytes)))
+        );
+        for (JsonReader reader : readers) {
+            assertEquals(JsonToken.BEGIN_OBJECT, reader.peek());
+            assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+            assertTrue(reader.hasNext());
+            assertEquals(JsonToken.NAME, reader.peek());
+            assertEquals("name", reader.nextName());
+            assertEquals("a\"b\u4e2d\u6587", reader.nextString());
+            assertEquals("ids", reader.nextName());
+            assertEquals(JsonToken.BEGIN_ARRAY, reader.nextToken());
+            assertEquals(1, reader.nextLong());
+            assertEquals(-2, reader.nextLong());
+            assertEquals(Long.MAX_VALUE, reader.nextLong());
+            assertEquals(3, reader.nextLong());
+            assertFalse(reader.hasNext());
+            assertEquals(JsonToken.END_ARRAY, reader.nextToken());
+            reader.skipValue();
+            assertEquals("n", reader.nextName());
+            assertEquals(150.0, reader.nextDouble());
+            assertEquals("b", reader.nextName());
+            assertEquals(JsonToken.BOOLEAN, reader.peek());
+            assertTrue(reader.nextBoolean());
+            assertEquals("nil", reader.nextName());
+            reader.nextNull();
+            JsonData obj = reader.nextValue();
+            assertEquals(JsonType.OBJECT, obj.type());
+            assertEquals(ListKit.list(1, "v"), obj.asMap().get("k"));
+            assertFalse(reader.hasNext());
+            assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+            assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+            assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+            assertEquals(bytes.length, reader.position());
+            reader.close();
+        }
+        // token sequence
+        JsonReader tokens = JsonReader.from("[{\"a\": \"x\"}, 1, \"s\", true, null, []]".getBytes(StandardCharsets.UTF_8));
+        List<JsonToken> tokenList = new ArrayList<>();
+        JsonToken token;
+        while ((token = tokens.nextToken()) != JsonToken.END_DOCUMENT) {
+            tokenList.add(token);
+        }
+        assertEquals(ListKit.list(
+            JsonToken.BEGIN_ARRAY, JsonToken.BEGIN_OBJECT, JsonToken.NAME, JsonToken.STRING, JsonToken.END_OBJECT,
+            JsonToken.NUMBER, JsonToken.STRING, JsonToken.BOOLEAN, JsonToken.NULL,
+            JsonToken.BEGIN_ARRAY, JsonToken.END_ARRAY, JsonToken.END_ARRAY
+        ), tokenList);
+        // scalars
+        assertEquals("12.5", JsonReader.from("12.5".getBytes()).nextString());
+        assertEquals(Long.MIN_VALUE, JsonReader.from("-9223372036854775808".getBytes()).nextLong());
+        assertEquals(new BigDecimal("1.25"), new BigDecimal(JsonReader.from(" 1.25 ".getBytes()).nextNumber().toString()));
+        assertEquals(JsonType.NULL, JsonReader.from("null".getBytes()).nextValue().type());
+        // errors
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("9223372036854775808".getBytes()).nextLong());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("1.5".getBytes()).nextLong());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("\"s\"".getBytes()).nextLong());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("1".getBytes()).nextName());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("1".getBytes()).nextBoolean());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("1".getBytes()).nextNull());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("true".getBytes()).nextString());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("tru".getBytes()).peek());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("trux".getBytes()).peek());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("x".getBytes()).peek());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("\"abc".getBytes()).nextString());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("\"a\\x\"".getBytes()).nextString());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("".getBytes()).skipValue());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("[1 2]".getBytes()).nextValue());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("[1,]".getBytes()).nextValue());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("{\"a\" 1}".getBytes()).nextValue());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("{1: 1}".getBytes()).nextValue());
+        assertThrows(JsonDataParsingException.class, () -> JsonReader.from("{\"a\": 1 \"b\"}".getBytes()).nextValue());
+        JsonReader twice = JsonReader.from("1 2".getBytes());
+        twice.nextLong();
+        assertThrows(JsonDataParsingException.class, twice::peek);
+        JsonReader endArray = JsonReader.from("[]".getBytes());
+        endArray.nextToken();
+        assertThrows(JsonDataParsingException.class, endArray::skipValue);
+        assertThrows(JsonDataParsingException.class, endArray::nextValue);
+    }
+
+    @Test
+    public void testParseBytes() throws Exception {
+        JsonParser parser = JsonParser.defaultParser();
+        StringBuilder longStr = new StringBuilder();
+        for (int i = 0; i < IOKit.bufferSize() / 3; i++) {
+            longStr.append("ab\u4e2d");
+        }
+        StringBuilder indents = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            indents.append(' ');
+        }
+        List<String> jsons = ListKit.list(
+            "{\"a\": 1, \"b\": [1, -2, 123456789, -1234567890, 123456789012345678, 1234567890123456789, 1.5, 1e3, -0],"
+                + " \"c\": {\"d\": null, \"e\": true, \"f\": false}, \"g\": \"hello\", \"h\": \"\u4e2d\u6587\ud83d\ude00\"}",
+            "[\"0123456789abcdefg\", \"0123456\\\"789\\u4e2d\\n\", \"\u00e9abcdefgh\\t\", \"\", \"" + longStr + "\"]",
+            "{\n" + indents + "\"a\":\n" + indents + "[1,\n" + indents + "2]\r\n\t}\u000b ",
+            "[1 2, , 3,]",
+            "{\"a\": 1 \"b\": 2,}",
+            "\"" + longStr + "\\\"" + longStr + "\"",
+            "  123  ",
+            "null",
+            "[]",
+            "{}"
+        );
+        for (String json : jsons) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            Object expected = jsonValue(parser.parse(json));
+            assertEquals(expected, jsonValue(parser.parse(bytes)));
+            assertEquals(expected, jsonValue(parser.parse(new ByteArrayInputStream(bytes))));
+            assertEquals(expected, jsonValue(parser.parse(new OneByteInputStream(bytes))));
+            assertEquals(expected, jsonValue(parser.parse(Channels.newChannel(new ByteArrayInputStream(bytes)))));
+        }
+        JsonData numbers = parser.parse("[1, 1234567890, 1234567890123456789, 1.50]".getBytes(StandardCharsets.UTF_8));
+        assertEquals(Integer.class, numbers.asList().get(0).getClass());
+        assertEquals(Long.class, numbers.asList().get(1).getClass());
+        assertEquals(BigInteger.class, numbers.asList().get(2).getClass());
+        assertEquals(new BigDecimal("1.50"), numbers.asList().get(3));
+        List<String> errors = ListKit.list(
+            "", "   ", "{\"a:123,\"b\":243}", "{\"a\":123,\"b\":243", "{\"a\":+123}", "{\"a\":123XXX}",
+            "{\"a\":123e11.11}", "{,\"a\": 1}", "{\"a\"", "{\"a\"  ", "[,1]", "[1", "\"b", "\"b\\x\"", "\"b\\",
+            "\"b\\u123", "123x", "y123x", "tru", "nul", "-", "1 2"
+        );
+        for (String error : errors) {
+            byte[] bytes = error.getBytes(StandardCharsets.UTF_8);
+            assertThrows(JsonDataParsingException.class, () -> parser.parse(bytes), error);
+            assertThrows(JsonDataParsingException.class, () -> parser.parse(new OneByteInputStream(bytes)), error);
+        }
+        JsonDataParsingException e = assertThrows(JsonDataParsingException.class, () ->
+            parser.parse("{\"a\": 1, \"b\": x}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(14, e.getOccurIndex());
+        // malformed UTF-8 in a string which fits in one buffer: invalid continuation, truncated, overlong, surrogate
+        List<byte[]> malformed = ListKit.list(
+            new byte[]{'"', 'a', (byte) 0xc3, '(', 'b', '"'},
+            new byte[]{'"', 'a', (byte) 0xe4, (byte) 0xb8, '"'},
+            new byte[]{'"', (byte) 0xc0, (byte) 0xaf, '"'},
+            new byte[]{'"', (byte) 0xed, (byte) 0xa0, (byte) 0x80, '"'},
+            new byte[]{'"', (byte) 0xff, '"'}
+        );
+        for (byte[] bytes : malformed) {
+            assertThrows(JsonDataParsingException.class, () -> parser.parse(bytes));
+            assertThrows(JsonDataParsingException.class, () -> parser.parse(new OneByteInputStream(bytes)));
+        }
+        byte[] wellFormed = "\"a\u4e2d\uD83D\uDE00\"".getBytes(StandardCharsets.UTF_8);
+        assertEquals("a\u4e2d\uD83D\uDE00", parser.parse(wellFormed).asString());
+        assertEquals("a\u4e2d\uD83D\uDE00", parser.parse(new OneByteInputStream(wellFormed)).asString());
+    }
+
+    private Object jsonValue(JsonData data) {
+        switch (data.type()) {
+            case OBJECT:
+                return data.asMap();
+            case ARRAY:
+                return data.asList();
+            case STRING:
+                return data.asString();
+            case NUMBER:
+                return data.asNumber();
+            case BOOLEAN:
+                return data.asBoolean();
+            default:
+                return null;
+        }
+    }
+
+    @Test
+    public void testIterateArray() throws Exception {
+        int size = 10000;
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                json.append(",");
+            }
+            json.append("{\"id\": ").append(i).append(", \"name\": \"n").append(i).append("\"}");
+        }
+        json.append("] ");
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        Iterator<JsonData> iterator = JsonParser.defaultParser().iterateArray(new ByteArrayInputStream(bytes));
+        int count = 0;
+        while (iterator.hasNext()) {
+            JsonData element = iterator.next();
+            assertEquals(count, element.asMap().get("id"));
+            assertEquals("n" + count, element.asMap().get("name"));
+            count++;
+        }
+        assertEquals(size, count);
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+        Iterator<JsonData> channelIterator = JsonParser.defaultParser().iterateArray(
+            Channels.newChannel(new ByteArrayInputStream("[1, \"2\", [3]]".getBytes(StandardCharsets.UTF_8)))
+        );
+        assertEquals(1, channelIterator.next().asNumber().intValue());
+        assertEquals("2", channelIterator.next().asString());
+        assertEquals(ListKit.list(3), channelIterator.next().asList());
+        assertFalse(channelIterator.hasNext());
+        assertThrows(JsonDataParsingException.class, () ->
+            JsonParser.defaultParser().iterateArray(new ByteArrayInputStream("{}".getBytes())));
+        Iterator<JsonData> trailing = JsonParser.defaultParser().iterateArray(
+            new ByteArrayInputStream("[1] 2".getBytes()));
+        trailing.next();
+        assertThrows(JsonDataParsingException.class, trailing::hasNext);
+    }
+
+    @Test
+    public void testObjectWriter() throws Exception {
+        WriterBean bean = new WriterBean();
+        bean.setBo(true);
+        bean.setBy((byte) 1);
+        bean.setSh((short) -2);
+        bean.setCh('\n');
+        bean.setI(Integer.MIN_VALUE);
+        bean.setL(Long.MAX_VALUE);
+        bean.setF(1.5f);
+        bean.setD(-0.25);
+        bean.setFmt(7);
+        bean.setStr("a\"b");
+        bean.setLs(ListKit.list(1, "2"));
+        bean.setBytes(new byte[]{1, 2, 3});
+        PrivateWriterBean privateBean = new PrivateWriterBean();
+        privateBean.setBo(true);
+        privateBean.setBy((byte) 1);
+        privateBean.setSh((short) -2);
+        privateBean.setCh('\n');
+        privateBean.setI(Integer.MIN_VALUE);
+        privateBean.setL(Long.MAX_VALUE);
+        privateBean.setF(1.5f);
+        privateBean.setD(-0.25);
+        privateBean.setFmt(7);
+        privateBean.setStr("a\"b");
+        privateBean.setLs(ListKit.list(1, "2"));
+        privateBean.setBytes(new byte[]{1, 2, 3});
+        String expected = "{\"bo\":true,\"by\":1,\"sh\":-2,\"ch\":\"\\n\",\"i\":-2147483648,"
+            + "\"l\":9223372036854775807,\"f\":1.5,\"d\":-0.25,\"fmt\":7.00,\"str\":\"a\\\"b\",\"nullStr\":null,"
+            + "\"ls\":[1,\"2\"],\"bytes\":\"AQID\",\"nested\":null}";
+        JsonFormatter formatter = JsonFormatter.newFormatter(false);
+        // generated writer
+        long classCount = AsmKit.lastClassCount();
+        String json = formatter.format(bean);
+        assertEquals(jsonValue(JsonKit.parse(expected)), jsonValue(JsonKit.parse(json)));
+        assertTrue(json.contains("\"fmt\":7.00"));
+        assertTrue(AsmKit.lastClassCount() > classCount);
+        classCount = AsmKit.lastClassCount();
+        assertEquals(json, formatter.format(bean));
+        assertEquals(classCount, AsmKit.lastClassCount());
+        // reflective writer for the non-public class
+        assertEquals(jsonValue(JsonKit.parse(expected)), jsonValue(JsonKit.parse(formatter.format(privateBean))));
+        assertEquals(classCount, AsmKit.lastClassCount());
+        // ignore null
+        JsonFormatter ignoreNull = JsonFormatter.newFormatter(true);
+        Map<String, Object> expectedIgnoreNull = JsonKit.parse(expected).asMap();
+        expectedIgnoreNull.remove("nullStr");
+        expectedIgnoreNull.remove("nested");
+        assertEquals(expectedIgnoreNull, JsonKit.parse(ignoreNull.format(bean)).asMap());
+        assertEquals(expectedIgnoreNull, JsonKit.parse(ignoreNull.format(privateBean)).asMap());
+        assertFalse(ignoreNull.format(bean).contains("null"));
+        WriterBean withNested = new WriterBean();
+        withNested.setNested(bean);
+        assertEquals(expectedIgnoreNull, JsonKit.parse(ignoreNull.format(withNested)).asMap().get("nested"));
+        // getter exception
+        assertThrows(DataFormattingException.class, () -> formatter.format(new ErrorWriterBean()));
+    }
+
     @Test
     public void testException() throws Exception {
         testJsonDataException();
@@ -855,6 +1163,36 @@ public class JsonTest implements TestPrint {
         A, B, C
     }
 
+    @Data
+    public static class WriterBean {
+        private boolean bo;
+        private byte by;
+        private short sh;
+        private char ch;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        @NumPattern("0.00")
+        private int fmt;
+        private String str;
+        private String nullStr;
+        private List<Object> ls;
+        private byte[] bytes;
+        private WriterBean nested;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    private static class PrivateWriterBean extends WriterBean {
+    }
+
+    public static class ErrorWriterBean {
+        public String getStr() {
+            throw new IllegalStateException();
+        }
+    }
+
     @Data
     public static class DataSrc {
         private String s1;
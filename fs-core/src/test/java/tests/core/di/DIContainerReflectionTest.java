@@ -0,0 +1,15 @@
+package tests.core.di;
+
+import space.sunqian.fs.di.DIContainer;
+
+/**
+ * Runs all tests of {@link DIContainerTest} with the generated wirings disabled, so that the reflective resolver, field
+ * setter, instantiation and invocation are covered although the test classes are processed by fs-build.
+ */
+public class DIContainerReflectionTest extends DIContainerTest {
+
+    @Override
+    protected DIContainer.Builder newBuilder() {
+        return DIContainer.newBuilder().generatedWiring(false);
+    }
+}
@@ -16,14 +16,21 @@ import space.sunqian.fs.di.DIContainer;
 import space.sunqian.fs.di.DIException;
 import space.sunqian.fs.di.DIInitializeException;
 import space.sunqian.fs.di.DIShutdownException;
+import space.sunqian.fs.di.DIWiring;
 import space.sunqian.fs.reflect.TypeRef;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -40,6 +47,14 @@ public class DIContainerTest implements TestPrint {
     private static final List<String> postList = new ArrayList<>();
     private static final List<String> preList = new ArrayList<>();
 
+    /**
+     * Returns the builder used by the tests, {@link DIContainerReflectionTest} overrides it to run the tests without
+     * the generated wirings.
+     */
+    protected DIContainer.Builder newBuilder() {
+        return DIContainer.newBuilder();
+    }
+
     @Test
     public void testContainer1() {
         clearLists();
@@ -74,7 +89,7 @@ public class DIContainerTest implements TestPrint {
 
     @Test
     public void testRootAspect() {
-        DIContainer container = DIContainer.newBuilder()
+        DIContainer container = newBuilder()
             .componentTypes(AspectService2.class, AspectHandler.class, InterServiceImpl.class, AspectService1Impl.class)
             .componentAnnotation(TestRes.class)
             .build();
@@ -101,10 +116,10 @@ public class DIContainerTest implements TestPrint {
 
     @Test
     public void testErrorComponents() throws Exception {
-        DIContainer container = DIContainer.newBuilder().componentTypes(DepErr1.class).build();
+        DIContainer container = newBuilder().componentTypes(DepErr1.class).build();
         container.initialize();
         container.shutdown();
-        DIContainer container2 = DIContainer.newBuilder().componentTypes(DepErr2.class).build();
+        DIContainer container2 = newBuilder().componentTypes(DepErr2.class).build();
         container2.initialize();
         container2.shutdown();
     }
@@ -112,21 +127,21 @@ public class DIContainerTest implements TestPrint {
     @Test
     public void testCycleDependencies() {
         assertThrows(DIException.class, () ->
-            DIContainer.newBuilder().componentTypes(Dep4.class, Dep5.class).build().initialize());
+            newBuilder().componentTypes(Dep4.class, Dep5.class).build().initialize());
         assertThrows(DIException.class, () ->
-            DIContainer.newBuilder().componentTypes(Dep6.class, Dep7.class).build().initialize());
+            newBuilder().componentTypes(Dep6.class, Dep7.class).build().initialize());
         assertThrows(DIException.class, () ->
-            DIContainer.newBuilder().componentTypes(DepErr3.class).build().initialize());
+            newBuilder().componentTypes(DepErr3.class).build().initialize());
     }
 
     @Test
     public void testNoDependencyComponents() throws Exception {
-        DIContainer container = DIContainer.newBuilder()
+        DIContainer container = newBuilder()
             .componentTypes(Dep8.class, Dep10.class, Dep9.class)
             .build()
             .initialize();
         container.shutdown();
-        DIContainer container2 = DIContainer.newBuilder()
+        DIContainer container2 = newBuilder()
             .componentTypes(Dep9.class, Dep10.class, Dep8.class)
             .build()
             .initialize();
@@ -135,7 +150,7 @@ public class DIContainerTest implements TestPrint {
 
     @Test
     public void testNoDependency() throws Exception {
-        DIContainer container = DIContainer.newBuilder()
+        DIContainer container = newBuilder()
             .componentTypes(Object.class)
             .build()
             .initialize();
@@ -151,7 +166,7 @@ public class DIContainerTest implements TestPrint {
     @Test
     public void testStartupError() {
         DIInitializeException startErr = assertThrows(DIInitializeException.class, () -> {
-            DIContainer.newBuilder()
+            newBuilder()
                 .componentTypes(Dep8.class, Dep9.class, ConstructErr.class, Dep10.class)
                 .build()
                 .initialize();
@@ -176,7 +191,7 @@ public class DIContainerTest implements TestPrint {
     @Test
     public void testShutdownError() {
         DIShutdownException shutErr = assertThrows(DIShutdownException.class, () -> {
-            DIContainer.newBuilder()
+            newBuilder()
                 .componentTypes(Dep8.class, Dep9.class, DestroyErr.class, Dep10.class)
                 .build()
                 .initialize()
@@ -201,7 +216,7 @@ public class DIContainerTest implements TestPrint {
 
     @Test
     public void testPostConstructAndPreDestroyAtSameMethod() {
-        DIContainer container = DIContainer.newBuilder()
+        DIContainer container = newBuilder()
             .componentTypes(Dep11.class)
             .build()
             .initialize();
@@ -211,6 +226,135 @@ public class DIContainerTest implements TestPrint {
         container.shutdown();
     }
 
+    @Test
+    public void testParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            // dependency order
+            Par.postList.clear();
+            Par.destroyList.clear();
+            DIContainer container = newBuilder()
+                .componentTypes(ParA.class, ParX.class, ParY.class, ParZ.class, ParCycle1.class, Dep3.class)
+                .parallelExecutor(executor)
+                .build()
+                .initialize();
+            assertTrue(Par.postList.indexOf("C") < Par.postList.indexOf("B"));
+            assertTrue(Par.postList.indexOf("B") < Par.postList.indexOf("A"));
+            assertTrue(Par.postList.containsAll(ListKit.list("X", "Y", "Z", "cycle1", "cycle2")));
+            assertEquals(container.localComponents().size(), container.postConstructTimes().size());
+            assertTrue(container.preDestroyTimes().isEmpty());
+            for (DIComponent component : container.localComponents().values()) {
+                assertTrue(component.isInitialized());
+                assertTrue(container.postConstructTimes().containsKey(component));
+            }
+            container.shutdown();
+            assertEquals(ListKit.list("A", "B", "C"), Par.destroyList);
+            assertEquals(container.localComponents().size(), container.preDestroyTimes().size());
+            for (DIComponent component : container.localComponents().values()) {
+                assertTrue(component.isDestroyed());
+            }
+            // startup error
+            DIInitializeException startErr = assertThrows(DIInitializeException.class, () ->
+                newBuilder()
+                    .componentTypes(ParA.class, ConstructErr.class)
+                    .parallelExecutor(executor)
+                    .build()
+                    .initialize()
+            );
+            assertEquals(ConstructErr.class, startErr.failedComponent().type());
+            assertFalse(startErr.uninitializedComponents().contains(startErr.failedComponent()));
+            for (DIComponent initializedComponent : startErr.initializedComponents()) {
+                assertTrue(initializedComponent.isInitialized());
+            }
+            // shutdown error
+            DIShutdownException shutErr = assertThrows(DIShutdownException.class, () ->
+                newBuilder()
+                    .componentTypes(Dep8.class, DestroyErr.class)
+                    .parallelExecutor(executor)
+                    .build()
+                    .initialize()
+                    .shutdown()
+            );
+            assertEquals(DestroyErr.class, shutErr.failedComponent().type());
+            // rejected
+            DIInitializeException rejectedErr = assertThrows(DIInitializeException.class, () ->
+                newBuilder()
+                    .componentTypes(Dep8.class)
+                    .parallelExecutor(r -> {
+                        throw new RejectedExecutionException();
+                    })
+                    .build()
+                    .initialize()
+            );
+            assertEquals(Dep8.class, rejectedErr.failedComponent().type());
+            assertTrue(rejectedErr.getCause() instanceof RejectedExecutionException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testWiring() throws Throwable {
+        // generated by fs-build
+        Class<?> wiringClass = Class.forName(Wired.class.getName() + DIWiring.CLASS_NAME_SUFFIX);
+        DIWiring wiring = (DIWiring) wiringClass.getConstructor().newInstance();
+        assertEquals(Wired.class, wiring.componentClass());
+        assertEquals(ListKit.list("javax.annotation.Resource", "jakarta.annotation.Resource"), wiring.componentAnnotations());
+        assertEquals(
+            ListKit.list("wiredDep", "privateDep"),
+            wiring.dependencyFields().stream().map(Field::getName).collect(Collectors.toList())
+        );
+        assertEquals(Wired.class.getMethod("postConstruct", WiredDep.class), wiring.postConstructMethod());
+        assertEquals(Wired.class.getMethod("preDestroy"), wiring.preDestroyMethod());
+        Wired wired = (Wired) wiring.newInstance();
+        WiredDep dep = new WiredDep();
+        assertTrue(wiring.setField(Wired.class.getDeclaredField("wiredDep"), wired, dep));
+        assertSame(dep, wired.wiredDep);
+        assertFalse(wiring.setField(Wired.class.getDeclaredField("privateDep"), wired, dep));
+        assertFalse(wiring.setField(WiredDep.class.getDeclaredField("value"), wired, dep));
+        // container uses the wiring
+        Wired.callers.clear();
+        DIContainer container = DIContainer.newBuilder()
+            .componentTypes(Wired.class)
+            .build()
+            .initialize();
+        Wired w = container.getObject(Wired.class);
+        assertNotNull(w);
+        assertSame(container.getObject(WiredDep.class), w.wiredDep);
+        assertSame(w.wiredDep, w.privateDep());
+        container.shutdown();
+        assertEquals(ListKit.list(wiringClass.getName(), wiringClass.getName(), wiringClass.getName()), Wired.callers);
+        // different annotations, scans by reflection
+        Wired.callers.clear();
+        DIContainer container2 = DIContainer.newBuilder()
+            .componentTypes(Wired.class)
+            .componentAnnotation(Resource.class)
+            .build()
+            .initialize();
+        Wired w2 = container2.getObject(Wired.class);
+        assertNotNull(w2);
+        assertSame(container2.getObject(WiredDep.class), w2.wiredDep);
+        // instantiation and invocation still use the wiring
+        assertEquals(ListKit.list(wiringClass.getName(), wiringClass.getName()), Wired.callers);
+        // generated wiring disabled, uses reflection
+        Wired.callers.clear();
+        DIContainer container3 = DIContainer.newBuilder()
+            .componentTypes(Wired.class)
+            .generatedWiring(false)
+            .build()
+            .initialize();
+        Wired w3 = container3.getObject(Wired.class);
+        assertNotNull(w3);
+        assertSame(container3.getObject(WiredDep.class), w3.wiredDep);
+        assertSame(w3.wiredDep, w3.privateDep());
+        container3.shutdown();
+        assertEquals(3, Wired.callers.size());
+        assertFalse(Wired.callers.contains(wiringClass.getName()));
+        // no wiring
+        assertThrows(ClassNotFoundException.class, () ->
+            Class.forName(WiredDep.class.getName() + DIWiring.CLASS_NAME_SUFFIX));
+    }
+
     @Test
     public void testException() throws Exception {
         testDIExceptionConstructors();
@@ -223,7 +367,7 @@ public class DIContainerTest implements TestPrint {
     }
 
     private DIContainer createContainer1() {
-        return DIContainer.newBuilder()
+        return newBuilder()
             .componentTypes(
                 Starter.class, ServiceAaa.class, ServiceBbb.class, InterServiceImpl.class,
                 AspectService1Impl.class, AspectHandler.class,
@@ -330,7 +474,7 @@ public class DIContainerTest implements TestPrint {
     }
 
     private DIContainer createContainer2(DIContainer container1) {
-        return DIContainer.newBuilder()
+        return newBuilder()
             .componentTypes(SubService2.class, AspectHandler2.class)
             .parentContainers(container1)
             .parentContainers(ListKit.list(container1))
@@ -378,7 +522,7 @@ public class DIContainerTest implements TestPrint {
     }
 
     private DIContainer createContainer3(DIContainer container1) {
-        return DIContainer.newBuilder()
+        return newBuilder()
             .parentContainers(container1)
             .componentTypes(Starter.class)
             .build();
@@ -393,7 +537,7 @@ public class DIContainerTest implements TestPrint {
         Dep.postList.clear();
         Dep.destroyList.clear();
         List<Type> types = componentTypes.stream().map(c -> (Type) c).collect(Collectors.toList());
-        DIContainer container = DIContainer.newBuilder()
+        DIContainer container = newBuilder()
             .componentTypes(types)
             .build()
             .initialize();
@@ -427,17 +571,17 @@ public class DIContainerTest implements TestPrint {
 
     private void testInvalidComponentTypes() {
         assertThrows(DIException.class, () -> {
-            DIContainer.newBuilder()
+            newBuilder()
                 .componentTypes(DepErr5.class)
                 .build();
         });
         assertThrows(DIException.class, () -> {
-            DIContainer.newBuilder()
+            newBuilder()
                 .componentTypes(DepErr5.class.getTypeParameters()[0])
                 .build();
         });
         assertThrows(DIException.class, () -> {
-            DIContainer.newBuilder()
+            newBuilder()
                 .componentTypes(DepErr6.class)
                 .build();
         });
@@ -890,4 +1034,152 @@ public class DIContainerTest implements TestPrint {
         @Resource
         private DepErr5 dep;
     }
+
+    public static class Par {
+        static final List<String> postList = Collections.synchronizedList(new ArrayList<>());
+        static final List<String> destroyList = Collections.synchronizedList(new ArrayList<>());
+        static final CountDownLatch latch = new CountDownLatch(3);
+
+        static void awaitOthers() {
+            // ParX, ParY and ParZ are initialized in parallel, otherwise it is timeout
+            latch.countDown();
+            try {
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new FsTestException(e);
+            }
+        }
+    }
+
+    public static class ParA {
+
+        @Resource
+        private ParB parB;
+
+        @PostConstruct
+        public void postConstruct() {
+            assertTrue(Par.postList.contains("B"));
+            Par.postList.add("A");
+        }
+
+        @PreDestroy
+        public void preDestroy() {
+            Par.destroyList.add("A");
+        }
+    }
+
+    public static class ParB {
+
+        @Resource
+        private ParC parC;
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.postList.add("B");
+        }
+
+        @PreDestroy
+        public void preDestroy() {
+            Par.destroyList.add("B");
+        }
+    }
+
+    public static class ParC {
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.postList.add("C");
+        }
+
+        @PreDestroy
+        public void preDestroy() {
+            Par.destroyList.add("C");
+        }
+    }
+
+    public static class ParX {
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.awaitOthers();
+            Par.postList.add("X");
+        }
+    }
+
+    public static class ParY {
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.awaitOthers();
+            Par.postList.add("Y");
+        }
+    }
+
+    public static class ParZ {
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.awaitOthers();
+            Par.postList.add("Z");
+        }
+    }
+
+    public static class ParCycle1 {
+
+        @Resource
+        private ParCycle2 cycle2;
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.postList.add("cycle1");
+        }
+    }
+
+    public static class ParCycle2 {
+
+        @Resource
+        private ParCycle1 cycle1;
+
+        @PostConstruct
+        public void postConstruct() {
+            Par.postList.add("cycle2");
+        }
+    }
+
+    public static class Wired {
+
+        static final List<String> callers = new ArrayList<>();
+
+        @Resource
+        WiredDep wiredDep;
+        @Resource
+        private WiredDep privateDep;
+
+        public Wired() {
+            callers.add(caller());
+        }
+
+        private static String caller() {
+            return new Throwable().getStackTrace()[2].getClassName();
+        }
+
+        public WiredDep privateDep() {
+            return privateDep;
+        }
+
+        @PostConstruct
+        public void postConstruct(WiredDep dep) {
+            assertSame(wiredDep, dep);
+            callers.add(caller());
+        }
+
+        @PreDestroy
+        public void preDestroy() {
+            callers.add(caller());
+        }
+    }
+
+    public static class WiredDep {
+        private String value;
+    }
 }
@@ -0,0 +1,281 @@
+package tests.core.dynamic;
+
+import org.junit.jupiter.api.Test;
+import space.sunqian.annotation.Nonnull;
+import space.sunqian.annotation.Nullable;
+import space.sunqian.fs.dynamic.DynamicClassCache;
+import space.sunqian.fs.dynamic.DynamicException;
+import space.sunqian.fs.dynamic.DynamicKit;
+import space.sunqian.fs.dynamic.aspect.AspectHandler;
+import space.sunqian.fs.dynamic.aspect.AspectSpec;
+import space.sunqian.fs.dynamic.aspect.asm.AsmAspectMaker;
+import space.sunqian.fs.dynamic.proxy.ProxyHandler;
+import space.sunqian.fs.dynamic.proxy.ProxyInvoker;
+import space.sunqian.fs.dynamic.proxy.ProxySpec;
+import space.sunqian.fs.dynamic.proxy.asm.AsmProxyMaker;
+import space.sunqian.fs.io.file.FileKit;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DynamicClassCacheTest {
+
+    @Test
+    public void testCache() {
+        DynamicClassCache cache = DynamicClassCache.newCache();
+        assertNull(cache.persistentDir());
+        AtomicInteger count = new AtomicInteger();
+        Supplier<List<byte[]>> generator = () -> {
+            count.incrementAndGet();
+            return Collections.singletonList(DynamicKit.bytecode(LA.class));
+        };
+        Class<?> cls = cache.get("LA", generator);
+        assertEquals(LA.class.getName(), cls.getName());
+        assertNotSame(LA.class, cls);
+        assertSame(cls, cache.get("LA", generator));
+        assertEquals(1, count.get());
+        assertNotSame(cls, cache.get("LA2", generator));
+        assertEquals(2, count.get());
+        assertThrows(DynamicException.class, () -> cache.get("empty", Collections::emptyList));
+        assertSame(DynamicClassCache.defaultCache(), DynamicClassCache.defaultCache());
+    }
+
+    @Test
+    public void testPersistence() throws Exception {
+        Path dir = FileKit.createTempDir(null).resolve("classes");
+        try {
+            AtomicInteger count = new AtomicInteger();
+            Supplier<List<byte[]>> generator = () -> {
+                count.incrementAndGet();
+                return Collections.singletonList(DynamicKit.bytecode(LA.class));
+            };
+            DynamicClassCache cache1 = DynamicClassCache.newCache(dir);
+            assertEquals(dir, cache1.persistentDir());
+            Class<?> cls1 = cache1.get("LA", generator);
+            assertEquals(1, count.get());
+            assertEquals(1, listFiles(dir).size());
+
+            // a new cache, like in another process, loads from the persistent directory
+            DynamicClassCache cache2 = DynamicClassCache.newCache(dir);
+            Class<?> cls2 = cache2.get("LA", generator);
+            assertEquals(1, count.get());
+            assertEquals(cls1.getName(), cls2.getName());
+            assertNotSame(cls1, cls2);
+
+            // broken file is generated again
+            Path file = listFiles(dir).get(0);
+            Files.write(file, new byte[]{1, 2, 3});
+            DynamicClassCache cache3 = DynamicClassCache.newCache(dir);
+            cache3.get("LA", generator);
+            assertEquals(2, count.get());
+            DynamicClassCache cache4 = DynamicClassCache.newCache(dir);
+            cache4.get("LA", generator);
+            assertEquals(2, count.get());
+
+            // broken bytecode is generated again
+            Files.write(file, brokenBytecode(file));
+            DynamicClassCache cache5 = DynamicClassCache.newCache(dir);
+            assertEquals(LA.class.getName(), cache5.get("LA", generator).getName());
+            assertEquals(3, count.get());
+        } finally {
+            for (Path file : listFiles(dir)) {
+                Files.delete(file);
+            }
+            Files.delete(dir);
+            Files.delete(dir.getParent());
+        }
+    }
+
+    @Test
+    public void testUnwritablePersistence() throws Exception {
+        // the parent of the persistent directory is a file, the directory can not be created
+        Path parent = Files.createTempFile("fs-dynamic", ".tmp");
+        try {
+            AtomicInteger count = new AtomicInteger();
+            Supplier<List<byte[]>> generator = () -> {
+                count.incrementAndGet();
+                return Collections.singletonList(DynamicKit.bytecode(LA.class));
+            };
+            DynamicClassCache cache = DynamicClassCache.newCache(parent.resolve("classes"));
+            Class<?> cls = cache.get("LA", generator);
+            assertEquals(LA.class.getName(), cls.getName());
+            assertSame(cls, cache.get("LA", generator));
+            assertEquals(1, count.get());
+            assertFalse(Files.exists(parent.resolve("classes")));
+        } finally {
+            Files.delete(parent);
+        }
+    }
+
+    private byte @Nonnull [] brokenBytecode(@Nonnull Path file) throws Exception {
+        byte[] bytes = Files.readAllBytes(file);
+        // the class magic number is in the last bytecode
+        byte[] la = DynamicKit.bytecode(LA.class);
+        bytes[bytes.length - la.length] = 0;
+        return bytes;
+    }
+
+    private @Nonnull List<Path> listFiles(@Nonnull Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testProxy() throws Exception {
+        Path dir = FileKit.createTempDir(null);
+        try {
+            AsmProxyMaker maker1 = new AsmProxyMaker(DynamicClassCache.newCache(dir));
+            ProxySpec spec1 = maker1.make(Cached.class, Collections.emptyList(), new CachedProxyHandler("1"));
+            ProxySpec spec2 = maker1.make(Cached.class, Collections.emptyList(), new CachedProxyHandler("2"));
+            assertSame(spec1.proxyClass(), spec2.proxyClass());
+            assertEquals("1hello", spec1.<Cached>newInstance().hello("hello"));
+            assertEquals("2hello", spec2.<Cached>newInstance().hello("hello"));
+            assertEquals("world", spec2.<Cached>newInstance().world("world"));
+
+            // loaded from the persistent directory
+            AsmProxyMaker maker2 = new AsmProxyMaker(DynamicClassCache.newCache(dir));
+            ProxySpec spec3 = maker2.make(Cached.class, Collections.emptyList(), new CachedProxyHandler("3"));
+            assertNotSame(spec1.proxyClass(), spec3.proxyClass());
+            assertEquals(spec1.proxyClass().getName(), spec3.proxyClass().getName());
+            assertEquals("3hello", spec3.<Cached>newInstance().hello("hello"));
+            assertEquals(1, listFiles(dir).size());
+
+            // different proxied methods
+            ProxySpec spec4 = maker2.make(Cached.class, Collections.emptyList(), new CachedProxyHandler("4") {
+                @Override
+                public boolean needsProxy(@Nonnull Method method) {
+                    return method.getDeclaringClass().equals(Cached.class);
+                }
+            });
+            assertNotEquals(spec3.proxyClass(), spec4.proxyClass());
+            assertEquals("4world", spec4.<Cached>newInstance().world("world"));
+            assertEquals(2, listFiles(dir).size());
+
+            // default cache
+            assertSame(
+                new AsmProxyMaker().make(Cached.class, Collections.emptyList(), new CachedProxyHandler("5")).proxyClass(),
+                new AsmProxyMaker().make(Cached.class, Collections.emptyList(), new CachedProxyHandler("6")).proxyClass()
+            );
+        } finally {
+            for (Path file : listFiles(dir)) {
+                Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testAspect() throws Exception {
+        Path dir = FileKit.createTempDir(null);
+        try {
+            AsmAspectMaker maker1 = new AsmAspectMaker(DynamicClassCache.newCache(dir));
+            AspectSpec spec1 = maker1.make(Cached.class, new CachedAspectHandler("1"));
+            AspectSpec spec2 = maker1.make(Cached.class, new CachedAspectHandler("2"));
+            assertSame(spec1.aspectClass(), spec2.aspectClass());
+            assertEquals("1hello", spec1.<Cached>newInstance().hello("hello"));
+            assertEquals("2hello", spec2.<Cached>newInstance().hello("hello"));
+            assertEquals("world", spec2.<Cached>newInstance().world("world"));
+
+            // loaded from the persistent directory
+            AsmAspectMaker maker2 = new AsmAspectMaker(DynamicClassCache.newCache(dir));
+            AspectSpec spec3 = maker2.make(Cached.class, new CachedAspectHandler("3"));
+            assertNotSame(spec1.aspectClass(), spec3.aspectClass());
+            assertEquals("3hello", spec3.<Cached>newInstance().hello("hello"));
+            assertEquals(1, listFiles(dir).size());
+
+            // default cache
+            assertSame(
+                new AsmAspectMaker().make(Cached.class, new CachedAspectHandler("4")).aspectClass(),
+                new AsmAspectMaker().make(Cached.class, new CachedAspectHandler("5")).aspectClass()
+            );
+        } finally {
+            for (Path file : listFiles(dir)) {
+                Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    public static class Cached {
+
+        public String hello(String s) {
+            return s;
+        }
+
+        public String world(String s) {
+            return s;
+        }
+    }
+
+    private static class CachedProxyHandler implements ProxyHandler {
+
+        private final @Nonnull String prefix;
+
+        private CachedProxyHandler(@Nonnull String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean needsProxy(@Nonnull Method method) {
+            return method.getName().equals("hello");
+        }
+
+        @Override
+        public @Nullable Object invoke(
+            @Nonnull Object proxy,
+            @Nonnull Method method,
+            @Nonnull ProxyInvoker invoker,
+            Object @Nonnull ... args
+        ) throws Throwable {
+            return prefix + invoker.invokeSuper(proxy, args);
+        }
+    }
+
+    private static class CachedAspectHandler implements AspectHandler {
+
+        private final @Nonnull String prefix;
+
+        private CachedAspectHandler(@Nonnull String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean needsAspect(@Nonnull Method method) {
+            return method.getName().equals("hello");
+        }
+
+        @Override
+        public void beforeInvoking(@Nonnull Method method, Object @Nonnull [] args, @Nonnull Object target) {
+        }
+
+        @Override
+        public @Nullable Object afterReturning(
+            @Nullable Object result, @Nonnull Method method, Object @Nonnull [] args, @Nonnull Object target
+        ) {
+            return prefix + result;
+        }
+
+        @Override
+        public @Nullable Object afterThrowing(
+            @Nonnull Throwable ex, @Nonnull Method method, Object @Nonnull [] args, @Nonnull Object target
+        ) {
+            return null;
+        }
+    }
+}
@@ -36,6 +36,50 @@ public class InvokeModeTest {
         }
     }
 
+    @Test
+    public void testRecommendedAsm() throws Exception {
+        // public methods and constructors are recommended to use ASM when class definition is allowed
+        assertEquals(InvocationMode.ASM, InvocationMode.recommended(PublicClass.class.getConstructor()));
+        assertEquals(InvocationMode.ASM, InvocationMode.recommended(PublicClass.class.getMethod("method", int.class)));
+        assertEquals(
+            InvocationMode.ASM,
+            InvocationMode.recommended(PublicClass.class.getMethod("staticMethod", String.class))
+        );
+        // non-public parameter type
+        assertEquals(
+            InvocationMode.METHOD_HANDLE,
+            InvocationMode.recommended(PublicClass.class.getMethod("privateParam", TestClass.class))
+        );
+        // abstract class
+        assertEquals(
+            InvocationMode.METHOD_HANDLE,
+            InvocationMode.recommended(AbstractClass.class.getConstructor())
+        );
+    }
+
+    public static class PublicClass {
+
+        public PublicClass() {
+        }
+
+        public static String staticMethod(String s) {
+            return s;
+        }
+
+        public int method(int i) {
+            return i;
+        }
+
+        public void privateParam(TestClass testClass) {
+        }
+    }
+
+    public static abstract class AbstractClass {
+
+        public AbstractClass() {
+        }
+    }
+
     private static class TestClass {
 
         public TestClass() {
@@ -2,6 +2,7 @@ package tests.core.invoke;
 
 import org.junit.jupiter.api.Test;
 import space.sunqian.fs.Fs;
+import space.sunqian.fs.base.system.JvmKit;
 import space.sunqian.fs.invoke.Invocable;
 import space.sunqian.fs.invoke.InvocationException;
 import space.sunqian.fs.invoke.InvocationMode;
@@ -11,6 +12,8 @@ import tests.utils.LotsOfMethods;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -274,12 +277,245 @@ public class InvokeTest {
         };
     }
 
+    @Test
+    public void testFixedArity() throws Throwable {
+        for (InvocationMode mode : InvocationMode.values()) {
+            testFixedArity(mode);
+        }
+        testFixedArity(null);
+    }
+
+    private void testFixedArity(InvocationMode mode) throws Throwable {
+        Arity arity = new Arity();
+        Invocable i0 = fixedInvocable(Arity.class.getMethod("i0"), mode);
+        Invocable i1 = fixedInvocable(Arity.class.getMethod("i1", String.class), mode);
+        Invocable i2 = fixedInvocable(Arity.class.getMethod("i2", String.class, int.class), mode);
+        Invocable i3 = fixedInvocable(Arity.class.getMethod("i3", String.class, int.class, long.class), mode);
+        Invocable s0 = fixedInvocable(Arity.class.getMethod("s0"), mode);
+        Invocable s1 = fixedInvocable(Arity.class.getMethod("s1", String.class), mode);
+        Invocable s2 = fixedInvocable(Arity.class.getMethod("s2", String.class, int.class), mode);
+        Invocable s3 = fixedInvocable(Arity.class.getMethod("s3", String.class, int.class, long.class), mode);
+        Invocable c0 = mode == null ? Invocable.of(Arity.class.getConstructor())
+            : Invocable.of(Arity.class.getConstructor(), mode);
+        Invocable c2 = mode == null ? Invocable.of(Arity.class.getConstructor(String.class, int.class))
+            : Invocable.of(Arity.class.getConstructor(String.class, int.class), mode);
+        Invocable v1 = fixedInvocable(Arity.class.getMethod("v1", String.class), mode);
+        assertEquals("i", i0.invoke0(arity));
+        assertEquals("ia", i1.invoke1(arity, "a"));
+        assertEquals("ia1", i2.invoke2(arity, "a", 1));
+        assertEquals("ia12", i3.invoke3(arity, "a", 1, 2L));
+        assertEquals("ia12", i3.invokeDirectly3(arity, "a", 1, 2L));
+        assertEquals("s", s0.invoke0(null));
+        assertEquals("sa", s1.invoke1(null, "a"));
+        assertEquals("sa1", s2.invoke2(null, "a", 1));
+        assertEquals("sa12", s3.invoke3(null, "a", 1, 2L));
+        assertEquals("sa12", s3.invokeDirectly3(null, "a", 1, 2L));
+        assertEquals("", ((Arity) c0.invoke0(null)).value);
+        assertEquals("a1", ((Arity) c2.invoke2(null, "a", 1)).value);
+        assertNull(v1.invoke1(arity, "v"));
+        assertEquals("v", arity.value);
+        // same results as varargs
+        assertEquals(i2.invoke(arity, "b", 2), i2.invoke2(arity, "b", 2));
+        assertEquals(s1.invoke(null, "b"), s1.invoke1(null, "b"));
+        // mismatched arity falls back to varargs
+        assertEquals("ia", i1.invoke(arity, "a"));
+        assertThrows(InvocationException.class, () -> i1.invoke0(arity));
+        assertThrows(InvocationException.class, () -> i2.invoke1(arity, "a"));
+        // exceptions
+        assertThrows(InvocationException.class, () -> i1.invoke1(null, "a"));
+        assertThrows(InvocationException.class, () -> i2.invoke2(arity, "a", "1"));
+        assertThrows(InvokeTestException.class, () -> i1.invokeDirectly1(arity, "error"));
+        InvocationException e = assertThrows(InvocationException.class, () -> s1.invoke1(null, "error"));
+        assertTrue(e.getCause() instanceof InvokeTestException);
+    }
+
+    private Invocable fixedInvocable(Method method, InvocationMode mode) {
+        return mode == null ? Invocable.of(method) : Invocable.of(method, mode);
+    }
+
+    @Test
+    public void testHiddenClass() throws Throwable {
+        Arity arity = new Arity();
+        Invocable i1 = Invocable.of(Arity.class.getMethod("i1", String.class), InvocationMode.HIDDEN_CLASS);
+        Invocable s2 = Invocable.of(Arity.class.getMethod("s2", String.class, int.class), InvocationMode.HIDDEN_CLASS);
+        Invocable v1 = Invocable.of(Arity.class.getMethod("v1", String.class), InvocationMode.HIDDEN_CLASS);
+        Invocable c0 = Invocable.of(Arity.class.getConstructor(), InvocationMode.HIDDEN_CLASS);
+        // generated classes are hidden classes or lambda classes, of which names contain '/'
+        assertTrue(i1.getClass().getName().contains("/"));
+        assertTrue(s2.getClass().getName().contains("/"));
+        assertTrue(v1.getClass().getName().contains("/"));
+        assertTrue(c0.getClass().getName().contains("/"));
+        assertSame(i1, Invocable.of(Arity.class.getMethod("i1", String.class), InvocationMode.HIDDEN_CLASS));
+        assertEquals("ia", i1.invoke(arity, "a"));
+        assertEquals("ia", i1.invoke1(arity, "a"));
+        assertEquals("sa1", s2.invoke(null, "a", 1));
+        assertEquals("sa1", s2.invoke2(null, "a", 1));
+        assertNull(v1.invoke(arity, "hidden"));
+        assertEquals("hidden", arity.value);
+        assertTrue(c0.invoke0(null) instanceof Arity);
+
+        // methods with many parameters and interface methods
+        Cls cls = new Cls();
+        for (Method method : Cls.class.getMethods()) {
+            if (!method.getDeclaringClass().equals(Cls.class)) {
+                continue;
+            }
+            Object[] args = method.getParameterCount() > 0 ? buildArgsForAsm() : new Object[0];
+            assertEquals(
+                Invocable.of(method, InvocationMode.HIDDEN_CLASS).invoke(cls, args),
+                method.invoke(cls, args)
+            );
+        }
+        Inter inter = new Inter() {};
+        for (Method method : Inter.class.getMethods()) {
+            if (!method.getDeclaringClass().equals(Inter.class)) {
+                continue;
+            }
+            Object[] args = method.getParameterCount() > 0 ? buildArgsForAsm() : new Object[0];
+            assertEquals(
+                Invocable.of(method, InvocationMode.HIDDEN_CLASS).invoke(inter, args),
+                method.invoke(inter, args)
+            );
+        }
+
+        // accessible private method
+        Method privateMethod = A.class.getDeclaredMethod("instancePrivateMethod", String.class);
+        privateMethod.setAccessible(true);
+        Invocable privateInvocable = Invocable.of(privateMethod, InvocationMode.HIDDEN_CLASS);
+        assertEquals("aaa", privateInvocable.invoke(new A(), "aaa"));
+        if (JvmKit.javaMajorVersion() >= 15) {
+            // nestmate of the declaring class
+            assertTrue(privateInvocable.getClass().getName().startsWith(A.class.getPackage().getName()));
+        }
+    }
+
+    @Test
+    public void testLambdaInvokeService() throws Throwable {
+        // the implementation of HIDDEN_CLASS mode on JDK 8-14, tested directly on any JDK
+        Arity arity = new Arity();
+        Invocable s0 = lambdaInvocable(Arity.class.getMethod("s0"));
+        Invocable s1 = lambdaInvocable(Arity.class.getMethod("s1", String.class));
+        Invocable s2 = lambdaInvocable(Arity.class.getMethod("s2", String.class, int.class));
+        Invocable s3 = lambdaInvocable(Arity.class.getMethod("s3", String.class, int.class, long.class));
+        Invocable i0 = lambdaInvocable(Arity.class.getMethod("i0"));
+        Invocable i1 = lambdaInvocable(Arity.class.getMethod("i1", String.class));
+        Invocable i2 = lambdaInvocable(Arity.class.getMethod("i2", String.class, int.class));
+        Invocable i3 = lambdaInvocable(Arity.class.getMethod("i3", String.class, int.class, long.class));
+        Invocable v1 = lambdaInvocable(Arity.class.getMethod("v1", String.class));
+        Invocable c0 = lambdaInvocable(Arity.class.getConstructor());
+        Invocable c2 = lambdaInvocable(Arity.class.getConstructor(String.class, int.class));
+        // static
+        assertEquals("s", s0.invoke(null));
+        assertEquals("s", s0.invoke0(null));
+        assertEquals("sa", s1.invoke(null, "a"));
+        assertEquals("sa", s1.invoke1(null, "a"));
+        assertEquals("sa1", s2.invoke(null, "a", 1));
+        assertEquals("sa1", s2.invoke2(null, "a", 1));
+        assertEquals("sa12", s3.invoke(null, "a", 1, 2L));
+        assertEquals("sa12", s3.invoke3(null, "a", 1, 2L));
+        // instance
+        assertEquals("i", i0.invoke(arity));
+        assertEquals("i", i0.invoke0(arity));
+        assertEquals("ia", i1.invoke(arity, "a"));
+        assertEquals("ia", i1.invoke1(arity, "a"));
+        assertEquals("ia1", i2.invoke(arity, "a", 1));
+        assertEquals("ia1", i2.invoke2(arity, "a", 1));
+        assertEquals("ia12", i3.invoke(arity, "a", 1, 2L));
+        assertEquals("ia12", i3.invoke3(arity, "a", 1, 2L));
+        assertNull(v1.invoke(arity, "lambda"));
+        assertEquals("lambda", arity.value);
+        assertNull(v1.invoke1(arity, "lambda1"));
+        assertEquals("lambda1", arity.value);
+        // constructor
+        assertTrue(c0.invoke(null) instanceof Arity);
+        assertTrue(c0.invoke0(null) instanceof Arity);
+        assertEquals("a1", ((Arity) c2.invoke(null, "a", 1)).value);
+        assertEquals("a1", ((Arity) c2.invoke2(null, "a", 1)).value);
+        // exceptions
+        assertThrows(InvokeTestException.class, () -> s1.invokeDirectly1(null, "error"));
+        InvocationException e = assertThrows(InvocationException.class, () -> i1.invoke1(arity, "error"));
+        assertTrue(e.getCause() instanceof InvokeTestException);
+        // unsupported: too many parameters and non-public
+        assertNull(lambdaInvocable(Cls.class.getMethod(
+            "b2", boolean.class, byte.class, short.class, char.class, int.class, long.class, float.class, double.class,
+            String.class
+        )));
+        assertNull(lambdaInvocable(A.class.getDeclaredMethod("instancePrivateMethod", String.class)));
+    }
+
+    private Invocable lambdaInvocable(Executable executable) throws Throwable {
+        Class<?> implClass = Class.forName("space.sunqian.fs.invoke.InvokeServiceImpl");
+        Method newInvocable = implClass.getMethod("newInvocable", Executable.class);
+        newInvocable.setAccessible(true);
+        try {
+            return (Invocable) newInvocable.invoke(implClass.getEnumConstants()[0], executable);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
     @Test
     public void testEmpty() {
         assertNull(Invocable.empty().invoke(null));
+        assertNull(Invocable.empty().invoke0(null));
+        assertNull(Invocable.empty().invoke2(null, 1, 2));
         assertSame(Invocable.empty(), Invocable.empty());
     }
 
+    public static class Arity {
+
+        private String value = "";
+
+        public Arity() {
+        }
+
+        public Arity(String a, int b) {
+            this.value = a + b;
+        }
+
+        public static String s0() {
+            return "s";
+        }
+
+        public static String s1(String a) {
+            if ("error".equals(a)) {
+                throw new InvokeTestException();
+            }
+            return "s" + a;
+        }
+
+        public static String s2(String a, int b) {
+            return "s" + a + b;
+        }
+
+        public static String s3(String a, int b, long c) {
+            return "s" + a + b + c;
+        }
+
+        public String i0() {
+            return "i";
+        }
+
+        public String i1(String a) {
+            if ("error".equals(a)) {
+                throw new InvokeTestException();
+            }
+            return "i" + a;
+        }
+
+        public String i2(String a, int b) {
+            return "i" + a + b;
+        }
+
+        public String i3(String a, int b, long c) {
+            return "i" + a + b + c;
+        }
+
+        public void v1(String a) {
+            this.value = a;
+        }
+    }
+
     public static class Cls {
 
         public void b1() {
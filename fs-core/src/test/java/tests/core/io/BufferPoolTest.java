@@ -0,0 +1,211 @@
+package tests.core.io;
+
+import internal.utils.DataGen;
+import org.junit.jupiter.api.Test;
+import space.sunqian.fs.io.BufferPool;
+import space.sunqian.fs.io.IOOperator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferPoolTest implements DataGen {
+
+    @Test
+    public void testAllocate() {
+        BufferPool pool = BufferPool.newBuilder().maxPooledSize(4096).leakSampleInterval(0).build();
+        // size classes
+        ByteBuffer b0 = pool.allocate(0);
+        assertTrue(b0.isDirect());
+        assertEquals(0, b0.position());
+        assertEquals(0, b0.limit());
+        assertEquals(256, b0.capacity());
+        ByteBuffer b1 = pool.allocate(256);
+        assertEquals(256, b1.limit());
+        assertEquals(256, b1.capacity());
+        ByteBuffer b2 = pool.allocate(257);
+        assertEquals(257, b2.limit());
+        assertEquals(512, b2.capacity());
+        ByteBuffer b3 = pool.allocate(4096);
+        assertEquals(4096, b3.capacity());
+        // oversize
+        ByteBuffer b4 = pool.allocate(4097);
+        assertEquals(4097, b4.limit());
+        assertEquals(4097, b4.capacity());
+        BufferPool.Stats stats = pool.stats();
+        assertEquals(5, stats.allocationCount());
+        assertEquals(4, stats.missCount());
+        assertEquals(1, stats.unpooledCount());
+        assertEquals(0, stats.hitCount());
+        assertEquals(5, stats.activeCount());
+        // reuse
+        b2.put((byte) 1);
+        pool.release(b2);
+        ByteBuffer b5 = pool.allocate(300);
+        assertSame(b2, b5);
+        assertEquals(0, b5.position());
+        assertEquals(300, b5.limit());
+        assertEquals(1, stats.hitCount());
+        pool.release(b4);
+        assertNotSame(b4, pool.allocate(4097));
+        pool.release(b0);
+        pool.release(b1);
+        pool.release(b3);
+        pool.release(b5);
+        assertEquals(1, stats.activeCount());
+        // not poolable
+        pool.release(ByteBuffer.allocate(256));
+        ByteBuffer heap = BufferPool.newBuilder().direct(false).build().allocate(100);
+        assertFalse(heap.isDirect());
+        assertEquals(256, heap.capacity());
+    }
+
+    @Test
+    public void testSharedCache() throws Exception {
+        BufferPool pool = BufferPool.newBuilder()
+            .threadCacheCapacity(0)
+            .sharedCacheBytes(1024)
+            .leakSampleInterval(0)
+            .build();
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            buffers.add(pool.allocate(256));
+        }
+        buffers.forEach(pool::release);
+        // 4 buffers are cached
+        for (int i = 0; i < 6; i++) {
+            pool.allocate(256);
+        }
+        assertEquals(4, pool.stats().hitCount());
+        assertEquals(8, pool.stats().missCount());
+        // released by another thread
+        ByteBuffer buffer = pool.allocate(1024);
+        Thread thread = new Thread(() -> pool.release(buffer));
+        thread.start();
+        thread.join();
+        assertSame(buffer, pool.allocate(1000));
+        // the budget is shared by all size classes
+        ByteBuffer b512 = pool.allocate(512);
+        ByteBuffer b1024 = pool.allocate(1024);
+        ByteBuffer b256 = pool.allocate(256);
+        pool.release(b512);
+        pool.release(b1024);
+        pool.release(b256);
+        assertSame(b512, pool.allocate(512));
+        assertSame(b256, pool.allocate(256));
+        assertNotSame(b1024, pool.allocate(1024));
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        BufferPool pool = BufferPool.newBuilder().threadCacheCapacity(2).sharedCacheBytes(4096).build();
+        int threadNum = 8;
+        CountDownLatch latch = new CountDownLatch(threadNum);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int i = 0; i < threadNum; i++) {
+            new Thread(() -> {
+                try {
+                    List<ByteBuffer> buffers = new ArrayList<>();
+                    for (int j = 0; j < 1000; j++) {
+                        int size = ThreadLocalRandom.current().nextInt(0, 8192);
+                        ByteBuffer buffer = pool.allocate(size);
+                        if (buffer.limit() != size) {
+                            throw new IllegalStateException();
+                        }
+                        buffers.add(buffer);
+                        if (buffers.size() > 4) {
+                            pool.release(buffers.remove(0));
+                        }
+                    }
+                    buffers.forEach(pool::release);
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        assertNull(error.get());
+        BufferPool.Stats stats = pool.stats();
+        assertEquals(threadNum * 1000, stats.allocationCount());
+        assertEquals(0, stats.activeCount());
+        assertEquals(stats.allocationCount(), stats.hitCount() + stats.missCount() + stats.unpooledCount());
+        assertEquals(0, stats.leakCount());
+    }
+
+    @Test
+    public void testLeak() throws Exception {
+        BufferPool pool = BufferPool.newBuilder().leakSampleInterval(1).build();
+        pool.release(pool.allocate(100));
+        for (int i = 0; i < 10; i++) {
+            pool.allocate(100);
+        }
+        for (int i = 0; i < 100 && pool.stats().leakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertTrue(pool.stats().leakCount() > 0);
+        assertTrue(pool.stats().leakCount() <= 10);
+    }
+
+    @Test
+    public void testIOOperator() {
+        BufferPool pool = BufferPool.newBuilder().leakSampleInterval(0).build();
+        IOOperator io = IOOperator.newOperator(64, pool);
+        assertSame(pool, io.bufferPool());
+        assertNull(IOOperator.newOperator(64).bufferPool());
+        for (int size : new int[]{0, 1, 63, 64, 65, 1000}) {
+            byte[] data = randomBytes(size);
+            ByteBuffer read = io.read(Channels.newChannel(new ByteArrayInputStream(data)));
+            if (size == 0) {
+                assertNull(read);
+            } else {
+                byte[] actual = new byte[read.remaining()];
+                read.get(actual);
+                assertArrayEquals(data, actual);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long count = io.readTo(Channels.newChannel(new ByteArrayInputStream(data)), Channels.newChannel(out));
+            assertEquals(size == 0 ? -1 : size, count);
+            assertArrayEquals(data, out.toByteArray());
+            assertArrayEquals(
+                size == 0 ? null : data,
+                io.availableBytes(Channels.newChannel(new ByteArrayInputStream(data)))
+            );
+        }
+        assertEquals(0, pool.stats().activeCount());
+        assertTrue(pool.stats().hitCount() > 0);
+        assertThrows(IllegalArgumentException.class, () -> IOOperator.newOperator(0, pool));
+    }
+
+    @Test
+    public void testBuilder() {
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.newBuilder().maxPooledSize(0));
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.newBuilder().maxPooledSize((1 << 30) + 1));
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.newBuilder().threadCacheCapacity(-1));
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.newBuilder().sharedCacheBytes(-1));
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.newBuilder().leakSampleInterval(-1));
+        assertThrows(IllegalArgumentException.class, () -> BufferPool.defaultPool().allocate(-1));
+        assertSame(BufferPool.defaultPool(), BufferPool.defaultPool());
+        // small max pooled size is rounded up to the min size class
+        BufferPool pool = BufferPool.newBuilder().maxPooledSize(1).build();
+        assertEquals(256, pool.allocate(1).capacity());
+        assertEquals(257, pool.allocate(257).capacity());
+    }
+}
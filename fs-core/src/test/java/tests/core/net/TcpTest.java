@@ -10,6 +10,7 @@ import space.sunqian.fs.base.exception.ThrowKit;
 import space.sunqian.fs.base.function.VoidCallable;
 import space.sunqian.fs.base.thread.ThreadGate;
 import space.sunqian.fs.base.value.IntVar;
+import space.sunqian.fs.io.IORuntimeException;
 import space.sunqian.fs.net.NetException;
 import space.sunqian.fs.net.NetServer;
 import space.sunqian.fs.net.tcp.TcpClient;
@@ -344,6 +345,101 @@ public class TcpTest implements DataGen, TestPrint {
         assertTrue(server.isClosed());
     }
 
+    @Test
+    public void testTcpQueuedWrite() throws Exception {
+        byte[] chunk = randomBytes(64 * 1024);
+        int chunkNum = 256;
+        CountDownLatch openLatch = new CountDownLatch(1);
+        CountDownLatch unwritableLatch = new CountDownLatch(1);
+        CountDownLatch writableLatch = new CountDownLatch(1);
+        CountDownLatch closeLatch = new CountDownLatch(1);
+        AtomicInteger changedCount = new AtomicInteger();
+        TcpContext[] contextHolder = new TcpContext[1];
+        long[] pendingHolder = new long[1];
+
+        TcpServer server = TcpServer.newBuilder()
+            .writeBufferWaterMark(64 * 1024, 256 * 1024)
+            .handler(new TcpServerHandler() {
+                @Override
+                public void channelOpen(@Nonnull TcpContext context) throws Exception {
+                    contextHolder[0] = context;
+                    // the worker thread must not be blocked by the slow client
+                    for (int i = 0; i < chunkNum; i++) {
+                        context.writeBytes(chunk);
+                    }
+                    pendingHolder[0] = context.pendingWriteBytes();
+                    // closed after all pending data flushed
+                    context.close();
+                    assertThrows(IORuntimeException.class, () -> context.writeBytes(chunk));
+                    openLatch.countDown();
+                }
+
+                @Override
+                public void channelClose(@Nonnull TcpContext context) throws Exception {
+                    assertEquals(0, context.pendingWriteBytes());
+                    closeLatch.countDown();
+                }
+
+                @Override
+                public void channelRead(@Nonnull TcpContext context) throws Exception {
+                    TcpServerHandler.nullHandler().channelRead(context);
+                }
+
+                @Override
+                public void channelWritabilityChanged(@Nonnull TcpContext context) throws Exception {
+                    changedCount.incrementAndGet();
+                    if (context.isWritable()) {
+                        writableLatch.countDown();
+                    } else {
+                        unwritableLatch.countDown();
+                    }
+                }
+
+                @Override
+                public void exceptionCaught(@Nullable TcpContext context, @Nonnull Throwable cause) {
+                    printFor("queued write exception", ThrowKit.toString(cause));
+                }
+            })
+            .bind();
+
+        TcpClient client = TcpClient.newBuilder()
+            .socketOption(StandardSocketOptions.SO_RCVBUF, 4096)
+            .connect(server.localAddress());
+        openLatch.await();
+        assertTrue(pendingHolder[0] > 0);
+        unwritableLatch.await();
+
+        // read all data slowly
+        BytesBuilder received = new BytesBuilder();
+        long total = (long) chunk.length * chunkNum;
+        while (received.size() < total) {
+            client.readWait();
+            byte[] bytes = client.availableBytes();
+            if (bytes == null) {
+                break;
+            }
+            received.append(bytes);
+        }
+        client.readWakeUp();
+        assertEquals(total, received.size());
+        byte[] receivedBytes = received.toByteArray();
+        for (int i = 0; i < chunkNum; i++) {
+            for (int j = 0; j < chunk.length; j++) {
+                assertEquals(chunk[j], receivedBytes[i * chunk.length + j]);
+            }
+        }
+        writableLatch.await();
+        closeLatch.await();
+        assertTrue(changedCount.get() >= 2);
+        assertFalse(contextHolder[0].channel().isOpen());
+        assertNull(client.availableBytes());
+        client.close();
+        server.close();
+
+        assertThrows(IllegalArgumentException.class, () -> TcpServer.newBuilder().writeBufferWaterMark(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> TcpServer.newBuilder().writeBufferWaterMark(2, 1));
+    }
+
     private static final class XException extends Exception {
         private static final long serialVersionUID = 1L;
     }
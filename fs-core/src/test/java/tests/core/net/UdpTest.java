@@ -7,6 +7,8 @@ import space.sunqian.annotation.Nullable;
 import space.sunqian.fs.base.chars.CharsKit;
 import space.sunqian.fs.base.function.VoidCallable;
 import space.sunqian.fs.net.NetException;
+import space.sunqian.fs.net.NetServer;
+import space.sunqian.fs.net.udp.UdpBatch;
 import space.sunqian.fs.net.udp.UdpSender;
 import space.sunqian.fs.net.udp.UdpServer;
 import space.sunqian.fs.net.udp.UdpServerHandler;
@@ -19,10 +21,14 @@ import java.net.SocketAddress;
 import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
 import java.nio.channels.DatagramChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -136,6 +142,148 @@ public class UdpTest implements TestPrint {
         server.await();
     }
 
+    @Test
+    public void testUdpBatch() throws Exception {
+        int packetNum = 100;
+        CountDownLatch readLatch = new CountDownLatch(packetNum);
+        Set<String> received = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxBatch = new AtomicInteger();
+        UdpServer server = UdpServer.newBuilder()
+            .maxPacketSize(512)
+            .batchSize(16)
+            .handler(new UdpServerHandler() {
+                @Override
+                public void channelRead(
+                    @Nonnull DatagramChannel channel, byte @Nonnull [] data, @Nonnull SocketAddress address
+                ) {
+                    throw new IllegalStateException();
+                }
+
+                @Override
+                public void channelReadBatch(@Nonnull DatagramChannel channel, @Nonnull UdpBatch batch) {
+                    assertTrue(batch.size() > 0);
+                    maxBatch.accumulateAndGet(batch.size(), Math::max);
+                    for (int i = 0; i < batch.size(); i++) {
+                        ByteBuffer data = batch.data(i);
+                        assertTrue(data.isDirect());
+                        assertEquals(0, data.position());
+                        assertNotNull(batch.address(i));
+                        byte[] bytes = new byte[data.remaining()];
+                        data.get(bytes);
+                        received.add(new String(bytes, CharsKit.defaultCharset()));
+                        readLatch.countDown();
+                    }
+                    assertThrows(IndexOutOfBoundsException.class, () -> batch.data(batch.size()));
+                    assertThrows(IndexOutOfBoundsException.class, () -> batch.address(-1));
+                }
+
+                @Override
+                public void exceptionCaught(@Nullable DatagramChannel channel, @Nonnull Throwable cause) {
+                    printFor("udp batch exception", cause);
+                }
+            })
+            .bind();
+        sendPackets(server, packetNum, "batch-");
+        readLatch.await();
+        assertEquals(packetNum, received.size());
+        assertTrue(received.contains("batch-0"));
+        assertTrue(received.contains("batch-" + (packetNum - 1)));
+        assertTrue(maxBatch.get() <= 16);
+        server.close();
+        server.await();
+
+        // default batch handling
+        CountDownLatch defaultLatch = new CountDownLatch(packetNum * 2);
+        UdpServer defaultServer = UdpServer.newBuilder()
+            .batchSize(4)
+            .handler(new UdpServerHandler() {
+                @Override
+                public void channelRead(
+                    @Nonnull DatagramChannel channel, byte @Nonnull [] data, @Nonnull SocketAddress address
+                ) throws Exception {
+                    assertTrue(new String(data, CharsKit.defaultCharset()).startsWith("default-"));
+                    defaultLatch.countDown();
+                    throw new XException();
+                }
+
+                @Override
+                public void exceptionCaught(@Nullable DatagramChannel channel, @Nonnull Throwable cause) {
+                    if (channel != null && cause instanceof XException) {
+                        defaultLatch.countDown();
+                    }
+                }
+            })
+            .bind();
+        sendPackets(defaultServer, packetNum, "default-");
+        defaultLatch.await();
+        defaultServer.close();
+        defaultServer.await();
+
+        assertThrows(IllegalArgumentException.class, () -> UdpServer.newBuilder().batchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> UdpServer.newBuilder()
+            .maxPacketSize(Integer.MAX_VALUE / 2 + 1)
+            .batchSize(2)
+            .bind());
+    }
+
+    @Test
+    public void testUdpReusePort() throws Exception {
+        boolean supported;
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            supported = channel.supportedOptions().stream().anyMatch(o -> "SO_REUSEPORT".equals(o.name()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> UdpServer.newBuilder().workerThreadNum(-1));
+        if (!supported) {
+            assertThrows(NetException.class, () -> UdpServer.newBuilder().workerThreadNum(1).bind());
+            return;
+        }
+        int packetNum = 100;
+        CountDownLatch readLatch = new CountDownLatch(packetNum);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        UdpServer server = UdpServer.newBuilder()
+            .workerThreadNum(2)
+            .workerThreadFactory(Thread::new)
+            .batchSize(8)
+            .handler(new UdpServerHandler() {
+                @Override
+                public void channelRead(
+                    @Nonnull DatagramChannel channel, byte @Nonnull [] data, @Nonnull SocketAddress address
+                ) {
+                    threads.add(Thread.currentThread());
+                    readLatch.countDown();
+                }
+
+                @Override
+                public void exceptionCaught(@Nullable DatagramChannel channel, @Nonnull Throwable cause) {
+                    printFor("udp reuse port exception", cause);
+                }
+            })
+            .bind();
+        assertEquals(2, server.workers().size());
+        for (NetServer.Worker worker : server.workers()) {
+            assertEquals(0, worker.connectionNumber());
+            assertTrue(worker.thread().isAlive());
+        }
+        // each sender is hashed to one of the channels
+        for (int i = 0; i < 4; i++) {
+            sendPackets(server, packetNum / 4, "reuse-");
+        }
+        readLatch.await();
+        assertFalse(threads.isEmpty());
+        server.close();
+        server.await();
+        assertTrue(server.isClosed());
+    }
+
+    private void sendPackets(UdpServer server, int packetNum, String prefix) throws Exception {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.localAddress().getPort());
+        UdpSender sender = UdpSender.newSender();
+        for (int i = 0; i < packetNum; i++) {
+            sender.sendString(prefix + i, address);
+        }
+        sender.close();
+    }
+
     private static final class XException extends Exception {
     }
 
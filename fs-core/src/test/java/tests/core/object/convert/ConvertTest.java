@@ -32,6 +32,8 @@ import space.sunqian.fs.object.convert.ObjectConvertException;
 import space.sunqian.fs.object.convert.ObjectConverter;
 import space.sunqian.fs.object.convert.ObjectCopier;
 import space.sunqian.fs.object.convert.UnsupportedObjectConvertException;
+import space.sunqian.fs.object.convert.handlers.AssignableConvertHandler;
+import space.sunqian.fs.object.convert.handlers.CommonConvertHandler;
 import space.sunqian.fs.object.schema.MapSchemaParser;
 import space.sunqian.fs.object.schema.ObjectSchemaParser;
 import space.sunqian.fs.reflect.TypeKit;
@@ -269,6 +271,69 @@ public class ConvertTest implements TestPrint, DataGen {
         testBuilderProviderOptions();
     }
 
+    @Test
+    public void testDispatchCache() throws Exception {
+        ObjectConverter converter = ObjectConverter.defaultConverter();
+        for (int i = 0; i < 3; i++) {
+            assertEquals((long) i, converter.convert(String.valueOf(i), Long.class));
+            assertEquals(String.valueOf(i), converter.convert((long) i, String.class));
+        }
+        assertThrows(ObjectConvertException.class, () -> converter.convert("x", Long.class));
+        String str = "hello";
+        assertSame(str, converter.convert(str, CharSequence.class));
+        assertSame(str, converter.convert(str, CharSequence.class));
+        // options are parts of the key
+        Date date = new Date();
+        DateFormatter f1 = DateFormatter.ofPattern("yyyy");
+        DateFormatter f2 = DateFormatter.ofPattern("yyyy-MM");
+        assertEquals(f1.format(date), converter.convert(date, String.class, ConvertOption.dateFormatter(f1)));
+        assertEquals(f2.format(date), converter.convert(date, String.class, ConvertOption.dateFormatter(f2)));
+        assertEquals(f1.format(date), converter.convert(date, String.class, ConvertOption.dateFormatter(f1)));
+        // stable handlers are skipped
+        int[] counts = new int[2];
+        ObjectConverter.Handler stable = new ObjectConverter.Handler() {
+            @Override
+            public Object convert(
+                Object src, @Nonnull Type srcType, @Nonnull Type targetType,
+                @Nonnull ObjectConverter converter, @Nonnull Option<?, ?> @Nonnull ... options
+            ) {
+                counts[0]++;
+                return ObjectConverter.Status.HANDLER_CONTINUE;
+            }
+
+            @Override
+            public boolean isStable() {
+                return true;
+            }
+        };
+        ObjectConverter.Handler unstable = (src, srcType, targetType, cvt, options) -> {
+            counts[1]++;
+            return "a".equals(src) ? "x" : ObjectConverter.Status.HANDLER_CONTINUE;
+        };
+        ObjectConverter cvt1 = ObjectConverter.newConverter(stable, unstable, CommonConvertHandler.getInstance());
+        assertEquals("x", cvt1.convert("a", String.class));
+        assertEquals("x", cvt1.convert("a", String.class));
+        assertEquals("b", cvt1.convert("b", String.class));
+        assertEquals(1, counts[0]);
+        assertEquals(3, counts[1]);
+        assertEquals("x", cvt1.convert("a", String.class));
+        assertEquals(1, counts[0]);
+        // unstable handlers are not skipped
+        counts[0] = 0;
+        counts[1] = 0;
+        ObjectConverter cvt2 = ObjectConverter.newConverter(unstable, stable, CommonConvertHandler.getInstance());
+        assertEquals(1L, cvt2.convert("1", Long.class));
+        assertEquals(1L, cvt2.convert("1", Long.class));
+        assertEquals(2, counts[0]);
+        assertEquals(2, counts[1]);
+        assertNull(cvt2.convert(null, Long.class));
+        // isStable
+        assertTrue(AssignableConvertHandler.getInstance().isStable());
+        assertTrue(CommonConvertHandler.getInstance().isStable());
+        assertFalse(new CommonConvertHandler() {}.isStable());
+        assertFalse(unstable.isStable());
+    }
+
     @Test
     public void testException() {
         assertThrows(ObjectConvertException.class, () -> {throw new ObjectConvertException();});
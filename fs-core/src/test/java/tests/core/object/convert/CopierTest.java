@@ -15,6 +15,7 @@ import space.sunqian.fs.base.option.Option;
 import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.collect.MapKit;
 import space.sunqian.fs.object.convert.ConvertOption;
+import space.sunqian.fs.object.convert.CopyPlan;
 import space.sunqian.fs.object.convert.ObjectConvertException;
 import space.sunqian.fs.object.convert.ObjectConverter;
 import space.sunqian.fs.object.convert.ObjectCopier;
@@ -143,6 +144,93 @@ public class CopierTest implements TestPrint {
                 ConvertOption.strictSourceTypeMode(true)));
     }
 
+    @Test
+    public void testCopyPlan() throws Exception {
+        ObjectCopier copier = ObjectCopier.defaultCopier();
+        Type stringMap = new TypeRef<Map<String, String>>() {}.type();
+        Type intMap = new TypeRef<Map<String, Integer>>() {}.type();
+        // object to object
+        CopyPlan plan = copier.compile(ClsA.class, ClsB.class);
+        assertEquals(ClsA.class, plan.srcType());
+        assertEquals(ClsB.class, plan.dstType());
+        ClsB clsB = new ClsB();
+        plan.copy(new ClsA("1", "2", "3"), clsB);
+        assertEquals(new ClsB(1, 2, 3), clsB);
+        plan.copy(new ClsA("4", null, "6"), clsB);
+        assertEquals(new ClsB(4, null, 6), clsB);
+        ClsA clsA = new ClsA();
+        copier.compile(ClsA.class, ClsA.class).copy(new ClsA("1", "2", "3"), clsA);
+        assertEquals(new ClsA("1", "2", "3"), clsA);
+        // options
+        clsB = new ClsB(7, 8, 9);
+        copier.compile(ClsA.class, ClsB.class, ConvertOption.ignoreNull(true), ConvertOption.ignoreProperties("third"))
+            .copy(new ClsA("1", null, "3"), clsB);
+        assertEquals(new ClsB(1, 8, 9), clsB);
+        clsA = new ClsA();
+        copier.compile(ClsA.class, ClsA.class, ConvertOption.newInstanceMode(true))
+            .copy(new ClsA("1", "2", "3"), clsA);
+        assertEquals(new ClsA("1", "2", "3"), clsA);
+        // object to map
+        Map<String, Integer> map = new HashMap<>();
+        copier.compile(ClsA.class, intMap).copy(new ClsA("1", "2", "3"), map);
+        assertEquals(MapKit.map("first", 1, "second", 2, "third", 3), map);
+        Map<String, Object> rawMap = new HashMap<>();
+        copier.compile(ClsA.class, HashMap.class, ConvertOption.includeClass(true))
+            .copy(new ClsA("1", "2", "3"), rawMap);
+        assertEquals(MapKit.map("first", "1", "second", "2", "third", "3", "class", ClsA.class), rawMap);
+        // map to object and map
+        clsB = new ClsB();
+        copier.compile(stringMap, ClsB.class).copy(MapKit.map("first", "1", "second", "2", "third", "3"), clsB);
+        assertEquals(new ClsB(1, 2, 3), clsB);
+        map.clear();
+        copier.compile(stringMap, intMap).copy(MapKit.map("first", "1", "second", "2"), map);
+        assertEquals(MapKit.map("first", 1, "second", 2), map);
+        // custom handlers are not compiled but still work
+        ObjectCopier noCopier = ObjectCopier.newCopier(createNoCopyHandler(), CommonCopierHandler.getInstance());
+        clsB = new ClsB();
+        noCopier.compile(ClsA.class, ClsB.class).copy(new ClsA("1", "2", "3"), clsB);
+        assertEquals(new ClsB(), clsB);
+        // the default implementation
+        ObjectCopier delegate = new ObjectCopier() {
+            @Override
+            public void copyProperties(
+                @Nonnull Object src, @Nonnull Type srcType, @Nonnull Object dst, @Nonnull Type dstType,
+                @Nonnull ObjectConverter converter, @Nonnull Option<?, ?> @Nonnull ... options
+            ) {
+                copier.copyProperties(src, srcType, dst, dstType, converter, options);
+            }
+
+            @Override
+            public @Nonnull List<@Nonnull Handler> handlers() {
+                return copier.handlers();
+            }
+
+            @Override
+            public @Nonnull List<@Nonnull Option<?, ?>> defaultOptions() {
+                return copier.defaultOptions();
+            }
+
+            @Override
+            public @Nonnull Handler asHandler() {
+                return copier.asHandler();
+            }
+        };
+        clsB = new ClsB();
+        delegate.compile(ClsA.class, ClsB.class).copy(new ClsA("1", "2", "3"), clsB);
+        assertEquals(new ClsB(1, 2, 3), clsB);
+        // errors
+        assertThrows(ObjectCopyException.class, () -> copier.compile(ClsA.class, ClsB.class)
+            .copy(new ClsA("x", "2", "3"), new ClsB()));
+        assertThrows(ObjectCopyException.class, () ->
+            copier.compile(List.class.getTypeParameters()[0], ClsB.class));
+        // the cached plans of the copies without options
+        for (int i = 0; i < 3; i++) {
+            clsB = new ClsB();
+            copier.copyProperties(new ClsA(String.valueOf(i), "2", "3"), clsB);
+            assertEquals(new ClsB(i, 2, 3), clsB);
+        }
+    }
+
     @Test
     public void testException() {
         assertThrows(ObjectCopyException.class, () -> {throw new ObjectCopyException();});
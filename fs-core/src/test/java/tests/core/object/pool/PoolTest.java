@@ -9,11 +9,23 @@ import space.sunqian.fs.object.pool.ObjectPoolException;
 import space.sunqian.fs.object.pool.SimplePool;
 
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -25,20 +37,317 @@ public class PoolTest implements Asserter, TestPrint {
     public void testSimplePool() throws Exception {
         class X {}
 
-        testNormalCase();
-        testInitFailed();
-        testInitFailedAndDiscardFailed();
-        testDiscardFailed();
-        testValidatorFalse();
-        testReleaseValidatorFalse();
-        testReleaseError();
-        testCleanNormal();
-        testCleanValidatorFalse();
-        testCleanNoTimeout();
-        testCleanError();
+        testSimplePool(false);
+        testSimplePool(true);
         testIllegalArguments();
     }
 
+    private void testSimplePool(boolean concurrent) throws Exception {
+        testNormalCase(concurrent);
+        testReleaseByIdentity(concurrent);
+        testInitFailed(concurrent);
+        testInitFailedAndDiscardFailed(concurrent);
+        testDiscardFailed(concurrent);
+        testValidatorFalse(concurrent);
+        testReleaseValidatorFalse(concurrent);
+        testReleaseError(concurrent);
+        testCleanNormal(concurrent);
+        testCleanValidatorFalse(concurrent);
+        testCleanNoTimeout(concurrent);
+        testCleanError(concurrent);
+    }
+
+    @Test
+    public void testThreads() throws Exception {
+        testThreads(false);
+        testThreads(true);
+    }
+
+    private void testThreads(boolean concurrent) throws Exception {
+        class X {
+            final AtomicBoolean inUse = new AtomicBoolean();
+        }
+
+        SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
+            .coreSize(2)
+            .maxSize(8)
+            .idleTimeout(Duration.ofHours(99))
+            .supplier(() -> new X())
+            .build();
+        int threadNum = 32;
+        AtomicInteger acquired = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threadNum);
+        for (int i = 0; i < threadNum; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    X x = pool.get();
+                    if (x == null) {
+                        continue;
+                    }
+                    acquired.incrementAndGet();
+                    if (!x.inUse.compareAndSet(false, true)) {
+                        conflicts.incrementAndGet();
+                    }
+                    x.inUse.set(false);
+                    pool.release(x);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        printFor("Pool threads[concurrent=" + concurrent + "] acquired", acquired.get());
+        assertEquals(0, conflicts.get());
+        assertTrue(pool.size() <= 8);
+        assertEquals(0, pool.activeSize());
+        assertEquals(pool.size(), pool.idleSize());
+        pool.close();
+    }
+
+    @Test
+    public void testWait() throws Exception {
+        testWait(false);
+        testWait(true);
+    }
+
+    private void testWait(boolean concurrent) throws Exception {
+        class X {}
+
+        SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
+            .coreSize(1)
+            .maxSize(1)
+            .idleTimeout(Duration.ofHours(99))
+            .supplier(() -> new X())
+            .build();
+
+        // immediate and zero timeout
+        X x = pool.get(Duration.ofSeconds(1));
+        assertNotNull(x);
+        assertNull(pool.get(Duration.ZERO));
+        assertEquals(0, pool.waitStats().waitCount());
+
+        // timeout
+        assertNull(pool.get(Duration.ofMillis(10)));
+        assertEquals(1, pool.waitStats().waitCount());
+        assertEquals(1, pool.waitStats().timeoutCount());
+        assertTrue(pool.waitStats().maxWaitNanos() >= Duration.ofMillis(10).toNanos());
+        assertTrue(pool.waitStats().totalWaitNanos() >= pool.waitStats().maxWaitNanos());
+
+        // handoff in FIFO order
+        int waiterNum = 3;
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(waiterNum);
+        for (int i = 0; i < waiterNum; i++) {
+            int index = i;
+            new Thread(() -> {
+                X got = pool.get(Duration.ofSeconds(10));
+                assertSame(x, got);
+                order.add(index);
+                pool.release(got);
+                done.countDown();
+            }).start();
+            while (pool.waitStats().waitingSize() < i + 1) {
+                Thread.sleep(1);
+            }
+        }
+        assertTrue(pool.release(x));
+        done.await();
+        assertEquals(Arrays.asList(0, 1, 2), order);
+        assertEquals(1 + waiterNum, pool.waitStats().waitCount());
+        assertEquals(1, pool.waitStats().timeoutCount());
+        assertEquals(0, pool.waitStats().waitingSize());
+        assertEquals(1, pool.idleSize());
+
+        // new object created for the waiter if the released one is invalid
+        AtomicBoolean valid = new AtomicBoolean(true);
+        SimplePool<X> pool2 = SimplePool.newBuilder()
+            .concurrent(concurrent)
+            .coreSize(1)
+            .maxSize(1)
+            .idleTimeout(Duration.ofHours(99))
+            .supplier(() -> new X())
+            .validator(t -> valid.get())
+            .build();
+        X x2 = pool2.get();
+        assertNotNull(x2);
+        AtomicReference<X> got2 = new AtomicReference<>();
+        Thread waiter2 = new Thread(() -> got2.set(pool2.get(Duration.ofSeconds(10))));
+        waiter2.start();
+        while (pool2.waitStats().waitingSize() < 1) {
+            Thread.sleep(1);
+        }
+        valid.set(false);
+        assertTrue(pool2.release(x2));
+        valid.set(true);
+        waiter2.join();
+        assertNotNull(got2.get());
+        assertNotSame(x2, got2.get());
+
+        // timeouts too long to be represented in nanoseconds
+        X x5 = pool.get();
+        assertNotNull(x5);
+        AtomicReference<X> got5 = new AtomicReference<>();
+        Thread waiter5 = new Thread(() -> got5.set(pool.get(Duration.ofSeconds(Long.MAX_VALUE))));
+        waiter5.start();
+        while (pool.waitStats().waitingSize() < 1) {
+            Thread.sleep(1);
+        }
+        assertTrue(pool.release(x5));
+        waiter5.join();
+        assertSame(x5, got5.get());
+        assertFalse(pool.isClosed());
+        assertNull(pool.get(Duration.ofSeconds(Long.MIN_VALUE)));
+        assertTrue(pool.release(x5));
+
+        // interrupted
+        X x3 = pool.get();
+        assertNotNull(x3);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter3 = new Thread(() -> {
+            try {
+                pool.get(Duration.ofSeconds(10));
+            } catch (Throwable e) {
+                error.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        waiter3.start();
+        while (pool.waitStats().waitingSize() < 1) {
+            Thread.sleep(1);
+        }
+        waiter3.interrupt();
+        waiter3.join();
+        assertTrue(error.get() instanceof ObjectPoolException);
+        assertTrue(error.get().getCause() instanceof InterruptedException);
+        assertTrue(interrupted.get());
+        assertFalse(pool.isClosed());
+
+        // closed while waiting
+        error.set(null);
+        Thread waiter4 = new Thread(() -> {
+            try {
+                pool.get(ChronoUnit.FOREVER.getDuration());
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        waiter4.start();
+        while (pool.waitStats().waitingSize() < 1) {
+            Thread.sleep(1);
+        }
+        pool.close();
+        waiter4.join();
+        assertTrue(error.get() instanceof ObjectPoolException);
+        assertThrows(ObjectPoolException.class, () -> pool.get(Duration.ofSeconds(1)));
+        pool2.close();
+
+        // closed just before the waiter starts waiting
+        for (int i = 0; i < 100; i++) {
+            SimplePool<X> pool3 = SimplePool.newBuilder()
+                .concurrent(concurrent)
+                .coreSize(1)
+                .maxSize(1)
+                .idleTimeout(Duration.ofHours(99))
+                .supplier(() -> new X())
+                .build();
+            assertNotNull(pool3.get());
+            Thread waiter6 = new Thread(() -> {
+                try {
+                    pool3.get(ChronoUnit.FOREVER.getDuration());
+                } catch (ObjectPoolException e) {
+                    // closed
+                }
+            });
+            waiter6.start();
+            pool3.close();
+            waiter6.join();
+        }
+    }
+
+    @Test
+    public void testMaintenance() throws Exception {
+        testMaintenance(false, null);
+        testMaintenance(true, null);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        testMaintenance(false, executor);
+        testMaintenance(true, executor);
+        executor.shutdown();
+        assertThrows(IllegalArgumentException.class, () -> SimplePool.newBuilder().maintenanceInterval(Duration.ZERO));
+    }
+
+    private void testMaintenance(boolean concurrent, ScheduledExecutorService executor) throws Exception {
+        class X {
+            volatile boolean valid = true;
+        }
+
+        AtomicInteger validateCounter = new AtomicInteger();
+        SimplePool.Builder<X> builder = SimplePool.<X>newBuilder()
+            .concurrent(concurrent)
+            .coreSize(2)
+            .maxSize(5)
+            .idleTimeout(1)
+            .maintenanceInterval(Duration.ofMillis(5))
+            .validateOnGet(false)
+            .supplier(() -> new X())
+            .validator(x -> {
+                validateCounter.incrementAndGet();
+                return x.valid;
+            });
+        if (executor != null) {
+            builder.maintenanceExecutor(executor);
+        }
+        SimplePool<X> pool = builder.build();
+
+        // validation is off the acquisition
+        X[] xs = new X[5];
+        int validateCount = validateCounter.get();
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = pool.get();
+            assertNotNull(xs[i]);
+        }
+        assertTrue(validateCounter.get() - validateCount < xs.length);
+        for (X x : xs) {
+            assertTrue(pool.release(x));
+        }
+
+        // idle timeout objects are evicted in the background
+        awaitUntil(() -> pool.size() == 2);
+        assertEquals(2, pool.idleSize());
+
+        // invalid objects are evicted and replenished in the background
+        X invalid = pool.get();
+        assertNotNull(invalid);
+        assertTrue(pool.release(invalid));
+        invalid.valid = false;
+        awaitUntil(() -> {
+            X x1 = pool.get();
+            X x2 = pool.get();
+            boolean replaced = x1 != invalid && x2 != invalid;
+            pool.release(x1);
+            pool.release(x2);
+            return replaced;
+        });
+        assertEquals(2, pool.size());
+
+        // maintenance stops after closed
+        pool.close();
+        Thread.sleep(20);
+        validateCount = validateCounter.get();
+        Thread.sleep(20);
+        assertEquals(validateCount, validateCounter.get());
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
     @Test
     public void testException() {
         assertThrows(ObjectPoolException.class, () -> {throw new ObjectPoolException();});
@@ -47,13 +356,14 @@ public class PoolTest implements Asserter, TestPrint {
         assertThrows(ObjectPoolException.class, () -> {throw new ObjectPoolException(new RuntimeException());});
     }
 
-    private void testNormalCase() throws Exception {
+    private void testNormalCase(boolean concurrent) throws Exception {
         class X {}
 
         IntVar counter = IntVar.of(0);
         IntVar discardCounter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(2)
             .maxSize(5)
             .idleTimeout(Duration.ofHours(99))
@@ -121,12 +431,50 @@ public class PoolTest implements Asserter, TestPrint {
         assertEquals(SetKit.set(xs), SetKit.toSet(pool.unreleasedObjects()));
     }
 
-    private void testInitFailed() {
+    private void testReleaseByIdentity(boolean concurrent) throws Exception {
+        // all instances are equal to each other
+        class X {
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof X;
+            }
+
+            @Override
+            public int hashCode() {
+                return 0;
+            }
+        }
+
+        SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
+            .coreSize(1)
+            .maxSize(2)
+            .supplier(() -> new X())
+            .build();
+        X x1 = pool.get();
+        X x2 = pool.get();
+        assertNotNull(x1);
+        assertNotNull(x2);
+        assertFalse(pool.release(new X()));
+        assertEquals(2, pool.activeSize());
+        assertTrue(pool.release(x2));
+        assertFalse(pool.release(x2));
+        assertEquals(1, pool.activeSize());
+        assertSame(x2, pool.get());
+        assertTrue(pool.release(x1));
+        assertTrue(pool.release(x2));
+        assertEquals(2, pool.idleSize());
+        pool.close();
+    }
+
+    private void testInitFailed(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(Duration.ofHours(99).toMillis())
             .supplier(() -> {
@@ -148,12 +496,13 @@ public class PoolTest implements Asserter, TestPrint {
         assertNull(xs[4]);
     }
 
-    private void testInitFailedAndDiscardFailed() {
+    private void testInitFailedAndDiscardFailed(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(Duration.ofHours(99).toMillis())
             .supplier(() -> {
@@ -175,12 +524,13 @@ public class PoolTest implements Asserter, TestPrint {
         assertNull(xs[4]);
     }
 
-    private void testDiscardFailed() {
+    private void testDiscardFailed(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(Duration.ofHours(99))
             .supplier(() -> {
@@ -199,12 +549,13 @@ public class PoolTest implements Asserter, TestPrint {
         assertEquals(SetKit.set(xs[0], xs[1]), SetKit.toSet(pool.unreleasedObjects()));
     }
 
-    private void testValidatorFalse() {
+    private void testValidatorFalse(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(2)
             .idleTimeout(Duration.ofHours(99))
             .supplier(() -> {
@@ -230,11 +581,12 @@ public class PoolTest implements Asserter, TestPrint {
         assertTrue(pool.isClosed());
     }
 
-    private void testReleaseValidatorFalse() {
+    private void testReleaseValidatorFalse(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(Duration.ofHours(99))
             .supplier(() -> new X())
@@ -251,11 +603,12 @@ public class PoolTest implements Asserter, TestPrint {
         assertEquals(4, pool.size());
     }
 
-    private void testReleaseError() {
+    private void testReleaseError(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(Duration.ofHours(99))
             .supplier(() -> new X())
@@ -278,11 +631,12 @@ public class PoolTest implements Asserter, TestPrint {
         assertEquals(Collections.emptyList(), pool.unreleasedObjects());
     }
 
-    private void testCleanNormal() throws Exception {
+    private void testCleanNormal(boolean concurrent) throws Exception {
         class X {}
 
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(1)
             .maxSize(5)
             .idleTimeout(1)
@@ -327,11 +681,12 @@ public class PoolTest implements Asserter, TestPrint {
         assertFalse(pool.isClosed());
     }
 
-    private void testCleanValidatorFalse() {
+    private void testCleanValidatorFalse(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(1)
             .supplier(() -> {
@@ -354,12 +709,13 @@ public class PoolTest implements Asserter, TestPrint {
         assertEquals(10, counter.get());
     }
 
-    private void testCleanNoTimeout() {
+    private void testCleanNoTimeout(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(1)
             .maxSize(5)
             .idleTimeout(Duration.ofHours(99))
@@ -391,12 +747,13 @@ public class PoolTest implements Asserter, TestPrint {
         assertEquals(5, counter.get());
     }
 
-    private void testCleanError() {
+    private void testCleanError(boolean concurrent) {
         class X {}
 
         IntVar counter = IntVar.of(0);
         X[] xs = new X[5];
         SimplePool<X> pool = SimplePool.newBuilder()
+            .concurrent(concurrent)
             .coreSize(5)
             .idleTimeout(Duration.ofHours(99))
             .supplier(() -> {
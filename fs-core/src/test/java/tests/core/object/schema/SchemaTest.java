@@ -1,6 +1,7 @@
 package tests.core.object.schema;
 
 import internal.utils.TestPrint;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,10 +15,12 @@ import space.sunqian.fs.cache.SimpleCache;
 import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.collect.SetKit;
 import space.sunqian.fs.invoke.Invocable;
+import space.sunqian.fs.invoke.InvocationException;
 import space.sunqian.fs.object.schema.DataSchemaException;
 import space.sunqian.fs.object.schema.MapSchema;
 import space.sunqian.fs.object.schema.MapSchemaParser;
 import space.sunqian.fs.object.schema.MapType;
+import space.sunqian.fs.object.schema.ObjectAccessor;
 import space.sunqian.fs.object.schema.ObjectProperty;
 import space.sunqian.fs.object.schema.ObjectPropertyBase;
 import space.sunqian.fs.object.schema.ObjectSchema;
@@ -574,6 +577,92 @@ public class SchemaTest implements TestPrint {
         assertSame(ObjectSchemaParser.defaultParser().asHandler(), objectParser.asHandler());
     }
 
+    @Test
+    public void testAccessor() {
+        ObjectSchema schema = ObjectSchema.parse(AccessorData.class);
+        ObjectAccessor generated = ObjectAccessor.of(schema);
+        ObjectAccessor invocables = ObjectAccessor.ofInvocables(schema);
+        assertNotSame(generated.getClass(), invocables.getClass());
+        // generated classes are shared by the schemas of the same type
+        assertSame(generated.getClass(), ObjectAccessor.of(ObjectSchema.parse(AccessorData.class)).getClass());
+        assertSame(generated.getClass(), schema.accessor().getClass());
+        assertSame(schema.accessor(), schema.accessor());
+        testAccessor(schema, generated);
+        testAccessor(schema, invocables);
+        ObjectSchemaParser parser = ObjectSchemaParser.newParser(ListKit.list(CommonSchemaHandler.getInstance()), false);
+        assertFalse(parser.generatesAccessors());
+        ObjectSchema invocableSchema = parser.parse(AccessorData.class);
+        assertSame(invocables.getClass(), invocableSchema.accessor().getClass());
+        testAccessor(invocableSchema, invocableSchema.accessor());
+        assertTrue(ObjectSchemaParser.defaultParser().generatesAccessors());
+        assertTrue(ObjectSchemaParser.defaultCachedParser().generatesAccessors());
+    }
+
+    private void testAccessor(ObjectSchema schema, ObjectAccessor accessor) {
+        AccessorData data = new AccessorData();
+        ObjectProperty[] properties = schema.properties().values().toArray(new ObjectProperty[0]);
+        assertEquals(ListKit.list(properties), accessor.properties());
+        for (int i = 0; i < properties.length; i++) {
+            assertEquals(i, properties[i].index());
+        }
+        int iIndex = schema.getProperty("i").index();
+        int lIndex = schema.getProperty("l").index();
+        int fIndex = schema.getProperty("f").index();
+        int dIndex = schema.getProperty("d").index();
+        int bIndex = schema.getProperty("b").index();
+        int strIndex = schema.getProperty("str").index();
+        int boxedIndex = schema.getProperty("boxed").index();
+        int chainedIndex = schema.getProperty("chained").index();
+        int readOnlyIndex = schema.getProperty("readOnly").index();
+        int writeOnlyIndex = schema.getProperty("writeOnly").index();
+        int errorIndex = schema.getProperty("error").index();
+        // typed
+        accessor.setInt(iIndex, data, 1);
+        accessor.setLong(lIndex, data, 2L);
+        accessor.setFloat(fIndex, data, 3f);
+        accessor.setDouble(dIndex, data, 4.0);
+        accessor.setBoolean(bIndex, data, true);
+        accessor.setInt(boxedIndex, data, 5);
+        assertEquals(1, accessor.getInt(iIndex, data));
+        assertEquals(2L, accessor.getLong(lIndex, data));
+        assertEquals(3f, accessor.getFloat(fIndex, data));
+        assertEquals(4.0, accessor.getDouble(dIndex, data));
+        assertTrue(accessor.getBoolean(bIndex, data));
+        assertEquals(5, accessor.getInt(boxedIndex, data));
+        assertEquals(1, data.getI());
+        assertEquals(2L, data.getL());
+        assertEquals(3f, data.getF());
+        assertEquals(4.0, data.getD());
+        assertTrue(data.isB());
+        assertEquals(5, data.getBoxed());
+        // untyped
+        accessor.set(iIndex, data, 11);
+        accessor.set(strIndex, data, "str");
+        accessor.set(chainedIndex, data, 12L);
+        accessor.set(boxedIndex, data, null);
+        accessor.set(writeOnlyIndex, data, "wo");
+        assertEquals(11, accessor.get(iIndex, data));
+        assertEquals("str", accessor.get(strIndex, data));
+        assertEquals(12L, accessor.get(chainedIndex, data));
+        assertNull(accessor.get(boxedIndex, data));
+        assertEquals("wo", accessor.get(readOnlyIndex, data));
+        assertEquals("str", schema.getProperty("str").getValue(data));
+        schema.getProperty("str").setValue(data, "str2");
+        assertEquals("str2", data.getStr());
+        // errors
+        assertThrows(DataSchemaException.class, () -> accessor.get(writeOnlyIndex, data));
+        assertThrows(DataSchemaException.class, () -> accessor.set(readOnlyIndex, data, ""));
+        assertThrows(DataSchemaException.class, () -> schema.getProperty("writeOnly").getValue(data));
+        assertThrows(DataSchemaException.class, () -> schema.getProperty("readOnly").setValue(data, ""));
+        InvocationException e = assertThrows(InvocationException.class, () -> accessor.get(errorIndex, data));
+        assertEquals(UnsupportedOperationException.class, e.getCause().getClass());
+        assertThrows(InvocationException.class, () -> accessor.getInt(boxedIndex, data));
+        assertThrows(InvocationException.class, () -> accessor.getInt(strIndex, data));
+        assertThrows(InvocationException.class, () -> accessor.set(iIndex, data, "str"));
+        assertThrows(InvocationException.class, () -> accessor.get(properties.length, data));
+        assertThrows(InvocationException.class, () -> accessor.get(iIndex, "str"));
+    }
+
     @Test
     public void testMapType() {
         MapType mapType = MapType.of(Map.class, String.class, Long.class);
@@ -790,6 +879,38 @@ public class SchemaTest implements TestPrint {
         }
     }
 
+    @Data
+    public static class AccessorData {
+
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        private boolean b;
+        private String str;
+        private Integer boxed;
+        private long chained;
+        @Getter(AccessLevel.NONE)
+        private String writeOnly;
+
+        public AccessorData setChained(long chained) {
+            this.chained = chained;
+            return this;
+        }
+
+        public String getReadOnly() {
+            return writeOnly;
+        }
+
+        public void setWriteOnly(String writeOnly) {
+            this.writeOnly = writeOnly;
+        }
+
+        public String getError() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     public static class A {
         public String getPp() {
             return "pp";
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import space.sunqian.fs.Fs;
+import space.sunqian.fs.object.convert.ConvertOption;
+import space.sunqian.fs.object.convert.ObjectConverter;
 import space.sunqian.fs.reflect.TypeRef;
 import space.sunqian.fs.utils.jdbc.JdbcKit;
 import space.sunqian.fs.utils.jdbc.SqlRuntimeException;
@@ -15,11 +17,19 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @J17Only
 public class JdbcTest {
@@ -138,6 +148,74 @@ public class JdbcTest {
         resultSet.close();
     }
 
+    @Test
+    public void testJdbcQueryWithStream() throws Exception {
+        PreparedStatement preparedStatement = h2Connection.prepareStatement(
+            "select * from `user`"
+        );
+        preparedStatement.setFetchSize(1);
+        // bean: set into the object directly
+        ResultSet resultSet = preparedStatement.executeQuery();
+        try (Stream<User> users = JdbcKit.toStream(resultSet, User.class)) {
+            checkQueryResult(users.collect(Collectors.toList()));
+        }
+        assertTrue(resultSet.isClosed());
+        // map: converted from the row map
+        resultSet = preparedStatement.executeQuery();
+        try (Stream<Map<String, Object>> users = JdbcKit.toStream(
+            resultSet, new TypeRef<Map<String, Object>>() {}
+        )) {
+            checkQueryMapResult(users.collect(Collectors.toList()));
+        }
+        // custom converter: converted from the row map
+        resultSet = preparedStatement.executeQuery();
+        try (Stream<User> users = JdbcKit.toStream(
+            resultSet,
+            User.class,
+            JdbcKit.defaultNameMapper(),
+            ObjectConverter.defaultConverter().withDefaultOptions()
+        )) {
+            checkQueryResult(users.collect(Collectors.toList()));
+        }
+        // lazy
+        resultSet = preparedStatement.executeQuery();
+        try (Stream<User> users = JdbcKit.toStream(resultSet, User.class)) {
+            Iterator<User> iterator = users.iterator();
+            assertEquals(0, resultSet.getRow());
+            assertTrue(iterator.hasNext());
+            assertEquals(1, resultSet.getRow());
+            assertEquals(1, iterator.next().getId());
+            assertEquals(2, iterator.next().getId());
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+        // options
+        resultSet = preparedStatement.executeQuery();
+        try (Stream<User> users = JdbcKit.toStream(
+            resultSet,
+            User.class,
+            JdbcKit.defaultNameMapper(),
+            ObjectConverter.defaultConverter(),
+            ConvertOption.ignoreProperties("firstName")
+        )) {
+            users.forEach(user -> {
+                assertNull(user.getFirstName());
+                assertNotNull(user.getLastName());
+            });
+        }
+        // no column is bound
+        resultSet = h2Connection.prepareStatement("select 1 as x").executeQuery();
+        try (Stream<User> users = JdbcKit.toStream(resultSet, User.class)) {
+            User user = users.findFirst().orElseThrow(AssertionError::new);
+            assertEquals(0, user.getId());
+            assertNull(user.getFirstName());
+        }
+        // error
+        ResultSet closed = preparedStatement.executeQuery();
+        closed.close();
+        assertThrows(SqlRuntimeException.class, () -> JdbcKit.toStream(closed, User.class));
+    }
+
     private void checkQueryResult(List<User> users) {
         assertEquals(2, users.size());
         // test, 18
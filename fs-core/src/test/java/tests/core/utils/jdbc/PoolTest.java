@@ -6,10 +6,15 @@ import space.sunqian.fs.Fs;
 import space.sunqian.fs.base.value.IntVar;
 import space.sunqian.fs.base.value.Var;
 import space.sunqian.fs.utils.jdbc.SimpleJdbcPool;
+import space.sunqian.fs.utils.jdbc.SqlBuilder;
+import space.sunqian.fs.utils.jdbc.SqlQuery;
 import space.sunqian.fs.utils.jdbc.SqlRuntimeException;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -33,6 +38,11 @@ public class PoolTest {
 
     @Test
     public void testConnectionPoolBasicFunctionality() throws Exception {
+        testConnectionPoolBasicFunctionality(false);
+        testConnectionPoolBasicFunctionality(true);
+    }
+
+    private void testConnectionPoolBasicFunctionality(boolean concurrent) throws Exception {
         SimpleJdbcPool pool = SimpleJdbcPool.newBuilder()
             .driverClassName(DB_DRIVER)
             .url(DB_URL)
@@ -41,6 +51,7 @@ public class PoolTest {
             .coreSize(2)
             .maxSize(3)
             .idleTimeout(Duration.ofSeconds(10))
+            .concurrent(concurrent)
             .build();
 
         // Test getting connections
@@ -52,10 +63,12 @@ public class PoolTest {
         assertNotNull(conn3);
         Connection conn4 = pool.getConnection();
         assertNull(conn4);
+        assertNull(pool.getConnection(Duration.ofMillis(10)));
+        assertEquals(1, pool.waitStats().timeoutCount());
 
         // Test returning connection to pool
         conn1.close();
-        Connection conn5 = pool.getConnection();
+        Connection conn5 = pool.getConnection(Duration.ofSeconds(1));
         assertNotNull(conn5);
         assertNotSame(conn1, conn5);
 
@@ -150,6 +163,49 @@ public class PoolTest {
         assertEquals(0, pool.activeSize());
     }
 
+    @Test
+    public void testConnectionPoolWithMaintenance() throws Exception {
+        IntVar validateCount = IntVar.of(0);
+        SimpleJdbcPool pool = SimpleJdbcPool.newBuilder()
+            .driverClassName(DB_DRIVER)
+            .url(DB_URL)
+            .username(DB_USER)
+            .password(DB_PASSWORD)
+            .coreSize(2)
+            .maxSize(3)
+            .idleTimeout(Duration.ofMillis(1))
+            .maintenanceInterval(Duration.ofMillis(5))
+            .validateOnGet(false)
+            .validator(conn -> {
+                validateCount.incrementAndGet();
+                return Fs.uncheck(() -> conn.isValid(1), SqlRuntimeException::new);
+            })
+            .build();
+
+        // no validation on acquisition
+        Connection conn1 = pool.getConnection();
+        Connection conn2 = pool.getConnection();
+        Connection conn3 = pool.getConnection();
+        assertNotNull(conn1);
+        assertNotNull(conn2);
+        assertNotNull(conn3);
+        conn1.close();
+        conn2.close();
+        conn3.close();
+
+        // idle connections over the core size are evicted in the background
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.size() > 2) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(1);
+        }
+        assertTrue(validateCount.get() > 0);
+        assertEquals(2, pool.idleSize());
+        assertThrows(IllegalArgumentException.class, () ->
+            SimpleJdbcPool.newBuilder().maintenanceInterval(Duration.ZERO));
+        pool.close();
+    }
+
     @Test
     public void testConnectionPoolWithDifferentCredentials() throws Exception {
         // Test with username only
@@ -213,4 +269,119 @@ public class PoolTest {
 
         pool.close();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testConnectionPoolWithStatementCache() throws Exception {
+        SimpleJdbcPool pool = SimpleJdbcPool.newBuilder()
+            .driverClassName(DB_DRIVER)
+            .url(DB_URL)
+            .username(DB_USER)
+            .password(DB_PASSWORD)
+            .coreSize(1)
+            .maxSize(1)
+            .statementCacheSize(2)
+            .build();
+        SimpleJdbcPool.StatementCacheStats stats = pool.statementCacheStats();
+
+        // the closed statement is released into the cache and reused
+        Connection conn = pool.getConnection();
+        PreparedStatement ps1 = conn.prepareStatement("select ?");
+        PreparedStatement origin1 = ps1.unwrap(PreparedStatement.class);
+        ps1.setInt(1, 1);
+        try (ResultSet rs = ps1.executeQuery()) {
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+        }
+        ps1.close();
+        assertTrue(ps1.isClosed());
+        assertFalse(origin1.isClosed());
+        assertThrows(SQLException.class, () -> ps1.setInt(1, 1));
+        PreparedStatement ps2 = conn.prepareStatement("select ?");
+        assertNotSame(ps1, ps2);
+        assertSame(origin1, ps2.unwrap(PreparedStatement.class));
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        // parameters are cleared
+        assertThrows(SQLException.class, ps2::executeQuery);
+
+        // the statement in use is not shared
+        PreparedStatement ps3 = conn.prepareStatement("select ?");
+        assertNotSame(ps2.unwrap(PreparedStatement.class), ps3.unwrap(PreparedStatement.class));
+        assertEquals(2, stats.missCount());
+        ps2.close();
+        ps3.close();
+
+        // the cache lives across the acquisitions of the same underlying connection
+        conn.close();
+        conn = pool.getConnection();
+        PreparedStatement ps4 = conn.prepareStatement("select ?");
+        assertEquals(2, stats.hitCount());
+        ps4.close();
+
+        // the least recently released statement is evicted
+        PreparedStatement ps5 = conn.prepareStatement("select 5");
+        PreparedStatement origin5 = ps5.unwrap(PreparedStatement.class);
+        ps5.close();
+        PreparedStatement ps6 = conn.prepareStatement("select 6");
+        PreparedStatement origin6 = ps6.unwrap(PreparedStatement.class);
+        ps6.close();
+        assertTrue(origin1.isClosed() || origin5.isClosed());
+        assertFalse(origin6.isClosed());
+
+        // works with SqlBuilder
+        try (Connection c = conn) {
+            for (int i = 0; i < 3; i++) {
+                SqlQuery<Integer> query = SqlBuilder.newBuilder()
+                    .append("select 1 as x")
+                    .build()
+                    .query(Integer.class, c);
+                query.close();
+            }
+        }
+        assertEquals(4, stats.hitCount());
+
+        // closing the pool closes the cached statements
+        pool.close();
+        assertTrue(origin6.isClosed());
+        assertThrows(IllegalArgumentException.class, () -> SimpleJdbcPool.newBuilder().statementCacheSize(-1));
+    }
+
+    @Test
+    public void testStatementCacheRestoresSettings() throws Exception {
+        SimpleJdbcPool pool = SimpleJdbcPool.newBuilder()
+            .driverClassName(DB_DRIVER)
+            .url(DB_URL)
+            .username(DB_USER)
+            .password(DB_PASSWORD)
+            .coreSize(1)
+            .maxSize(1)
+            .statementCacheSize(1)
+            .build();
+        Connection conn = pool.getConnection();
+        PreparedStatement ps1 = conn.prepareStatement("select ?");
+        PreparedStatement origin = ps1.unwrap(PreparedStatement.class);
+        int maxRows = ps1.getMaxRows();
+        int fetchSize = ps1.getFetchSize();
+        int queryTimeout = ps1.getQueryTimeout();
+        int maxFieldSize = ps1.getMaxFieldSize();
+        boolean poolable = ps1.isPoolable();
+        ps1.setMaxRows(maxRows + 1000);
+        ps1.setFetchSize(fetchSize + 1);
+        ps1.setQueryTimeout(queryTimeout + 1);
+        ps1.setMaxFieldSize(maxFieldSize + 1);
+        ps1.setPoolable(!poolable);
+        ps1.close();
+        // the settings of the reused statement are restored
+        PreparedStatement ps2 = conn.prepareStatement("select ?");
+        assertSame(origin, ps2.unwrap(PreparedStatement.class));
+        assertEquals(1, pool.statementCacheStats().hitCount());
+        assertEquals(maxRows, ps2.getMaxRows());
+        assertEquals(fetchSize, ps2.getFetchSize());
+        assertEquals(queryTimeout, ps2.getQueryTimeout());
+        assertEquals(maxFieldSize, ps2.getMaxFieldSize());
+        assertEquals(poolable, ps2.isPoolable());
+        ps2.close();
+        conn.close();
+        pool.close();
+    }
+}
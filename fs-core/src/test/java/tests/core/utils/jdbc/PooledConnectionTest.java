@@ -7,16 +7,22 @@ import space.sunqian.fs.utils.jdbc.SimpleJdbcPool;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -82,4 +88,81 @@ public class PooledConnectionTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCachedStatementFunctionality() throws Exception {
+        // the underlying connection always prepares a new mocked statement
+        Connection origin = (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return method.getReturnType().equals(void.class) ? null : Mocker.mock(method.getReturnType());
+                }
+            }
+        );
+        SimpleJdbcPool pool = SimpleJdbcPool.newBuilder()
+            .driverClassName("DB_DRIVER")
+            .url("DB_URL")
+            .coreSize(1)
+            .maxSize(1)
+            .statementCacheSize(1)
+            .connectionFactory((driverClassName, url, username, password) -> origin)
+            .validator(c -> true)
+            .build();
+        Connection conn = pool.getConnection();
+        PreparedStatement statement = conn.prepareStatement("sql");
+        assertFalse(statement.isClosed());
+        assertEquals(0, pool.statementCacheStats().hitCount());
+        assertEquals(1, pool.statementCacheStats().missCount());
+
+        // Test all statement methods except close and isClosed
+        List<Method> methods = Arrays.asList(PreparedStatement.class.getMethods()).stream()
+            .filter(method -> !Modifier.isStatic(method.getModifiers()))
+            .filter(method -> method.getParameterCount() > 0
+                || (!method.getName().equals("close") && !method.getName().equals("isClosed")))
+            .collect(Collectors.toList());
+        List<Object[]> argsList = new ArrayList<>();
+        for (Method method : methods) {
+            Parameter[] parameters = method.getParameters();
+            Object[] args = new Object[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                args[i] = Mocker.mock(parameters[i].getType());
+            }
+            method.invoke(statement, args);
+            argsList.add(args);
+        }
+
+        // Close statement and verify it's closed
+        statement.close();
+        assertTrue(statement.isClosed());
+        statement.close();
+
+        // Verify methods throw exceptions after close
+        int i = 0;
+        for (Method method : methods) {
+            Object[] args = argsList.get(i++);
+            InvocationTargetException e = assertThrows(InvocationTargetException.class, () -> method.invoke(statement, args));
+            assertInstanceOf(SQLException.class, e.getCause());
+        }
+
+        // the cached statement is reused
+        PreparedStatement statement2 = conn.prepareStatement("sql");
+        assertEquals(1, pool.statementCacheStats().hitCount());
+        conn.prepareStatement("sql", Statement.RETURN_GENERATED_KEYS).close();
+        conn.prepareStatement("sql", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY).close();
+        conn.prepareStatement(
+            "sql", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT
+        ).close();
+        assertEquals(1, pool.statementCacheStats().hitCount());
+        assertEquals(4, pool.statementCacheStats().missCount());
+        statement2.close();
+        conn.close();
+        pool.close();
+    }
+}
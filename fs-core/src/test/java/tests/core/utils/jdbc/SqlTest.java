@@ -15,6 +15,7 @@ import space.sunqian.fs.utils.jdbc.JdbcKit;
 import space.sunqian.fs.utils.jdbc.PreparedBatchSql;
 import space.sunqian.fs.utils.jdbc.PreparedSql;
 import space.sunqian.fs.utils.jdbc.SqlBatch;
+import space.sunqian.fs.utils.jdbc.SqlBatchExecutor;
 import space.sunqian.fs.utils.jdbc.SqlBuilder;
 import space.sunqian.fs.utils.jdbc.SqlInsert;
 import space.sunqian.fs.utils.jdbc.SqlQuery;
@@ -28,8 +29,17 @@ import java.sql.SQLException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -281,6 +291,279 @@ public class SqlTest {
         assertThrows(SqlRuntimeException.class, batchQuery::list);
     }
 
+    @Test
+    public void testSqlExecutionWithStream() throws Exception {
+        ZonedDateTime now = ZonedDateTime.ofInstant(
+            Instant.ofEpochMilli(System.currentTimeMillis()),
+            ZoneId.systemDefault()
+        );
+        SqlBatch batch = SqlBuilder.newBuilder()
+            .append("INSERT INTO `user` (name, age, birthday) VALUES ")
+            .append("(", "Alice")
+            .append(",", 25)
+            .append(",", now)
+            .append(")")
+            .buildBatch()
+            .batchParameters(ListKit.list(
+                ListKit.list("Alice", 25, now),
+                ListKit.list("Bob", 30, now),
+                ListKit.list("Charlie", 35, now)
+            )).execute(h2Connection);
+        batch.execute();
+        batch.close();
+
+        SqlQuery<User> query = SqlBuilder.newBuilder()
+            .append("SELECT * FROM `user` order by id asc")
+            .build()
+            .query(User.class, h2Connection)
+            .fetchSize(2);
+        assertEquals(2, query.statement().getFetchSize());
+        List<User> expected = ListKit.list(
+            new User(1L, "Alice", 25, now),
+            new User(2L, "Bob", 30, now),
+            new User(3L, "Charlie", 35, now)
+        );
+        try (Stream<User> users = query.stream()) {
+            assertEquals(expected, users.collect(Collectors.toList()));
+        }
+        try (Stream<User> users = query.stream(JdbcKit.defaultNameMapper())) {
+            assertEquals(ListKit.list("Bob"), users.filter(u -> u.getAge() == 30)
+                .map(User::getName)
+                .collect(Collectors.toList()));
+        }
+        List<User> consumed = new ArrayList<>();
+        query.forEach(consumed::add);
+        assertEquals(expected, consumed);
+        consumed.clear();
+        query.forEach(consumed::add, JdbcKit.defaultNameMapper(), ObjectConverter.defaultConverter());
+        assertEquals(expected, consumed);
+        assertEquals(expected.get(0), query.first());
+
+        // close
+        query.close();
+        assertThrows(SqlRuntimeException.class, query::stream);
+        assertThrows(SqlRuntimeException.class, () -> query.forEach(u -> {}));
+        assertThrows(SqlRuntimeException.class, () -> query.fetchSize(1));
+    }
+
+    @Test
+    public void testSqlExecutionWithBatchExecutor() throws Exception {
+        ZonedDateTime now = ZonedDateTime.ofInstant(
+            Instant.ofEpochMilli(System.currentTimeMillis()),
+            ZoneId.systemDefault()
+        );
+        String insertSql = "INSERT INTO `user` (name, age, birthday) VALUES (?, ?, ?)";
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(ListKit.list("user" + i, 20 + i, now));
+        }
+        SqlQuery<User> query = SqlBuilder.newBuilder()
+            .append("SELECT * FROM `user` order by id asc")
+            .build()
+            .query(User.class, h2Connection);
+
+        // batch mode
+        SqlBatchExecutor batchExecutor = SqlBatchExecutor.newBuilder().chunkSize(2).build();
+        assertArrayEquals(new long[]{2, 2, 1}, batchExecutor.execute(h2Connection, insertSql, rows));
+        assertEquals(
+            ListKit.list("user0", "user1", "user2", "user3", "user4"),
+            query.list().stream().map(User::getName).collect(Collectors.toList())
+        );
+        clearUsers();
+
+        // multi-row insert mode, the chunk size is reduced by max parameters: 7 / 3 = 2
+        SqlBatchExecutor multiRowExecutor = SqlBatchExecutor.newBuilder()
+            .chunkSize(100)
+            .maxParameters(7)
+            .multiRowInsert(true)
+            .build();
+        assertArrayEquals(new long[]{2, 2, 1}, multiRowExecutor.execute(h2Connection, insertSql, rows.iterator()));
+        assertEquals(5, query.list().size());
+        clearUsers();
+        assertArrayEquals(new long[]{5}, SqlBatchExecutor.newBuilder()
+            .multiRowInsert(true)
+            .build()
+            .execute(h2Connection, insertSql + ";", rows.stream()));
+        assertEquals(5, query.list().size());
+        clearUsers();
+        // quoted and nested parentheses in the VALUES tuple
+        multiRowExecutor.execute(
+            h2Connection,
+            "insert into `user` (name, age, birthday) values (CONCAT(?, ')'), COALESCE(?, 0), ?)",
+            ListKit.list(ListKit.list("a", null, now), ListKit.list("b", 1, now), ListKit.list("c", 2, now))
+        );
+        List<User> users = query.list();
+        assertEquals(ListKit.list("a)", "b)", "c)"), users.stream().map(User::getName).collect(Collectors.toList()));
+        assertEquals(ListKit.list(0, 1, 2), users.stream().map(User::getAge).collect(Collectors.toList()));
+        // row size mismatch
+        assertThrows(SqlRuntimeException.class, () -> multiRowExecutor.execute(
+            h2Connection, insertSql, ListKit.list(ListKit.list("d", 1))
+        ));
+        // non-insert SQL falls back to batch mode, which is not limited by max parameters
+        assertArrayEquals(new long[]{3}, multiRowExecutor.execute(
+            h2Connection,
+            "UPDATE `user` SET age = ? WHERE name = ?",
+            ListKit.list(ListKit.list(10, "a)"), ListKit.list(11, "b)"), ListKit.list(12, "c)"))
+        ));
+        assertEquals(
+            ListKit.list(10, 11, 12),
+            query.list().stream().map(User::getAge).collect(Collectors.toList())
+        );
+        clearUsers();
+        // more than one tuple falls back to batch mode
+        assertArrayEquals(new long[]{4}, multiRowExecutor.execute(
+            h2Connection,
+            "INSERT INTO `user` (name, age) VALUES (?, ?), (?, ?)",
+            ListKit.list(ListKit.list("f", 1, "g", 2), ListKit.list("h", 3, "i", 4))
+        ));
+        assertEquals(
+            ListKit.list("f", "g", "h", "i"),
+            query.list().stream().map(User::getName).collect(Collectors.toList())
+        );
+        clearUsers();
+        // parameters after the tuple fall back to batch mode
+        try (PreparedStatement mode = h2Connection.prepareStatement("SET MODE MySQL")) {
+            mode.execute();
+        }
+        String upsertSql = "INSERT INTO `user` (id, name, age) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE age = ?";
+        multiRowExecutor.execute(h2Connection, upsertSql, ListKit.list(ListKit.list(1, "j", 1, 1)));
+        // an updated row counts 2 in MySQL mode
+        assertArrayEquals(new long[]{4}, multiRowExecutor.execute(
+            h2Connection,
+            upsertSql,
+            ListKit.list(ListKit.list(1, "j", 1, 5), ListKit.list(2, "k", 2, 2), ListKit.list(3, "l", 3, 3))
+        ));
+        try (PreparedStatement mode = h2Connection.prepareStatement("SET MODE Regular")) {
+            mode.execute();
+        }
+        assertEquals(
+            ListKit.list(5, 2, 3),
+            query.list().stream().map(User::getAge).collect(Collectors.toList())
+        );
+        clearUsers();
+
+        // prepared batch sql
+        PreparedBatchSql batchSql = SqlBuilder.newBuilder().append(insertSql).buildBatch().batchParameters(rows);
+        assertArrayEquals(new long[]{2, 2, 1}, batchSql.execute(h2Connection, batchExecutor));
+        assertEquals(5, query.list().size());
+        clearUsers();
+
+        // pipeline mode and not auto-commit
+        ExecutorService pipeline = Executors.newSingleThreadExecutor();
+        try {
+            h2Connection.setAutoCommit(false);
+            SqlBatchExecutor pipelineExecutor = SqlBatchExecutor.newBuilder()
+                .chunkSize(2)
+                .multiRowInsert(true)
+                .pipelineExecutor(pipeline)
+                .build();
+            assertArrayEquals(new long[]{2, 2, 1}, pipelineExecutor.execute(h2Connection, insertSql, rows));
+            h2Connection.rollback();
+            assertEquals(5, query.list().size());
+            assertArrayEquals(new long[0], pipelineExecutor.execute(
+                h2Connection, insertSql, Collections.<List<Object>>emptyList()
+            ));
+            // error from the iterator
+            Iterator<List<Object>> broken = new Iterator<List<Object>>() {
+
+                private int count = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public List<Object> next() {
+                    if (count++ >= 3) {
+                        throw new IllegalStateException("broken");
+                    }
+                    return rows.get(0);
+                }
+            };
+            SqlRuntimeException e = assertThrows(
+                SqlRuntimeException.class,
+                () -> pipelineExecutor.execute(h2Connection, insertSql, broken)
+            );
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+            // error from the execution stops the pipeline
+            assertThrows(SqlRuntimeException.class, () -> pipelineExecutor.execute(
+                h2Connection, insertSql, Stream.generate(() -> ListKit.list("e", 1)).iterator()
+            ));
+            // the task thread is interrupted
+            ExecutorService interrupted = Executors.newSingleThreadExecutor();
+            CountDownLatch pulling = new CountDownLatch(1);
+            Iterator<List<Object>> blocking = new Iterator<List<Object>>() {
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public List<Object> next() {
+                    pulling.countDown();
+                    try {
+                        Thread.sleep(Long.MAX_VALUE);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(ex);
+                    }
+                    return rows.get(0);
+                }
+            };
+            Thread shutdown = new Thread(() -> {
+                try {
+                    pulling.await();
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                interrupted.shutdownNow();
+            });
+            shutdown.start();
+            SqlRuntimeException ie = assertThrows(
+                SqlRuntimeException.class,
+                () -> SqlBatchExecutor.newBuilder().pipelineExecutor(interrupted).build()
+                    .execute(h2Connection, insertSql, blocking)
+            );
+            assertEquals(IllegalStateException.class, ie.getCause().getClass());
+            shutdown.join();
+        } finally {
+            h2Connection.setAutoCommit(true);
+            pipeline.shutdown();
+        }
+        clearUsers();
+
+        // the pipeline task can not be run by the executor, the rows are pulled by the calling thread
+        List<Executor> inlineExecutors = ListKit.list(
+            Runnable::run,
+            task -> {
+                throw new RejectedExecutionException();
+            },
+            task -> {}
+        );
+        for (Executor inlineExecutor : inlineExecutors) {
+            SqlBatchExecutor inlineBatchExecutor = SqlBatchExecutor.newBuilder()
+                .chunkSize(1)
+                .pipelineExecutor(inlineExecutor)
+                .build();
+            assertArrayEquals(new long[]{1, 1, 1, 1, 1}, inlineBatchExecutor.execute(h2Connection, insertSql, rows));
+            assertEquals(5, query.list().size());
+            clearUsers();
+        }
+        query.close();
+
+        // builder arguments
+        assertThrows(IllegalArgumentException.class, () -> SqlBatchExecutor.newBuilder().chunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> SqlBatchExecutor.newBuilder().maxParameters(-1));
+    }
+
+    private void clearUsers() throws SQLException {
+        try (PreparedStatement statement = h2Connection.prepareStatement("delete from `user`")) {
+            statement.execute();
+        }
+    }
+
     @Test
     public void testSqlExecutionWithUpdate() throws Exception {
         ZonedDateTime now = ZonedDateTime.ofInstant(
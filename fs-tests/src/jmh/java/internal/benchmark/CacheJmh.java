@@ -1,6 +1,7 @@
 package internal.benchmark;
 
 import internal.api.CacheApi;
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -16,6 +17,7 @@ import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Arrays;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
@@ -31,6 +33,10 @@ public class CacheJmh {
     private static final int DATA_SIZE = 100000;
     private static final KeyValue[] DATA = new KeyValue[DATA_SIZE];
 
+    // indexes of DATA in zipfian distribution, to measure the hit rate of bounded caches
+    private static final int ZIPF_SIZE = 1 << 20;
+    private static final int[] ZIPF_INDEXES = new int[ZIPF_SIZE];
+
     static {
         Random random = new Random();
         for (int i = 0; i < DATA.length; i++) {
@@ -38,11 +44,22 @@ public class CacheJmh {
             String value = String.valueOf(random.nextDouble() * random.nextDouble());
             DATA[i] = new KeyValue(key, value);
         }
+        double[] cdf = new double[DATA_SIZE];
+        double sum = 0;
+        for (int i = 0; i < DATA_SIZE; i++) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < ZIPF_SIZE; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            ZIPF_INDEXES[i] = Math.min(index < 0 ? -index - 1 : index, DATA_SIZE - 1);
+        }
     }
 
     @Param({
         "fs-simpleWeak",
         "fs-simpleSoft",
+        "fs-bounded",
         "caffeineWeak",
         "caffeineSoft",
         "caffeine",
@@ -69,5 +86,43 @@ public class CacheJmh {
         blackhole.consume(value);
     }
 
+    @Benchmark
+    @Threads(8)
+    public void computeIfAbsentZipf(HitCounter counter, Blackhole blackhole) throws Exception {
+        KeyValue data = DATA[ZIPF_INDEXES[counter.next()]];
+        boolean[] loaded = {false};
+        String value = cacheApi.get(data.key, k -> {
+            loaded[0] = true;
+            return data.value;
+        });
+        if (loaded[0]) {
+            counter.misses++;
+        } else {
+            counter.hits++;
+        }
+        blackhole.consume(value);
+    }
+
+    // hit rate = hits / (hits + misses)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HitCounter {
+
+        public long hits;
+        public long misses;
+        private int cursor = ThreadLocalRandom.current().nextInt(ZIPF_SIZE);
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+
+        private int next() {
+            cursor = (cursor + 1) & (ZIPF_SIZE - 1);
+            return cursor;
+        }
+    }
+
     private record KeyValue(String key, String value) {}
 }
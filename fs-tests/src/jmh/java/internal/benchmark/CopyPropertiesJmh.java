@@ -32,6 +32,7 @@ public class CopyPropertiesJmh {
     @Param({
         "fs",
         "fs-newInstMode",
+        "fs-plan",
         "spring",
         "apache",
         "hutool",
@@ -34,6 +34,7 @@ public class CopyPropertiesWithAnnotationsJmh {
     @Param({
         "fs",
         "fs-newInstMode",
+        "fs-plan",
         "spring",
         "apache",
         "hutool",
@@ -18,6 +18,13 @@ import org.openjdk.jmh.infra.Blackhole;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+/**
+ * Benchmarks of {@code Invocable} for each invocation mode and arity, comparing the varargs {@code invoke} with the
+ * fixed-arity {@code invoke0/invoke1/invoke2}. Run with {@code -prof gc} to see the allocation rate, the fixed-arity
+ * invocations of ASM and method handle should not allocate the argument arrays. The {@code byHiddenClass} invokes by
+ * hidden classes on JDK 15+ and by lambda classes on earlier JDKs, it should be close to {@code byAsm} and
+ * {@code direct} as the JIT inlines the generated classes.
+ */
 @State(Scope.Benchmark)
 @OutputTimeUnit(TimeUnit.MILLISECONDS)
 @BenchmarkMode({Mode.Throughput})
@@ -30,6 +37,8 @@ public class InvocableJmh {
         "byReflect",
         "byAsm",
         "byMethodHandle",
+        "byHiddenClass",
+        "recommended",
         "direct",
     })
     private String invokeType;
@@ -40,11 +49,24 @@ public class InvocableJmh {
     })
     private String methodType;
 
+    @Param({
+        "0",
+        "1",
+        "2",
+    })
+    private int arity;
+
+    @Param({
+        "varargs",
+        "fixed",
+    })
+    private String api;
+
     private Supplier<Object> supplier;
 
     @Setup(Level.Trial)
     public void setup() {
-        this.supplier = Invoker.createSupplier(invokeType, methodType);
+        this.supplier = Invoker.createSupplier(invokeType, methodType, arity, "fixed".equals(api));
     }
 
     @Benchmark
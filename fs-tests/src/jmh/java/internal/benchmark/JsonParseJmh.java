@@ -19,6 +19,7 @@ import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.data.json.JsonKit;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +36,8 @@ public class JsonParseJmh {
     private final Map<String, Object> map = new LinkedHashMap<>();
     private final String dataJson;
     private final String mapJson;
+    private final byte[] dataJsonBytes;
+    private final byte[] mapJsonBytes;
     @Param({
         "fs",
         "jackson",
@@ -46,6 +49,11 @@ public class JsonParseJmh {
         "map",
     })
     private String parseTarget;
+    @Param({
+        "string",
+        "bytes",
+    })
+    private String inputType;
     private JsonParseApi jsonParseApi;
 
     {
@@ -107,6 +115,8 @@ public class JsonParseJmh {
         map.put("ba3", new BigDecimal[]{new BigDecimal("1.0"), new BigDecimal("2.0")});
         map.put("sa3", ListKit.list("a", "b"));
         this.mapJson = JsonKit.toJsonString(map);
+        this.dataJsonBytes = dataJson.getBytes(StandardCharsets.UTF_8);
+        this.mapJsonBytes = mapJson.getBytes(StandardCharsets.UTF_8);
     }
 
     @Setup(Level.Trial)
@@ -116,11 +126,18 @@ public class JsonParseJmh {
 
     @Benchmark
     public void toJsonString(Blackhole blackhole) throws Exception {
-        if ("object".equals(parseType)) {
-            Object data = jsonParseApi.parse(dataJson, TestJsonData.class);
+        boolean bytes = "bytes".equals(inputType);
+        if ("object".equals(parseTarget)) {
+            Object data = bytes ?
+                jsonParseApi.parse(dataJsonBytes, TestJsonData.class)
+                :
+                jsonParseApi.parse(dataJson, TestJsonData.class);
             blackhole.consume(data);
         } else {
-            Object map = jsonParseApi.parse(mapJson, Map.class);
+            Object map = bytes ?
+                jsonParseApi.parse(mapJsonBytes, Map.class)
+                :
+                jsonParseApi.parse(mapJson, Map.class);
             blackhole.consume(map);
         }
     }
@@ -0,0 +1,56 @@
+package internal.benchmark;
+
+import internal.api.LoggerApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-line cost of logging with different caller location modes.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode({Mode.AverageTime})
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(5)
+public class LoggerJmh {
+
+    @Param({
+        "fs-sync-stackTrace",
+        "fs-sync",
+        "fs-sync-noCaller",
+        "fs-async",
+        "fs-async-noCaller",
+    })
+    private String loggerType;
+
+    private LoggerApi logger;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.logger = LoggerApi.createApi(loggerType);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.close();
+    }
+
+    @Benchmark
+    public void info() {
+        logger.info("hello, ", loggerType, "!");
+    }
+}
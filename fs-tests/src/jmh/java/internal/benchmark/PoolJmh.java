@@ -0,0 +1,59 @@
+package internal.benchmark;
+
+import internal.api.PoolApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Threads(64)
+@Fork(5)
+public class PoolJmh {
+
+    @Param({
+        "fs-simple",
+        "fs-concurrent",
+    })
+    private String poolType;
+
+    private PoolApi pool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.pool = PoolApi.createApi(poolType);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public void getAndRelease(Blackhole blackhole) {
+        Object obj = pool.get();
+        if (obj == null) {
+            // exhausted, counted as a failed acquisition
+            return;
+        }
+        blackhole.consume(obj);
+        pool.release(obj);
+    }
+}
@@ -22,6 +22,10 @@ public interface CacheApi<K, V> {
                 SimpleCache<K, V> cache = SimpleCache.ofSoft();
                 yield cache::get;
             }
+            case "fs-bounded" -> {
+                SimpleCache<K, V> cache = SimpleCache.ofBounded(CAPACITY);
+                yield cache::get;
+            }
             case "caffeineWeak" -> {
                 Cache<K, V> cache = Caffeine.newBuilder().weakValues().build();
                 yield cache::get;
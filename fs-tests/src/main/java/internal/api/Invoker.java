@@ -30,6 +30,8 @@ public class Invoker {
                 return Invocable.of(INVOKE_STATIC, InvocationMode.ASM);
             } else if ("byMethodHandle".equals(invokeType)) {
                 return Invocable.of(INVOKE_STATIC, InvocationMode.METHOD_HANDLE);
+            } else if ("byHiddenClass".equals(invokeType)) {
+                return Invocable.of(INVOKE_STATIC, InvocationMode.HIDDEN_CLASS);
             }
         } else {
             if ("byReflect".equals(invokeType)) {
@@ -38,6 +40,8 @@ public class Invoker {
                 return Invocable.of(INVOKE_INSTANCE, InvocationMode.ASM);
             } else if ("byMethodHandle".equals(invokeType)) {
                 return Invocable.of(INVOKE_INSTANCE, InvocationMode.METHOD_HANDLE);
+            } else if ("byHiddenClass".equals(invokeType)) {
+                return Invocable.of(INVOKE_INSTANCE, InvocationMode.HIDDEN_CLASS);
             }
         }
         return null;
@@ -64,6 +68,110 @@ public class Invoker {
             };
     }
 
+    /**
+     * Creates a supplier which invokes the method of the specified arity (0, 1 or 2). If {@code fixed} is
+     * {@code true}, the supplier calls the fixed-arity methods such as {@link Invocable#invoke1(Object, Object)},
+     * otherwise calls {@link Invocable#invoke(Object, Object...)} which needs an argument array.
+     */
+    public static Supplier<Object> createSupplier(String invokeType, String methodType, int arity, boolean fixed) {
+        boolean isStatic = "static".equals(methodType);
+        Method method = arityMethod(isStatic, arity);
+        Invoker invoker = isStatic ? null : new Invoker();
+        Invocable invocable = createInvocable(invokeType, method);
+        if (invocable == null) {
+            return directSupplier(invoker, arity);
+        }
+        switch (arity) {
+            case 0:
+                return fixed ? () -> invocable.invoke0(invoker) : () -> invocable.invoke(invoker);
+            case 1:
+                return fixed ?
+                    () -> invocable.invoke1(invoker, ThreadLocalRandom.current().nextInt())
+                    :
+                    () -> invocable.invoke(invoker, ThreadLocalRandom.current().nextInt());
+            default:
+                return fixed ?
+                    () -> {
+                        Random random = ThreadLocalRandom.current();
+                        return invocable.invoke2(invoker, random.nextInt(), random.nextLong());
+                    }
+                    :
+                    () -> {
+                        Random random = ThreadLocalRandom.current();
+                        return invocable.invoke(invoker, random.nextInt(), random.nextLong());
+                    };
+        }
+    }
+
+    private static Method arityMethod(boolean isStatic, int arity) {
+        try {
+            switch (arity) {
+                case 0:
+                    return Invoker.class.getDeclaredMethod(isStatic ? "invokeStatic0" : "invokeInstance0");
+                case 1:
+                    return Invoker.class.getDeclaredMethod(isStatic ? "invokeStatic1" : "invokeInstance1", Integer.class);
+                default:
+                    return isStatic ? INVOKE_STATIC : INVOKE_INSTANCE;
+            }
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Invocable createInvocable(String invokeType, Method method) {
+        if ("byReflect".equals(invokeType)) {
+            return Invocable.of(method, InvocationMode.REFLECTION);
+        } else if ("byAsm".equals(invokeType)) {
+            return Invocable.of(method, InvocationMode.ASM);
+        } else if ("byMethodHandle".equals(invokeType)) {
+            return Invocable.of(method, InvocationMode.METHOD_HANDLE);
+        } else if ("byHiddenClass".equals(invokeType)) {
+            return Invocable.of(method, InvocationMode.HIDDEN_CLASS);
+        } else if ("recommended".equals(invokeType)) {
+            return Invocable.of(method);
+        }
+        return null;
+    }
+
+    private static Supplier<Object> directSupplier(Invoker invoker, int arity) {
+        switch (arity) {
+            case 0:
+                return invoker == null ? Invoker::invokeStatic0 : invoker::invokeInstance0;
+            case 1:
+                return invoker == null ?
+                    () -> invokeStatic1(ThreadLocalRandom.current().nextInt())
+                    :
+                    () -> invoker.invokeInstance1(ThreadLocalRandom.current().nextInt());
+            default:
+                return invoker == null ?
+                    () -> {
+                        Random random = ThreadLocalRandom.current();
+                        return invokeStatic(random.nextInt(), random.nextLong());
+                    }
+                    :
+                    () -> {
+                        Random random = ThreadLocalRandom.current();
+                        return invoker.invokeInstance(random.nextInt(), random.nextLong());
+                    };
+        }
+    }
+
+    public static String invokeStatic0() {
+        return "static";
+    }
+
+    public static String invokeStatic1(Integer i) {
+        return i.toString();
+    }
+
+    public String invokeInstance0() {
+        return "instance";
+    }
+
+    public String invokeInstance1(Integer i) {
+        return i.toString();
+    }
+
     public static String invokeStatic(Integer i, Long l) {
         return i.toString() + l.toString();
     }
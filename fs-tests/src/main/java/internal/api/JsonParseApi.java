@@ -3,6 +3,7 @@ package internal.api;
 import com.alibaba.fastjson2.JSON;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import space.sunqian.fs.data.json.JsonKit;
+import space.sunqian.fs.data.json.JsonParser;
 
 public interface JsonParseApi {
 
@@ -17,12 +18,19 @@ public interface JsonParseApi {
 
     Object parse(String json, Class<?> objType) throws Exception;
 
+    Object parse(byte[] json, Class<?> objType) throws Exception;
+
     class FsImpl implements JsonParseApi {
 
         @Override
         public Object parse(String json, Class<?> objType) throws Exception {
             return JsonKit.parse(json).toObject(objType);
         }
+
+        @Override
+        public Object parse(byte[] json, Class<?> objType) throws Exception {
+            return JsonParser.defaultParser().parse(json).toObject(objType);
+        }
     }
 
     class JacksonImpl implements JsonParseApi {
@@ -33,6 +41,11 @@ public interface JsonParseApi {
         public Object parse(String json, Class<?> objType) throws Exception {
             return mapper.readValue(json, objType);
         }
+
+        @Override
+        public Object parse(byte[] json, Class<?> objType) throws Exception {
+            return mapper.readValue(json, objType);
+        }
     }
 
     class FastJsonImpl implements JsonParseApi {
@@ -41,5 +54,10 @@ public interface JsonParseApi {
         public Object parse(String json, Class<?> objType) throws Exception {
             return JSON.parseObject(json, objType);
         }
+
+        @Override
+        public Object parse(byte[] json, Class<?> objType) throws Exception {
+            return JSON.parseObject(json, objType);
+        }
     }
 }
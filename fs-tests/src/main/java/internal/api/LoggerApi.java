@@ -0,0 +1,129 @@
+package internal.api;
+
+import space.sunqian.fs.base.date.DateKit;
+import space.sunqian.fs.base.logging.AbstractSimpleLogger;
+import space.sunqian.fs.base.logging.AsyncSimpleLogger;
+import space.sunqian.fs.base.logging.SimpleLog;
+import space.sunqian.fs.base.logging.SimpleLogger;
+
+import java.lang.reflect.Method;
+
+public interface LoggerApi {
+
+    static LoggerApi createApi(String loggerType) {
+        CountingAppender appender = new CountingAppender();
+        SimpleLogger logger = switch (loggerType) {
+            case "fs-sync" -> SimpleLogger.newLogger(SimpleLogger.Level.INFO, appender);
+            case "fs-sync-noCaller" -> SimpleLogger.newLogger(SimpleLogger.Level.INFO, appender, false);
+            case "fs-sync-stackTrace" -> new StackTraceLogger(appender);
+            case "fs-async" -> AsyncSimpleLogger.newBuilder()
+                .appendable(appender)
+                .build();
+            case "fs-async-noCaller" -> AsyncSimpleLogger.newBuilder()
+                .appendable(appender)
+                .callerLocation(false)
+                .build();
+            default -> throw new IllegalArgumentException();
+        };
+        return new LoggerApi() {
+
+            @Override
+            public void info(Object... message) {
+                logger.info(message);
+            }
+
+            @Override
+            public long appendedChars() {
+                if (logger instanceof AsyncSimpleLogger asyncLogger) {
+                    asyncLogger.flush();
+                }
+                return appender.count;
+            }
+
+            @Override
+            public void close() {
+                if (logger instanceof AsyncSimpleLogger asyncLogger) {
+                    asyncLogger.close();
+                }
+            }
+        };
+    }
+
+    void info(Object... message);
+
+    /**
+     * Returns the number of the chars appended to the underlying appender.
+     */
+    long appendedChars();
+
+    void close();
+
+    /**
+     * Discards the appended chars, only counts them.
+     */
+    final class CountingAppender implements Appendable {
+
+        private long count;
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            count += csq.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            count += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            count++;
+            return this;
+        }
+    }
+
+    /**
+     * Logger resolving the caller location by capturing and scanning the full stack trace of each log.
+     */
+    final class StackTraceLogger extends AbstractSimpleLogger {
+
+        private final Appendable appendable;
+
+        private StackTraceLogger(Appendable appendable) {
+            super(Level.INFO);
+            this.appendable = appendable;
+        }
+
+        @Override
+        protected void log(SimpleLog log, Method method) {
+            StackTraceElement[] stackTrace = log.stackTrace();
+            StackTraceElement caller = null;
+            for (int i = 0; i < stackTrace.length - 1; i++) {
+                StackTraceElement element = stackTrace[i];
+                if (method.getDeclaringClass().getName().equals(element.getClassName())
+                    && method.getName().equals(element.getMethodName())) {
+                    caller = stackTrace[i + 1];
+                    break;
+                }
+            }
+            StringBuilder line = new StringBuilder();
+            line.append(DateKit.format(log.timestamp())).append('[').append(log.level().name()).append(']');
+            if (caller != null) {
+                line.append('@').append(caller.getClassName()).append('.').append(caller.getMethodName())
+                    .append('(').append(caller.getLineNumber()).append(')');
+            }
+            line.append("-[").append(log.thread().getName()).append("]: ");
+            for (Object o : log.message()) {
+                line.append(o);
+            }
+            line.append(System.lineSeparator());
+            try {
+                appendable.append(line);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package internal.api;
+
+import space.sunqian.fs.object.pool.SimplePool;
+
+public interface PoolApi {
+
+    int MAX_SIZE = 16;
+
+    static PoolApi createApi(String poolType) {
+        SimplePool<Object> pool = switch (poolType) {
+            case "fs-simple" -> SimplePool.newBuilder()
+                .coreSize(MAX_SIZE)
+                .maxSize(MAX_SIZE)
+                .supplier(Object::new)
+                .build();
+            case "fs-concurrent" -> SimplePool.newBuilder()
+                .coreSize(MAX_SIZE)
+                .maxSize(MAX_SIZE)
+                .supplier(Object::new)
+                .concurrent(true)
+                .build();
+            default -> throw new IllegalArgumentException();
+        };
+        return new PoolApi() {
+
+            @Override
+            public Object get() {
+                return pool.get();
+            }
+
+            @Override
+            public void release(Object obj) {
+                pool.release(obj);
+            }
+
+            @Override
+            public void close() {
+                pool.close();
+            }
+        };
+    }
+
+    /**
+     * Returns an object from the pool, or {@code null} if the pool is exhausted.
+     */
+    Object get();
+
+    void release(Object obj);
+
+    void close();
+}
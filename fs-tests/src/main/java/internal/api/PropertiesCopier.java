@@ -13,6 +13,8 @@ import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.propertyeditors.CustomDateEditor;
 import space.sunqian.fs.Fs;
 import space.sunqian.fs.object.convert.ConvertOption;
+import space.sunqian.fs.object.convert.CopyPlan;
+import space.sunqian.fs.object.convert.ObjectCopier;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -23,6 +25,7 @@ public interface PropertiesCopier {
         return switch (copierType) {
             case "fs" -> new FsImpl();
             case "fs-newInstMode" -> new FsNewInstImpl();
+            case "fs-plan" -> new FsPlanImpl();
             case "spring" -> new SpringImpl();
             case "apache" -> new ApacheImpl();
             case "hutool" -> new HutoolImpl();
@@ -49,6 +52,16 @@ public interface PropertiesCopier {
         }
     }
 
+    class FsPlanImpl implements PropertiesCopier {
+
+        private final CopyPlan plan = ObjectCopier.defaultCopier().compile(TestPropsData.class, TestPropsTarget.class);
+
+        @Override
+        public void copyProperties(Object source, Object target, boolean format) throws Exception {
+            plan.copy(source, target);
+        }
+    }
+
     class SpringImpl implements PropertiesCopier {
 
         private final CustomDateEditor customDateEditor =
@@ -11,6 +11,7 @@ public class CacheTest {
     public void testCacheWithDifferentImplementations() throws Exception {
         testCacheImplementation("fs-simpleWeak");
         testCacheImplementation("fs-simpleSoft");
+        testCacheImplementation("fs-bounded");
         testCacheImplementation("caffeineWeak");
         testCacheImplementation("caffeineSoft");
         testCacheImplementation("caffeine");
@@ -20,6 +20,7 @@ public class CopyPropertiesTest {
         // Test with date formatting
         testCopierImplementation("fs", true);
         testCopierImplementation("fs-newInstMode", true);
+        testCopierImplementation("fs-plan", true);
         testCopierImplementation("spring", true);
         testCopierImplementation("apache", true);
         testCopierImplementation("hutool", true);
@@ -28,6 +29,7 @@ public class CopyPropertiesTest {
         // Test without date formatting
         testCopierImplementation("fs", false);
         testCopierImplementation("fs-newInstMode", false);
+        testCopierImplementation("fs-plan", false);
         testCopierImplementation("spring", false);
         testCopierImplementation("apache", false);
         testCopierImplementation("hutool", false);
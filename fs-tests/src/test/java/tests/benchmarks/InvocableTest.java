@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class InvocableTest {
 
     @Test
@@ -12,9 +14,26 @@ public class InvocableTest {
         testInvocableImplementation("byReflect");
         testInvocableImplementation("byAsm");
         testInvocableImplementation("byMethodHandle");
+        testInvocableImplementation("byHiddenClass");
         testInvocableImplementation("direct");
     }
 
+    @Test
+    public void testInvocableWithArity() throws Exception {
+        for (String invokeType : new String[]{"byReflect", "byAsm", "byMethodHandle", "byHiddenClass", "recommended", "direct"}) {
+            for (String methodType : new String[]{"static", "instance"}) {
+                for (int arity = 0; arity <= 2; arity++) {
+                    Object varargs = Invoker.createSupplier(invokeType, methodType, arity, false).get();
+                    Object fixed = Invoker.createSupplier(invokeType, methodType, arity, true).get();
+                    assertEquals(varargs.getClass(), fixed.getClass());
+                    if (arity == 0) {
+                        assertEquals(varargs, fixed);
+                    }
+                }
+            }
+        }
+    }
+
     private void testInvocableImplementation(String invokeType) throws Exception {
         // Test static method invocation
         Supplier<Object> staticSupplier = Invoker.createSupplier(invokeType, "static");
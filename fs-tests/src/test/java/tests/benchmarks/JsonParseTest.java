@@ -7,6 +7,7 @@ import space.sunqian.fs.collect.ListKit;
 import space.sunqian.fs.data.json.JsonKit;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -35,6 +36,8 @@ public class JsonParseTest {
         JsonParseApi parseApi = JsonParseApi.createApi(parseType);
         Object parsed = parseApi.parse(testJson, TestJsonData.class);
         assertEquals(testData, parsed);
+        Object parsedBytes = parseApi.parse(testJson.getBytes(StandardCharsets.UTF_8), TestJsonData.class);
+        assertEquals(testData, parsedBytes);
     }
 
     private TestJsonData createTestData() {
@@ -0,0 +1,31 @@
+package tests.benchmarks;
+
+import internal.api.LoggerApi;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoggerTest {
+
+    @Test
+    public void testLoggerWithDifferentImplementations() throws Exception {
+        testLoggerImplementation("fs-sync-stackTrace", true);
+        testLoggerImplementation("fs-sync", true);
+        testLoggerImplementation("fs-sync-noCaller", false);
+        testLoggerImplementation("fs-async", true);
+        testLoggerImplementation("fs-async-noCaller", false);
+    }
+
+    private void testLoggerImplementation(String loggerType, boolean callerLocation) throws Exception {
+        LoggerApi withCaller = LoggerApi.createApi(loggerType);
+        withCaller.info("hello");
+        long chars = withCaller.appendedChars();
+        assertTrue(chars > 0);
+        withCaller.close();
+        // the caller location makes the line longer
+        LoggerApi noCaller = LoggerApi.createApi("fs-sync-noCaller");
+        noCaller.info("hello");
+        assertTrue(callerLocation ? chars > noCaller.appendedChars() : chars == noCaller.appendedChars());
+        noCaller.close();
+    }
+}
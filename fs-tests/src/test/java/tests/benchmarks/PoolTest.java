@@ -0,0 +1,23 @@
+package tests.benchmarks;
+
+import internal.api.PoolApi;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class PoolTest {
+
+    @Test
+    public void testPoolWithDifferentImplementations() throws Exception {
+        testPoolImplementation("fs-simple");
+        testPoolImplementation("fs-concurrent");
+    }
+
+    private void testPoolImplementation(String poolType) throws Exception {
+        PoolApi pool = PoolApi.createApi(poolType);
+        Object obj = pool.get();
+        assertNotNull(obj);
+        pool.release(obj);
+        pool.close();
+    }
+}